@@ -0,0 +1,17 @@
+@echo off
+rem Launches the Flight Tracker CLI with the startup options suited to short runs.
+rem Uses the class-data sharing archive from "mvn -Pcds package" when it exists; extra JVM options
+rem can be passed in FLIGHTTRACKER_JAVA_OPTS. All arguments go to the CLI.
+setlocal
+set "HOME_DIR=%~dp0.."
+set "JAR=%HOME_DIR%\target\flighttracker-cli-1.0-SNAPSHOT-jar-with-dependencies.jar"
+set "ARCHIVE=%HOME_DIR%\target\flighttracker-cli.jsa"
+set "JAVA=java"
+if defined JAVA_HOME set "JAVA=%JAVA_HOME%\bin\java"
+
+rem Serial GC and C1-only compilation start fastest; large bulk sweeps may prefer the JVM defaults.
+rem JVM warnings (e.g. an archive left over from another build) go to stderr, never into the results.
+set "OPTS=-XX:+UseSerialGC -XX:TieredStopAtLevel=1 -Xlog:disable -Xlog:all=warning:stderr"
+if exist "%ARCHIVE%" set "OPTS=%OPTS% -XX:SharedArchiveFile=%ARCHIVE% -Xshare:auto"
+
+"%JAVA%" %OPTS% %FLIGHTTRACKER_JAVA_OPTS% -jar "%JAR%" %*
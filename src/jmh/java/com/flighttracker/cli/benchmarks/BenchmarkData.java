@@ -0,0 +1,63 @@
+package com.flighttracker.cli.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flighttracker.cli.domain.Aircraft;
+import com.flighttracker.cli.domain.Airport;
+import com.flighttracker.cli.domain.Passenger;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic entity lists and their JSON payloads for the benchmarks.
+ */
+final class BenchmarkData {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String[] AIRLINES = {"United", "Delta", "American", "Air Canada", "WestJet", "Porter"};
+    private static final String[] TYPES = {"Boeing 737", "Boeing 747", "Airbus A320", "Airbus A330", "Embraer E175"};
+
+    private BenchmarkData() {}
+
+    static List<Airport> airports(int count) {
+        List<Airport> airports = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            airports.add(new Airport((long) i, "Airport " + i, code(i)));
+        }
+        return airports;
+    }
+
+    static List<Passenger> passengers(int count) {
+        List<Passenger> passengers = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            passengers.add(new Passenger((long) i, "First" + i, "Last" + (i % 10_000), "555-" + (1000 + i % 9000)));
+        }
+        return passengers;
+    }
+
+    static List<Aircraft> aircrafts(int count) {
+        List<Aircraft> aircrafts = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            aircrafts.add(new Aircraft((long) i, TYPES[i % TYPES.length], AIRLINES[i % AIRLINES.length], 50 + i % 400));
+        }
+        return aircrafts;
+    }
+
+    static String json(Object value) {
+        try {
+            return MAPPER.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Three-letter airport code derived from the ID
+    private static String code(int id) {
+        char[] code = new char[3];
+        for (int i = 2; i >= 0; i--) {
+            code[i] = (char) ('A' + id % 26);
+            id /= 26;
+        }
+        return new String(code);
+    }
+}
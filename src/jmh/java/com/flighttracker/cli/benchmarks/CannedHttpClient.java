@@ -0,0 +1,99 @@
+package com.flighttracker.cli.benchmarks;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSession;
+import java.io.IOException;
+import java.net.Authenticator;
+import java.net.CookieHandler;
+import java.net.ProxySelector;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+
+/**
+ * HttpClient that answers every request with the same 200 body from memory, so benchmarks measure
+ * RESTClient's own work (request building, body handling, deserialization) and not the network.
+ */
+final class CannedHttpClient extends HttpClient {
+    private static final HttpHeaders HEADERS = HttpHeaders.of(
+            Map.of("Content-Type", List.of("application/json")), (name, value) -> true);
+
+    private volatile byte[] body = new byte[0];
+
+    void setBody(String json) {
+        this.body = json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> handler) throws IOException {
+        return new CannedResponse<>(request, deliver(handler));
+    }
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request, HttpResponse.BodyHandler<T> handler) {
+        return CompletableFuture.completedFuture(new CannedResponse<>(request, deliver(handler)));
+    }
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request, HttpResponse.BodyHandler<T> handler,
+                                                            HttpResponse.PushPromiseHandler<T> pushPromiseHandler) {
+        return sendAsync(request, handler);
+    }
+
+    // Pushes the body through the handler's subscriber exactly like the real client does
+    private <T> T deliver(HttpResponse.BodyHandler<T> handler) {
+        HttpResponse.BodySubscriber<T> subscriber = handler.apply(new HttpResponse.ResponseInfo() {
+            @Override public int statusCode() { return 200; }
+            @Override public HttpHeaders headers() { return HEADERS; }
+            @Override public Version version() { return Version.HTTP_1_1; }
+        });
+        subscriber.onSubscribe(new Flow.Subscription() {
+            @Override public void request(long n) {}
+            @Override public void cancel() {}
+        });
+        subscriber.onNext(List.of(ByteBuffer.wrap(body)));
+        subscriber.onComplete();
+        return subscriber.getBody().toCompletableFuture().join();
+    }
+
+    @Override public Optional<CookieHandler> cookieHandler() { return Optional.empty(); }
+    @Override public Optional<Duration> connectTimeout() { return Optional.empty(); }
+    @Override public Redirect followRedirects() { return Redirect.NEVER; }
+    @Override public Optional<ProxySelector> proxy() { return Optional.empty(); }
+    @Override public SSLContext sslContext() { return null; }
+    @Override public SSLParameters sslParameters() { return null; }
+    @Override public Optional<Authenticator> authenticator() { return Optional.empty(); }
+    @Override public Version version() { return Version.HTTP_1_1; }
+    @Override public Optional<Executor> executor() { return Optional.empty(); }
+
+    private static final class CannedResponse<T> implements HttpResponse<T> {
+        private final HttpRequest request;
+        private final T body;
+
+        private CannedResponse(HttpRequest request, T body) {
+            this.request = request;
+            this.body = body;
+        }
+
+        @Override public int statusCode() { return 200; }
+        @Override public HttpRequest request() { return request; }
+        @Override public Optional<HttpResponse<T>> previousResponse() { return Optional.empty(); }
+        @Override public HttpHeaders headers() { return HEADERS; }
+        @Override public T body() { return body; }
+        @Override public Optional<SSLSession> sslSession() { return Optional.empty(); }
+        @Override public URI uri() { return request.uri(); }
+        @Override public HttpClient.Version version() { return HttpClient.Version.HTTP_1_1; }
+    }
+}
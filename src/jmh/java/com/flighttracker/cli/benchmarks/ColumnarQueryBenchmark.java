@@ -0,0 +1,68 @@
+package com.flighttracker.cli.benchmarks;
+
+import com.flighttracker.cli.columnar.ColumnTable;
+import com.flighttracker.cli.columnar.ColumnTables;
+import com.flighttracker.cli.columnar.TableQuery;
+import com.flighttracker.cli.domain.Aircraft;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * "Passengers per airline for large aircraft": a loop over {@code List<Aircraft>} against the
+ * parallel columnar scan of {@link TableQuery}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class ColumnarQueryBenchmark {
+
+    @Param({"100000", "1000000"})
+    private int records;
+
+    private List<Aircraft> aircrafts;
+    private ColumnTable table;
+    private TableQuery query;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        aircrafts = BenchmarkData.aircrafts(records);
+        table = ColumnTables.aircrafts().addAll(aircrafts).build();
+        query = TableQuery.parse("aircrafts where numberOfPassengers > 200 group by airlineName count sum numberOfPassengers");
+    }
+
+    @Benchmark
+    public Map<String, long[]> objectLoop() {
+        Map<String, long[]> totals = new HashMap<>();
+        for (Aircraft aircraft : aircrafts) {
+            if (aircraft.getNumberOfPassengers() > 200) {
+                long[] total = totals.computeIfAbsent(aircraft.getAirlineName(), airline -> new long[2]);
+                total[0]++;
+                total[1] += aircraft.getNumberOfPassengers();
+            }
+        }
+        return totals;
+    }
+
+    @Benchmark
+    public TableQuery.QueryResult columnarQuery() {
+        return query.execute(table);
+    }
+}
@@ -0,0 +1,94 @@
+package com.flighttracker.cli.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flighttracker.cli.domain.Airport;
+import com.flighttracker.cli.domain.Passenger;
+import com.flighttracker.cli.domain.PassengerRecord;
+import com.flighttracker.cli.http.client.RESTClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deserialization cost of the list endpoints across payload sizes: the String-based
+ * {@code buildAirportListFromResponse}, the generic request pipeline behind {@code getAll*}
+ * (fed from memory by {@link CannedHttpClient}), binding into the compact records and the token-streaming path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class DeserializationBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int records;
+
+    private String airportsJson;
+    private byte[] passengersJson;
+    private RESTClient airportsClient;
+    private RESTClient passengersClient;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        airportsJson = BenchmarkData.json(BenchmarkData.airports(records));
+        String passengers = BenchmarkData.json(BenchmarkData.passengers(records));
+        passengersJson = passengers.getBytes(StandardCharsets.UTF_8);
+        airportsClient = cannedClient(airportsJson);
+        passengersClient = cannedClient(passengers);
+    }
+
+    private static RESTClient cannedClient(String body) {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        CannedHttpClient httpClient = new CannedHttpClient();
+        httpClient.setBody(body);
+        RESTClient client = new RESTClient(httpClient, objectMapper);
+        client.setServerURL("http://benchmark.invalid");
+        return client;
+    }
+
+    @Benchmark
+    public List<Airport> buildAirportListFromResponse() throws JsonProcessingException {
+        return airportsClient.buildAirportListFromResponse(airportsJson);
+    }
+
+    @Benchmark
+    public List<Airport> getAllAirports() {
+        return airportsClient.getAllAirports();
+    }
+
+    @Benchmark
+    public List<Passenger> getAllPassengers() {
+        return passengersClient.getAllPassengers();
+    }
+
+    @Benchmark
+    public List<PassengerRecord> getAllPassengerRecords() {
+        return passengersClient.getAllPassengerRecords();
+    }
+
+    @Benchmark
+    public long readJsonArrayPassengers(Blackhole blackhole) throws IOException {
+        return passengersClient.readJsonArray(new ByteArrayInputStream(passengersJson), Passenger.class, blackhole::consume);
+    }
+}
@@ -0,0 +1,102 @@
+package com.flighttracker.cli.benchmarks;
+
+import com.flighttracker.cli.domain.Aircraft;
+import com.flighttracker.cli.domain.AircraftRecord;
+import com.flighttracker.cli.domain.Airport;
+import com.flighttracker.cli.domain.AirportRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Cost of {@code equals}/{@code hashCode} on the domain classes when results are collected into
+ * {@code Set}s, as the Q1-Q4 responses are, against the compact records identified by their id alone.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DomainHashingBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int records;
+
+    private List<Airport> airports;
+    private List<Aircraft> aircrafts;
+    private Set<Airport> airportSet;
+    private Airport probe;
+    private List<AirportRecord> airportRecords;
+    private List<AircraftRecord> aircraftRecords;
+    private Set<AirportRecord> airportRecordSet;
+    private AirportRecord recordProbe;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        airports = BenchmarkData.airports(records);
+        aircrafts = BenchmarkData.aircrafts(records);
+        airportSet = new HashSet<>(airports);
+        Airport last = airports.get(records - 1);
+        probe = new Airport(last.getId(), last.getName(), last.getCode()); // equal, but not the same instance
+        airportRecords = airports.stream().map(AirportRecord::of).collect(Collectors.toList());
+        aircraftRecords = aircrafts.stream().map(AircraftRecord::of).collect(Collectors.toList());
+        airportRecordSet = new HashSet<>(airportRecords);
+        recordProbe = AirportRecord.of(last);
+    }
+
+    @Benchmark
+    public Set<Airport> buildAirportSet() {
+        return new HashSet<>(airports);
+    }
+
+    @Benchmark
+    public Set<Aircraft> buildAircraftSet() {
+        return new HashSet<>(aircrafts);
+    }
+
+    @Benchmark
+    public boolean airportSetContains() {
+        return airportSet.contains(probe);
+    }
+
+    @Benchmark
+    public int airportHashCode() {
+        return probe.hashCode();
+    }
+
+    @Benchmark
+    public Set<AirportRecord> buildAirportRecordSet() {
+        return new HashSet<>(airportRecords);
+    }
+
+    @Benchmark
+    public Set<AircraftRecord> buildAircraftRecordSet() {
+        return new HashSet<>(aircraftRecords);
+    }
+
+    @Benchmark
+    public boolean airportRecordSetContains() {
+        return airportRecordSet.contains(recordProbe);
+    }
+
+    @Benchmark
+    public int airportRecordHashCode() {
+        return recordProbe.hashCode();
+    }
+}
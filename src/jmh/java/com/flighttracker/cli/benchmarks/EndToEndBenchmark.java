@@ -0,0 +1,86 @@
+package com.flighttracker.cli.benchmarks;
+
+import com.flighttracker.cli.domain.Airport;
+import com.flighttracker.cli.domain.Passenger;
+import com.flighttracker.cli.http.client.RESTClient;
+import com.flighttracker.cli.stub.FaultInjection;
+import com.flighttracker.cli.stub.StubApiServer;
+import com.flighttracker.cli.stub.SyntheticDataset;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full RESTClient calls over loopback HTTP against {@link StubApiServer}, with {@code records}
+ * airports and passengers. {@code latencyMillis} adds server latency, e.g. to see what the async
+ * and streaming calls hide of it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class EndToEndBenchmark {
+
+    @Param({"1000", "100000"})
+    private int records;
+
+    @Param({"0"})
+    private int latencyMillis;
+
+    private StubApiServer server;
+    private RESTClient restClient;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        server = StubApiServer.start(new SyntheticDataset(SyntheticDataset.DEFAULT_SEED, 10, records, records, 100));
+        server.setFaults(new FaultInjection(Duration.ofMillis(latencyMillis), Duration.ZERO, 0,
+                FaultInjection.DEFAULT_ERROR_STATUS, SyntheticDataset.DEFAULT_SEED));
+        restClient = new RESTClient();
+        restClient.setServerURL(server.baseUrl());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.close();
+    }
+
+    @Benchmark
+    public List<Airport> getAllAirports() {
+        return restClient.getAllAirports();
+    }
+
+    @Benchmark
+    public long streamAllPassengers(Blackhole blackhole) {
+        return restClient.streamAllPassengers(blackhole::consume);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Set<Airport> getAirportsInCity() {
+        return restClient.getAirportsInCity(1L);
+    }
+
+    @Benchmark
+    public List<Passenger> getAllPassengersAsync() {
+        return restClient.getAllPassengersAsync().join();
+    }
+}
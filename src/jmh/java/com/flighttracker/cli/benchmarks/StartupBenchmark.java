@@ -0,0 +1,112 @@
+package com.flighttracker.cli.benchmarks;
+
+import com.flighttracker.cli.stub.StubApiServer;
+import com.flighttracker.cli.stub.SyntheticDataset;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to first result of a fresh CLI process: launches the packaged jar in batch mode against
+ * {@link StubApiServer} and stops the clock when the first record arrives on stdout.
+ * <p>
+ * {@code sharing} selects the class-data sharing setup: {@code off} (-Xshare:off), {@code default}
+ * (the JDK's own archive) or {@code app} (target/flighttracker-cli.jsa from the cds profile; pass
+ * {@code -p sharing=off,default,app} after building with {@code -Pcds}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 10)
+@Fork(1)
+public class StartupBenchmark {
+    private static final Path JAR = Path.of("target", "flighttracker-cli-1.0-SNAPSHOT-jar-with-dependencies.jar");
+    private static final Path ARCHIVE = Path.of("target", "flighttracker-cli.jsa");
+
+    @Param({"off", "default"})
+    private String sharing;
+
+    private StubApiServer server;
+    private List<String> command;
+    private Process process;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        if (!Files.isRegularFile(JAR)) {
+            throw new IllegalStateException(JAR + " is missing; run the package phase first");
+        }
+        server = StubApiServer.start(new SyntheticDataset(SyntheticDataset.DEFAULT_SEED, 1000, 10, 10, 10));
+
+        command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-XX:+UseSerialGC");
+        command.add("-XX:TieredStopAtLevel=1");
+        command.add("-Xlog:disable");
+        command.add("-Xlog:all=warning:stderr");
+        switch (sharing) {
+            case "off":
+                command.add("-Xshare:off");
+                break;
+            case "app":
+                if (!Files.isRegularFile(ARCHIVE)) {
+                    throw new IllegalStateException(ARCHIVE + " is missing; build with -Pcds");
+                }
+                command.add("-XX:SharedArchiveFile=" + ARCHIVE);
+                break;
+            default:
+                break;
+        }
+        command.add("-jar");
+        command.add(JAR.toString());
+        command.add(server.baseUrl());
+        command.add("cities");
+    }
+
+    @TearDown(Level.Invocation)
+    public void stopProcess() throws InterruptedException {
+        if (process != null) {
+            process.destroy();
+            process.waitFor();
+            process = null;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.close();
+    }
+
+    @Benchmark
+    public String timeToFirstResult() throws IOException {
+        process = new ProcessBuilder(command)
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        BufferedReader out = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+        String first = out.readLine();
+        if (first == null) {
+            throw new IllegalStateException("The CLI printed no result");
+        }
+        return first;
+    }
+}
@@ -0,0 +1,57 @@
+package com.flighttracker.cli;
+
+import com.flighttracker.cli.batch.BatchCommand;
+import com.flighttracker.cli.output.OutputFormat;
+import com.flighttracker.cli.stub.StubApiServer;
+import com.flighttracker.cli.stub.SyntheticDataset;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Training run for the application class-data sharing archive built by the {@code cds} profile.
+ * It starts the CLI the way a batch invocation does and runs every command in every output format
+ * against a small in-process {@link StubApiServer}, so the classes a real run loads (HTTP client, Jackson and its
+ * serializers for the domain classes, record writers) end up in the archive. It prints nothing
+ * and exits non-zero if any command failed.
+ */
+public final class CdsTraining {
+    private CdsTraining() {}
+
+    public static void main(String[] args) throws IOException {
+        StubApiServer server = StubApiServer.start(SyntheticDataset.scaled(100));
+        PrintStream console = System.out;
+        int failures = 0;
+        try {
+            System.setOut(System.err);
+            String baseUrl = server.baseUrl();
+            for (OutputFormat format : OutputFormat.values()) {
+                for (BatchCommand.Type type : BatchCommand.Type.values()) {
+                    List<String> words = new ArrayList<>(List.of(baseUrl, type.getName()));
+                    if (type.isKeyed()) {
+                        words.add("1");
+                    }
+                    words.add("--format");
+                    words.add(format.name().toLowerCase(Locale.ROOT));
+                    CommandLineOptions options = CommandLineOptions.parse(words.toArray(new String[0]));
+                    if (HTTPRestCLIApplication.create(options).runBatch(options, OutputStream.nullOutputStream()) != 0) {
+                        failures++;
+                    }
+                }
+            }
+        } finally {
+            System.setOut(console);
+            server.close();
+        }
+        if (failures > 0) {
+            System.err.println("CDS training run: " + failures + " commands failed");
+            System.exit(1);
+        }
+        // The HTTP client's selector thread would otherwise keep the JVM alive for a while
+        System.exit(0);
+    }
+}
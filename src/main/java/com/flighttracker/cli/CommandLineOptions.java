@@ -0,0 +1,272 @@
+package com.flighttracker.cli;
+
+import com.flighttracker.cli.batch.BatchCommand;
+import com.flighttracker.cli.http.client.Pagination;
+import com.flighttracker.cli.http.client.Prefetcher;
+import com.flighttracker.cli.load.IdDistribution;
+import com.flighttracker.cli.load.LoadTest;
+import com.flighttracker.cli.load.OperationMix;
+import com.flighttracker.cli.output.OutputFormat;
+import com.flighttracker.cli.stub.FaultInjection;
+import com.flighttracker.cli.stub.SyntheticDataset;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Command line arguments of the CLI: the API base URL (or {@code --stub}) followed by optional
+ * flags and, for batch mode, a command with its IDs (e.g. {@code airports-in-city 1 2 3}) or, for
+ * a load test, {@code loadtest}.
+ */
+public class CommandLineOptions {
+    public static final String LOAD_TEST = "loadtest";
+
+    private String apiBaseUrl;
+    private boolean cacheEnabled = true;
+    private Path snapshotFile;
+    private boolean offline;
+    private boolean indexedMode;
+    private Path metricsFile;
+    private int maxAttempts = 3;
+    private Duration requestTimeout = Duration.ofSeconds(10);
+    private Duration hedgeDelay;
+    private int requestsPerSecond;
+    private int maxConcurrency = 64;
+    private boolean http2 = true;
+    private boolean compression = true;
+    private Pagination.Style paginationStyle;
+    private int pageSize = Pagination.DEFAULT_PAGE_SIZE;
+    private final List<String> commandWords = new ArrayList<>();
+    private BatchCommand command;
+    private String batchFile;
+    private int parallelism = 8;
+    private OutputFormat format = OutputFormat.TEXT;
+    private boolean prefetch = true;
+    private int prefetchBudgetMegabytes = (int) (Prefetcher.DEFAULT_BUDGET_BYTES >> 20);
+    private boolean stub;
+    private int stubPassengers = SyntheticDataset.DEFAULT_PASSENGERS;
+    private Path stubRecording;
+    private Path recordDirectory;
+    private Duration stubLatency = Duration.ZERO;
+    private Duration stubJitter = Duration.ZERO;
+    private double stubErrorRate;
+    private boolean loadTest;
+    private int targetRate;
+    private int workers;
+    private Duration duration = LoadTest.DEFAULT_DURATION;
+    private Duration warmup = LoadTest.DEFAULT_WARMUP;
+    private Duration reportInterval = LoadTest.DEFAULT_REPORT_INTERVAL;
+    private OperationMix mix = OperationMix.defaults();
+    private IdDistribution idDistribution = IdDistribution.uniform();
+    private int idMax = 1000;
+
+    /**
+     * Parses the arguments passed to main.
+     * @throws IllegalArgumentException If the arguments are invalid or the base URL is missing.
+     */
+    public static CommandLineOptions parse(String[] args) {
+        CommandLineOptions options = new CommandLineOptions();
+        List<String> positional = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            switch (arg) {
+                case "--no-cache": options.cacheEnabled = false; break;
+                case "--snapshot": options.snapshotFile = Path.of(requireValue(args, ++i, arg)); break;
+                case "--offline": options.offline = true; break;
+                case "--mode": options.indexedMode = parseMode(requireValue(args, ++i, arg)); break;
+                case "--metrics-out": options.metricsFile = Path.of(requireValue(args, ++i, arg)); break;
+                case "--retries": options.maxAttempts = 1 + parseCount(requireValue(args, ++i, arg), arg); break;
+                case "--timeout": options.requestTimeout = Duration.ofSeconds(parseCount(requireValue(args, ++i, arg), arg)); break;
+                case "--http1": options.http2 = false; break;
+                case "--no-compression": options.compression = false; break;
+                case "--pagination": options.paginationStyle = parsePaginationStyle(requireValue(args, ++i, arg)); break;
+                case "--page-size": options.pageSize = Math.max(1, parseCount(requireValue(args, ++i, arg), arg)); break;
+                case "--batch": options.batchFile = requireValue(args, ++i, arg); break;
+                case "--format": options.format = OutputFormat.forName(requireValue(args, ++i, arg)); break;
+                case "--parallelism": options.parallelism = Math.max(1, parseCount(requireValue(args, ++i, arg), arg)); break;
+                case "--rate": options.requestsPerSecond = parseCount(requireValue(args, ++i, arg), arg); break;
+                case "--max-concurrency": options.maxConcurrency = parseCount(requireValue(args, ++i, arg), arg); break;
+                case "--no-prefetch": options.prefetch = false; break;
+                case "--prefetch-budget": options.prefetchBudgetMegabytes = parseCount(requireValue(args, ++i, arg), arg); break;
+                case "--stub": options.stub = true; break;
+                case "--stub-recording": options.stub = true; options.stubRecording = Path.of(requireValue(args, ++i, arg)); break;
+                case "--record": options.recordDirectory = Path.of(requireValue(args, ++i, arg)); break;
+                case "--stub-latency": options.stubLatency = Duration.ofMillis(parseCount(requireValue(args, ++i, arg), arg)); break;
+                case "--stub-jitter": options.stubJitter = Duration.ofMillis(parseCount(requireValue(args, ++i, arg), arg)); break;
+                case "--stub-error-rate": options.stubErrorRate = parseFraction(requireValue(args, ++i, arg), arg); break;
+                case "--stub-passengers": options.stubPassengers = Math.max(1, parseCount(requireValue(args, ++i, arg), arg)); break;
+                case "--qps": options.targetRate = parseCount(requireValue(args, ++i, arg), arg); break;
+                case "--workers": options.workers = parseCount(requireValue(args, ++i, arg), arg); break;
+                case "--duration": options.duration = Duration.ofSeconds(Math.max(1, parseCount(requireValue(args, ++i, arg), arg))); break;
+                case "--warmup": options.warmup = Duration.ofSeconds(parseCount(requireValue(args, ++i, arg), arg)); break;
+                case "--report-every": options.reportInterval = Duration.ofSeconds(Math.max(1, parseCount(requireValue(args, ++i, arg), arg))); break;
+                case "--mix": options.mix = OperationMix.parse(requireValue(args, ++i, arg)); break;
+                case "--ids": options.idDistribution = IdDistribution.parse(requireValue(args, ++i, arg)); break;
+                case "--id-max": options.idMax = Math.max(1, parseCount(requireValue(args, ++i, arg), arg)); break;
+                case "--hedge-after": options.hedgeDelay = Duration.ofMillis(parseCount(requireValue(args, ++i, arg), arg)); break;
+                default:
+                    if (arg.startsWith("--")) {
+                        throw new IllegalArgumentException("Unknown option: " + arg);
+                    }
+                    if (arg.equals(LOAD_TEST)) {
+                        options.loadTest = true;
+                    } else {
+                        positional.add(arg);
+                    }
+            }
+        }
+        // With --stub the URL is the stub's, known once it has started
+        if (!options.stub) {
+            if (positional.isEmpty()) {
+                throw new IllegalArgumentException("Missing API base URL");
+            }
+            options.apiBaseUrl = positional.remove(0);
+        }
+        options.commandWords.addAll(positional);
+        if (options.loadTest) {
+            if (!options.commandWords.isEmpty() || options.batchFile != null) {
+                throw new IllegalArgumentException("Give either a command, --batch <file> or " + LOAD_TEST + ", not more than one");
+            }
+            if (options.targetRate == 0 && options.workers == 0) {
+                throw new IllegalArgumentException(LOAD_TEST + " needs --qps <n> (open loop), --workers <n> (closed loop) or both");
+            }
+        }
+        if (options.offline && (options.stub || options.recordDirectory != null)) {
+            throw new IllegalArgumentException("--offline cannot be combined with --stub or --record");
+        }
+        if (options.stub && options.recordDirectory != null) {
+            throw new IllegalArgumentException("--record captures a real API; it cannot be combined with --stub");
+        }
+        if (!options.getStubFaults().isNone() && !options.stub && options.recordDirectory == null) {
+            throw new IllegalArgumentException("--stub-latency, --stub-jitter and --stub-error-rate need --stub or --record");
+        }
+        if (!options.commandWords.isEmpty()) {
+            if (options.batchFile != null) {
+                throw new IllegalArgumentException("Give either a command or --batch <file>, not both");
+            }
+            options.command = BatchCommand.parse(options.commandWords);
+        }
+        if (options.offline && options.snapshotFile == null) {
+            throw new IllegalArgumentException("--offline requires --snapshot <file>");
+        }
+        return options;
+    }
+
+    private static boolean parseMode(String mode) {
+        switch (mode) {
+            case "remote": return false;
+            case "indexed": return true;
+            default: throw new IllegalArgumentException("Unknown mode: " + mode + " (expected remote or indexed)");
+        }
+    }
+
+    private static Pagination.Style parsePaginationStyle(String style) {
+        switch (style) {
+            case "page": return Pagination.Style.PAGE;
+            case "offset": return Pagination.Style.OFFSET;
+            case "cursor": return Pagination.Style.CURSOR;
+            default: throw new IllegalArgumentException("Unknown pagination: " + style + " (expected page, offset or cursor)");
+        }
+    }
+
+    private static int parseCount(String value, String option) {
+        try {
+            int count = Integer.parseInt(value);
+            if (count >= 0) {
+                return count;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException("Invalid value for " + option + ": " + value);
+    }
+
+    private static double parseFraction(String value, String option) {
+        try {
+            double fraction = Double.parseDouble(value);
+            if (fraction >= 0 && fraction <= 1) {
+                return fraction;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException("Invalid value for " + option + " (expected 0 to 1): " + value);
+    }
+
+    private static String requireValue(String[] args, int index, String option) {
+        if (index >= args.length || args[index].startsWith("--")) {
+            throw new IllegalArgumentException("Missing value for " + option);
+        }
+        return args[index];
+    }
+
+    public String getApiBaseUrl() { return apiBaseUrl; }
+    // Points the CLI at the embedded stub once it has started
+    void setApiBaseUrl(String apiBaseUrl) { this.apiBaseUrl = apiBaseUrl; }
+    public boolean isCacheEnabled() { return cacheEnabled; }
+    public Path getSnapshotFile() { return snapshotFile; }
+    public boolean isOffline() { return offline; }
+    // Whether Q1-Q4 are answered from the local relationship index instead of the API
+    public boolean isIndexedMode() { return indexedMode; }
+    // File the request metrics are written to, in Prometheus text format, when the CLI exits
+    public Path getMetricsFile() { return metricsFile; }
+    // Attempts per request, the first one included
+    public int getMaxAttempts() { return maxAttempts; }
+    // Null when --timeout 0 disables the per-request timeout
+    public Duration getRequestTimeout() { return requestTimeout.isZero() ? null : requestTimeout; }
+    // Null unless --hedge-after is given
+    public Duration getHedgeDelay() { return hedgeDelay; }
+    // Requests per second sent to the API, 0 when --rate does not cap it
+    public int getRequestsPerSecond() { return requestsPerSecond; }
+    // Upper bound of the adaptive concurrency limit, 0 when --max-concurrency 0 disables it
+    public int getMaxConcurrency() { return maxConcurrency; }
+    // Whether HTTP/2 is offered to the server; --http1 sticks to HTTP/1.1
+    public boolean isHttp2() { return http2; }
+    public boolean isCompression() { return compression; }
+    // Whether to run commands instead of the interactive menu
+    public boolean isBatchMode() { return command != null || batchFile != null; }
+    // The command given on the command line, or null
+    public BatchCommand getCommand() { return command; }
+    // File with one command per line, "-" for standard input, or null
+    public String getBatchFile() { return batchFile; }
+    // Q1-Q4 lookups run concurrently in batch mode
+    public int getParallelism() { return parallelism; }
+    // Output format of batch mode
+    public OutputFormat getFormat() { return format; }
+    // Whether the interactive menu warms the cache in the background with likely next requests
+    public boolean isPrefetch() { return prefetch; }
+    // Estimated heap the prefetched data may take up in the cache, --prefetch-budget in MiB
+    public long getPrefetchBudgetBytes() { return (long) prefetchBudgetMegabytes << 20; }
+    // Whether to start the embedded stub API and use it instead of a base URL
+    public boolean isStub() { return stub; }
+    // Size of the stub's synthetic data
+    public int getStubPassengers() { return stubPassengers; }
+    // Recording the stub replays instead of synthetic data, or null
+    public Path getStubRecording() { return stubRecording; }
+    // Directory the responses of the real API are recorded to through a local proxy, or null
+    public Path getRecordDirectory() { return recordDirectory; }
+
+    // Latency and errors added by the stub or the recording proxy
+    public FaultInjection getStubFaults() {
+        return new FaultInjection(stubLatency, stubJitter, stubErrorRate, FaultInjection.DEFAULT_ERROR_STATUS, SyntheticDataset.DEFAULT_SEED);
+    }
+    // Whether to run a load test instead of the menu or batch commands
+    public boolean isLoadTest() { return loadTest; }
+    // Load test operations per second, 0 when --qps is not given
+    public int getTargetRate() { return targetRate; }
+    // Closed-loop load test workers, 0 for an open loop
+    public int getWorkers() { return workers; }
+    public Duration getDuration() { return duration; }
+    public Duration getWarmup() { return warmup; }
+    public Duration getReportInterval() { return reportInterval; }
+    public OperationMix getMix() { return mix; }
+    public IdDistribution getIdDistribution() { return idDistribution; }
+    // Highest ID a load test asks for when the API is not the stub, whose data has known sizes
+    public int getIdMax() { return idMax; }
+    // Null unless --pagination is given, in which case the list endpoints are fetched page by page
+    public Pagination getPagination() {
+        return paginationStyle != null ? new Pagination(paginationStyle, pageSize) : null;
+    }
+}
@@ -1,24 +1,100 @@
 package com.flighttracker.cli;
 
+import com.flighttracker.cli.batch.BatchCommand;
+import com.flighttracker.cli.batch.BatchRunner;
+import com.flighttracker.cli.columnar.ColumnTable;
+import com.flighttracker.cli.columnar.ColumnTables;
+import com.flighttracker.cli.columnar.TableQuery;
 import com.flighttracker.cli.domain.Aircraft;
 import com.flighttracker.cli.domain.Airport;
 import com.flighttracker.cli.domain.City;
 import com.flighttracker.cli.domain.Passenger;
+import com.flighttracker.cli.domain.RelationshipQueries;
+import com.flighttracker.cli.http.client.BulkResult;
+import com.flighttracker.cli.http.client.CircuitBreaker;
+import com.flighttracker.cli.http.client.ConcurrencyLimit;
+import com.flighttracker.cli.http.client.HttpClientProfile;
+import com.flighttracker.cli.http.client.Prefetcher;
 import com.flighttracker.cli.http.client.RESTClient;
+import com.flighttracker.cli.http.client.RESTClientException;
+import com.flighttracker.cli.http.client.RateLimiter;
+import com.flighttracker.cli.http.client.ResponseCache;
+import com.flighttracker.cli.http.client.RetryPolicy;
+import com.flighttracker.cli.http.client.SingleFlight;
+import com.flighttracker.cli.index.RelationshipGraph;
+import com.flighttracker.cli.index.RelationshipIndex;
+import com.flighttracker.cli.load.LoadOperation;
+import com.flighttracker.cli.load.LoadReport;
+import com.flighttracker.cli.load.LoadTest;
+import com.flighttracker.cli.metrics.RequestMetrics;
+import com.flighttracker.cli.output.OutputFormat;
+import com.flighttracker.cli.output.RecordWriter;
+import com.flighttracker.cli.search.EntitySearch;
+import com.flighttracker.cli.search.SearchIndex;
+import com.flighttracker.cli.store.Snapshot;
+import com.flighttracker.cli.store.SnapshotRefresher;
+import com.flighttracker.cli.store.SnapshotStore;
+import com.flighttracker.cli.stub.Recording;
+import com.flighttracker.cli.stub.StubApiServer;
+import com.flighttracker.cli.stub.SyntheticDataset;
+import com.flighttracker.cli.sync.ChangeEvent;
+import com.flighttracker.cli.sync.ChangeFeedSync;
+import com.flighttracker.cli.sync.ChangeListener;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
 
 public class HTTPRestCLIApplication {
+    private static final int MAX_FAILURES_SHOWN = 20;
+    private static final int MAX_CHANGES_SHOWN = 20;
+    // Upper bound for a typed ID list, so a range such as 1-9999999999 cannot exhaust the heap
+    private static final int MAX_SWEEP_IDS = 1_000_000;
+    private static final int MAX_SEARCH_RESULTS = 20;
+    private static final int MAX_PREFETCHED_AIRCRAFTS = 8;
+    // Size the budget is checked against before a Q2-Q4 answer is prefetched; they hold a handful of records
+    private static final int EXPECTED_RELATED_RECORDS = 16;
 
     private RESTClient restClient;
-    private final Scanner scanner;
+    private Scanner scanner;
+    private SnapshotStore snapshotStore;
+    private Snapshot snapshot;
+    private ChangeFeedSync changeFeed;
+    private RelationshipIndex index;
+    private RelationshipGraph graph;
+    private EntitySearch search;
+    private boolean indexedMode;
+    private Prefetcher prefetcher;
+    private final Map<String, ColumnTable> columnTables = new HashMap<>();
 
     // Constructor for dependency injection (useful for testing)
     public HTTPRestCLIApplication(RESTClient restClient) {
         this.restClient = restClient;
-        this.scanner = new Scanner(System.in);
+    }
+
+    // Created on first interactive use; batch runs read nothing from the console
+    private Scanner scanner() {
+        if (scanner == null) {
+            scanner = new Scanner(System.in);
+        }
+        return scanner;
     }
 
     // Getter for RESTClient (matching example's pattern)
@@ -34,29 +110,238 @@ public class HTTPRestCLIApplication {
         this.restClient = restClient;
     }
 
+    public SnapshotStore getSnapshotStore() {
+        return snapshotStore;
+    }
+
+    // Snapshot file used for warm starts, offline queries and the refresh menu option
+    public void setSnapshotStore(SnapshotStore snapshotStore) {
+        this.snapshotStore = snapshotStore;
+    }
+
+    public Prefetcher getPrefetcher() {
+        return prefetcher;
+    }
+
+    // Warms the response cache while the menu waits for input; null turns prefetching off
+    public void setPrefetcher(Prefetcher prefetcher) {
+        this.prefetcher = prefetcher;
+    }
+
     public static void main(String[] args) {
         // IMPORTANT: Ensure your Spring Boot API is running before starting this CLI!
         // You need to run your Spring Boot app in its own terminal/IDE first:
         // Navigate to your API project directory and run: mvn spring-boot:run
 
-        if (args.length < 1) {
-            System.err.println("Usage: java -jar flighttracker-cli-1.0-SNAPSHOT-jar-with-dependencies.jar <API_BASE_URL>");
+        CommandLineOptions options;
+        try {
+            options = CommandLineOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.err.println("Usage: java -jar flighttracker-cli-1.0-SNAPSHOT-jar-with-dependencies.jar {<API_BASE_URL> [--record <dir>] | --stub [--stub-passengers <n>] | --stub-recording <dir>} [--stub-latency <millis>] [--stub-jitter <millis>] [--stub-error-rate <0-1>] [--no-cache] [--no-prefetch] [--prefetch-budget <MiB>] [--snapshot <file> [--offline]] [--mode remote|indexed] [--metrics-out <file>] [--retries <n>] [--timeout <seconds>] [--hedge-after <millis>] [--rate <n>] [--max-concurrency <n>] [--http1] [--no-compression] [--pagination page|offset|cursor [--page-size <n>]] [--parallelism <n>] [--format text|ndjson|csv|table|binary] [<command> <ids...> | --batch <file> | loadtest [--qps <n>] [--workers <n>] [--duration <seconds>] [--warmup <seconds>] [--report-every <seconds>] [--mix <operation=weight,...>] [--ids uniform|zipf[:exponent]] [--id-max <n>]]");
+            System.err.println("Commands: " + BatchCommand.Type.names());
+            System.err.println("Load test operations: " + LoadOperation.names());
             System.err.println("Example: java -jar flighttracker-cli-1.0-SNAPSHOT-jar-with-dependencies.jar http://localhost:8080");
-            System.exit(1);
+            System.exit(BatchRunner.EXIT_USAGE);
+            return;
+        }
+
+        // In batch mode stdout carries only results, written to the file descriptor directly;
+        // snapshot and diagnostic messages go to stderr
+        if (options.isBatchMode()) {
+            System.setOut(System.err);
+        }
+
+        StubApiServer stub = null;
+        if (options.isStub() || options.getRecordDirectory() != null) {
+            try {
+                stub = startStub(options);
+            } catch (IOException e) {
+                System.err.println("Error: Could not start the stub API: " + e.getMessage());
+                System.exit(BatchRunner.EXIT_USAGE);
+                return;
+            }
+            options.setApiBaseUrl(stub.baseUrl());
         }
 
-        String apiBaseUrl = args[0]; // Get API base URL from command line argument
+        HTTPRestCLIApplication cliApp = create(options);
+        RESTClient restClient = cliApp.getRestClient();
 
-        HTTPRestCLIApplication cliApp = new HTTPRestCLIApplication(new RESTClient());
-        cliApp.getRestClient().setServerURL(apiBaseUrl);
+        if (options.isLoadTest()) {
+            // The stub knows how many of each entity it has; a real API gets IDs up to --id-max
+            SyntheticDataset dataset = stub != null ? stub.getDataset() : null;
+            int exitCode = cliApp.runLoadTest(options, dataset != null ? dataset::getCount : entity -> options.getIdMax(), System.out);
+            writeMetrics(restClient, options);
+            if (stub != null) {
+                stub.close();
+            }
+            System.exit(exitCode);
+            return;
+        }
+
+        if (options.isBatchMode()) {
+            int exitCode = cliApp.runBatch(options, OutputFormat.stdout());
+            writeMetrics(restClient, options);
+            System.exit(exitCode);
+            return;
+        }
 
         System.out.println("=========================================");
         System.out.println("  Welcome to Flight Tracker CLI Client!  ");
         System.out.println("=========================================");
-        System.out.println("Connecting to API at: " + apiBaseUrl);
+        System.out.println(options.isOffline() ? "Offline mode: answering from snapshot " + options.getSnapshotFile()
+                : "Connecting to API at: " + options.getApiBaseUrl());
         System.out.println("-----------------------------------------");
 
         cliApp.runInteractiveMenu(); // Start the interactive menu
+        writeMetrics(restClient, options);
+        if (stub != null) {
+            stub.close();
+        }
+    }
+
+    /**
+     * Starts the embedded stand-in API the options ask for: generated data, a recording to replay,
+     * or a proxy that records the real API's responses. Describes it on stderr.
+     */
+    static StubApiServer startStub(CommandLineOptions options) throws IOException {
+        StubApiServer stub;
+        String source;
+        if (options.getRecordDirectory() != null) {
+            Recording recording = Recording.open(options.getRecordDirectory());
+            stub = StubApiServer.record(options.getApiBaseUrl(), recording);
+            source = "Recording responses of " + options.getApiBaseUrl() + " to " + recording + " through";
+        } else if (options.getStubRecording() != null) {
+            Recording recording = Recording.load(options.getStubRecording());
+            stub = StubApiServer.replay(recording);
+            source = "Stub API replaying " + recording + " at";
+        } else {
+            stub = StubApiServer.start(SyntheticDataset.scaled(options.getStubPassengers()));
+            source = "Stub API with " + stub.getDataset() + " at";
+        }
+        stub.setFaults(options.getStubFaults());
+        System.err.println(source + " " + stub.baseUrl() + (stub.getFaults().isNone() ? "" : ", " + stub.getFaults()));
+        return stub;
+    }
+
+    /**
+     * Wires the REST client and the application from the command line options, loading the snapshot
+     * and building the index if they ask for it.
+     */
+    static HTTPRestCLIApplication create(CommandLineOptions options) {
+        HttpClientProfile profile = HttpClientProfile.defaults();
+        profile.setVersion(options.isHttp2() ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1);
+        profile.setRequestTimeout(options.getRequestTimeout());
+        profile.setCompression(options.isCompression());
+        RESTClient restClient = new RESTClient(profile);
+        restClient.setServerURL(options.getApiBaseUrl());
+        restClient.setMetrics(new RequestMetrics());
+        restClient.setRetryPolicy(new RetryPolicy(options.getMaxAttempts(), Duration.ofMillis(200), Duration.ofSeconds(5)));
+        restClient.setCircuitBreaker(new CircuitBreaker(5, Duration.ofSeconds(30)));
+        restClient.setHedgeDelay(options.getHedgeDelay());
+        restClient.setPagination(options.getPagination());
+        restClient.setSingleFlight(new SingleFlight());
+        configureLimits(restClient, options);
+        if (options.isCacheEnabled()) {
+            restClient.setResponseCache(createResponseCache(ResponseCache.DEFAULT_MAX_ENTRIES));
+            restClient.setConditionalRequests(true);
+        }
+        restClient.setOffline(options.isOffline());
+        HTTPRestCLIApplication cliApp = new HTTPRestCLIApplication(restClient);
+        if (options.getSnapshotFile() != null) {
+            cliApp.setSnapshotStore(new SnapshotStore(options.getSnapshotFile()));
+            cliApp.loadSnapshot();
+        }
+        if (options.isIndexedMode()) {
+            cliApp.setIndexedMode(true);
+        }
+        // Only the menu leaves time between requests; a prefetch can only help if its result is cached
+        if (options.isPrefetch() && !options.isBatchMode() && !options.isLoadTest() && !options.isOffline() && restClient.getResponseCache() != null) {
+            cliApp.setPrefetcher(new Prefetcher(restClient, options.getPrefetchBudgetBytes(), Prefetcher.DEFAULT_MAX_IN_FLIGHT));
+        }
+        return cliApp;
+    }
+
+    private static void writeMetrics(RESTClient restClient, CommandLineOptions options) {
+        if (options.getMetricsFile() != null) {
+            try {
+                restClient.getMetrics().writePrometheus(options.getMetricsFile());
+                System.out.println("Request metrics written to " + options.getMetricsFile());
+            } catch (IOException e) {
+                System.err.println("Could not write metrics to " + options.getMetricsFile() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Runs the command given on the command line, or every command of the batch file, and prints
+     * the results to {@code out} in the chosen output format, without any menu.
+     * @return The process exit code, see {@link BatchRunner}.
+     */
+    public int runBatch(CommandLineOptions options, OutputStream out) {
+        List<BatchCommand> commands;
+        if (options.getCommand() != null) {
+            commands = List.of(options.getCommand());
+        } else {
+            try (BufferedReader reader = options.getBatchFile().equals("-")
+                    ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                    : Files.newBufferedReader(Path.of(options.getBatchFile()))) {
+                commands = BatchCommand.parseAll(reader);
+            } catch (IOException e) {
+                System.err.println("Error: Could not read " + options.getBatchFile() + ": " + e.getMessage());
+                return BatchRunner.EXIT_USAGE;
+            } catch (IllegalArgumentException e) {
+                System.err.println("Error: " + options.getBatchFile() + ": " + e.getMessage());
+                return BatchRunner.EXIT_USAGE;
+            }
+        }
+        try (RecordWriter writer = options.getFormat().open(out)) {
+            BatchRunner runner = new BatchRunner(getRestClient(), indexedMode ? index : null, options.getParallelism(), writer, System.err);
+            return runner.run(commands);
+        } catch (IOException e) {
+            System.err.println("Error: Could not write output: " + e.getMessage());
+            return BatchRunner.EXIT_FAILURES;
+        }
+    }
+
+    /**
+     * Replays the load test mix against the API through this client and prints the report to
+     * {@code out}.
+     * @param maxIds Highest ID of an entity list, e.g. "passengers".
+     * @return {@link BatchRunner#EXIT_OK} when every operation succeeded, {@link BatchRunner#EXIT_FAILURES} otherwise.
+     */
+    public int runLoadTest(CommandLineOptions options, ToLongFunction<String> maxIds, PrintStream out) {
+        LoadTest loadTest = new LoadTest(getRestClient(), options.getMix(), options.getIdDistribution(), maxIds);
+        loadTest.setTargetRate(options.getTargetRate());
+        loadTest.setWorkers(options.getWorkers());
+        loadTest.setDuration(options.getDuration());
+        loadTest.setWarmup(options.getWarmup());
+        loadTest.setReportInterval(options.getReportInterval());
+        if (getRestClient().getResponseCache() != null) {
+            out.println("Note: repeated requests are answered from the response cache; use --no-cache to load the API itself");
+        }
+        LoadReport report;
+        try {
+            report = loadTest.run(out);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return BatchRunner.EXIT_FAILURES;
+        }
+        out.println();
+        out.print(report.format());
+        return report.getErrorCount() == 0 && report.getUnfinishedCount() == 0 ? BatchRunner.EXIT_OK : BatchRunner.EXIT_FAILURES;
+    }
+
+    /**
+     * Reference data (cities, airports, aircrafts) barely changes, passengers change more often.
+     */
+    private static ResponseCache createResponseCache(int maxEntries) {
+        ResponseCache cache = new ResponseCache(maxEntries);
+        cache.setTtl("/cities", Duration.ofMinutes(30));
+        cache.setTtl("/airports", Duration.ofMinutes(30));
+        cache.setTtl("/aircrafts", Duration.ofMinutes(30));
+        cache.setTtl("/passengers", Duration.ofMinutes(1));
+        return cache;
     }
 
     /**
@@ -65,9 +350,14 @@ public class HTTPRestCLIApplication {
     public void runInteractiveMenu() {
         int choice;
         do {
+            prefetchLists();
             displayMenu();
             System.out.print("Enter your choice: ");
             choice = getUserChoice();
+            if (prefetcher != null) {
+                // What the user asks for now goes first
+                prefetcher.cancelPending();
+            }
 
             switch (choice) {
                 case 1: getAllCities(); break;
@@ -78,13 +368,29 @@ public class HTTPRestCLIApplication {
                 case 6: getAircraftsFlownByPassenger(); break; // Q2
                 case 7: getAirportsByAircraft(); break; // Q3
                 case 8: getAirportsUsedByPassenger(); break; // Q4
+                case 9: runBulkSweep(); break;
+                case 10: showCacheStatistics(); break;
+                case 11: clearCache(); break;
+                case 12: refreshSnapshot(); break;
+                case 13: setIndexedMode(!indexedMode); break;
+                case 14: showMetrics(); break;
+                case 15: exportRecords(); break;
+                case 16: queryTables(); break;
+                case 17: showReachableAirports(); break;
+                case 18: showTopAirports(); break;
+                case 19: showPassengersSharingAircraft(); break;
+                case 20: syncChanges(); break;
+                case 21: searchByName(); break;
                 case 0: System.out.println("Exiting Flight Tracker CLI. Goodbye!"); break;
                 default: System.out.println("Invalid choice. Please try again.");
             }
             System.out.println("\n-----------------------------------------");
         } while (choice != 0);
 
-        scanner.close(); // Close the scanner when done
+        if (prefetcher != null) {
+            prefetcher.close();
+        }
+        scanner().close(); // Close the scanner when done
     }
 
     /**
@@ -96,11 +402,33 @@ public class HTTPRestCLIApplication {
         System.out.println("2. Get All Airports");
         System.out.println("3. Get All Passengers");
         System.out.println("4. Get All Aircrafts");
-        System.out.println("--- Assignment Questions ---");
+        System.out.println("--- Assignment Questions (" + (indexedMode ? "indexed" : "remote") + " mode) ---");
         System.out.println("5. Q1: Get Airports in a City");
         System.out.println("6. Q2: Get Aircrafts flown by a Passenger");
         System.out.println("7. Q3: Get Airports used by an Aircraft");
         System.out.println("8. Q4: Get Airports used by a Passenger");
+        System.out.println("--- Bulk Queries ---");
+        System.out.println("9. Run a Q1-Q4 sweep over many IDs");
+        System.out.println("--- Cache ---");
+        System.out.println("10. Show cache statistics");
+        System.out.println("11. Clear cache");
+        System.out.println("--- Snapshot ---");
+        System.out.println("12. Refresh snapshot from API and save");
+        System.out.println("13. Switch Q1-Q4 between remote and indexed mode");
+        System.out.println("--- Diagnostics ---");
+        System.out.println("14. Show request metrics");
+        System.out.println("--- Export ---");
+        System.out.println("15. Export all cities, airports, passengers or aircrafts to a file");
+        System.out.println("--- Analytics ---");
+        System.out.println("16. Filter, group and aggregate a table (e.g. aircrafts group by airlineName sum numberOfPassengers)");
+        System.out.println("--- Graph ---");
+        System.out.println("17. Airports reachable from a city via shared aircraft");
+        System.out.println("18. Top airports by distinct passengers");
+        System.out.println("19. Passengers who share aircraft with a passenger");
+        System.out.println("--- Sync ---");
+        System.out.println("20. Apply changes from the API's change feed to the local data");
+        System.out.println("--- Search ---");
+        System.out.println("21. Find airports, cities or passengers by name and query them");
         System.out.println("0. Exit");
     }
 
@@ -109,13 +437,13 @@ public class HTTPRestCLIApplication {
      * @return The user's integer choice.
      */
     private int getUserChoice() {
-        while (!scanner.hasNextInt()) {
+        while (!scanner().hasNextInt()) {
             System.out.println("Invalid input. Please enter a number.");
-            scanner.next(); // Consume the invalid input
+            scanner().next(); // Consume the invalid input
             System.out.print("Enter your choice: ");
         }
-        int choice = scanner.nextInt();
-        scanner.nextLine(); // Consume the rest of the line (newline character)
+        int choice = scanner().nextInt();
+        scanner().nextLine(); // Consume the rest of the line (newline character)
         return choice;
     }
 
@@ -126,7 +454,7 @@ public class HTTPRestCLIApplication {
      */
     private Long getUserIdInput(String prompt) {
         System.out.print(prompt);
-        String input = scanner.nextLine().trim();
+        String input = scanner().nextLine().trim();
         try {
             return Long.parseLong(input);
         } catch (NumberFormatException e) {
@@ -137,42 +465,40 @@ public class HTTPRestCLIApplication {
 
     // --- CLI Actions (Calling RESTClient methods) ---
 
+    // The list actions stream: records are printed as they arrive rather than after the whole list is buffered
+
     private void getAllCities() {
         System.out.println("Fetching all cities...");
-        List<City> cities = getRestClient().getAllCities();
-        if (!cities.isEmpty()) {
-            cities.forEach(System.out::println);
-        } else {
+        awaitPrefetch("/cities");
+        long count = getRestClient().streamAllCities(System.out::println);
+        if (count == 0) {
             System.out.println("No cities found or API error occurred.");
         }
     }
 
     private void getAllAirports() {
         System.out.println("Fetching all airports...");
-        List<Airport> airports = getRestClient().getAllAirports();
-        if (!airports.isEmpty()) {
-            airports.forEach(System.out::println);
-        } else {
+        awaitPrefetch("/airports");
+        long count = getRestClient().streamAllAirports(System.out::println);
+        if (count == 0) {
             System.out.println("No airports found or API error occurred.");
         }
     }
 
     private void getAllPassengers() {
         System.out.println("Fetching all passengers...");
-        List<Passenger> passengers = getRestClient().getAllPassengers();
-        if (!passengers.isEmpty()) {
-            passengers.forEach(System.out::println);
-        } else {
+        awaitPrefetch("/passengers");
+        long count = getRestClient().streamAllPassengers(System.out::println);
+        if (count == 0) {
             System.out.println("No passengers found or API error occurred.");
         }
     }
 
     private void getAllAircrafts() {
         System.out.println("Fetching all aircrafts...");
-        List<Aircraft> aircrafts = getRestClient().getAllAircrafts();
-        if (!aircrafts.isEmpty()) {
-            aircrafts.forEach(System.out::println);
-        } else {
+        awaitPrefetch("/aircrafts");
+        long count = getRestClient().streamAllAircrafts(System.out::println);
+        if (count == 0) {
             System.out.println("No aircrafts found or API error occurred.");
         }
     }
@@ -180,34 +506,45 @@ public class HTTPRestCLIApplication {
     private void getAirportsInCity() {
         Long cityId = getUserIdInput("Enter City ID: ");
         if (cityId != null) {
-            System.out.println("Fetching airports in city " + cityId + "...");
-            Set<Airport> airports = getRestClient().getAirportsInCity(cityId);
-            if (!airports.isEmpty()) {
-                airports.forEach(System.out::println);
-            } else {
-                System.out.println("No airports found for city ID " + cityId + " or API error occurred.");
-            }
+            showAirportsInCity(cityId);
+        }
+    }
+
+    private void showAirportsInCity(Long cityId) {
+        System.out.println("Fetching airports in city " + cityId + "...");
+        Set<Airport> airports = queries().getAirportsInCity(cityId);
+        if (!airports.isEmpty()) {
+            airports.forEach(System.out::println);
+        } else {
+            System.out.println("No airports found for city ID " + cityId + " or API error occurred.");
         }
     }
 
     private void getAircraftsFlownByPassenger() {
         Long passengerId = getUserIdInput("Enter Passenger ID: ");
         if (passengerId != null) {
-            System.out.println("Fetching aircrafts flown by passenger " + passengerId + "...");
-            Set<Aircraft> aircrafts = getRestClient().getAircraftsFlownByPassenger(passengerId);
-            if (!aircrafts.isEmpty()) {
-                aircrafts.forEach(System.out::println);
-            } else {
-                System.out.println("No aircrafts found for passenger ID " + passengerId + " or API error occurred.");
-            }
+            showAircraftsFlownByPassenger(passengerId);
+        }
+    }
+
+    private void showAircraftsFlownByPassenger(Long passengerId) {
+        System.out.println("Fetching aircrafts flown by passenger " + passengerId + "...");
+        Set<Aircraft> aircrafts = queries().getAircraftsFlownByPassenger(passengerId);
+        if (!aircrafts.isEmpty()) {
+            aircrafts.forEach(System.out::println);
+        } else {
+            System.out.println("No aircrafts found for passenger ID " + passengerId + " or API error occurred.");
         }
+        // Likely next: Q4 for the same passenger, or Q3 for one of the aircraft
+        prefetch(Snapshot.Relation.PASSENGER_AIRPORTS, passengerId);
+        aircrafts.stream().limit(MAX_PREFETCHED_AIRCRAFTS).forEach(aircraft -> prefetch(Snapshot.Relation.AIRCRAFT_AIRPORTS, aircraft.getId()));
     }
 
     private void getAirportsByAircraft() {
         Long aircraftId = getUserIdInput("Enter Aircraft ID: ");
         if (aircraftId != null) {
             System.out.println("Fetching airports used by aircraft " + aircraftId + "...");
-            Set<Airport> airports = getRestClient().getAirportsByAircraft(aircraftId);
+            Set<Airport> airports = queries().getAirportsByAircraft(aircraftId);
             if (!airports.isEmpty()) {
                 airports.forEach(System.out::println);
             } else {
@@ -219,15 +556,636 @@ public class HTTPRestCLIApplication {
     private void getAirportsUsedByPassenger() {
         Long passengerId = getUserIdInput("Enter Passenger ID: ");
         if (passengerId != null) {
-            System.out.println("Fetching airports used by passenger " + passengerId + "...");
-            Set<Airport> airports = getRestClient().getAirportsUsedByPassenger(passengerId);
-            if (!airports.isEmpty()) {
-                airports.forEach(System.out::println);
-            } else {
-                System.out.println("No airports found for passenger ID " + passengerId + " or API error occurred.");
+            showAirportsUsedByPassenger(passengerId);
+        }
+    }
+
+    private void showAirportsUsedByPassenger(Long passengerId) {
+        System.out.println("Fetching airports used by passenger " + passengerId + "...");
+        Set<Airport> airports = queries().getAirportsUsedByPassenger(passengerId);
+        if (!airports.isEmpty()) {
+            airports.forEach(System.out::println);
+        } else {
+            System.out.println("No airports found for passenger ID " + passengerId + " or API error occurred.");
+        }
+        // Likely next: Q2 for the same passenger
+        prefetch(Snapshot.Relation.PASSENGER_AIRCRAFTS, passengerId);
+    }
+
+    // --- Prefetch ---
+
+    // The lists are fetched unpaginated, so there is nothing to warm for a paginated list. A list is
+    // only refreshed once its size is known from an earlier answer or the snapshot, and passengers,
+    // the one list that grows without bound, are always streamed in the foreground.
+    private void prefetchLists() {
+        if (prefetcher == null || getRestClient().getPagination() != null) {
+            return;
+        }
+        prefetcher.prefetch("/cities", RESTClient.CITY_LIST);
+        prefetcher.prefetch("/airports", RESTClient.AIRPORT_LIST);
+        prefetcher.prefetch("/aircrafts", RESTClient.AIRCRAFT_LIST);
+    }
+
+    // Indexed mode answers Q1-Q4 locally, so only remote mode prefetches them
+    private void prefetch(Snapshot.Relation relation, Long id) {
+        if (prefetcher != null && !indexedMode && id != null) {
+            prefetcher.prefetch(relation.endpoint(id), relation.targetsAircrafts() ? RESTClient.AIRCRAFT_SET : RESTClient.AIRPORT_SET,
+                    EXPECTED_RELATED_RECORDS);
+        }
+    }
+
+    // A streamed list cannot join a prefetch in flight, so it waits for one sent within the budget and
+    // replays the cached result; one not sent yet is cancelled and the list is streamed right away
+    private void awaitPrefetch(String endpoint) {
+        if (prefetcher != null) {
+            prefetcher.awaitInFlight(endpoint);
+        }
+    }
+
+    // --- Cache ---
+
+    private void showCacheStatistics() {
+        ResponseCache cache = getRestClient().getResponseCache();
+        if (cache == null) {
+            System.out.println("Response cache is disabled (started with --no-cache).");
+            return;
+        }
+        System.out.println(cache);
+        if (prefetcher != null) {
+            System.out.println(prefetcher);
+        }
+    }
+
+    private void clearCache() {
+        ResponseCache cache = getRestClient().getResponseCache();
+        if (cache == null) {
+            System.out.println("Response cache is disabled (started with --no-cache).");
+            return;
+        }
+        cache.invalidateAll();
+        System.out.println("Response cache cleared.");
+    }
+
+    // --- Export ---
+
+    private void exportRecords() {
+        System.out.print("Which records (1-4, as in the menu): ");
+        int choice = getUserChoice();
+        if (choice < 1 || choice > 4) {
+            System.out.println("Invalid choice. Please enter a number from 1 to 4.");
+            return;
+        }
+        System.out.print("Format (text, ndjson, csv, table, binary) [ndjson]: ");
+        String formatName = scanner().nextLine().trim();
+        OutputFormat format;
+        try {
+            format = formatName.isEmpty() ? OutputFormat.NDJSON : OutputFormat.forName(formatName);
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+            return;
+        }
+        System.out.print("Output file: ");
+        String file = scanner().nextLine().trim();
+        if (file.isEmpty()) {
+            System.out.println("No file given.");
+            return;
+        }
+
+        long start = System.nanoTime();
+        long count;
+        try (RecordWriter writer = format.open(Files.newOutputStream(Path.of(file)))) {
+            Consumer<Object> sink = record -> {
+                try {
+                    writer.write(record);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            };
+            switch (choice) {
+                case 1: count = getRestClient().streamAllCities(sink); break;
+                case 2: count = getRestClient().streamAllAirports(sink); break;
+                case 3: count = getRestClient().streamAllPassengers(sink); break;
+                default: count = getRestClient().streamAllAircrafts(sink); break;
             }
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("Could not write " + file + ": " + e.getMessage());
+            return;
         }
+        System.out.printf("Exported %d records to %s in %.1f ms.%n", count, file, (System.nanoTime() - start) / 1_000_000.0);
     }
-}
 
+    // --- Analytics ---
+
+    private void queryTables() {
+        System.out.println("Query syntax: <table> [where <column> <op> <value> [and ...]] [group by <column>] "
+                + "[count] [sum|min|max|avg <column> ...] [limit <n>]");
+        System.out.println("Tables: " + String.join(", ", ColumnTables.NAMES) + ". Operators: = != < <= > >= starts");
+        System.out.print("Query: ");
+        String text = scanner().nextLine().trim();
+        try {
+            TableQuery query = TableQuery.parse(text);
+            ColumnTable table = columnTable(query.getTableName());
+            long start = System.nanoTime();
+            TableQuery.QueryResult result = query.execute(table);
+            System.out.print(result.format());
+            System.out.printf("%d of %d matching rows shown, %d rows scanned in %.2f ms.%n", result.getRows().size(),
+                    result.getMatchedRows(), table.getRowCount(), (System.nanoTime() - start) / 1_000_000.0);
+        } catch (IllegalArgumentException e) {
+            System.out.println("Invalid query: " + e.getMessage());
+        }
+    }
 
+    /**
+     * Builds the table on first use, from the loaded snapshot or by streaming the list from the API,
+     * and keeps it until the snapshot is refreshed.
+     */
+    private ColumnTable columnTable(String name) {
+        ColumnTable table = columnTables.get(name);
+        if (table != null) {
+            return table;
+        }
+        long start = System.nanoTime();
+        switch (name) {
+            case "cities":
+                table = buildTable(ColumnTables.cities(), snapshot != null ? snapshot.getCities() : null, getRestClient()::streamAllCities);
+                break;
+            case "airports":
+                table = buildTable(ColumnTables.airports(), snapshot != null ? snapshot.getAirports() : null, getRestClient()::streamAllAirports);
+                break;
+            case "passengers":
+                table = buildTable(ColumnTables.passengers(), snapshot != null ? snapshot.getPassengers() : null, getRestClient()::streamAllPassengers);
+                break;
+            case "aircrafts":
+                table = buildTable(ColumnTables.aircrafts(), snapshot != null ? snapshot.getAircrafts() : null, getRestClient()::streamAllAircrafts);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown table " + name + " (expected " + String.join(", ", ColumnTables.NAMES) + ")");
+        }
+        System.out.printf("Loaded %s in %.1f ms.%n", table, (System.nanoTime() - start) / 1_000_000.0);
+        columnTables.put(name, table);
+        return table;
+    }
+
+    private static <T> ColumnTable buildTable(ColumnTable.Builder<T> builder, List<T> loaded, ToLongFunction<Consumer<T>> stream) {
+        if (loaded != null) {
+            builder.addAll(loaded);
+        } else {
+            stream.applyAsLong(builder);
+        }
+        return builder.build();
+    }
+
+    // --- Graph ---
+
+    private void showReachableAirports() {
+        Long cityId = getUserIdInput("Enter City ID: ");
+        Integer maxHops = getUserCountInput("Maximum aircraft hops (blank for no limit): ", -1);
+        if (cityId == null || maxHops == null) {
+            return;
+        }
+        RelationshipGraph graph = graph();
+        long start = System.nanoTime();
+        List<List<Airport>> levels = graph.reachableAirports(cityId, maxHops);
+        if (levels.isEmpty()) {
+            System.out.println("No airports found for city ID " + cityId + ".");
+            return;
+        }
+        int total = 0;
+        for (int hop = 0; hop < levels.size(); hop++) {
+            System.out.println("Hop " + hop + ":");
+            levels.get(hop).forEach(airport -> System.out.println("  " + airport));
+            total += levels.get(hop).size();
+        }
+        System.out.printf("%d airports reachable in %.2f ms.%n", total, (System.nanoTime() - start) / 1_000_000.0);
+    }
+
+    private void showTopAirports() {
+        Integer k = getUserCountInput("How many airports (blank for 10): ", 10);
+        if (k == null) {
+            return;
+        }
+        RelationshipGraph graph = graph();
+        long start = System.nanoTime();
+        List<RelationshipGraph.Ranked<Airport>> top = graph.topAirportsByDistinctPassengers(k);
+        top.forEach(ranked -> System.out.println(ranked.count() + " passengers: " + ranked.value()));
+        System.out.printf("Ranked in %.2f ms.%n", (System.nanoTime() - start) / 1_000_000.0);
+    }
+
+    private void showPassengersSharingAircraft() {
+        Long passengerId = getUserIdInput("Enter Passenger ID: ");
+        Integer limit = getUserCountInput("How many passengers (blank for 20): ", 20);
+        if (passengerId == null || limit == null) {
+            return;
+        }
+        RelationshipGraph graph = graph();
+        long start = System.nanoTime();
+        List<RelationshipGraph.Ranked<Passenger>> sharing = graph.passengersSharingAircraft(passengerId, limit);
+        if (sharing.isEmpty()) {
+            System.out.println("No passengers share aircraft with passenger ID " + passengerId + ".");
+            return;
+        }
+        sharing.forEach(ranked -> System.out.println(ranked.count() + " shared aircraft: " + ranked.value()));
+        System.out.printf("Found in %.2f ms.%n", (System.nanoTime() - start) / 1_000_000.0);
+    }
+
+    /**
+     * Builds the graph on first use from the relationship index, bulk loading the relationships if
+     * no snapshot is loaded, and keeps it until the index is rebuilt.
+     */
+    private RelationshipGraph graph() {
+        buildIndex();
+        if (graph == null) {
+            long start = System.nanoTime();
+            graph = RelationshipGraph.build(index);
+            System.out.printf("Relationship graph built in %.1f ms.%n", (System.nanoTime() - start) / 1_000_000.0);
+        }
+        return graph;
+    }
+
+    // Blank input selects the default; null if the input is not a number
+    private Integer getUserCountInput(String prompt, int defaultValue) {
+        System.out.print(prompt);
+        String input = scanner().nextLine().trim();
+        if (input.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(input);
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid number. Please enter a valid number.");
+            return null;
+        }
+    }
+
+    // --- Search ---
+
+    private void searchByName() {
+        System.out.println("Search syntax: <airports|cities|passengers> <text>, e.g. 'airports sj*' (prefix only) or 'passengers smyth' (prefix, then typos)");
+        System.out.print("Search: ");
+        String[] words = scanner().nextLine().trim().split("\\s+", 2);
+        if (words.length < 2 || !EntitySearch.KINDS.contains(words[0])) {
+            System.out.println("Invalid search. Start with one of " + String.join(", ", EntitySearch.KINDS) + ", then the text.");
+            return;
+        }
+        SearchIndex<?> index = searchIndex().index(words[0]);
+        long start = System.nanoTime();
+        List<? extends SearchIndex.Hit<?>> hits = index.search(words[1], MAX_SEARCH_RESULTS);
+        double millis = (System.nanoTime() - start) / 1_000_000.0;
+        if (hits.isEmpty()) {
+            System.out.printf("No %s match '%s' (%.3f ms).%n", words[0], words[1], millis);
+            return;
+        }
+        for (int i = 0; i < hits.size(); i++) {
+            System.out.println((i + 1) + ". " + hits.get(i));
+        }
+        System.out.printf("%d matches in %.3f ms.%n", hits.size(), millis);
+
+        // Found cities feed Q1, found passengers Q2 and Q4; no question takes an airport
+        if (words[0].equals("airports")) {
+            return;
+        }
+        System.out.print("Result number to run " + (words[0].equals("cities") ? "Q1" : "Q2 and Q4") + " for (blank to skip): ");
+        String input = scanner().nextLine().trim();
+        if (input.isEmpty()) {
+            return;
+        }
+        int choice;
+        try {
+            choice = Integer.parseInt(input);
+        } catch (NumberFormatException e) {
+            choice = 0;
+        }
+        if (choice < 1 || choice > hits.size()) {
+            System.out.println("Invalid result number.");
+            return;
+        }
+        Object entity = hits.get(choice - 1).getEntity();
+        if (entity instanceof City) {
+            showAirportsInCity(((City) entity).getId());
+        } else if (entity instanceof Passenger) {
+            showAircraftsFlownByPassenger(((Passenger) entity).getId());
+            showAirportsUsedByPassenger(((Passenger) entity).getId());
+        }
+    }
+
+    /**
+     * Builds the search index on first use from the loaded snapshot, or from the airport, city and
+     * passenger lists of the API, and keeps it until the local data changes.
+     */
+    private EntitySearch searchIndex() {
+        if (search == null) {
+            List<Airport> airports = snapshot != null ? snapshot.getAirports() : getRestClient().getAllAirports();
+            List<City> cities = snapshot != null ? snapshot.getCities() : getRestClient().getAllCities();
+            List<Passenger> passengers = snapshot != null ? snapshot.getPassengers() : getRestClient().getAllPassengers();
+            long start = System.nanoTime();
+            search = EntitySearch.build(airports, cities, passengers);
+            System.out.printf("Search index built in %.1f ms: %s.%n", (System.nanoTime() - start) / 1_000_000.0, search);
+        }
+        return search;
+    }
+
+    // --- Metrics ---
+
+    // Throttles the client as the options ask and publishes the current limits as metrics
+    private static void configureLimits(RESTClient restClient, CommandLineOptions options) {
+        RequestMetrics metrics = restClient.getMetrics();
+        if (options.getMaxConcurrency() > 0) {
+            ConcurrencyLimit limit = new ConcurrencyLimit(Math.min(RESTClient.DEFAULT_MAX_IN_FLIGHT, options.getMaxConcurrency()),
+                    1, options.getMaxConcurrency(), Duration.ofSeconds(5));
+            restClient.setConcurrencyLimit(limit);
+            metrics.registerGauge("flighttracker_concurrency_limit", "Current adaptive limit on requests in flight.", limit::getLimit);
+            metrics.registerGauge("flighttracker_requests_in_flight", "Requests currently in flight.", limit::getInFlight);
+            metrics.registerGauge("flighttracker_concurrency_queue_depth", "Requests waiting for the concurrency limit.", limit::getQueueDepth);
+        }
+        if (options.getRequestsPerSecond() > 0) {
+            RateLimiter limiter = new RateLimiter(options.getRequestsPerSecond(), Math.max(1, options.getRequestsPerSecond() / 10));
+            restClient.setRateLimiter(limiter);
+            metrics.registerGauge("flighttracker_rate_limit", "Requests per second allowed by the rate limiter.", limiter::getPermitsPerSecond);
+            metrics.registerGauge("flighttracker_rate_queue_depth", "Requests waiting for a rate limiter token.", limiter::getQueueDepth);
+        }
+    }
+
+    private void showMetrics() {
+        RequestMetrics metrics = getRestClient().getMetrics();
+        if (metrics == null) {
+            System.out.println("Request metrics are not enabled.");
+            return;
+        }
+        System.out.println(metrics.report());
+        CircuitBreaker breaker = getRestClient().getCircuitBreaker();
+        if (breaker != null) {
+            breaker.getTrippedRoutes().forEach((route, state) -> System.out.println("Circuit " + state + ": " + route));
+        }
+        if (getRestClient().getHedgeDelay() != null) {
+            System.out.println("Hedged requests sent: " + getRestClient().getHedgesSent());
+        }
+        SingleFlight flights = getRestClient().getSingleFlight();
+        if (flights != null) {
+            System.out.println("Requests coalesced: " + flights.getCoalescedCount());
+        }
+    }
+
+    // --- Snapshot ---
+
+    /**
+     * Loads the snapshot file, if it exists, and seeds the response cache with it so that the first
+     * queries are answered locally (or revalidated cheaply) instead of downloading everything again.
+     */
+    public void loadSnapshot() {
+        if (snapshotStore == null || !snapshotStore.exists()) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            snapshot = snapshotStore.load();
+        } catch (IOException e) {
+            System.err.println("Could not load snapshot " + snapshotStore.getFile() + ": " + e.getMessage());
+            return;
+        }
+        seedCache(snapshot);
+        System.out.printf("Loaded snapshot %s (%d cities, %d airports, %d passengers, %d aircrafts) in %.1f ms.%n",
+                snapshotStore.getFile(), snapshot.getCities().size(), snapshot.getAirports().size(),
+                snapshot.getPassengers().size(), snapshot.getAircrafts().size(), (System.nanoTime() - start) / 1_000_000.0);
+    }
+
+    private void seedCache(Snapshot loaded) {
+        RESTClient client = getRestClient();
+        ResponseCache cache = client.getResponseCache();
+        int required = loaded.getEndpointCount() + ResponseCache.DEFAULT_MAX_ENTRIES;
+        if (cache == null || cache.getMaxEntries() < required) {
+            // Offline answers and revalidation both need every snapshot endpoint to stay in the cache
+            client.setResponseCache(createResponseCache(required));
+            client.setConditionalRequests(true);
+        }
+        loaded.seed(client.getResponseCache(), client.isOffline());
+    }
+
+    private void refreshSnapshot() {
+        if (snapshotStore == null) {
+            System.out.println("No snapshot file configured. Start the CLI with --snapshot <file>.");
+            return;
+        }
+        if (getRestClient().isOffline()) {
+            System.out.println("Cannot refresh the snapshot in offline mode.");
+            return;
+        }
+        System.out.println("Refreshing snapshot from API...");
+        long start = System.nanoTime();
+        SnapshotRefresher refresher = new SnapshotRefresher(getRestClient());
+        Snapshot refreshed = refresher.refresh(snapshot);
+        try {
+            snapshotStore.save(refreshed);
+        } catch (IOException e) {
+            System.err.println("Could not save snapshot " + snapshotStore.getFile() + ": " + e.getMessage());
+            return;
+        }
+        snapshot = refreshed;
+        changeFeed = null;
+        seedCache(refreshed);
+        dropDerivedData();
+        System.out.printf("Snapshot saved to %s in %.1f ms: %d requests, %d unchanged (304), %d failed.%n",
+                snapshotStore.getFile(), (System.nanoTime() - start) / 1_000_000.0,
+                refresher.getRequestCount(), refresher.getNotModifiedCount(), refresher.getFailureCount());
+    }
+
+    // Tables, index, graph and search index are rebuilt from the snapshot the next time they are needed
+    private void dropDerivedData() {
+        columnTables.clear();
+        graph = null;
+        search = null;
+        if (index != null) {
+            index = null;
+            if (indexedMode) {
+                buildIndex();
+            }
+        }
+    }
+
+    // --- Sync ---
+
+    /**
+     * Pulls only what changed since the snapshot was taken or last synced and applies it to the
+     * snapshot in place, then saves it and reseeds the cache from it.
+     */
+    private void syncChanges() {
+        if (snapshot == null) {
+            System.out.println("No local data to sync. Start the CLI with --snapshot <file> or switch to indexed mode first.");
+            return;
+        }
+        if (getRestClient().isOffline()) {
+            System.out.println("Cannot sync in offline mode.");
+            return;
+        }
+        if (changeFeed == null) {
+            changeFeed = new ChangeFeedSync(getRestClient(), snapshot);
+        }
+        System.out.println("Syncing changes since " + (snapshot.getSyncCursor() != null
+                ? "cursor " + snapshot.getSyncCursor() : "the snapshot was taken") + "...");
+        long start = System.nanoTime();
+        List<ChangeEvent> shown = new ArrayList<>();
+        ChangeListener collector = event -> {
+            if (shown.size() < MAX_CHANGES_SHOWN) {
+                shown.add(event);
+            }
+        };
+        changeFeed.addListener(collector);
+        try {
+            changeFeed.sync();
+        } catch (RESTClientException | IllegalArgumentException e) {
+            System.out.println("Sync stopped: " + e.getMessage());
+        } finally {
+            changeFeed.removeListener(collector);
+        }
+        long applied = changeFeed.getInsertCount() + changeFeed.getUpdateCount() + changeFeed.getDeleteCount();
+        shown.forEach(event -> System.out.println("  " + event));
+        if (applied > shown.size()) {
+            System.out.println("  ... and " + (applied - shown.size()) + " more changes.");
+        }
+        if (applied > 0) {
+            if (snapshotStore != null) {
+                try {
+                    snapshotStore.save(snapshot);
+                } catch (IOException e) {
+                    System.err.println("Could not save snapshot " + snapshotStore.getFile() + ": " + e.getMessage());
+                }
+            }
+            seedCache(snapshot);
+            dropDerivedData();
+        }
+        System.out.printf("Synced in %.1f ms: %d pages, %d inserted, %d updated, %d deleted.%n",
+                (System.nanoTime() - start) / 1_000_000.0, changeFeed.getPageCount(),
+                changeFeed.getInsertCount(), changeFeed.getUpdateCount(), changeFeed.getDeleteCount());
+    }
+
+    // --- Query mode ---
+
+    /**
+     * Switches Q1-Q4 between the REST API and the local relationship index. The index is built on
+     * first use from the loaded snapshot, or from a one-time bulk load if there is none.
+     */
+    public void setIndexedMode(boolean indexed) {
+        if (indexed) {
+            buildIndex();
+        }
+        indexedMode = indexed;
+        System.out.println("Q1-Q4 now run in " + (indexed ? "indexed" : "remote") + " mode.");
+    }
+
+    private void buildIndex() {
+        if (index != null) {
+            return;
+        }
+        if (snapshot == null) {
+            System.out.println("Bulk loading cities, airports, passengers, aircrafts and their relationships...");
+            snapshot = new SnapshotRefresher(getRestClient()).refresh(null);
+            changeFeed = null;
+            if (snapshotStore != null) {
+                try {
+                    snapshotStore.save(snapshot);
+                } catch (IOException e) {
+                    System.err.println("Could not save snapshot " + snapshotStore.getFile() + ": " + e.getMessage());
+                }
+            }
+        }
+        long start = System.nanoTime();
+        index = RelationshipIndex.build(snapshot);
+        System.out.printf("Relationship index built in %.1f ms.%n", (System.nanoTime() - start) / 1_000_000.0);
+    }
+
+    private RelationshipQueries queries() {
+        return indexedMode ? index : getRestClient();
+    }
+
+    // --- Bulk sweep ---
+
+    /**
+     * Runs one of Q1-Q4 for a list of IDs concurrently and reports throughput and per-ID failures.
+     */
+    private void runBulkSweep() {
+        System.out.print("Which question (5-8, as in the menu): ");
+        int question = getUserChoice();
+        if (question < 5 || question > 8) {
+            System.out.println("Invalid choice. Please enter a number from 5 to 8.");
+            return;
+        }
+        System.out.print("Enter IDs (e.g. 1,2,10-20) or 'all': ");
+        List<Long> ids = parseIdList(scanner().nextLine().trim(), question);
+        if (ids == null || ids.isEmpty()) {
+            System.out.println("No IDs to query.");
+            return;
+        }
+        Long maxInFlight = getUserIdInput("Max requests in flight [" + RESTClient.DEFAULT_MAX_IN_FLIGHT + "]: ");
+        int limit = maxInFlight != null && maxInFlight > 0 ? maxInFlight.intValue() : RESTClient.DEFAULT_MAX_IN_FLIGHT;
+
+        System.out.println("Running sweep over " + ids.size() + " IDs with up to " + limit + " requests in flight...");
+        BulkResult<? extends Set<?>> result;
+        switch (question) {
+            case 5: result = getRestClient().getAirportsInCities(ids, limit); break;
+            case 6: result = getRestClient().getAircraftsFlownByPassengers(ids, limit); break;
+            case 7: result = getRestClient().getAirportsByAircrafts(ids, limit); break;
+            default: result = getRestClient().getAirportsUsedByPassengers(ids, limit); break;
+        }
+
+        long related = result.getResults().values().stream().mapToLong(Set::size).sum();
+        System.out.printf("Completed %d requests in %.1f ms (%.1f req/s): %d succeeded, %d failed, %d related records.%n",
+                result.getRequestCount(), result.getElapsedNanos() / 1_000_000.0, result.getThroughput(),
+                result.getResults().size(), result.getFailures().size(), related);
+        result.getFailures().entrySet().stream()
+                .limit(MAX_FAILURES_SHOWN)
+                .forEach(failure -> System.out.println("  ID " + failure.getKey() + " failed: " + failure.getValue().getMessage()));
+        if (result.getFailures().size() > MAX_FAILURES_SHOWN) {
+            System.out.println("  ... and " + (result.getFailures().size() - MAX_FAILURES_SHOWN) + " more failures.");
+        }
+    }
+
+    /**
+     * Parses a comma separated list of IDs and ID ranges. 'all' expands to every ID of the
+     * entity the question is keyed on. Ranges run upwards and a list holds at most
+     * {@link #MAX_SWEEP_IDS} IDs.
+     * @return The IDs, or null if the input is invalid.
+     */
+    private List<Long> parseIdList(String input, int question) {
+        if (input.equalsIgnoreCase("all")) {
+            switch (question) {
+                case 5: return getRestClient().getAllCities().stream().map(City::getId).collect(Collectors.toList());
+                case 7: return getRestClient().getAllAircrafts().stream().map(Aircraft::getId).collect(Collectors.toList());
+                default: return getRestClient().getAllPassengers().stream().map(Passenger::getId).collect(Collectors.toList());
+            }
+        }
+        List<Long> ids = new ArrayList<>();
+        try {
+            for (String part : input.split(",")) {
+                String token = part.trim();
+                if (token.isEmpty()) {
+                    continue;
+                }
+                int dash = token.indexOf('-', 1);
+                if (dash > 0) {
+                    long from = Long.parseLong(token.substring(0, dash).trim());
+                    long to = Long.parseLong(token.substring(dash + 1).trim());
+                    long span = to - from; // negative on overflow as well as for a reversed range
+                    if (span < 0) {
+                        throw new NumberFormatException(token);
+                    }
+                    if (span >= MAX_SWEEP_IDS - ids.size()) {
+                        System.out.println("Too many IDs. A sweep takes at most " + MAX_SWEEP_IDS + " IDs.");
+                        return null;
+                    }
+                    for (long offset = 0; offset <= span; offset++) {
+                        ids.add(from + offset);
+                    }
+                } else {
+                    if (ids.size() >= MAX_SWEEP_IDS) {
+                        System.out.println("Too many IDs. A sweep takes at most " + MAX_SWEEP_IDS + " IDs.");
+                        return null;
+                    }
+                    ids.add(Long.parseLong(token));
+                }
+            }
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid ID list. Use numbers and ranges such as 1,2,10-20.");
+            return null;
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,119 @@
+package com.flighttracker.cli.batch;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One non-interactive command, e.g. {@code airports-in-city 1 2 3} or {@code cities}.
+ */
+public class BatchCommand {
+    public enum Type {
+        CITIES("cities", false),
+        AIRPORTS("airports", false),
+        PASSENGERS("passengers", false),
+        AIRCRAFTS("aircrafts", false),
+        AIRPORTS_IN_CITY("airports-in-city", true),
+        AIRCRAFTS_BY_PASSENGER("aircrafts-by-passenger", true),
+        AIRPORTS_BY_AIRCRAFT("airports-by-aircraft", true),
+        AIRPORTS_BY_PASSENGER("airports-by-passenger", true);
+
+        private final String name;
+        private final boolean keyed;
+
+        Type(String name, boolean keyed) {
+            this.name = name;
+            this.keyed = keyed;
+        }
+
+        public String getName() { return name; }
+        // Whether the command takes IDs (Q1-Q4) rather than listing a whole table
+        public boolean isKeyed() { return keyed; }
+
+        static Type forName(String name) {
+            for (Type type : values()) {
+                if (type.name.equals(name)) {
+                    return type;
+                }
+            }
+            throw new IllegalArgumentException("Unknown command: " + name + " (expected one of " + names() + ")");
+        }
+
+        // Comma separated names of every command
+        public static String names() {
+            List<String> names = new ArrayList<>();
+            for (Type type : values()) {
+                names.add(type.name);
+            }
+            return String.join(", ", names);
+        }
+    }
+
+    private final Type type;
+    private final List<Long> ids;
+
+    public BatchCommand(Type type, List<Long> ids) {
+        this.type = type;
+        this.ids = Collections.unmodifiableList(new ArrayList<>(ids));
+    }
+
+    public Type getType() { return type; }
+    public List<Long> getIds() { return ids; }
+
+    /**
+     * Parses a command name followed by its IDs.
+     * @throws IllegalArgumentException If the command is unknown or its IDs are missing or invalid.
+     */
+    public static BatchCommand parse(List<String> words) {
+        if (words.isEmpty()) {
+            throw new IllegalArgumentException("Missing command");
+        }
+        Type type = Type.forName(words.get(0));
+        List<Long> ids = new ArrayList<>();
+        for (String word : words.subList(1, words.size())) {
+            try {
+                ids.add(Long.parseLong(word));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid ID for " + type.name + ": " + word);
+            }
+        }
+        if (type.keyed && ids.isEmpty()) {
+            throw new IllegalArgumentException(type.name + " needs at least one ID");
+        }
+        if (!type.keyed && !ids.isEmpty()) {
+            throw new IllegalArgumentException(type.name + " takes no IDs");
+        }
+        return new BatchCommand(type, ids);
+    }
+
+    /**
+     * Reads one command per line. Blank lines and lines starting with # are skipped.
+     * @throws IllegalArgumentException If a line is not a valid command; the message names the line.
+     */
+    public static List<BatchCommand> parseAll(BufferedReader reader) throws IOException {
+        List<BatchCommand> commands = new ArrayList<>();
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            try {
+                commands.add(parse(Arrays.asList(trimmed.split("\\s+"))));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": " + e.getMessage());
+            }
+        }
+        return commands;
+    }
+
+    @Override
+    public String toString() {
+        return ids.isEmpty() ? type.name : type.name + " " + ids;
+    }
+}
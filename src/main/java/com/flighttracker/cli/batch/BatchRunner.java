@@ -0,0 +1,176 @@
+package com.flighttracker.cli.batch;
+
+import com.flighttracker.cli.domain.RelationshipQueries;
+import com.flighttracker.cli.http.client.ApiResult;
+import com.flighttracker.cli.http.client.PagedIterator;
+import com.flighttracker.cli.http.client.RESTClient;
+import com.flighttracker.cli.http.client.RESTClientException;
+import com.flighttracker.cli.output.RecordWriter;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs batch commands without the interactive menu. Q1-Q4 lookups run on a pool of
+ * {@code parallelism} threads while their answers are written in input order, each related record
+ * keyed by the ID that was looked up. Whole tables are streamed in order between them.
+ * Failures are reported on the error stream and reflected in the exit code.
+ */
+public class BatchRunner {
+    public static final int EXIT_OK = 0;
+    public static final int EXIT_USAGE = 1;
+    public static final int EXIT_FAILURES = 2;
+
+    private final RESTClient restClient;
+    private final RelationshipQueries index;
+    private final int parallelism;
+    private final RecordWriter out;
+    private final PrintStream err;
+    private final AtomicInteger failures = new AtomicInteger();
+
+    /**
+     * @param index Answers Q1-Q4 locally when not null; lists still come from the client.
+     */
+    public BatchRunner(RESTClient restClient, RelationshipQueries index, int parallelism, RecordWriter out, PrintStream err) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1");
+        }
+        this.restClient = restClient;
+        this.index = index;
+        this.parallelism = parallelism;
+        this.out = out;
+        this.err = err;
+    }
+
+    /**
+     * Runs the commands and flushes the writer after each one, leaving it open.
+     * @return {@link #EXIT_OK} when every lookup succeeded, {@link #EXIT_FAILURES} otherwise,
+     * including when the output cannot be written.
+     */
+    public int run(List<BatchCommand> commands) {
+        ExecutorService pool = Executors.newFixedThreadPool(parallelism, task -> {
+            Thread thread = new Thread(task, "flighttracker-batch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Lookups are submitted ahead of printing, but only a bounded window of answers is held
+        Deque<Lookup> window = new ArrayDeque<>();
+        int maxWindow = parallelism * 4;
+        try {
+            for (BatchCommand command : commands) {
+                if (!command.getType().isKeyed()) {
+                    printAll(window);
+                    streamTable(command.getType());
+                    out.flush();
+                    continue;
+                }
+                for (Long id : command.getIds()) {
+                    if (window.size() >= maxWindow) {
+                        print(window.removeFirst());
+                    }
+                    window.addLast(new Lookup(command.getType(), id, pool.submit(() -> lookup(command.getType(), id))));
+                }
+            }
+            printAll(window);
+            out.flush();
+        } catch (IOException e) {
+            fail("Could not write output: " + e.getMessage());
+        } finally {
+            pool.shutdownNow();
+        }
+        return failures.get() == 0 ? EXIT_OK : EXIT_FAILURES;
+    }
+
+    public int getFailureCount() {
+        return failures.get();
+    }
+
+    private ApiResult<? extends Collection<?>> lookup(BatchCommand.Type type, Long id) {
+        if (index != null) {
+            switch (type) {
+                case AIRPORTS_IN_CITY: return ApiResult.success(index.getAirportsInCity(id));
+                case AIRCRAFTS_BY_PASSENGER: return ApiResult.success(index.getAircraftsFlownByPassenger(id));
+                case AIRPORTS_BY_AIRCRAFT: return ApiResult.success(index.getAirportsByAircraft(id));
+                default: return ApiResult.success(index.getAirportsUsedByPassenger(id));
+            }
+        }
+        switch (type) {
+            case AIRPORTS_IN_CITY: return restClient.getAirportsInCityResult(id);
+            case AIRCRAFTS_BY_PASSENGER: return restClient.getAircraftsFlownByPassengerResult(id);
+            case AIRPORTS_BY_AIRCRAFT: return restClient.getAirportsByAircraftResult(id);
+            default: return restClient.getAirportsUsedByPassengerResult(id);
+        }
+    }
+
+    private void printAll(Deque<Lookup> window) throws IOException {
+        while (!window.isEmpty()) {
+            print(window.removeFirst());
+        }
+    }
+
+    private void print(Lookup lookup) throws IOException {
+        ApiResult<? extends Collection<?>> result;
+        try {
+            result = lookup.answer.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fail(lookup.type.getName() + " " + lookup.id + ": interrupted");
+            return;
+        } catch (ExecutionException e) {
+            fail(lookup.type.getName() + " " + lookup.id + ": " + e.getCause());
+            return;
+        }
+        if (!result.isSuccess()) {
+            fail(lookup.type.getName() + " " + lookup.id + ": " + result.getFailure().getMessage());
+            return;
+        }
+        for (Object record : result.getValue()) {
+            out.write(lookup.id, record);
+        }
+    }
+
+    private void streamTable(BatchCommand.Type type) throws IOException {
+        try (PagedIterator<?> records = table(type)) {
+            while (records.hasNext()) {
+                out.write(records.next());
+            }
+        } catch (RESTClientException e) {
+            fail(type.getName() + ": " + e.getMessage());
+        }
+    }
+
+    private PagedIterator<?> table(BatchCommand.Type type) {
+        switch (type) {
+            case CITIES: return restClient.iterateAllCities();
+            case AIRPORTS: return restClient.iterateAllAirports();
+            case PASSENGERS: return restClient.iterateAllPassengers();
+            default: return restClient.iterateAllAircrafts();
+        }
+    }
+
+    private void fail(String message) {
+        failures.incrementAndGet();
+        err.println("Error: " + message);
+    }
+
+    private static final class Lookup {
+        private final BatchCommand.Type type;
+        private final Long id;
+        private final Future<ApiResult<? extends Collection<?>>> answer;
+
+        private Lookup(BatchCommand.Type type, Long id, Future<ApiResult<? extends Collection<?>>> answer) {
+            this.type = type;
+            this.id = id;
+            this.answer = answer;
+        }
+    }
+}
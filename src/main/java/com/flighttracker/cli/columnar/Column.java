@@ -0,0 +1,40 @@
+package com.flighttracker.cli.columnar;
+
+/**
+ * One column of a {@link ColumnTable}: all values of one field, stored contiguously so that scans
+ * touch nothing but the data they test.
+ */
+public abstract class Column {
+    private final String name;
+
+    Column(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    // Value of the row for display; scans read the typed arrays instead
+    public abstract Object getValue(int row);
+
+    /**
+     * Builds a column row by row from the entities handed to a {@link ColumnTable.Builder}.
+     */
+    abstract static class Builder<T> {
+        final String name;
+
+        Builder(String name) {
+            this.name = name;
+        }
+
+        abstract void add(T entity, int row);
+
+        abstract Column build(int rowCount);
+
+        // Capacity after growing a full array by half
+        static int grow(int capacity) {
+            return Math.max(16, capacity + (capacity >> 1));
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.flighttracker.cli.columnar;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Immutable in-memory table stored column by column. Rows are addressed by their position, which
+ * is the same in every column.
+ */
+public final class ColumnTable {
+    private final String name;
+    private final int rowCount;
+    private final Map<String, Column> columns;
+
+    private ColumnTable(String name, int rowCount, Map<String, Column> columns) {
+        this.name = name;
+        this.rowCount = rowCount;
+        this.columns = columns;
+    }
+
+    public static <T> Builder<T> builder(String name) {
+        return new Builder<>(name);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public List<Column> getColumns() {
+        return Collections.unmodifiableList(new ArrayList<>(columns.values()));
+    }
+
+    /**
+     * @throws IllegalArgumentException If the table has no such column (names are case-insensitive).
+     */
+    public Column getColumn(String columnName) {
+        Column column = columns.get(columnName.toLowerCase());
+        if (column == null) {
+            List<String> names = new ArrayList<>();
+            columns.values().forEach(c -> names.add(c.getName()));
+            throw new IllegalArgumentException("Unknown column " + columnName + " in " + name + " (columns: "
+                    + String.join(", ", names) + ")");
+        }
+        return column;
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + rowCount + " rows)";
+    }
+
+    /**
+     * Declares the columns, then receives the entities one by one, e.g. straight from
+     * {@code RESTClient.streamAllCities}, so no intermediate list is needed.
+     */
+    public static final class Builder<T> implements Consumer<T> {
+        private final String name;
+        private final List<Column.Builder<T>> columns = new ArrayList<>();
+        private int rowCount;
+
+        private Builder(String name) {
+            this.name = name;
+        }
+
+        public Builder<T> intColumn(String columnName, ToIntFunction<? super T> field) {
+            columns.add(new IntColumn.Builder<>(columnName, field));
+            return this;
+        }
+
+        public Builder<T> longColumn(String columnName, ToLongFunction<? super T> field) {
+            columns.add(new LongColumn.Builder<>(columnName, field));
+            return this;
+        }
+
+        public Builder<T> stringColumn(String columnName, Function<? super T, String> field) {
+            columns.add(new StringColumn.Builder<>(columnName, field));
+            return this;
+        }
+
+        // For strings with few distinct values
+        public Builder<T> dictionaryColumn(String columnName, Function<? super T, String> field) {
+            columns.add(new DictionaryColumn.Builder<>(columnName, field));
+            return this;
+        }
+
+        @Override
+        public void accept(T entity) {
+            for (Column.Builder<T> column : columns) {
+                column.add(entity, rowCount);
+            }
+            rowCount++;
+        }
+
+        public Builder<T> addAll(Iterable<? extends T> entities) {
+            entities.forEach(this);
+            return this;
+        }
+
+        public ColumnTable build() {
+            Map<String, Column> built = new LinkedHashMap<>();
+            for (Column.Builder<T> column : columns) {
+                built.put(column.name.toLowerCase(), column.build(rowCount));
+            }
+            return new ColumnTable(name, rowCount, built);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.flighttracker.cli.columnar;
+
+import com.flighttracker.cli.domain.Aircraft;
+import com.flighttracker.cli.domain.Airport;
+import com.flighttracker.cli.domain.City;
+import com.flighttracker.cli.domain.Passenger;
+
+import java.util.List;
+
+/**
+ * Column layouts of the four entity tables. Column names are the JSON property names.
+ */
+public final class ColumnTables {
+    public static final List<String> NAMES = List.of("cities", "airports", "passengers", "aircrafts");
+
+    private ColumnTables() {}
+
+    public static ColumnTable.Builder<City> cities() {
+        return ColumnTable.<City>builder("cities")
+                .longColumn("id", city -> idOf(city.getId()))
+                .stringColumn("name", City::getName)
+                .dictionaryColumn("state", City::getState)
+                .intColumn("population", City::getPopulation);
+    }
+
+    public static ColumnTable.Builder<Airport> airports() {
+        return ColumnTable.<Airport>builder("airports")
+                .longColumn("id", airport -> idOf(airport.getId()))
+                .stringColumn("name", Airport::getName)
+                .stringColumn("code", Airport::getCode);
+    }
+
+    public static ColumnTable.Builder<Passenger> passengers() {
+        return ColumnTable.<Passenger>builder("passengers")
+                .longColumn("id", passenger -> idOf(passenger.getId()))
+                .stringColumn("firstName", Passenger::getFirstName)
+                .dictionaryColumn("lastName", Passenger::getLastName)
+                .stringColumn("phoneNumber", Passenger::getPhoneNumber);
+    }
+
+    public static ColumnTable.Builder<Aircraft> aircrafts() {
+        return ColumnTable.<Aircraft>builder("aircrafts")
+                .longColumn("id", aircraft -> idOf(aircraft.getId()))
+                .dictionaryColumn("type", Aircraft::getType)
+                .dictionaryColumn("airlineName", Aircraft::getAirlineName)
+                .intColumn("numberOfPassengers", Aircraft::getNumberOfPassengers);
+    }
+
+    private static long idOf(Long id) {
+        return id != null ? id : 0;
+    }
+}
@@ -0,0 +1,83 @@
+package com.flighttracker.cli.columnar;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Dictionary-encoded column for strings with few distinct values, such as {@code state} or
+ * {@code airlineName}: every row stores the int code of its value, and each distinct value is
+ * stored once. Filters compare codes, and grouping indexes plain arrays by code.
+ */
+public final class DictionaryColumn extends Column {
+    private final int[] codes;
+    private final String[] dictionary;
+
+    DictionaryColumn(String name, int[] codes, String[] dictionary) {
+        super(name);
+        this.codes = codes;
+        this.dictionary = dictionary;
+    }
+
+    public String get(int row) {
+        return dictionary[codes[row]];
+    }
+
+    public int getCode(int row) {
+        return codes[row];
+    }
+
+    // Number of distinct values, null included if present
+    public int getDictionarySize() {
+        return dictionary.length;
+    }
+
+    public String decode(int code) {
+        return dictionary[code];
+    }
+
+    // The backing array of codes, one element per row; must not be modified
+    int[] codes() {
+        return codes;
+    }
+
+    @Override
+    public Object getValue(int row) {
+        return get(row);
+    }
+
+    static final class Builder<T> extends Column.Builder<T> {
+        private final Function<? super T, String> field;
+        private final Map<String, Integer> codesByValue = new HashMap<>();
+        private final List<String> dictionary = new ArrayList<>();
+        private int[] codes = new int[0];
+
+        Builder(String name, Function<? super T, String> field) {
+            super(name);
+            this.field = field;
+        }
+
+        @Override
+        void add(T entity, int row) {
+            if (row == codes.length) {
+                codes = Arrays.copyOf(codes, grow(codes.length));
+            }
+            String value = field.apply(entity);
+            Integer code = codesByValue.get(value);
+            if (code == null) {
+                code = dictionary.size();
+                codesByValue.put(value, code);
+                dictionary.add(value);
+            }
+            codes[row] = code;
+        }
+
+        @Override
+        Column build(int rowCount) {
+            return new DictionaryColumn(name, Arrays.copyOf(codes, rowCount), dictionary.toArray(new String[0]));
+        }
+    }
+}
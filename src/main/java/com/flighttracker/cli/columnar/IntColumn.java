@@ -0,0 +1,53 @@
+package com.flighttracker.cli.columnar;
+
+import java.util.Arrays;
+import java.util.function.ToIntFunction;
+
+/**
+ * Column of primitive ints, e.g. {@code population} or {@code numberOfPassengers}.
+ */
+public final class IntColumn extends Column {
+    private final int[] values;
+
+    IntColumn(String name, int[] values) {
+        super(name);
+        this.values = values;
+    }
+
+    public int get(int row) {
+        return values[row];
+    }
+
+    // The backing array, one element per row; must not be modified
+    int[] values() {
+        return values;
+    }
+
+    @Override
+    public Object getValue(int row) {
+        return values[row];
+    }
+
+    static final class Builder<T> extends Column.Builder<T> {
+        private final ToIntFunction<? super T> field;
+        private int[] values = new int[0];
+
+        Builder(String name, ToIntFunction<? super T> field) {
+            super(name);
+            this.field = field;
+        }
+
+        @Override
+        void add(T entity, int row) {
+            if (row == values.length) {
+                values = Arrays.copyOf(values, grow(values.length));
+            }
+            values[row] = field.applyAsInt(entity);
+        }
+
+        @Override
+        Column build(int rowCount) {
+            return new IntColumn(name, Arrays.copyOf(values, rowCount));
+        }
+    }
+}
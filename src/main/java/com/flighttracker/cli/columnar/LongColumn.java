@@ -0,0 +1,53 @@
+package com.flighttracker.cli.columnar;
+
+import java.util.Arrays;
+import java.util.function.ToLongFunction;
+
+/**
+ * Column of primitive longs, used for the entity IDs.
+ */
+public final class LongColumn extends Column {
+    private final long[] values;
+
+    LongColumn(String name, long[] values) {
+        super(name);
+        this.values = values;
+    }
+
+    public long get(int row) {
+        return values[row];
+    }
+
+    // The backing array, one element per row; must not be modified
+    long[] values() {
+        return values;
+    }
+
+    @Override
+    public Object getValue(int row) {
+        return values[row];
+    }
+
+    static final class Builder<T> extends Column.Builder<T> {
+        private final ToLongFunction<? super T> field;
+        private long[] values = new long[0];
+
+        Builder(String name, ToLongFunction<? super T> field) {
+            super(name);
+            this.field = field;
+        }
+
+        @Override
+        void add(T entity, int row) {
+            if (row == values.length) {
+                values = Arrays.copyOf(values, grow(values.length));
+            }
+            values[row] = field.applyAsLong(entity);
+        }
+
+        @Override
+        Column build(int rowCount) {
+            return new LongColumn(name, Arrays.copyOf(values, rowCount));
+        }
+    }
+}
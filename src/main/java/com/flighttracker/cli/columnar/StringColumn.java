@@ -0,0 +1,53 @@
+package com.flighttracker.cli.columnar;
+
+import java.util.Arrays;
+import java.util.function.Function;
+
+/**
+ * Column of strings that are mostly distinct, such as names and airport codes.
+ */
+public final class StringColumn extends Column {
+    private final String[] values;
+
+    StringColumn(String name, String[] values) {
+        super(name);
+        this.values = values;
+    }
+
+    public String get(int row) {
+        return values[row];
+    }
+
+    // The backing array, one element per row; must not be modified
+    String[] values() {
+        return values;
+    }
+
+    @Override
+    public Object getValue(int row) {
+        return values[row];
+    }
+
+    static final class Builder<T> extends Column.Builder<T> {
+        private final Function<? super T, String> field;
+        private String[] values = new String[0];
+
+        Builder(String name, Function<? super T, String> field) {
+            super(name);
+            this.field = field;
+        }
+
+        @Override
+        void add(T entity, int row) {
+            if (row == values.length) {
+                values = Arrays.copyOf(values, grow(values.length));
+            }
+            values[row] = field.apply(entity);
+        }
+
+        @Override
+        Column build(int rowCount) {
+            return new StringColumn(name, Arrays.copyOf(values, rowCount));
+        }
+    }
+}
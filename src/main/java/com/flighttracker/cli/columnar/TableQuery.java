@@ -0,0 +1,579 @@
+package com.flighttracker.cli.columnar;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+/**
+ * Filter, group and aggregate query over a {@link ColumnTable}:
+ * <pre>
+ * &lt;table&gt; [where &lt;column&gt; &lt;op&gt; &lt;value&gt; [and ...]] [group by &lt;column&gt;]
+ *         [count] [sum|min|max|avg &lt;column&gt; ...] [limit &lt;n&gt;]
+ * </pre>
+ * where {@code op} is one of {@code = != < <= > >= starts}. Values containing spaces are quoted.
+ * Examples: {@code aircrafts group by airlineName count sum numberOfPassengers},
+ * {@code cities where population > 100000 group by state count}, {@code airports where code starts SJ}.
+ * <p>
+ * The table is scanned in chunks of {@value #CHUNK_ROWS} rows on all cores. Each condition is
+ * evaluated over a whole column chunk into a selection bitmap (numeric conditions branch-free,
+ * dictionary conditions once per distinct value), and each chunk aggregates into arrays indexed
+ * by the group's dictionary code; the partial results are merged at the end.
+ */
+public final class TableQuery {
+    public static final int DEFAULT_LIMIT = 100;
+    static final int CHUNK_ROWS = 1 << 14; // a multiple of 64, so chunks never share a bitmap word
+
+    public enum Aggregate { COUNT, SUM, MIN, MAX, AVG }
+
+    private final String tableName;
+    private final List<Condition> conditions;
+    private final String groupBy;
+    private final List<Aggregate> aggregates;
+    private final List<String> aggregateColumns;
+    private final int limit;
+
+    private TableQuery(String tableName, List<Condition> conditions, String groupBy, List<Aggregate> aggregates,
+                       List<String> aggregateColumns, int limit) {
+        this.tableName = tableName;
+        this.conditions = conditions;
+        this.groupBy = groupBy;
+        this.aggregates = aggregates;
+        this.aggregateColumns = aggregateColumns;
+        this.limit = limit;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    /**
+     * @throws IllegalArgumentException If the query is malformed.
+     */
+    public static TableQuery parse(String text) {
+        List<String> tokens = tokenize(text);
+        if (tokens.isEmpty()) {
+            throw new IllegalArgumentException("Empty query");
+        }
+        String tableName = tokens.get(0).toLowerCase(Locale.ROOT);
+        List<Condition> conditions = new ArrayList<>();
+        String groupBy = null;
+        List<Aggregate> aggregates = new ArrayList<>();
+        List<String> aggregateColumns = new ArrayList<>();
+        int limit = DEFAULT_LIMIT;
+
+        int i = 1;
+        if (i < tokens.size() && isKeyword(tokens.get(i), "where")) {
+            do {
+                if (i + 3 >= tokens.size()) {
+                    throw new IllegalArgumentException("Incomplete condition after '" + tokens.get(i) + "'");
+                }
+                conditions.add(new Condition(tokens.get(i + 1), tokens.get(i + 2).toLowerCase(Locale.ROOT), tokens.get(i + 3)));
+                i += 4;
+            } while (i < tokens.size() && isKeyword(tokens.get(i), "and"));
+        }
+        if (i + 1 < tokens.size() && isKeyword(tokens.get(i), "group") && isKeyword(tokens.get(i + 1), "by")) {
+            if (i + 2 >= tokens.size()) {
+                throw new IllegalArgumentException("Missing column after 'group by'");
+            }
+            groupBy = tokens.get(i + 2);
+            i += 3;
+        }
+        while (i < tokens.size() && !isKeyword(tokens.get(i), "limit")) {
+            Aggregate aggregate = parseAggregate(tokens.get(i));
+            aggregates.add(aggregate);
+            if (aggregate == Aggregate.COUNT) {
+                aggregateColumns.add(null);
+                i++;
+            } else {
+                if (i + 1 >= tokens.size()) {
+                    throw new IllegalArgumentException("Missing column after '" + tokens.get(i) + "'");
+                }
+                aggregateColumns.add(tokens.get(i + 1));
+                i += 2;
+            }
+        }
+        if (i < tokens.size()) {
+            if (i + 2 != tokens.size()) {
+                throw new IllegalArgumentException("Expected a number after 'limit' and nothing else");
+            }
+            try {
+                limit = Integer.parseInt(tokens.get(i + 1));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid limit: " + tokens.get(i + 1));
+            }
+        }
+        if (groupBy != null && aggregates.isEmpty()) {
+            aggregates.add(Aggregate.COUNT);
+            aggregateColumns.add(null);
+        }
+        return new TableQuery(tableName, conditions, groupBy, aggregates, aggregateColumns, limit);
+    }
+
+    private static Aggregate parseAggregate(String token) {
+        try {
+            return Aggregate.valueOf(token.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unexpected '" + token + "' (expected where, group by, count, sum, min, max, avg or limit)");
+        }
+    }
+
+    private static boolean isKeyword(String token, String keyword) {
+        return token.equalsIgnoreCase(keyword);
+    }
+
+    // Splits on whitespace and around comparison operators; single or double quotes keep spaces
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder token = new StringBuilder();
+        int i = 0;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            if (c == '\'' || c == '"') {
+                int end = text.indexOf(c, i + 1);
+                if (end < 0) {
+                    throw new IllegalArgumentException("Unterminated quote in: " + text);
+                }
+                token.append(text, i + 1, end);
+                tokens.add(token.toString());
+                token.setLength(0);
+                i = end + 1;
+            } else if (c == '=' || c == '!' || c == '<' || c == '>') {
+                flush(tokens, token);
+                int end = i + 1 < text.length() && text.charAt(i + 1) == '=' ? i + 2 : i + 1;
+                tokens.add(text.substring(i, end));
+                i = end;
+            } else if (Character.isWhitespace(c) || c == ',' || c == '(' || c == ')') {
+                flush(tokens, token);
+                i++;
+            } else {
+                token.append(c);
+                i++;
+            }
+        }
+        flush(tokens, token);
+        return tokens;
+    }
+
+    private static void flush(List<String> tokens, StringBuilder token) {
+        if (token.length() > 0) {
+            tokens.add(token.toString());
+            token.setLength(0);
+        }
+    }
+
+    /**
+     * Runs the query on all cores.
+     * @throws IllegalArgumentException If the query names unknown columns or uses them in a way their type does not allow.
+     */
+    public QueryResult execute(ColumnTable table) {
+        List<Filter> filters = new ArrayList<>();
+        for (Condition condition : conditions) {
+            filters.add(condition.compile(table.getColumn(condition.column)));
+        }
+        int rows = table.getRowCount();
+        int chunks = (rows + CHUNK_ROWS - 1) / CHUNK_ROWS;
+
+        if (aggregates.isEmpty()) {
+            long[][] selections = new long[chunks][];
+            IntStream.range(0, chunks).parallel().forEach(chunk -> selections[chunk] = select(filters, chunk, rows));
+            return listRows(table, selections);
+        }
+
+        DictionaryColumn groups = null;
+        if (groupBy != null) {
+            Column column = table.getColumn(groupBy);
+            if (!(column instanceof DictionaryColumn)) {
+                throw new IllegalArgumentException("Cannot group by " + column.getName() + ": only dictionary-encoded columns can be grouped");
+            }
+            groups = (DictionaryColumn) column;
+        }
+        NumericSource[] sources = new NumericSource[aggregates.size()];
+        for (int a = 0; a < sources.length; a++) {
+            String columnName = aggregateColumns.get(a);
+            sources[a] = columnName != null ? NumericSource.of(table.getColumn(columnName), aggregates.get(a)) : null;
+        }
+        int groupCount = groups != null ? groups.getDictionarySize() : 1;
+        int[] groupCodes = groups != null ? groups.codes() : null;
+        Partial total = IntStream.range(0, chunks).parallel()
+                .mapToObj(chunk -> aggregate(select(filters, chunk, rows), chunk, rows, groupCodes, groupCount, sources))
+                .reduce(Partial::merge)
+                .orElseGet(() -> new Partial(groupCount, sources.length));
+        return groupRows(total, groups, sources);
+    }
+
+    private static long[] select(List<Filter> filters, int chunk, int rows) {
+        int from = chunk * CHUNK_ROWS;
+        int to = Math.min(rows, from + CHUNK_ROWS);
+        long[] words = new long[(to - from + 63) >>> 6];
+        Arrays.fill(words, -1L);
+        if ((to - from) % 64 != 0) {
+            words[words.length - 1] = (1L << ((to - from) % 64)) - 1;
+        }
+        for (Filter filter : filters) {
+            filter.apply(from, to, words);
+        }
+        return words;
+    }
+
+    private static Partial aggregate(long[] selection, int chunk, int rows, int[] groupCodes, int groupCount,
+                                     NumericSource[] sources) {
+        Partial partial = new Partial(groupCount, sources.length);
+        int from = chunk * CHUNK_ROWS;
+        for (int w = 0; w < selection.length; w++) {
+            long bits = selection[w];
+            while (bits != 0) {
+                int row = from + (w << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                int group = groupCodes != null ? groupCodes[row] : 0;
+                partial.counts[group]++;
+                for (int a = 0; a < sources.length; a++) {
+                    if (sources[a] != null) {
+                        long value = sources[a].get(row);
+                        partial.sums[a][group] += value;
+                        partial.mins[a][group] = Math.min(partial.mins[a][group], value);
+                        partial.maxs[a][group] = Math.max(partial.maxs[a][group], value);
+                    }
+                }
+            }
+        }
+        return partial;
+    }
+
+    private QueryResult listRows(ColumnTable table, long[][] selections) {
+        List<Column> columns = table.getColumns();
+        List<String> header = new ArrayList<>();
+        columns.forEach(column -> header.add(column.getName()));
+        List<Object[]> result = new ArrayList<>();
+        long matched = 0;
+        for (int chunk = 0; chunk < selections.length; chunk++) {
+            long[] words = selections[chunk];
+            for (int w = 0; w < words.length; w++) {
+                long bits = words[w];
+                matched += Long.bitCount(bits);
+                while (bits != 0 && result.size() < limit) {
+                    int row = chunk * CHUNK_ROWS + (w << 6) + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    Object[] values = new Object[columns.size()];
+                    for (int c = 0; c < values.length; c++) {
+                        values[c] = columns.get(c).getValue(row);
+                    }
+                    result.add(values);
+                }
+            }
+        }
+        return new QueryResult(header, result, matched);
+    }
+
+    private QueryResult groupRows(Partial total, DictionaryColumn groups, NumericSource[] sources) {
+        List<String> header = new ArrayList<>();
+        if (groups != null) {
+            header.add(groups.getName());
+        }
+        for (int a = 0; a < aggregates.size(); a++) {
+            String name = aggregates.get(a).name().toLowerCase(Locale.ROOT);
+            header.add(sources[a] != null ? name + "(" + sources[a].column.getName() + ")" : name);
+        }
+
+        List<Object[]> result = new ArrayList<>();
+        for (int group = 0; group < total.counts.length; group++) {
+            if (groups != null && total.counts[group] == 0) {
+                continue;
+            }
+            Object[] values = new Object[header.size()];
+            int c = 0;
+            if (groups != null) {
+                values[c++] = groups.decode(group);
+            }
+            for (int a = 0; a < aggregates.size(); a++) {
+                values[c++] = total.value(aggregates.get(a), a, group);
+            }
+            result.add(values);
+        }
+        if (groups != null) {
+            result.sort(Comparator.comparing(values -> (String) values[0], Comparator.nullsFirst(Comparator.naturalOrder())));
+        }
+        long matched = result.size();
+        return new QueryResult(header, result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result, matched);
+    }
+
+    // --- Conditions ---
+
+    private interface Filter {
+        // Clears the bits of the rows from..to (exclusive) that do not match; bit 0 of words[0] is row from
+        void apply(int from, int to, long[] words);
+    }
+
+    // Matches no row, e.g. "< Long.MIN_VALUE"
+    private static final Filter NONE = (from, to, words) -> Arrays.fill(words, 0, (to - from + 63) >>> 6, 0L);
+
+    private static final class Condition {
+        final String column;
+        final String op;
+        final String value;
+
+        Condition(String column, String op, String value) {
+            this.column = column;
+            this.op = op;
+            this.value = value;
+        }
+
+        Filter compile(Column target) {
+            if (target instanceof IntColumn || target instanceof LongColumn) {
+                long bound;
+                try {
+                    bound = Long.parseLong(value);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException(target.getName() + " is numeric, but '" + value + "' is not a number");
+                }
+                long lo = Long.MIN_VALUE;
+                long hi = Long.MAX_VALUE;
+                boolean negate = false;
+                switch (op) {
+                    case "=": lo = bound; hi = bound; break;
+                    case "!=": lo = bound; hi = bound; negate = true; break;
+                    case "<":
+                        if (bound == Long.MIN_VALUE) {
+                            return NONE;
+                        }
+                        hi = bound - 1;
+                        break;
+                    case "<=": hi = bound; break;
+                    case ">":
+                        if (bound == Long.MAX_VALUE) {
+                            return NONE;
+                        }
+                        lo = bound + 1;
+                        break;
+                    case ">=": lo = bound; break;
+                    default: throw new IllegalArgumentException("Operator " + op + " does not apply to numeric column " + target.getName());
+                }
+                return target instanceof IntColumn
+                        ? intRange(((IntColumn) target).values(), lo, hi, negate)
+                        : longRange(((LongColumn) target).values(), lo, hi, negate);
+            }
+            Predicate<String> test = stringTest();
+            if (target instanceof DictionaryColumn) {
+                DictionaryColumn dictionary = (DictionaryColumn) target;
+                boolean[] matches = new boolean[dictionary.getDictionarySize()];
+                for (int code = 0; code < matches.length; code++) {
+                    matches[code] = test.test(dictionary.decode(code));
+                }
+                return codes(dictionary.codes(), matches);
+            }
+            return strings(((StringColumn) target).values(), test);
+        }
+
+        // Nulls never match
+        private Predicate<String> stringTest() {
+            switch (op) {
+                case "=": return s -> s != null && s.equalsIgnoreCase(value);
+                case "!=": return s -> s != null && !s.equalsIgnoreCase(value);
+                case "<": return s -> s != null && s.compareToIgnoreCase(value) < 0;
+                case "<=": return s -> s != null && s.compareToIgnoreCase(value) <= 0;
+                case ">": return s -> s != null && s.compareToIgnoreCase(value) > 0;
+                case ">=": return s -> s != null && s.compareToIgnoreCase(value) >= 0;
+                case "starts": return s -> s != null && s.regionMatches(true, 0, value, 0, value.length());
+                default: throw new IllegalArgumentException("Unknown operator: " + op + " (expected = != < <= > >= starts)");
+            }
+        }
+    }
+
+    private static Filter intRange(int[] values, long lo, long hi, boolean negate) {
+        return (from, to, words) -> {
+            for (int w = 0, base = from; base < to; w++, base += 64) {
+                int end = Math.min(base + 64, to);
+                long word = 0;
+                for (int i = base; i < end; i++) {
+                    int v = values[i];
+                    word |= ((v >= lo & v <= hi) != negate ? 1L : 0L) << (i - base);
+                }
+                words[w] &= word;
+            }
+        };
+    }
+
+    private static Filter longRange(long[] values, long lo, long hi, boolean negate) {
+        return (from, to, words) -> {
+            for (int w = 0, base = from; base < to; w++, base += 64) {
+                int end = Math.min(base + 64, to);
+                long word = 0;
+                for (int i = base; i < end; i++) {
+                    long v = values[i];
+                    word |= ((v >= lo & v <= hi) != negate ? 1L : 0L) << (i - base);
+                }
+                words[w] &= word;
+            }
+        };
+    }
+
+    private static Filter codes(int[] codes, boolean[] matches) {
+        return (from, to, words) -> {
+            for (int w = 0, base = from; base < to; w++, base += 64) {
+                int end = Math.min(base + 64, to);
+                long word = 0;
+                for (int i = base; i < end; i++) {
+                    word |= (matches[codes[i]] ? 1L : 0L) << (i - base);
+                }
+                words[w] &= word;
+            }
+        };
+    }
+
+    private static Filter strings(String[] values, Predicate<String> test) {
+        return (from, to, words) -> {
+            for (int w = 0, base = from; base < to; w++, base += 64) {
+                int end = Math.min(base + 64, to);
+                long word = 0;
+                for (int i = base; i < end; i++) {
+                    word |= (test.test(values[i]) ? 1L : 0L) << (i - base);
+                }
+                words[w] &= word;
+            }
+        };
+    }
+
+    // --- Aggregation ---
+
+    // Numeric column read by the aggregation loop without boxing
+    private static final class NumericSource {
+        final Column column;
+        final int[] ints;
+        final long[] longs;
+
+        private NumericSource(Column column, int[] ints, long[] longs) {
+            this.column = column;
+            this.ints = ints;
+            this.longs = longs;
+        }
+
+        static NumericSource of(Column column, Aggregate aggregate) {
+            if (column instanceof IntColumn) {
+                return new NumericSource(column, ((IntColumn) column).values(), null);
+            }
+            if (column instanceof LongColumn) {
+                return new NumericSource(column, null, ((LongColumn) column).values());
+            }
+            throw new IllegalArgumentException("Cannot " + aggregate.name().toLowerCase(Locale.ROOT) + " " + column.getName()
+                    + ": only numeric columns can be aggregated");
+        }
+
+        long get(int row) {
+            return ints != null ? ints[row] : longs[row];
+        }
+    }
+
+    // Per-group accumulators of one chunk, then of the whole table
+    private static final class Partial {
+        final long[] counts;
+        final long[][] sums;
+        final long[][] mins;
+        final long[][] maxs;
+
+        Partial(int groups, int aggregates) {
+            counts = new long[groups];
+            sums = new long[aggregates][groups];
+            mins = new long[aggregates][groups];
+            maxs = new long[aggregates][groups];
+            for (int a = 0; a < aggregates; a++) {
+                Arrays.fill(mins[a], Long.MAX_VALUE);
+                Arrays.fill(maxs[a], Long.MIN_VALUE);
+            }
+        }
+
+        Partial merge(Partial other) {
+            for (int g = 0; g < counts.length; g++) {
+                counts[g] += other.counts[g];
+            }
+            for (int a = 0; a < sums.length; a++) {
+                for (int g = 0; g < counts.length; g++) {
+                    sums[a][g] += other.sums[a][g];
+                    mins[a][g] = Math.min(mins[a][g], other.mins[a][g]);
+                    maxs[a][g] = Math.max(maxs[a][g], other.maxs[a][g]);
+                }
+            }
+            return this;
+        }
+
+        // Null where the group has no rows to take a minimum, maximum or average of
+        Object value(Aggregate aggregate, int a, int group) {
+            long count = counts[group];
+            switch (aggregate) {
+                case COUNT: return count;
+                case SUM: return sums[a][group];
+                case MIN: return count > 0 ? mins[a][group] : null;
+                case MAX: return count > 0 ? maxs[a][group] : null;
+                default: return count > 0 ? (double) sums[a][group] / count : null;
+            }
+        }
+    }
+
+    /**
+     * Rows of a query answer: the matching rows of the table, or one row per group.
+     */
+    public static final class QueryResult {
+        private final List<String> columns;
+        private final List<Object[]> rows;
+        private final long matchedRows;
+
+        QueryResult(List<String> columns, List<Object[]> rows, long matchedRows) {
+            this.columns = Collections.unmodifiableList(columns);
+            this.rows = Collections.unmodifiableList(rows);
+            this.matchedRows = matchedRows;
+        }
+
+        public List<String> getColumns() {
+            return columns;
+        }
+
+        // At most the query's limit of rows
+        public List<Object[]> getRows() {
+            return rows;
+        }
+
+        // Rows or groups that matched, before the limit was applied
+        public long getMatchedRows() {
+            return matchedRows;
+        }
+
+        // Aligned plain-text table
+        public String format() {
+            int[] widths = new int[columns.size()];
+            for (int c = 0; c < widths.length; c++) {
+                widths[c] = columns.get(c).length();
+            }
+            List<String[]> cells = new ArrayList<>(rows.size());
+            for (Object[] row : rows) {
+                String[] text = new String[row.length];
+                for (int c = 0; c < row.length; c++) {
+                    text[c] = row[c] instanceof Double ? String.format(Locale.ROOT, "%.2f", row[c]) : String.valueOf(row[c]);
+                    widths[c] = Math.max(widths[c], text[c].length());
+                }
+                cells.add(text);
+            }
+            StringBuilder out = new StringBuilder();
+            appendLine(out, columns.toArray(new String[0]), widths);
+            for (String[] text : cells) {
+                appendLine(out, text, widths);
+            }
+            return out.toString();
+        }
+
+        private static void appendLine(StringBuilder out, String[] cells, int[] widths) {
+            for (int c = 0; c < cells.length; c++) {
+                if (c > 0) {
+                    out.append("  ");
+                }
+                out.append(cells[c]);
+                if (c < cells.length - 1) {
+                    out.append(" ".repeat(widths[c] - cells[c].length()));
+                }
+            }
+            out.append('\n');
+        }
+    }
+}
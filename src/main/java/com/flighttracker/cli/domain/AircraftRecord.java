@@ -0,0 +1,32 @@
+package com.flighttracker.cli.domain;
+
+/**
+ * Compact, immutable counterpart of {@link Aircraft}, identified by its primitive {@code long} ID
+ * alone. Types and airline names come from a small vocabulary and are deduplicated.
+ */
+public record AircraftRecord(long id, String type, String airlineName, int numberOfPassengers) {
+
+    public AircraftRecord {
+        type = StringPool.dedupe(type);
+        airlineName = StringPool.dedupe(airlineName);
+    }
+
+    public static AircraftRecord of(Aircraft aircraft) {
+        return new AircraftRecord(aircraft.getId(), aircraft.getType(), aircraft.getAirlineName(),
+                aircraft.getNumberOfPassengers());
+    }
+
+    public Aircraft toAircraft() {
+        return new Aircraft(id, type, airlineName, numberOfPassengers);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || o instanceof AircraftRecord && ((AircraftRecord) o).id == id;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(id);
+    }
+}
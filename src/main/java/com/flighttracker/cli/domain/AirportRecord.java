@@ -0,0 +1,25 @@
+package com.flighttracker.cli.domain;
+
+/**
+ * Compact, immutable counterpart of {@link Airport}, identified by its primitive {@code long} ID alone.
+ */
+public record AirportRecord(long id, String name, String code) {
+
+    public static AirportRecord of(Airport airport) {
+        return new AirportRecord(airport.getId(), airport.getName(), airport.getCode());
+    }
+
+    public Airport toAirport() {
+        return new Airport(id, name, code);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || o instanceof AirportRecord && ((AirportRecord) o).id == id;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(id);
+    }
+}
@@ -0,0 +1,31 @@
+package com.flighttracker.cli.domain;
+
+/**
+ * Compact, immutable counterpart of {@link City} for large result sets. The ID is a primitive
+ * {@code long} and the only part of its identity, so hashing and set membership never allocate;
+ * states are deduplicated. Jackson binds the JSON of {@code /cities} straight into it.
+ */
+public record CityRecord(long id, String name, String state, int population) {
+
+    public CityRecord {
+        state = StringPool.dedupe(state);
+    }
+
+    public static CityRecord of(City city) {
+        return new CityRecord(city.getId(), city.getName(), city.getState(), city.getPopulation());
+    }
+
+    public City toCity() {
+        return new City(id, name, state, population);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || o instanceof CityRecord && ((CityRecord) o).id == id;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(id);
+    }
+}
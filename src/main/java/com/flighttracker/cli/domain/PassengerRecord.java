@@ -0,0 +1,31 @@
+package com.flighttracker.cli.domain;
+
+/**
+ * Compact, immutable counterpart of {@link Passenger}, identified by its primitive {@code long} ID
+ * alone. Last names repeat often enough across passengers to be deduplicated.
+ */
+public record PassengerRecord(long id, String firstName, String lastName, String phoneNumber) {
+
+    public PassengerRecord {
+        lastName = StringPool.dedupe(lastName);
+    }
+
+    public static PassengerRecord of(Passenger passenger) {
+        return new PassengerRecord(passenger.getId(), passenger.getFirstName(), passenger.getLastName(),
+                passenger.getPhoneNumber());
+    }
+
+    public Passenger toPassenger() {
+        return new Passenger(id, firstName, lastName, phoneNumber);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || o instanceof PassengerRecord && ((PassengerRecord) o).id == id;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(id);
+    }
+}
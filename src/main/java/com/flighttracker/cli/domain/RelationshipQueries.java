@@ -0,0 +1,16 @@
+package com.flighttracker.cli.domain;
+
+import java.util.Set;
+
+/**
+ * The four relationship questions (Q1-Q4), answerable either by the REST API or by a local index.
+ */
+public interface RelationshipQueries {
+    Set<Airport> getAirportsInCity(Long cityId);
+
+    Set<Aircraft> getAircraftsFlownByPassenger(Long passengerId);
+
+    Set<Airport> getAirportsByAircraft(Long aircraftId);
+
+    Set<Airport> getAirportsUsedByPassenger(Long passengerId);
+}
@@ -0,0 +1,32 @@
+package com.flighttracker.cli.domain;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Deduplicates the few distinct values that repeat across many records (states, airline names,
+ * aircraft types), so a million aircraft share a handful of String instances. Unlike
+ * {@link String#intern()} the pool is bounded: once full, new values are kept as they are.
+ */
+final class StringPool {
+    static final int MAX_SIZE = 1 << 16;
+
+    private static final Map<String, String> POOL = new ConcurrentHashMap<>();
+
+    private StringPool() {}
+
+    static String dedupe(String value) {
+        if (value == null) {
+            return null;
+        }
+        String pooled = POOL.get(value);
+        if (pooled != null) {
+            return pooled;
+        }
+        if (POOL.size() >= MAX_SIZE) {
+            return value;
+        }
+        pooled = POOL.putIfAbsent(value, value);
+        return pooled != null ? pooled : value;
+    }
+}
@@ -0,0 +1,53 @@
+package com.flighttracker.cli.http.client;
+
+import java.util.Objects;
+
+/**
+ * Outcome of a single request: either the deserialized value or the failure that prevented it,
+ * so that "the API returned nothing" and "the API could not be reached" can be told apart.
+ */
+public final class ApiResult<T> {
+    private final T value;
+    private final RESTClientException failure;
+
+    private ApiResult(T value, RESTClientException failure) {
+        this.value = value;
+        this.failure = failure;
+    }
+
+    public static <T> ApiResult<T> success(T value) {
+        return new ApiResult<>(value, null);
+    }
+
+    public static <T> ApiResult<T> failure(RESTClientException failure) {
+        return new ApiResult<>(null, Objects.requireNonNull(failure));
+    }
+
+    public boolean isSuccess() {
+        return failure == null;
+    }
+
+    /**
+     * @throws RESTClientException The failure, if the request did not succeed.
+     */
+    public T getValue() {
+        if (failure != null) {
+            throw failure;
+        }
+        return value;
+    }
+
+    // The failure, or null on success
+    public RESTClientException getFailure() {
+        return failure;
+    }
+
+    public T orElse(T fallback) {
+        return failure == null ? value : fallback;
+    }
+
+    @Override
+    public String toString() {
+        return failure == null ? "Success[" + value + "]" : "Failure[" + failure.getMessage() + "]";
+    }
+}
@@ -0,0 +1,44 @@
+package com.flighttracker.cli.http.client;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Outcome of a bulk relationship query: the answer for every ID that succeeded, the
+ * failure for every ID that did not, and how long the whole sweep took.
+ */
+public class BulkResult<V> {
+    private final Map<Long, V> results = new ConcurrentHashMap<>();
+    private final Map<Long, RESTClientException> failures = new ConcurrentHashMap<>();
+    private volatile long elapsedNanos;
+
+    void addResult(Long id, V value) {
+        results.put(id, value);
+    }
+
+    void addFailure(Long id, RESTClientException failure) {
+        failures.put(id, failure);
+    }
+
+    void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public Map<Long, V> getResults() { return Collections.unmodifiableMap(results); }
+    public Map<Long, RESTClientException> getFailures() { return Collections.unmodifiableMap(failures); }
+    public long getElapsedNanos() { return elapsedNanos; }
+
+    public int getRequestCount() {
+        return results.size() + failures.size();
+    }
+
+    public boolean hasFailures() {
+        return !failures.isEmpty();
+    }
+
+    // Completed requests per second over the whole sweep
+    public double getThroughput() {
+        return elapsedNanos == 0 ? 0 : getRequestCount() * 1_000_000_000.0 / elapsedNanos;
+    }
+}
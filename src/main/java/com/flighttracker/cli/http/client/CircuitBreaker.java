@@ -0,0 +1,105 @@
+package com.flighttracker.cli.http.client;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * One circuit per route (e.g. {@code /cities/{id}/airports}). After {@code failureThreshold}
+ * consecutive server failures the circuit opens and requests fail fast without touching the network.
+ * Once {@code openDuration} has passed a single probe request is let through: its success closes
+ * the circuit, its failure opens it again.
+ */
+public class CircuitBreaker {
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final LongSupplier clock;
+    private final Map<String, Circuit> circuits = new ConcurrentHashMap<>();
+
+    public CircuitBreaker(int failureThreshold, Duration openDuration) {
+        this(failureThreshold, openDuration, System::nanoTime);
+    }
+
+    // Clock injection for tests
+    CircuitBreaker(int failureThreshold, Duration openDuration, LongSupplier clock) {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("failureThreshold must be at least 1");
+        }
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.clock = clock;
+    }
+
+    /**
+     * @return Whether a request to the route may be sent now. Every permitted request must be
+     * followed by {@link #recordSuccess} or {@link #recordFailure}.
+     */
+    public boolean tryAcquire(String route) {
+        Circuit circuit = circuits.computeIfAbsent(route, r -> new Circuit());
+        synchronized (circuit) {
+            switch (circuit.state) {
+                case CLOSED:
+                    return true;
+                case OPEN:
+                    if (clock.getAsLong() - circuit.openedAt < openNanos) {
+                        return false;
+                    }
+                    circuit.state = State.HALF_OPEN;
+                    return true;
+                default:
+                    return false; // the probe is still in flight
+            }
+        }
+    }
+
+    public void recordSuccess(String route) {
+        Circuit circuit = circuits.computeIfAbsent(route, r -> new Circuit());
+        synchronized (circuit) {
+            circuit.state = State.CLOSED;
+            circuit.consecutiveFailures = 0;
+        }
+    }
+
+    public void recordFailure(String route) {
+        Circuit circuit = circuits.computeIfAbsent(route, r -> new Circuit());
+        synchronized (circuit) {
+            circuit.consecutiveFailures++;
+            if (circuit.state == State.HALF_OPEN || circuit.consecutiveFailures >= failureThreshold) {
+                circuit.state = State.OPEN;
+                circuit.openedAt = clock.getAsLong();
+            }
+        }
+    }
+
+    public State getState(String route) {
+        Circuit circuit = circuits.get(route);
+        if (circuit == null) {
+            return State.CLOSED;
+        }
+        synchronized (circuit) {
+            return circuit.state;
+        }
+    }
+
+    // Every route that is not closed, sorted by route
+    public Map<String, State> getTrippedRoutes() {
+        Map<String, State> tripped = new TreeMap<>();
+        circuits.forEach((route, circuit) -> {
+            State state = getState(route);
+            if (state != State.CLOSED) {
+                tripped.put(route, state);
+            }
+        });
+        return tripped;
+    }
+
+    private static final class Circuit {
+        private State state = State.CLOSED;
+        private int consecutiveFailures;
+        private long openedAt;
+    }
+}
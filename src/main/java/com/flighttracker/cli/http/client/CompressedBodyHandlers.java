@@ -0,0 +1,127 @@
+package com.flighttracker.cli.http.client;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.http.HttpResponse;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Body handlers that decode {@code Content-Encoding: gzip} and {@code deflate} responses. Bodies
+ * without a content encoding are handled exactly like the plain JDK handlers.
+ */
+final class CompressedBodyHandlers {
+    static final String ACCEPT_ENCODING = "gzip, deflate";
+
+    private CompressedBodyHandlers() {
+    }
+
+    // The compressed body is buffered (it is the smaller form) and inflated in one pass into the string
+    static HttpResponse.BodyHandler<String> ofString() {
+        return responseInfo -> {
+            String encoding = contentEncoding(responseInfo);
+            if (encoding == null) {
+                return HttpResponse.BodyHandlers.ofString().apply(responseInfo);
+            }
+            Charset charset = charset(responseInfo);
+            return HttpResponse.BodySubscribers.mapping(HttpResponse.BodySubscribers.ofByteArray(), bytes -> {
+                try (InputStream in = decoding(encoding, new ByteArrayInputStream(bytes))) {
+                    return new String(in.readAllBytes(), charset);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        };
+    }
+
+    // Inflates while the caller reads, so a streamed JSON array is decoded chunk by chunk
+    static HttpResponse.BodyHandler<InputStream> ofInputStream() {
+        return responseInfo -> {
+            String encoding = contentEncoding(responseInfo);
+            if (encoding == null) {
+                return HttpResponse.BodyHandlers.ofInputStream().apply(responseInfo);
+            }
+            return HttpResponse.BodySubscribers.mapping(HttpResponse.BodySubscribers.ofInputStream(),
+                    in -> new LazyDecodingInputStream(encoding, in));
+        };
+    }
+
+    private static String contentEncoding(HttpResponse.ResponseInfo responseInfo) {
+        String encoding = responseInfo.headers().firstValue("Content-Encoding").orElse("").trim().toLowerCase();
+        return encoding.equals("gzip") || encoding.equals("deflate") ? encoding : null;
+    }
+
+    // The Content-Type charset, or UTF-8 when there is none or it is not supported, like BodyHandlers.ofString()
+    private static Charset charset(HttpResponse.ResponseInfo responseInfo) {
+        String contentType = responseInfo.headers().firstValue("Content-Type").orElse("");
+        for (String parameter : contentType.split(";")) {
+            String[] pair = parameter.trim().split("=", 2);
+            if (pair.length == 2 && pair[0].trim().equalsIgnoreCase("charset")) {
+                String name = pair[1].trim();
+                if (name.length() > 1 && name.startsWith("\"") && name.endsWith("\"")) {
+                    name = name.substring(1, name.length() - 1);
+                }
+                try {
+                    return Charset.forName(name);
+                } catch (IllegalArgumentException e) {
+                    return StandardCharsets.UTF_8;
+                }
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    private static InputStream decoding(String encoding, InputStream in) throws IOException {
+        return encoding.equals("gzip") ? new GZIPInputStream(in, 8192) : new InflaterInputStream(in);
+    }
+
+    /**
+     * GZIPInputStream reads the gzip header in its constructor, which must not happen on the
+     * thread that hands the body over, so the decoder is only created on the first read.
+     */
+    private static final class LazyDecodingInputStream extends InputStream {
+        private final String encoding;
+        private final InputStream raw;
+        private InputStream decoded;
+
+        private LazyDecodingInputStream(String encoding, InputStream raw) {
+            this.encoding = encoding;
+            this.raw = raw;
+        }
+
+        private InputStream decoded() throws IOException {
+            if (decoded == null) {
+                decoded = decoding(encoding, raw);
+            }
+            return decoded;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return decoded().read();
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            return decoded().read(buffer, offset, length);
+        }
+
+        @Override
+        public int available() throws IOException {
+            return decoded != null ? decoded.available() : 0;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (decoded != null) {
+                decoded.close();
+            } else {
+                raw.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.flighttracker.cli.http.client;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Adaptive limit on the requests in flight (AIMD). Every request answered within the latency
+ * threshold raises the limit by {@code 1/limit}, i.e. by one per window of requests; a request
+ * rejected with 429/503, timed out or slower than the threshold cuts it by the backoff ratio.
+ * Requests over the limit queue up in arrival order.
+ * <p>
+ * Only requests sent after the last cut can cut the limit again, so one burst of overload lowers
+ * it once instead of once per request that was already in flight.
+ */
+public class ConcurrencyLimit {
+    public static final double DEFAULT_BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    private final Queue<CompletableFuture<Permit>> waiters = new ArrayDeque<>();
+    private double limit;
+    private int inFlight;
+    private long generation;
+
+    public ConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, Duration latencyThreshold) {
+        this(initialLimit, minLimit, maxLimit, latencyThreshold, DEFAULT_BACKOFF_RATIO);
+    }
+
+    public ConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, Duration latencyThreshold, double backoffRatio) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= minLimit <= maxLimit");
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("backoffRatio must be between 0 and 1");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * @return A permit, once the request may be sent. Every permit must be released exactly once
+     * through {@link Permit#onSuccess}, {@link Permit#onDropped} or {@link Permit#onIgnore}.
+     */
+    public CompletableFuture<Permit> acquire() {
+        synchronized (this) {
+            if (waiters.isEmpty() && inFlight < (int) limit) {
+                inFlight++;
+                return CompletableFuture.completedFuture(new Permit(generation));
+            }
+            CompletableFuture<Permit> waiter = new CompletableFuture<>();
+            waiters.add(waiter);
+            return waiter;
+        }
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    // Requests waiting for the limit to let them through
+    public synchronized int getQueueDepth() {
+        return waiters.size();
+    }
+
+    private void release(Permit permit, Outcome outcome) {
+        List<CompletableFuture<Permit>> admitted = new ArrayList<>();
+        long current;
+        synchronized (this) {
+            inFlight--;
+            if (outcome == Outcome.SUCCESS) {
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            } else if (outcome == Outcome.DROPPED && permit.generation == generation) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+                generation++;
+            }
+            while (inFlight < (int) limit && !waiters.isEmpty()) {
+                inFlight++;
+                admitted.add(waiters.poll());
+            }
+            current = generation;
+        }
+        // Woken outside the lock: waiters may send their request right here
+        for (CompletableFuture<Permit> waiter : admitted) {
+            Permit next = new Permit(current);
+            if (!waiter.complete(next)) {
+                next.onIgnore(); // the waiter was cancelled
+            }
+        }
+    }
+
+    private enum Outcome { SUCCESS, DROPPED, IGNORE }
+
+    /**
+     * Permission to send one request.
+     */
+    public final class Permit {
+        private final long generation;
+        private boolean released;
+
+        private Permit(long generation) {
+            this.generation = generation;
+        }
+
+        // The server answered; slow answers count as overload
+        public void onSuccess(long latencyNanos) {
+            finish(latencyNanos <= latencyThresholdNanos ? Outcome.SUCCESS : Outcome.DROPPED);
+        }
+
+        // The server shed the request (429/503) or it timed out
+        public void onDropped() {
+            finish(Outcome.DROPPED);
+        }
+
+        // The request failed for a reason that says nothing about the server's load
+        public void onIgnore() {
+            finish(Outcome.IGNORE);
+        }
+
+        private void finish(Outcome outcome) {
+            synchronized (this) {
+                if (released) {
+                    return;
+                }
+                released = true;
+            }
+            release(this, outcome);
+        }
+    }
+}
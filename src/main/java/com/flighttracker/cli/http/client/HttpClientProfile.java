@@ -0,0 +1,75 @@
+package com.flighttracker.cli.http.client;
+
+import java.lang.reflect.Method;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * How the {@link HttpClient} behind a {@link RESTClient} is built. One client is meant to be shared
+ * by every request: over HTTP/2 concurrent requests are multiplexed as streams on one connection,
+ * over HTTP/1.1 the client's keep-alive pool reuses connections between requests.
+ */
+public class HttpClientProfile {
+    private HttpClient.Version version = HttpClient.Version.HTTP_2;
+    private Duration connectTimeout = Duration.ofSeconds(5);
+    private Duration requestTimeout = Duration.ofSeconds(30);
+    private Executor executor;
+    private boolean compression = true;
+
+    // HTTP/2 (falling back to HTTP/1.1 when the server does not speak it), gzip/deflate, default timeouts
+    public static HttpClientProfile defaults() {
+        return new HttpClientProfile();
+    }
+
+    public HttpClient.Version getVersion() { return version; }
+    public void setVersion(HttpClient.Version version) { this.version = version; }
+
+    public Duration getConnectTimeout() { return connectTimeout; }
+    // Null leaves connection establishment unbounded
+    public void setConnectTimeout(Duration connectTimeout) { this.connectTimeout = connectTimeout; }
+
+    public Duration getRequestTimeout() { return requestTimeout; }
+    // Time to wait for the response headers of each request; null waits indefinitely
+    public void setRequestTimeout(Duration requestTimeout) { this.requestTimeout = requestTimeout; }
+
+    public Executor getExecutor() { return executor; }
+    // Executor for the client's internal tasks; null picks virtual threads when the JDK has them
+    public void setExecutor(Executor executor) { this.executor = executor; }
+
+    public boolean isCompression() { return compression; }
+    // Sends Accept-Encoding: gzip, deflate and decodes compressed bodies while they are read
+    public void setCompression(boolean compression) { this.compression = compression; }
+
+    public HttpClient createClient() {
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .version(version)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(executor != null ? executor : defaultExecutor());
+        if (connectTimeout != null) {
+            builder.connectTimeout(connectTimeout);
+        }
+        return builder.build();
+    }
+
+    /**
+     * A virtual thread per task on JDK 21+, looked up reflectively so the project still targets 17.
+     * Older JDKs get a cached pool of daemon threads, which never keeps the CLI from exiting.
+     */
+    public static ExecutorService defaultExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger threads = new AtomicInteger();
+            return Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(task, "flighttracker-http-" + threads.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
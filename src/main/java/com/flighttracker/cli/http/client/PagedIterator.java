@@ -0,0 +1,97 @@
+package com.flighttracker.cli.http.client;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Lazily walks a paginated list endpoint. As soon as a page arrives the request for the following
+ * page is sent, so it downloads while the caller works through the current one; at most two pages
+ * are held at a time.
+ * <p>
+ * {@link #hasNext()} and {@link #next()} throw a {@link RESTClientException} when a page cannot be
+ * fetched. Close the iterator when abandoning it early.
+ */
+public class PagedIterator<T> implements Iterator<T>, AutoCloseable {
+    private final PageSource<T> source;
+    private Iterator<T> current = Collections.emptyIterator();
+    private CompletableFuture<Page<T>> pending;
+    private long pageIndex;
+    private long offset;
+    private int pageCount;
+
+    PagedIterator(PageSource<T> source) {
+        this.source = source;
+        this.pending = source.fetch(0, 0, null);
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!current.hasNext()) {
+            if (pending == null) {
+                return false;
+            }
+            Page<T> page = await(pending);
+            pageCount++;
+            pageIndex++;
+            offset += page.values.size();
+            pending = page.last ? null : source.fetch(pageIndex, offset, page.nextCursor);
+            current = page.values.iterator();
+        }
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return current.next();
+    }
+
+    // Pages received so far
+    public int getPageCount() {
+        return pageCount;
+    }
+
+    // Drops the prefetched page; the response, if it still arrives, is discarded
+    @Override
+    public void close() {
+        if (pending != null) {
+            pending.cancel(false);
+            pending = null;
+        }
+        current = Collections.emptyIterator();
+    }
+
+    private static <T> Page<T> await(CompletableFuture<Page<T>> page) {
+        try {
+            return page.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RESTClientException) {
+                throw (RESTClientException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    // Sends the request for one page
+    interface PageSource<T> {
+        CompletableFuture<Page<T>> fetch(long pageIndex, long offset, String cursor);
+    }
+
+    static final class Page<T> {
+        private final List<T> values;
+        private final boolean last;
+        private final String nextCursor;
+
+        Page(List<T> values, boolean last, String nextCursor) {
+            this.values = values;
+            this.last = last;
+            this.nextCursor = nextCursor;
+        }
+    }
+}
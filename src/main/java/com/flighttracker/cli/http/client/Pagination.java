@@ -0,0 +1,96 @@
+package com.flighttracker.cli.http.client;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * How the API splits a list endpoint into pages, so the parameter names can be matched to the server.
+ * Every page is a plain JSON array.
+ * <ul>
+ *   <li>{@link Style#PAGE}: {@code ?page=0&size=500}; a short page is the last one.</li>
+ *   <li>{@link Style#OFFSET}: {@code ?offset=1000&limit=500}; a short page is the last one.</li>
+ *   <li>{@link Style#CURSOR}: {@code ?size=500&cursor=...}, the next cursor taken from a response
+ *       header; a response without one is the last page.</li>
+ * </ul>
+ */
+public class Pagination {
+    public enum Style { PAGE, OFFSET, CURSOR }
+
+    public static final int DEFAULT_PAGE_SIZE = 500;
+
+    private final Style style;
+    private final int pageSize;
+    private int firstPage = 0;
+    private String pageParam = "page";
+    private String sizeParam = "size";
+    private String offsetParam = "offset";
+    private String limitParam = "limit";
+    private String cursorParam = "cursor";
+    private String cursorHeader = "X-Next-Cursor";
+
+    public Pagination(Style style, int pageSize) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("pageSize must be at least 1");
+        }
+        this.style = style;
+        this.pageSize = pageSize;
+    }
+
+    public Style getStyle() { return style; }
+    public int getPageSize() { return pageSize; }
+
+    public int getFirstPage() { return firstPage; }
+    // Number of the first page for PAGE style, 0 or 1 depending on the server
+    public void setFirstPage(int firstPage) { this.firstPage = firstPage; }
+
+    public String getPageParam() { return pageParam; }
+    public void setPageParam(String pageParam) { this.pageParam = pageParam; }
+
+    public String getSizeParam() { return sizeParam; }
+    public void setSizeParam(String sizeParam) { this.sizeParam = sizeParam; }
+
+    public String getOffsetParam() { return offsetParam; }
+    public void setOffsetParam(String offsetParam) { this.offsetParam = offsetParam; }
+
+    public String getLimitParam() { return limitParam; }
+    public void setLimitParam(String limitParam) { this.limitParam = limitParam; }
+
+    public String getCursorParam() { return cursorParam; }
+    public void setCursorParam(String cursorParam) { this.cursorParam = cursorParam; }
+
+    public String getCursorHeader() { return cursorHeader; }
+    // Response header carrying the cursor of the next page
+    public void setCursorHeader(String cursorHeader) { this.cursorHeader = cursorHeader; }
+
+    /**
+     * @param pageIndex Zero-based number of the page.
+     * @param offset Records returned by the previous pages.
+     * @param cursor Cursor returned with the previous page, null for the first one.
+     */
+    String pageEndpoint(String endpoint, long pageIndex, long offset, String cursor) {
+        StringBuilder url = new StringBuilder(endpoint).append(endpoint.indexOf('?') >= 0 ? '&' : '?');
+        switch (style) {
+            case PAGE:
+                url.append(pageParam).append('=').append(firstPage + pageIndex)
+                        .append('&').append(sizeParam).append('=').append(pageSize);
+                break;
+            case OFFSET:
+                url.append(offsetParam).append('=').append(offset)
+                        .append('&').append(limitParam).append('=').append(pageSize);
+                break;
+            default:
+                url.append(sizeParam).append('=').append(pageSize);
+                if (cursor != null) {
+                    url.append('&').append(cursorParam).append('=').append(URLEncoder.encode(cursor, StandardCharsets.UTF_8));
+                }
+        }
+        return url.toString();
+    }
+
+    boolean isLastPage(int records, String nextCursor) {
+        if (style == Style.CURSOR) {
+            return nextCursor == null || nextCursor.isEmpty() || records == 0;
+        }
+        return records < pageSize;
+    }
+}
@@ -0,0 +1,316 @@
+package com.flighttracker.cli.http.client;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Warms the response cache in the background with data that is likely to be asked for next, e.g.
+ * the entity lists while the menu waits for input, or Q4 for the passenger whose Q2 just ran.
+ * Every prefetch runs on a virtual thread (a daemon thread before JDK 21) and goes through the
+ * client's usual pipeline. A foreground request for the same endpoint therefore joins it through
+ * single flight or finds its result in the cache.
+ * <p>
+ * Prefetches stay out of the way of foreground requests:
+ * <ul>
+ *   <li>At most {@code maxInFlight} prefetches are sent at a time.</li>
+ *   <li>None is sent while requests are queued at the concurrency or rate limit.</li>
+ *   <li>{@link #cancelPending()} drops every prefetch that has not been sent yet.</li>
+ *   <li>Prefetched values must fit a memory budget. This is decided before a request is sent,
+ *       from the size the caller expects or the size of an earlier answer for the endpoint (e.g. a
+ *       stale cache entry). An endpoint of unknown size is not prefetched, so a list that could be
+ *       far larger than the budget is never downloaded in the background.</li>
+ * </ul>
+ */
+public class Prefetcher implements AutoCloseable {
+    public static final long DEFAULT_BUDGET_BYTES = 64L << 20;
+    public static final int DEFAULT_MAX_IN_FLIGHT = 2;
+    // Rough heap size of one deserialized record: the object, its boxed id and a few short strings
+    static final long ESTIMATED_RECORD_BYTES = 200;
+
+    private static final int QUEUED = 0;
+    private static final int RUNNING = 1;
+    private static final int CANCELLED = 2;
+
+    private final RESTClient client;
+    private final long budgetBytes;
+    private final Semaphore slots;
+    private final ExecutorService executor;
+    private final Map<String, Task> tasks = new ConcurrentHashMap<>();
+    // Estimated size of every prefetched value that is still cached
+    private final Map<String, Long> retained = new ConcurrentHashMap<>();
+    // Budget set aside for the prefetches being sent
+    private final Map<String, Long> reserved = new ConcurrentHashMap<>();
+    // Size of the last prefetched answer per endpoint, also when it was dropped
+    private final Map<String, Long> knownBytes = new ConcurrentHashMap<>();
+    // Endpoints turned down for the budget, so each rejection is counted once until one fits again
+    private final Set<String> overBudgetEndpoints = ConcurrentHashMap.newKeySet();
+    private volatile boolean closed;
+
+    private final LongAdder scheduled = new LongAdder();
+    private final LongAdder warmed = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder cancelled = new LongAdder();
+    private final LongAdder overBudget = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    public Prefetcher(RESTClient client) {
+        this(client, DEFAULT_BUDGET_BYTES, DEFAULT_MAX_IN_FLIGHT);
+    }
+
+    public Prefetcher(RESTClient client, long budgetBytes, int maxInFlight) {
+        if (budgetBytes < 0) {
+            throw new IllegalArgumentException("budgetBytes must not be negative");
+        }
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be at least 1");
+        }
+        this.client = client;
+        this.budgetBytes = budgetBytes;
+        this.slots = new Semaphore(maxInFlight);
+        this.executor = HttpClientProfile.defaultExecutor();
+    }
+
+    /**
+     * Schedules a prefetch of an endpoint whose size is known from an earlier answer, e.g. a list
+     * that was loaded before and has gone stale.
+     * @return Whether a prefetch was scheduled.
+     */
+    public boolean prefetch(String endpoint, TypeReference<?> typeRef) {
+        return prefetch(endpoint, typeRef, 0);
+    }
+
+    /**
+     * Schedules a prefetch of the endpoint. Nothing is scheduled when the client has no response
+     * cache, when the endpoint is cached and fresh or already scheduled, when its size is unknown,
+     * or when it does not fit the budget.
+     * @param expectedRecords Records the answer is expected to hold, or 0 if only an earlier answer tells.
+     * @return Whether a prefetch was scheduled.
+     */
+    public boolean prefetch(String endpoint, TypeReference<?> typeRef, long expectedRecords) {
+        ResponseCache cache = client.getResponseCache();
+        if (closed || cache == null || cache.isFresh(endpoint)) {
+            return false;
+        }
+        long bytes = expectedBytes(endpoint, expectedRecords, cache);
+        if (bytes < 0 || !fits(endpoint, bytes)) {
+            return false;
+        }
+        Task task = new Task(endpoint, typeRef, bytes);
+        if (tasks.putIfAbsent(endpoint, task) != null) {
+            return false;
+        }
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            tasks.remove(endpoint, task);
+            return false;
+        }
+        scheduled.increment();
+        return true;
+    }
+
+    /**
+     * Drops every prefetch that has not been sent yet. Prefetches already sent are left to finish:
+     * their answer is on its way, and a foreground request for the same endpoint joins them.
+     */
+    public void cancelPending() {
+        for (Task task : tasks.values()) {
+            if (task.state.compareAndSet(QUEUED, CANCELLED)) {
+                cancelled.increment();
+                Thread thread = task.thread;
+                if (thread != null) {
+                    thread.interrupt(); // it may be waiting for a slot
+                }
+            }
+        }
+    }
+
+    /**
+     * Waits for a prefetch of the endpoint that has already been sent within the budget, so that a
+     * request which cannot join it (a streamed list) reads its result from the cache instead of
+     * sending another. A prefetch not sent yet is cancelled instead, so the caller sends its own
+     * request right away.
+     * @return Whether there was a prefetch to wait for.
+     */
+    public boolean awaitInFlight(String endpoint) {
+        Task task = tasks.get(endpoint);
+        if (task == null) {
+            return false;
+        }
+        if (task.state.compareAndSet(QUEUED, CANCELLED)) {
+            cancelled.increment();
+            Thread thread = task.thread;
+            if (thread != null) {
+                thread.interrupt();
+            }
+            return false;
+        }
+        if (!task.sent) {
+            return false;
+        }
+        task.done.join();
+        return true;
+    }
+
+    // Cancels what has not been sent and schedules nothing more; sent prefetches finish in the background
+    @Override
+    public void close() {
+        closed = true;
+        cancelPending();
+        executor.shutdown();
+    }
+
+    // Estimated heap size of the prefetched values that are still cached
+    public synchronized long getRetainedBytes() {
+        ResponseCache cache = client.getResponseCache();
+        retained.keySet().removeIf(endpoint -> cache == null || !cache.contains(endpoint));
+        return retained.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    // What is retained plus what is set aside for the prefetches being sent
+    private synchronized long committedBytes() {
+        return getRetainedBytes() + reserved.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    // Whether a value of this size fits next to what is committed; a rejection is counted once per endpoint
+    private synchronized boolean fits(String endpoint, long bytes) {
+        if (committedBytes() + bytes > budgetBytes) {
+            if (overBudgetEndpoints.add(endpoint)) {
+                overBudget.increment();
+            }
+            return false;
+        }
+        overBudgetEndpoints.remove(endpoint);
+        return true;
+    }
+
+    // The larger of the expected size and any size seen before; -1 if neither is known
+    private long expectedBytes(String endpoint, long expectedRecords, ResponseCache cache) {
+        long bytes = expectedRecords > 0 ? expectedRecords * ESTIMATED_RECORD_BYTES : -1;
+        ResponseCache.Entry entry = cache.getEntry(endpoint);
+        if (entry != null) {
+            bytes = Math.max(bytes, estimateBytes(entry.getValue()));
+        }
+        return Math.max(bytes, knownBytes.getOrDefault(endpoint, -1L));
+    }
+
+    public long getBudgetBytes() { return budgetBytes; }
+    public long getScheduledCount() { return scheduled.sum(); }
+    // Prefetches whose result was cached for the foreground
+    public long getWarmedCount() { return warmed.sum(); }
+    // Prefetches that were not sent because the data was cached meanwhile or requests were queued
+    public long getSkippedCount() { return skipped.sum(); }
+    public long getCancelledCount() { return cancelled.sum(); }
+    // Endpoints not prefetched, or dropped after an underestimate, because they did not fit the budget
+    public long getOverBudgetCount() { return overBudget.sum(); }
+    public long getFailedCount() { return failed.sum(); }
+
+    @Override
+    public String toString() {
+        return "Prefetcher{scheduled=" + getScheduledCount() + ", warmed=" + getWarmedCount()
+                + ", skipped=" + getSkippedCount() + ", cancelled=" + getCancelledCount()
+                + ", overBudget=" + getOverBudgetCount() + ", failed=" + getFailedCount()
+                + ", retained=" + (getRetainedBytes() >> 10) + "/" + (budgetBytes >> 10) + " KiB}";
+    }
+
+    static long estimateBytes(Object value) {
+        return value instanceof Collection ? ((Collection<?>) value).size() * ESTIMATED_RECORD_BYTES : ESTIMATED_RECORD_BYTES;
+    }
+
+    // Requests already waiting for the limits come before any prefetch
+    private boolean foregroundQueued() {
+        ConcurrencyLimit limit = client.getConcurrencyLimit();
+        RateLimiter limiter = client.getRateLimiter();
+        return limit != null && limit.getQueueDepth() > 0 || limiter != null && limiter.getQueueDepth() > 0;
+    }
+
+    private void fetch(Task task) {
+        String endpoint = task.endpoint;
+        ResponseCache cache = client.getResponseCache();
+        if (cache == null || cache.isFresh(endpoint) || foregroundQueued()) {
+            skipped.increment();
+            return;
+        }
+        // The budget is set aside before sending, since it cannot be taken back from a download
+        synchronized (this) {
+            if (!fits(endpoint, task.expectedBytes)) {
+                return;
+            }
+            reserved.put(endpoint, task.expectedBytes);
+        }
+        task.sent = true;
+        Object value;
+        try {
+            value = client.getResource(endpoint, task.typeRef);
+        } catch (RESTClientException e) {
+            reserved.remove(endpoint);
+            failed.increment();
+            return;
+        }
+        long bytes = estimateBytes(value);
+        knownBytes.put(endpoint, bytes);
+        synchronized (this) {
+            reserved.remove(endpoint);
+            // The answer was larger than expected; its size is known now, so it is not fetched again
+            if (!fits(endpoint, bytes)) {
+                cache.invalidate(endpoint);
+                return;
+            }
+            retained.put(endpoint, bytes);
+        }
+        warmed.increment();
+    }
+
+    private final class Task implements Runnable {
+        final String endpoint;
+        final TypeReference<?> typeRef;
+        final long expectedBytes;
+        final AtomicInteger state = new AtomicInteger(QUEUED);
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+        volatile Thread thread;
+        // Set once the budget is reserved and the request is on its way
+        volatile boolean sent;
+
+        Task(String endpoint, TypeReference<?> typeRef, long expectedBytes) {
+            this.endpoint = endpoint;
+            this.typeRef = typeRef;
+            this.expectedBytes = expectedBytes;
+        }
+
+        @Override
+        public void run() {
+            // Published before the state is read, so a cancellation either sees the thread or is seen by it
+            thread = Thread.currentThread();
+            try {
+                if (state.get() != QUEUED) {
+                    return;
+                }
+                slots.acquire();
+                try {
+                    if (state.compareAndSet(QUEUED, RUNNING)) {
+                        fetch(this);
+                    }
+                } finally {
+                    slots.release();
+                }
+            } catch (InterruptedException e) {
+                // Cancelled while waiting for a slot
+            } finally {
+                thread = null;
+                Thread.interrupted();
+                tasks.remove(endpoint, this);
+                done.complete(null);
+            }
+        }
+    }
+}
@@ -1,28 +1,89 @@
 package com.flighttracker.cli.http.client;
 
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.flighttracker.cli.domain.Aircraft;
+import com.flighttracker.cli.domain.AircraftRecord;
 import com.flighttracker.cli.domain.Airport;
+import com.flighttracker.cli.domain.AirportRecord;
 import com.flighttracker.cli.domain.City;
+import com.flighttracker.cli.domain.CityRecord;
 import com.flighttracker.cli.domain.Passenger;
+import com.flighttracker.cli.domain.PassengerRecord;
+import com.flighttracker.cli.domain.RelationshipQueries;
+import com.flighttracker.cli.metrics.RequestMetrics;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+public class RESTClient implements RelationshipQueries {
+    public static final TypeReference<List<City>> CITY_LIST = new TypeReference<>() {};
+    public static final TypeReference<List<Airport>> AIRPORT_LIST = new TypeReference<>() {};
+    public static final TypeReference<List<Passenger>> PASSENGER_LIST = new TypeReference<>() {};
+    public static final TypeReference<List<Aircraft>> AIRCRAFT_LIST = new TypeReference<>() {};
+    public static final TypeReference<Set<Airport>> AIRPORT_SET = new TypeReference<>() {};
+    public static final TypeReference<Set<Aircraft>> AIRCRAFT_SET = new TypeReference<>() {};
+
+    public static final int DEFAULT_MAX_IN_FLIGHT = 16;
+
+    // Only loaded once a compact-record method is called, so plain runs never create these
+    private static final class RecordTypes {
+        static final TypeReference<List<CityRecord>> CITY_RECORD_LIST = new TypeReference<>() {};
+        static final TypeReference<List<AirportRecord>> AIRPORT_RECORD_LIST = new TypeReference<>() {};
+        static final TypeReference<List<PassengerRecord>> PASSENGER_RECORD_LIST = new TypeReference<>() {};
+        static final TypeReference<List<AircraftRecord>> AIRCRAFT_RECORD_LIST = new TypeReference<>() {};
+        static final TypeReference<Set<AirportRecord>> AIRPORT_RECORD_SET = new TypeReference<>() {};
+        static final TypeReference<Set<AircraftRecord>> AIRCRAFT_RECORD_SET = new TypeReference<>() {};
+    }
 
-public class RESTClient {
     private String serverURL;
-    private HttpClient httpClient;
-    private final ObjectMapper objectMapper;
+    private HttpClientProfile profile = HttpClientProfile.defaults();
+    private volatile HttpClient httpClient;
+    private volatile ObjectMapper objectMapper;
+    private Executor executor;
+    private ResponseCache responseCache;
+    private boolean conditionalRequests;
+    private boolean offline;
+    private RequestMetrics metrics;
+    private RetryPolicy retryPolicy;
+    private CircuitBreaker circuitBreaker;
+    private Duration requestTimeout;
+    private Duration hedgeDelay;
+    private boolean compression;
+    private Pagination pagination;
+    private SingleFlight singleFlight;
+    private RateLimiter rateLimiter;
+    private ConcurrencyLimit concurrencyLimit;
+    private final LongAdder hedgesSent = new LongAdder();
 
     // Constructor for dependency injection (useful for testing)
     public RESTClient(HttpClient httpClient, ObjectMapper objectMapper) {
@@ -32,9 +93,18 @@ public class RESTClient {
 
     // Default constructor for direct use in the main application
     public RESTClient() {
-        this.httpClient = HttpClient.newHttpClient();
-        this.objectMapper = new ObjectMapper();
-        this.objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        this(HttpClientProfile.defaults());
+    }
+
+    /**
+     * Adopts the profile's timeout and compression settings. The HTTP client and the JSON mapper are
+     * only built on the first request that needs them, so runs answered entirely from a snapshot
+     * never pay for either.
+     */
+    public RESTClient(HttpClientProfile profile) {
+        this.profile = profile;
+        this.requestTimeout = profile.getRequestTimeout();
+        this.compression = profile.isCompression();
     }
 
     public String getServerURL() {
@@ -46,101 +116,1109 @@ public class RESTClient {
     }
 
     public HttpClient getClient() {
-        if (httpClient == null) {
-            httpClient = HttpClient.newHttpClient();
+        HttpClient client = httpClient;
+        if (client == null) {
+            synchronized (this) {
+                client = httpClient;
+                if (client == null) {
+                    client = profile.createClient();
+                    httpClient = client;
+                }
+            }
         }
-        return httpClient;
+        return client;
     }
 
-    private <T> T sendGetRequest(String endpoint, TypeReference<T> typeRef) {
-        if (serverURL == null || serverURL.isEmpty()) {
-            System.err.println("Error: Server URL is not set in RESTClient.");
-            return null;
+    private ObjectMapper mapper() {
+        ObjectMapper mapper = objectMapper;
+        if (mapper == null) {
+            synchronized (this) {
+                mapper = objectMapper;
+                if (mapper == null) {
+                    mapper = new ObjectMapper();
+                    mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+                    objectMapper = mapper;
+                }
+            }
+        }
+        return mapper;
+    }
+
+    // The mapper responses are bound with, for callers that decode API JSON of their own
+    public ObjectMapper getObjectMapper() {
+        return mapper();
+    }
+
+    public Executor getExecutor() {
+        if (executor == null) {
+            executor = ForkJoinPool.commonPool();
         }
+        return executor;
+    }
+
+    // Executor that runs deserialization and callbacks of the *Async methods
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    public ResponseCache getResponseCache() {
+        return responseCache;
+    }
 
-        HttpRequest request = HttpRequest.newBuilder()
+    // Serves repeated GETs from memory while fresh; null disables caching
+    public void setResponseCache(ResponseCache responseCache) {
+        this.responseCache = responseCache;
+    }
+
+    public boolean isConditionalRequests() {
+        return conditionalRequests;
+    }
+
+    /**
+     * Revalidates stale response cache entries with If-None-Match / If-Modified-Since and reuses
+     * the cached value on 304 Not Modified. Has no effect without a response cache.
+     */
+    public void setConditionalRequests(boolean conditionalRequests) {
+        this.conditionalRequests = conditionalRequests;
+    }
+
+    public boolean isOffline() {
+        return offline;
+    }
+
+    // Serves every request from the response cache, stale entries included, and never touches the network
+    public void setOffline(boolean offline) {
+        this.offline = offline;
+    }
+
+    public RequestMetrics getMetrics() {
+        return metrics;
+    }
+
+    // Records per-route counters and latency histograms of every network request; null disables it
+    public void setMetrics(RequestMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    // Retries transient failures of every GET; null disables retries
+    public void setRetryPolicy(RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    // Fails requests fast while their route keeps failing; null disables it
+    public void setCircuitBreaker(CircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    public Duration getRequestTimeout() {
+        return requestTimeout;
+    }
+
+    // Time to wait for the response headers of each attempt; null waits indefinitely
+    public void setRequestTimeout(Duration requestTimeout) {
+        this.requestTimeout = requestTimeout;
+    }
+
+    public Duration getHedgeDelay() {
+        return hedgeDelay;
+    }
+
+    /**
+     * Sends a duplicate request when an attempt has not completed within the delay, trading extra load
+     * for a shorter latency tail. Pick a delay near the route's p95. Null disables hedging.
+     */
+    public void setHedgeDelay(Duration hedgeDelay) {
+        this.hedgeDelay = hedgeDelay;
+    }
+
+    // Number of duplicate requests sent by hedging so far
+    public long getHedgesSent() {
+        return hedgesSent.sum();
+    }
+
+    public boolean isCompression() {
+        return compression;
+    }
+
+    // Asks for gzip/deflate bodies and decodes them while they are read
+    public void setCompression(boolean compression) {
+        this.compression = compression;
+    }
+
+    public Pagination getPagination() {
+        return pagination;
+    }
+
+    // Fetches the list endpoints page by page; null expects each list in a single response
+    public void setPagination(Pagination pagination) {
+        this.pagination = pagination;
+    }
+
+    public SingleFlight getSingleFlight() {
+        return singleFlight;
+    }
+
+    // Lets concurrent identical GETs share one request and one deserialized result; null disables it
+    public void setSingleFlight(SingleFlight singleFlight) {
+        this.singleFlight = singleFlight;
+    }
+
+    public RateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    // Caps the rate of network requests, retries and hedges included; null sends without delay
+    public void setRateLimiter(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    public ConcurrencyLimit getConcurrencyLimit() {
+        return concurrencyLimit;
+    }
+
+    // Adapts the number of network requests in flight to the server's latency and 429/503 answers; null disables it
+    public void setConcurrencyLimit(ConcurrencyLimit concurrencyLimit) {
+        this.concurrencyLimit = concurrencyLimit;
+    }
+
+    /**
+     * Creates a client that shares this client's HTTP client, mapper, server URL, executor, metrics and
+     * resilience settings but keeps responses in its own cache. Its requests are coalesced only with each
+     * other, since a value shared with this client would never reach the new cache.
+     */
+    public RESTClient withResponseCache(ResponseCache cache, boolean conditionalRequests) {
+        RESTClient copy = new RESTClient(getClient(), mapper());
+        copy.serverURL = serverURL;
+        copy.executor = executor;
+        copy.offline = offline;
+        copy.metrics = metrics;
+        copy.retryPolicy = retryPolicy;
+        copy.circuitBreaker = circuitBreaker;
+        copy.requestTimeout = requestTimeout;
+        copy.hedgeDelay = hedgeDelay;
+        copy.compression = compression;
+        copy.pagination = pagination;
+        copy.singleFlight = singleFlight != null ? new SingleFlight() : null;
+        copy.rateLimiter = rateLimiter;
+        copy.concurrencyLimit = concurrencyLimit;
+        copy.responseCache = cache;
+        copy.conditionalRequests = conditionalRequests;
+        return copy;
+    }
+
+    private HttpRequest buildGetRequest(String endpoint) {
+        return buildGetRequest(endpoint, null);
+    }
+
+    private HttpRequest buildGetRequest(String endpoint, ResponseCache.Entry stale) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder()
                 .uri(URI.create(serverURL + endpoint))
                 .header("Accept", "application/json")
-                .GET()
-                .build();
+                .GET();
+        if (requestTimeout != null) {
+            builder.timeout(requestTimeout);
+        }
+        if (compression) {
+            builder.header("Accept-Encoding", CompressedBodyHandlers.ACCEPT_ENCODING);
+        }
+        if (stale != null) {
+            if (stale.getETag() != null) {
+                builder.header("If-None-Match", stale.getETag());
+            }
+            if (stale.getLastModified() != null) {
+                builder.header("If-Modified-Since", stale.getLastModified());
+            }
+        }
+        return builder.build();
+    }
 
+    /**
+     * Request pipeline shared by the blocking and asynchronous APIs. The returned future
+     * completes exceptionally with a {@link RESTClientException} when the endpoint cannot be read.
+     * @param blocking Whether to use {@code HttpClient.send} on the calling thread instead of {@code sendAsync}.
+     */
+    private <T> CompletableFuture<T> fetch(String endpoint, TypeReference<T> typeRef, boolean blocking) {
+        return fetch(endpoint, typeRef, blocking, true);
+    }
+
+    /**
+     * @param cacheable Whether the response cache may serve and store this value. The cache holds one
+     * value per endpoint, so only the endpoint's usual type may use it.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<T> fetch(String endpoint, TypeReference<T> typeRef, boolean blocking, boolean cacheable) {
+        if (offline) {
+            Object cached = cacheable ? cachedValue(endpoint) : null;
+            return cached != null
+                    ? CompletableFuture.completedFuture((T) cached)
+                    : CompletableFuture.failedFuture(new RESTClientException(endpoint, "Offline and no cached data for " + endpoint, null));
+        }
+        if (serverURL == null || serverURL.isEmpty()) {
+            return CompletableFuture.failedFuture(new RESTClientException(endpoint, "Server URL is not set in RESTClient.", null));
+        }
+
+        ResponseCache cache = cacheable ? responseCache : null;
+        if (cache != null) {
+            // The cache only ever holds what this endpoint's TypeReference produced
+            T cached = (T) cache.get(endpoint);
+            if (cached != null) {
+                return CompletableFuture.completedFuture(cached);
+            }
+        }
+
+        SingleFlight flights = singleFlight;
+        if (flights == null) {
+            return send(endpoint, typeRef, blocking, cache);
+        }
+        // A blocking caller that joins an asynchronous call simply waits for it in join()
+        return flights.execute(endpoint, typeRef.getType(), () -> send(endpoint, typeRef, blocking, cache));
+    }
+
+    private <T> CompletableFuture<T> send(String endpoint, TypeReference<T> typeRef, boolean blocking, ResponseCache cache) {
+        ResponseCache.Entry stale = cache != null && conditionalRequests ? cache.getEntry(endpoint) : null;
+        ResponseCache.Entry revalidating = stale != null && stale.hasValidators() ? stale : null;
+        return execute(endpoint, revalidating, (ep, response, timer) -> readResponse(ep, response, typeRef, cache, revalidating, timer),
+                blocking, 1);
+    }
+
+    /**
+     * Sends the request through the circuit breaker and retries transient failures with backoff.
+     * Blocking callers wait out the backoff on their own thread; asynchronous callers are resumed
+     * on the executor once it has passed.
+     */
+    private <T> CompletableFuture<T> execute(String endpoint, ResponseCache.Entry revalidating, ResponseReader<T> reader,
+                                             boolean blocking, int attempt) {
+        CircuitBreaker breaker = circuitBreaker;
+        String route = RequestMetrics.route(endpoint);
+        if (breaker != null && !breaker.tryAcquire(route)) {
+            return CompletableFuture.failedFuture(new RESTClientException(endpoint, "Circuit open for " + route, null));
+        }
+
+        return hedge(endpoint, revalidating, reader, blocking).handle((value, error) -> {
+            if (error == null) {
+                if (breaker != null) {
+                    breaker.recordSuccess(route);
+                }
+                return CompletableFuture.completedFuture(value);
+            }
+            RESTClientException failure = asClientException(endpoint, error);
+            if (breaker != null) {
+                // A 4xx means the backend is up and answering; only outages count against the circuit
+                if (failure.hasStatus() && failure.getStatusCode() < 500) {
+                    breaker.recordSuccess(route);
+                } else {
+                    breaker.recordFailure(route);
+                }
+            }
+            RetryPolicy retry = retryPolicy;
+            if (retry == null || attempt >= retry.getMaxAttempts() || !retry.isRetryable(failure)) {
+                return CompletableFuture.<T>failedFuture(failure);
+            }
+            Duration delay = retry.backoff(attempt);
+            if (blocking) {
+                try {
+                    Thread.sleep(delay.toMillis());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return CompletableFuture.<T>failedFuture(failure);
+                }
+                return execute(endpoint, revalidating, reader, true, attempt + 1);
+            }
+            return CompletableFuture.runAsync(() -> {}, CompletableFuture.delayedExecutor(delay.toNanos(), TimeUnit.NANOSECONDS, getExecutor()))
+                    .thenCompose(ignored -> execute(endpoint, revalidating, reader, false, attempt + 1));
+        }).thenCompose(Function.identity());
+    }
+
+    /**
+     * Sends a second, identical request when the first has not answered within the hedge delay and
+     * takes whichever succeeds first. Hedged requests always go through {@code sendAsync}.
+     */
+    private <T> CompletableFuture<T> hedge(String endpoint, ResponseCache.Entry revalidating, ResponseReader<T> reader,
+                                           boolean blocking) {
+        Duration delay = hedgeDelay;
+        if (delay == null) {
+            return exchange(endpoint, revalidating, reader, blocking);
+        }
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicInteger outstanding = new AtomicInteger(1);
+        BiConsumer<T, Throwable> settle = (value, error) -> {
+            if (error == null) {
+                result.complete(value);
+            } else if (outstanding.decrementAndGet() == 0) {
+                result.completeExceptionally(error);
+            }
+        };
+        exchange(endpoint, revalidating, reader, false).whenComplete(settle);
+        CompletableFuture.delayedExecutor(delay.toNanos(), TimeUnit.NANOSECONDS, getExecutor()).execute(() -> {
+            // Skip the hedge if the first request already finished, successfully or not
+            if (!result.isDone() && outstanding.getAndIncrement() > 0) {
+                hedgesSent.increment();
+                exchange(endpoint, revalidating, reader, false).whenComplete(settle);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * One network round trip, once the concurrency limit and the rate limiter let it through.
+     * Blocking callers wait for both on their own thread.
+     */
+    private <T> CompletableFuture<T> exchange(String endpoint, ResponseCache.Entry revalidating, ResponseReader<T> reader,
+                                              boolean blocking) {
+        ConcurrencyLimit limit = concurrencyLimit;
+        RateLimiter limiter = rateLimiter;
+        if (limit == null && limiter == null) {
+            return roundTrip(endpoint, revalidating, reader, blocking, null);
+        }
+        if (blocking) {
+            ConcurrencyLimit.Permit permit = limit != null ? limit.acquire().join() : null;
+            try {
+                if (limiter != null) {
+                    limiter.acquire();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                if (permit != null) {
+                    permit.onIgnore();
+                }
+                return CompletableFuture.failedFuture(asClientException(endpoint, e));
+            }
+            return roundTrip(endpoint, revalidating, reader, true, permit);
+        }
+        CompletableFuture<ConcurrencyLimit.Permit> admitted = limit != null
+                ? limit.acquire() : CompletableFuture.completedFuture(null);
+        return admitted.thenCompose(permit -> limiter == null ? roundTrip(endpoint, revalidating, reader, false, permit)
+                : limiter.acquireAsync(getExecutor()).thenCompose(ignored -> roundTrip(endpoint, revalidating, reader, false, permit)));
+    }
+
+    private <T> CompletableFuture<T> roundTrip(String endpoint, ResponseCache.Entry revalidating, ResponseReader<T> reader,
+                                               boolean blocking, ConcurrencyLimit.Permit permit) {
+        HttpRequest request = buildGetRequest(endpoint, revalidating);
+        RequestMetrics.RequestTimer timer = metrics != null ? metrics.start(endpoint) : null;
+        HttpResponse.BodyHandler<String> body = compression ? CompressedBodyHandlers.ofString() : HttpResponse.BodyHandlers.ofString();
+        HttpResponse.BodyHandler<String> handler = timer != null ? timer.wrap(body) : body;
+        long sentAt = System.nanoTime();
+        CompletableFuture<HttpResponse<String>> received = (blocking ? send(request, handler) : getClient().sendAsync(request, handler))
+                .handle((response, error) -> {
+                    if (permit != null) {
+                        release(permit, response != null ? response.statusCode() : -1, error, System.nanoTime() - sentAt);
+                    }
+                    return received(endpoint, response, error, timer);
+                });
+        if (blocking) {
+            return received.thenApply(response -> reader.read(endpoint, response, timer));
+        }
+        return received.thenApplyAsync(response -> reader.read(endpoint, response, timer), getExecutor());
+    }
+
+    // Turns a received response into the caller's value, or throws a RESTClientException
+    private interface ResponseReader<T> {
+        T read(String endpoint, HttpResponse<String> response, RequestMetrics.RequestTimer timer);
+    }
+
+    private static HttpResponse<String> received(String endpoint, HttpResponse<String> response, Throwable error,
+                                                 RequestMetrics.RequestTimer timer) {
+        if (error != null) {
+            if (timer != null) {
+                timer.failed();
+            }
+            throw asClientException(endpoint, error);
+        }
+        if (timer != null) {
+            timer.bodyReceived(response.statusCode());
+        }
+        return response;
+    }
+
+    // Feeds the outcome of a round trip back into the concurrency limit
+    private static void release(ConcurrencyLimit.Permit permit, int status, Throwable error, long latencyNanos) {
+        if (permit == null) {
+            return;
+        }
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (status == 429 || status == 503 || cause instanceof HttpTimeoutException) {
+            permit.onDropped();
+        } else if (error != null) {
+            permit.onIgnore();
+        } else {
+            permit.onSuccess(latencyNanos);
+        }
+    }
+
+    // Fresh cache value, or any cached value at all when offline
+    private Object cachedValue(String endpoint) {
+        ResponseCache cache = responseCache;
+        if (cache == null) {
+            return null;
+        }
+        if (offline) {
+            ResponseCache.Entry entry = cache.getEntry(endpoint);
+            return entry != null ? entry.getValue() : null;
+        }
+        return cache.get(endpoint);
+    }
+
+    private CompletableFuture<HttpResponse<String>> send(HttpRequest request, HttpResponse.BodyHandler<String> handler) {
         try {
-            HttpResponse<String> response = getClient().send(request, HttpResponse.BodyHandlers.ofString());
+            return CompletableFuture.completedFuture(getClient().send(request, handler));
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        }
+    }
 
-            if (response.statusCode() == 200) {
-                return objectMapper.readValue(response.body(), typeRef);
+    @SuppressWarnings("unchecked")
+    private <T> T readResponse(String endpoint, HttpResponse<String> response, TypeReference<T> typeRef, ResponseCache cache,
+                               ResponseCache.Entry revalidating, RequestMetrics.RequestTimer timer) {
+        int status = response.statusCode();
+        if (status == 304 && revalidating != null && cache != null) {
+            Object current = cache.revalidated(endpoint);
+            return (T) (current != null ? current : revalidating.getValue());
+        }
+        if (status != 200) {
+            throw new RESTClientException(endpoint, status, response.body());
+        }
+        T value;
+        try {
+            value = mapper().readValue(response.body(), typeRef);
+        } catch (JsonProcessingException e) {
+            throw asClientException(endpoint, e);
+        }
+        if (timer != null) {
+            timer.deserialized();
+        }
+        if (cache != null) {
+            if (conditionalRequests) {
+                cache.put(endpoint, value, response.headers().firstValue("ETag").orElse(null),
+                        response.headers().firstValue("Last-Modified").orElse(null));
             } else {
-                System.out.println("Error fetching " + endpoint + ": HTTP Status " + response.statusCode());
-                System.out.println("Response Body: " + response.body());
-                return null;
+                cache.put(endpoint, value);
             }
-        } catch (IOException | InterruptedException e) {
-            System.err.println("Network/IO Error fetching " + endpoint + ": " + e.getMessage());
-            e.printStackTrace();
-            return null;
         }
+        return value;
     }
 
-    public List<City> getAllCities() {
-        List<City> cities = sendGetRequest("/cities", new TypeReference<List<City>>() {});
-        return cities != null ? cities : Collections.emptyList();
+    private static RESTClientException asClientException(String endpoint, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof RESTClientException) {
+            return (RESTClientException) cause;
+        }
+        // Some network errors (e.g. a refused connection) carry no message of their own
+        return new RESTClientException(endpoint, cause.getMessage() != null ? cause.getMessage() : cause.toString(), cause);
     }
 
-    public List<Airport> getAllAirports() {
-        List<Airport> airports = new ArrayList<>();
+    // Prints the failure the same way for every caller and turns it into a null result
+    private static <T> T reportFailure(String endpoint, Throwable error) {
+        RESTClientException failure = asClientException(endpoint, error);
+        if (failure.hasStatus()) {
+            System.out.println("Error fetching " + endpoint + ": HTTP Status " + failure.getStatusCode());
+            System.out.println("Response Body: " + failure.getResponseBody());
+        } else if (failure.getCause() == null) {
+            System.err.println("Error: " + failure.getMessage());
+        } else {
+            System.err.println("Network/IO Error fetching " + endpoint + ": " + failure.getMessage());
+            failure.getCause().printStackTrace();
+        }
+        return null;
+    }
+
+    /**
+     * Fetches and deserializes any GET endpoint through the full request pipeline.
+     * @throws RESTClientException If the endpoint cannot be fetched.
+     */
+    public <T> T getResource(String endpoint, TypeReference<T> typeRef) {
+        try {
+            return fetch(endpoint, typeRef, true).join();
+        } catch (CompletionException e) {
+            throw asClientException(endpoint, e);
+        }
+    }
+
+    // Like getResource, but never answered from or stored in the response cache (e.g. change feeds)
+    public <T> T getFreshResource(String endpoint, TypeReference<T> typeRef) {
+        try {
+            return fetch(endpoint, typeRef, true, false).join();
+        } catch (CompletionException e) {
+            throw asClientException(endpoint, e);
+        }
+    }
+
+    // Like getResource, but the future completes exceptionally with a RESTClientException instead
+    public <T> CompletableFuture<T> getResourceAsync(String endpoint, TypeReference<T> typeRef) {
+        return fetch(endpoint, typeRef, false);
+    }
+
+    // Like getResource, but the failure is returned instead of thrown
+    public <T> ApiResult<T> getResult(String endpoint, TypeReference<T> typeRef) {
+        return fetch(endpoint, typeRef, true).handle((value, error) -> asResult(endpoint, value, error)).join();
+    }
+
+    public <T> CompletableFuture<ApiResult<T>> getResultAsync(String endpoint, TypeReference<T> typeRef) {
+        return fetch(endpoint, typeRef, false).handle((value, error) -> asResult(endpoint, value, error));
+    }
+
+    private static <T> ApiResult<T> asResult(String endpoint, T value, Throwable error) {
+        return error == null ? ApiResult.success(value) : ApiResult.failure(asClientException(endpoint, error));
+    }
+
+    private <T> T sendGetRequest(String endpoint, TypeReference<T> typeRef) {
+        return fetch(endpoint, typeRef, true)
+                .exceptionally(error -> reportFailure(endpoint, error))
+                .join();
+    }
+
+    // Compact records bypass the response cache, which holds the JavaBean values of the same endpoints
+    private <T> T sendRecordRequest(String endpoint, TypeReference<T> typeRef) {
+        return fetch(endpoint, typeRef, true, false)
+                .exceptionally(error -> reportFailure(endpoint, error))
+                .join();
+    }
+
+    private <T> CompletableFuture<T> sendGetRequestAsync(String endpoint, TypeReference<T> typeRef) {
+        return fetch(endpoint, typeRef, false)
+                .exceptionally(error -> reportFailure(endpoint, error));
+    }
+
+    /**
+     * Streams a JSON array endpoint record by record instead of buffering the whole body.
+     * @return The number of records handed to the sink, which stops short of the full array on error.
+     */
+    private <T> long streamGetRequest(String endpoint, Class<T> type, Consumer<? super T> sink) {
+        // A cached list is replayed as is; streamed results are not cached, to keep memory constant
+        Object cached = cachedValue(endpoint);
+        if (cached instanceof List) {
+            List<?> records = (List<?>) cached;
+            records.forEach(record -> sink.accept(type.cast(record)));
+            return records.size();
+        }
+        if (offline) {
+            System.err.println("Error: Offline and no cached data for " + endpoint);
+            return 0;
+        }
         if (serverURL == null || serverURL.isEmpty()) {
             System.err.println("Error: Server URL is not set in RESTClient.");
-            return Collections.emptyList();
+            return 0;
         }
 
-        HttpRequest request = HttpRequest.newBuilder().uri(URI.create(serverURL + "/airports")).build();
+        CircuitBreaker breaker = circuitBreaker;
+        String route = RequestMetrics.route(endpoint);
+        RetryPolicy retry = retryPolicy;
+        int maxAttempts = retry != null ? retry.getMaxAttempts() : 1;
+        for (int attempt = 1; ; attempt++) {
+            if (breaker != null && !breaker.tryAcquire(route)) {
+                System.err.println("Error: Circuit open for " + route);
+                return 0;
+            }
+            StreamAttempt<T> streamed = new StreamAttempt<>(sink);
+            RESTClientException failure = streamOnce(endpoint, type, streamed);
+            if (breaker != null) {
+                if (failure == null || failure.hasStatus() && failure.getStatusCode() < 500) {
+                    breaker.recordSuccess(route);
+                } else {
+                    breaker.recordFailure(route);
+                }
+            }
+            if (failure == null) {
+                return streamed.count;
+            }
+            // Records already handed to the sink cannot be taken back, so only a clean failure is retried
+            if (streamed.count > 0 || attempt >= maxAttempts || !retry.isRetryable(failure)) {
+                reportFailure(endpoint, failure);
+                return streamed.count;
+            }
+            try {
+                Thread.sleep(retry.backoff(attempt).toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                reportFailure(endpoint, failure);
+                return 0;
+            }
+        }
+    }
+
+    // One streamed round trip; returns the failure, or null once the whole array has been read
+    private <T> RESTClientException streamOnce(String endpoint, Class<T> type, StreamAttempt<T> streamed) {
+        HttpRequest request = buildGetRequest(endpoint);
+        // Streamed bodies are bound while they arrive, so their transfer phase includes deserialization
+        RequestMetrics.RequestTimer timer = metrics != null ? metrics.start(endpoint) : null;
+        ConcurrencyLimit limit = concurrencyLimit;
+        ConcurrencyLimit.Permit permit = limit != null ? limit.acquire().join() : null;
+        int status = -1;
+        Throwable error = null;
+        long latency = 0;
 
         try {
-            HttpResponse<String> response = getClient().send(request, HttpResponse.BodyHandlers.ofString());
-            if (response.statusCode() == 200) {
-                airports = buildAirportListFromResponse(response.body());
-            } else {
-                System.out.println("Error Status Code: " + response.statusCode());
-                System.out.println("Response Body: " + response.body());
+            if (rateLimiter != null) {
+                rateLimiter.acquire();
+            }
+            long sentAt = System.nanoTime();
+            HttpResponse.BodyHandler<InputStream> handler = compression
+                    ? CompressedBodyHandlers.ofInputStream() : HttpResponse.BodyHandlers.ofInputStream();
+            HttpResponse<InputStream> response = getClient().send(request, timer != null ? timer.wrap(handler) : handler);
+            status = response.statusCode();
+            latency = System.nanoTime() - sentAt;
+
+            try (InputStream body = response.body()) {
+                if (status == 200) {
+                    readJsonArray(body, type, streamed);
+                    if (timer != null) {
+                        timer.bodyReceived(200);
+                    }
+                    return null;
+                }
+                String errorBody = new String(body.readAllBytes(), StandardCharsets.UTF_8);
+                if (timer != null) {
+                    timer.bodyReceived(status);
+                }
+                return new RESTClientException(endpoint, status, errorBody);
             }
         } catch (IOException | InterruptedException e) {
-            e.printStackTrace();
+            error = e;
+            if (timer != null) {
+                timer.failed();
+            }
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            return asClientException(endpoint, e);
+        } finally {
+            // The permit is held until the whole stream has been read, but judged by the wait for its headers
+            release(permit, status, error, latency);
+        }
+    }
+
+    // Counts the records of one streaming attempt on their way to the caller's sink
+    private static final class StreamAttempt<T> implements Consumer<T> {
+        private final Consumer<? super T> sink;
+        private long count;
+
+        private StreamAttempt(Consumer<? super T> sink) {
+            this.sink = sink;
+        }
+
+        @Override
+        public void accept(T record) {
+            sink.accept(record);
+            count++;
+        }
+    }
+
+    /**
+     * Reads a JSON array token by token, binding one element at a time, so only the
+     * current record is held in memory.
+     * @return The number of records handed to the sink.
+     */
+    public <T> long readJsonArray(InputStream in, Class<T> type, Consumer<? super T> sink) throws IOException {
+        try (JsonParser parser = mapper().getFactory().createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new JsonParseException(parser, "Expected a JSON array");
+            }
+            ObjectReader reader = mapper().readerFor(type);
+            long count = 0;
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                // A truncated body or a null element must fail the attempt, not end the list early
+                if (token != JsonToken.START_OBJECT) {
+                    throw new JsonParseException(parser, token == null
+                            ? "Unexpected end of input inside a JSON array" : "Expected a JSON object but found " + token);
+                }
+                sink.accept(reader.readValue(parser));
+                count++;
+            }
+            return count;
+        }
+    }
+
+    // --- Paginated lists ---
+
+    /**
+     * Iterates a list endpoint page by page when pagination is configured, otherwise as one page.
+     * A list already in the response cache is replayed without touching the network.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> PagedIterator<T> iterate(String endpoint, TypeReference<List<T>> listType) {
+        Object cached = cachedValue(endpoint);
+        if (cached instanceof List) {
+            PagedIterator.Page<T> page = new PagedIterator.Page<>((List<T>) cached, true, null);
+            return new PagedIterator<>((pageIndex, offset, cursor) -> CompletableFuture.completedFuture(page));
+        }
+        Pagination paging = pagination;
+        if (paging == null) {
+            return new PagedIterator<>((pageIndex, offset, cursor) -> fetch(endpoint, listType, false)
+                    .thenApply(records -> new PagedIterator.Page<>(records, true, null)));
+        }
+        return new PagedIterator<>((pageIndex, offset, cursor) ->
+                fetchPage(paging, paging.pageEndpoint(endpoint, pageIndex, offset, cursor), listType));
+    }
+
+    // Pages go through retries, the circuit breaker and metrics, but are never cached
+    private <T> CompletableFuture<PagedIterator.Page<T>> fetchPage(Pagination paging, String endpoint,
+                                                                   TypeReference<List<T>> listType) {
+        if (offline) {
+            return CompletableFuture.failedFuture(new RESTClientException(endpoint, "Offline and no cached data for " + endpoint, null));
+        }
+        if (serverURL == null || serverURL.isEmpty()) {
+            return CompletableFuture.failedFuture(new RESTClientException(endpoint, "Server URL is not set in RESTClient.", null));
         }
-        return airports;
+        return execute(endpoint, null, (ep, response, timer) -> {
+            int status = response.statusCode();
+            if (status != 200) {
+                throw new RESTClientException(ep, status, response.body());
+            }
+            List<T> records;
+            try {
+                records = mapper().readValue(response.body(), listType);
+            } catch (JsonProcessingException e) {
+                throw asClientException(ep, e);
+            }
+            if (timer != null) {
+                timer.deserialized();
+            }
+            String nextCursor = paging.getStyle() == Pagination.Style.CURSOR
+                    ? response.headers().firstValue(paging.getCursorHeader()).orElse(null)
+                    : null;
+            return new PagedIterator.Page<>(records, paging.isLastPage(records.size(), nextCursor), nextCursor);
+        }, false, 1);
+    }
+
+    private <T> long streamPages(String endpoint, TypeReference<List<T>> listType, Consumer<? super T> sink) {
+        long count = 0;
+        try (PagedIterator<T> records = iterate(endpoint, listType)) {
+            while (records.hasNext()) {
+                sink.accept(records.next());
+                count++;
+            }
+        } catch (RESTClientException e) {
+            reportFailure(endpoint, e);
+        }
+        return count;
+    }
+
+    // Like the unpaginated lists, a failure on any page yields an empty list
+    private <T> List<T> collectPages(String endpoint, TypeReference<List<T>> listType) {
+        List<T> all = new ArrayList<>();
+        try (PagedIterator<T> records = iterate(endpoint, listType)) {
+            records.forEachRemaining(all::add);
+        } catch (RESTClientException e) {
+            reportFailure(endpoint, e);
+            return Collections.emptyList();
+        }
+        return all;
+    }
+
+    public PagedIterator<City> iterateAllCities() {
+        return iterate("/cities", CITY_LIST);
+    }
+
+    public PagedIterator<Airport> iterateAllAirports() {
+        return iterate("/airports", AIRPORT_LIST);
+    }
+
+    public PagedIterator<Passenger> iterateAllPassengers() {
+        return iterate("/passengers", PASSENGER_LIST);
+    }
+
+    public PagedIterator<Aircraft> iterateAllAircrafts() {
+        return iterate("/aircrafts", AIRCRAFT_LIST);
+    }
+
+    // --- Whole lists ---
+
+    public long streamAllCities(Consumer<? super City> sink) {
+        return pagination != null ? streamPages("/cities", CITY_LIST, sink) : streamGetRequest("/cities", City.class, sink);
+    }
+
+    public long streamAllAirports(Consumer<? super Airport> sink) {
+        return pagination != null ? streamPages("/airports", AIRPORT_LIST, sink) : streamGetRequest("/airports", Airport.class, sink);
+    }
+
+    public long streamAllPassengers(Consumer<? super Passenger> sink) {
+        return pagination != null ? streamPages("/passengers", PASSENGER_LIST, sink) : streamGetRequest("/passengers", Passenger.class, sink);
+    }
+
+    public long streamAllAircrafts(Consumer<? super Aircraft> sink) {
+        return pagination != null ? streamPages("/aircrafts", AIRCRAFT_LIST, sink) : streamGetRequest("/aircrafts", Aircraft.class, sink);
+    }
+
+    public List<City> getAllCities() {
+        return pagination != null ? collectPages("/cities", CITY_LIST) : orEmpty(sendGetRequest("/cities", CITY_LIST));
+    }
+
+    public List<Airport> getAllAirports() {
+        return pagination != null ? collectPages("/airports", AIRPORT_LIST) : orEmpty(sendGetRequest("/airports", AIRPORT_LIST));
     }
 
     public List<Airport> buildAirportListFromResponse(String response) throws JsonProcessingException {
-        objectMapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
-        return objectMapper.readValue(response, new TypeReference<List<Airport>>(){});
+        mapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        return mapper().readValue(response, AIRPORT_LIST);
     }
 
     public List<Passenger> getAllPassengers() {
-        List<Passenger> passengers = sendGetRequest("/passengers", new TypeReference<List<Passenger>>() {});
-        return passengers != null ? passengers : Collections.emptyList();
+        return pagination != null ? collectPages("/passengers", PASSENGER_LIST) : orEmpty(sendGetRequest("/passengers", PASSENGER_LIST));
     }
 
     public List<Aircraft> getAllAircrafts() {
-        List<Aircraft> aircrafts = sendGetRequest("/aircrafts", new TypeReference<List<Aircraft>>() {});
-        return aircrafts != null ? aircrafts : Collections.emptyList();
+        return pagination != null ? collectPages("/aircrafts", AIRCRAFT_LIST) : orEmpty(sendGetRequest("/aircrafts", AIRCRAFT_LIST));
     }
 
+    @Override
     public Set<Airport> getAirportsInCity(Long cityId) {
-        Set<Airport> airports = sendGetRequest("/cities/" + cityId + "/airports", new TypeReference<Set<Airport>>() {});
-        return airports != null ? airports : Collections.emptySet();
+        return orEmpty(sendGetRequest("/cities/" + cityId + "/airports", AIRPORT_SET));
     }
 
+    @Override
     public Set<Aircraft> getAircraftsFlownByPassenger(Long passengerId) {
-        Set<Aircraft> aircrafts = sendGetRequest("/passengers/" + passengerId + "/aircrafts", new TypeReference<Set<Aircraft>>() {});
-        return aircrafts != null ? aircrafts : Collections.emptySet();
+        return orEmpty(sendGetRequest("/passengers/" + passengerId + "/aircrafts", AIRCRAFT_SET));
     }
 
+    @Override
     public Set<Airport> getAirportsByAircraft(Long aircraftId) {
-        Set<Airport> airports = sendGetRequest("/aircrafts/" + aircraftId + "/airports", new TypeReference<Set<Airport>>() {});
-        return airports != null ? airports : Collections.emptySet();
+        return orEmpty(sendGetRequest("/aircrafts/" + aircraftId + "/airports", AIRPORT_SET));
     }
 
+    @Override
     public Set<Airport> getAirportsUsedByPassenger(Long passengerId) {
-        Set<Airport> airports = sendGetRequest("/passengers/" + passengerId + "/airportsUsed", new TypeReference<Set<Airport>>() {});
-        return airports != null ? airports : Collections.emptySet();
+        return orEmpty(sendGetRequest("/passengers/" + passengerId + "/airportsUsed", AIRPORT_SET));
+    }
+
+    // --- Compact records (immutable, identified by their primitive id; never cached) ---
+
+    public List<CityRecord> getAllCityRecords() {
+        return pagination != null ? collectPages("/cities", RecordTypes.CITY_RECORD_LIST) : orEmpty(sendRecordRequest("/cities", RecordTypes.CITY_RECORD_LIST));
+    }
+
+    public List<AirportRecord> getAllAirportRecords() {
+        return pagination != null ? collectPages("/airports", RecordTypes.AIRPORT_RECORD_LIST) : orEmpty(sendRecordRequest("/airports", RecordTypes.AIRPORT_RECORD_LIST));
+    }
+
+    public List<PassengerRecord> getAllPassengerRecords() {
+        return pagination != null ? collectPages("/passengers", RecordTypes.PASSENGER_RECORD_LIST) : orEmpty(sendRecordRequest("/passengers", RecordTypes.PASSENGER_RECORD_LIST));
+    }
+
+    public List<AircraftRecord> getAllAircraftRecords() {
+        return pagination != null ? collectPages("/aircrafts", RecordTypes.AIRCRAFT_RECORD_LIST) : orEmpty(sendRecordRequest("/aircrafts", RecordTypes.AIRCRAFT_RECORD_LIST));
+    }
+
+    public Set<AirportRecord> getAirportRecordsInCity(long cityId) {
+        return orEmpty(sendRecordRequest("/cities/" + cityId + "/airports", RecordTypes.AIRPORT_RECORD_SET));
+    }
+
+    public Set<AircraftRecord> getAircraftRecordsFlownByPassenger(long passengerId) {
+        return orEmpty(sendRecordRequest("/passengers/" + passengerId + "/aircrafts", RecordTypes.AIRCRAFT_RECORD_SET));
+    }
+
+    public Set<AirportRecord> getAirportRecordsByAircraft(long aircraftId) {
+        return orEmpty(sendRecordRequest("/aircrafts/" + aircraftId + "/airports", RecordTypes.AIRPORT_RECORD_SET));
+    }
+
+    public Set<AirportRecord> getAirportRecordsUsedByPassenger(long passengerId) {
+        return orEmpty(sendRecordRequest("/passengers/" + passengerId + "/airportsUsed", RecordTypes.AIRPORT_RECORD_SET));
+    }
+
+    // --- Typed results (failures are returned, never printed or turned into empty collections) ---
+
+    public ApiResult<List<City>> getAllCitiesResult() {
+        return getResult("/cities", CITY_LIST);
+    }
+
+    public ApiResult<List<Airport>> getAllAirportsResult() {
+        return getResult("/airports", AIRPORT_LIST);
+    }
+
+    public ApiResult<List<Passenger>> getAllPassengersResult() {
+        return getResult("/passengers", PASSENGER_LIST);
+    }
+
+    public ApiResult<List<Aircraft>> getAllAircraftsResult() {
+        return getResult("/aircrafts", AIRCRAFT_LIST);
+    }
+
+    public ApiResult<Set<Airport>> getAirportsInCityResult(Long cityId) {
+        return getResult("/cities/" + cityId + "/airports", AIRPORT_SET);
+    }
+
+    public ApiResult<Set<Aircraft>> getAircraftsFlownByPassengerResult(Long passengerId) {
+        return getResult("/passengers/" + passengerId + "/aircrafts", AIRCRAFT_SET);
+    }
+
+    public ApiResult<Set<Airport>> getAirportsByAircraftResult(Long aircraftId) {
+        return getResult("/aircrafts/" + aircraftId + "/airports", AIRPORT_SET);
+    }
+
+    public ApiResult<Set<Airport>> getAirportsUsedByPassengerResult(Long passengerId) {
+        return getResult("/passengers/" + passengerId + "/airportsUsed", AIRPORT_SET);
+    }
+
+    // --- Asynchronous API (non-blocking, built on HttpClient.sendAsync) ---
+
+    public CompletableFuture<List<City>> getAllCitiesAsync() {
+        return sendGetRequestAsync("/cities", CITY_LIST).thenApply(RESTClient::orEmpty);
+    }
+
+    public CompletableFuture<List<Airport>> getAllAirportsAsync() {
+        return sendGetRequestAsync("/airports", AIRPORT_LIST).thenApply(RESTClient::orEmpty);
+    }
+
+    public CompletableFuture<List<Passenger>> getAllPassengersAsync() {
+        return sendGetRequestAsync("/passengers", PASSENGER_LIST).thenApply(RESTClient::orEmpty);
+    }
+
+    public CompletableFuture<List<Aircraft>> getAllAircraftsAsync() {
+        return sendGetRequestAsync("/aircrafts", AIRCRAFT_LIST).thenApply(RESTClient::orEmpty);
+    }
+
+    public CompletableFuture<Set<Airport>> getAirportsInCityAsync(Long cityId) {
+        return sendGetRequestAsync("/cities/" + cityId + "/airports", AIRPORT_SET).thenApply(RESTClient::orEmpty);
+    }
+
+    public CompletableFuture<Set<Aircraft>> getAircraftsFlownByPassengerAsync(Long passengerId) {
+        return sendGetRequestAsync("/passengers/" + passengerId + "/aircrafts", AIRCRAFT_SET).thenApply(RESTClient::orEmpty);
+    }
+
+    public CompletableFuture<Set<Airport>> getAirportsByAircraftAsync(Long aircraftId) {
+        return sendGetRequestAsync("/aircrafts/" + aircraftId + "/airports", AIRPORT_SET).thenApply(RESTClient::orEmpty);
+    }
+
+    public CompletableFuture<Set<Airport>> getAirportsUsedByPassengerAsync(Long passengerId) {
+        return sendGetRequestAsync("/passengers/" + passengerId + "/airportsUsed", AIRPORT_SET).thenApply(RESTClient::orEmpty);
+    }
+
+    // --- Bulk relationship queries (concurrent fan-out over many IDs) ---
+
+    public BulkResult<Set<Airport>> getAirportsInCities(Collection<Long> cityIds) {
+        return getAirportsInCities(cityIds, DEFAULT_MAX_IN_FLIGHT);
+    }
+
+    public BulkResult<Set<Airport>> getAirportsInCities(Collection<Long> cityIds, int maxInFlight) {
+        return fetchAll(cityIds, maxInFlight, id -> "/cities/" + id + "/airports", AIRPORT_SET).join();
+    }
+
+    public BulkResult<Set<Aircraft>> getAircraftsFlownByPassengers(Collection<Long> passengerIds) {
+        return getAircraftsFlownByPassengers(passengerIds, DEFAULT_MAX_IN_FLIGHT);
+    }
+
+    public BulkResult<Set<Aircraft>> getAircraftsFlownByPassengers(Collection<Long> passengerIds, int maxInFlight) {
+        return fetchAll(passengerIds, maxInFlight, id -> "/passengers/" + id + "/aircrafts", AIRCRAFT_SET).join();
+    }
+
+    public BulkResult<Set<Airport>> getAirportsByAircrafts(Collection<Long> aircraftIds) {
+        return getAirportsByAircrafts(aircraftIds, DEFAULT_MAX_IN_FLIGHT);
+    }
+
+    public BulkResult<Set<Airport>> getAirportsByAircrafts(Collection<Long> aircraftIds, int maxInFlight) {
+        return fetchAll(aircraftIds, maxInFlight, id -> "/aircrafts/" + id + "/airports", AIRPORT_SET).join();
+    }
+
+    public BulkResult<Set<Airport>> getAirportsUsedByPassengers(Collection<Long> passengerIds) {
+        return getAirportsUsedByPassengers(passengerIds, DEFAULT_MAX_IN_FLIGHT);
+    }
+
+    public BulkResult<Set<Airport>> getAirportsUsedByPassengers(Collection<Long> passengerIds, int maxInFlight) {
+        return fetchAll(passengerIds, maxInFlight, id -> "/passengers/" + id + "/airportsUsed", AIRPORT_SET).join();
+    }
+
+    /**
+     * Fetches one endpoint per ID with at most {@code maxInFlight} requests outstanding.
+     * Each completion launches the next ID, so no thread ever waits on a response. A null
+     * answer counts as an empty set, like in the single-ID methods.
+     * @throws IllegalArgumentException If an ID is null.
+     */
+    private <T> CompletableFuture<BulkResult<Set<T>>> fetchAll(Collection<Long> ids, int maxInFlight,
+                                                              Function<Long, String> endpointFor, TypeReference<Set<T>> typeRef) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be at least 1");
+        }
+        List<Long> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        if (distinct.contains(null)) {
+            throw new IllegalArgumentException("IDs must not be null");
+        }
+        BulkSweep<T> sweep = new BulkSweep<>(distinct, endpointFor, typeRef);
+        if (sweep.ids.isEmpty()) {
+            sweep.finish();
+        }
+        for (int i = 0; i < Math.min(maxInFlight, sweep.ids.size()); i++) {
+            drain(sweep);
+        }
+        return sweep.done;
+    }
+
+    // Launches IDs until one is genuinely in flight; answers that are already complete are recorded inline
+    private <T> void drain(BulkSweep<T> sweep) {
+        int index;
+        while ((index = sweep.next.getAndIncrement()) < sweep.ids.size()) {
+            Long id = sweep.ids.get(index);
+            String endpoint = sweep.endpointFor.apply(id);
+            CompletableFuture<Set<T>> request = fetch(endpoint, sweep.typeRef, false);
+            if (!request.isDone()) {
+                request.whenComplete((value, error) -> {
+                    try {
+                        sweep.record(id, endpoint, value, error);
+                    } finally {
+                        drain(sweep);
+                    }
+                });
+                return;
+            }
+            request.handle((value, error) -> {
+                sweep.record(id, endpoint, value, error);
+                return null;
+            });
+        }
+    }
+
+    private static final class BulkSweep<T> {
+        private final List<Long> ids;
+        private final Function<Long, String> endpointFor;
+        private final TypeReference<Set<T>> typeRef;
+        private final AtomicInteger next = new AtomicInteger();
+        private final AtomicInteger remaining;
+        private final BulkResult<Set<T>> result = new BulkResult<>();
+        private final CompletableFuture<BulkResult<Set<T>>> done = new CompletableFuture<>();
+        private final long startNanos = System.nanoTime();
+
+        private BulkSweep(List<Long> ids, Function<Long, String> endpointFor, TypeReference<Set<T>> typeRef) {
+            this.ids = ids;
+            this.endpointFor = endpointFor;
+            this.typeRef = typeRef;
+            this.remaining = new AtomicInteger(ids.size());
+        }
+
+        // Always counts the ID, so one record that cannot be stored never leaves the sweep waiting
+        private void record(Long id, String endpoint, Set<T> value, Throwable error) {
+            try {
+                if (error != null) {
+                    result.addFailure(id, asClientException(endpoint, error));
+                } else {
+                    result.addResult(id, orEmpty(value));
+                }
+            } finally {
+                if (remaining.decrementAndGet() == 0) {
+                    finish();
+                }
+            }
+        }
+
+        private void finish() {
+            result.setElapsedNanos(System.nanoTime() - startNanos);
+            done.complete(result);
+        }
+    }
+
+    private static <T> List<T> orEmpty(List<T> list) {
+        return list != null ? list : Collections.emptyList();
+    }
+
+    private static <T> Set<T> orEmpty(Set<T> set) {
+        return set != null ? set : Collections.emptySet();
     }
-}
\ No newline at end of file
+}
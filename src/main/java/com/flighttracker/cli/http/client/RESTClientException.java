@@ -0,0 +1,36 @@
+package com.flighttracker.cli.http.client;
+
+/**
+ * Raised inside the request pipeline when an endpoint cannot be fetched, either because
+ * the API answered with a non-success status or because the exchange itself failed.
+ */
+public class RESTClientException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public static final int NO_STATUS = -1;
+
+    private final String endpoint;
+    private final int statusCode;
+    private final String responseBody;
+
+    public RESTClientException(String endpoint, int statusCode, String responseBody) {
+        super("HTTP Status " + statusCode + " fetching " + endpoint);
+        this.endpoint = endpoint;
+        this.statusCode = statusCode;
+        this.responseBody = responseBody;
+    }
+
+    public RESTClientException(String endpoint, String message, Throwable cause) {
+        super(message, cause);
+        this.endpoint = endpoint;
+        this.statusCode = NO_STATUS;
+        this.responseBody = null;
+    }
+
+    public String getEndpoint() { return endpoint; }
+    public int getStatusCode() { return statusCode; }
+    public String getResponseBody() { return responseBody; }
+
+    // True when the API answered but with a non-success status
+    public boolean hasStatus() { return statusCode != NO_STATUS; }
+}
@@ -0,0 +1,88 @@
+package com.flighttracker.cli.http.client;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket: refills at {@code permitsPerSecond} up to {@code burst} tokens, and every request
+ * takes one. A request that finds the bucket empty reserves the next token ahead of time and waits
+ * until it is due, so waiting requests are released in arrival order at the configured rate.
+ */
+public class RateLimiter {
+    private final double permitsPerSecond;
+    private final double burst;
+    private final double nanosPerPermit;
+    private final LongSupplier clock;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private double tokens;
+    private long refilledAt;
+
+    public RateLimiter(double permitsPerSecond, int burst) {
+        this(permitsPerSecond, burst, System::nanoTime);
+    }
+
+    // Clock injection for tests
+    RateLimiter(double permitsPerSecond, int burst, LongSupplier clock) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond must be positive");
+        }
+        if (burst < 1) {
+            throw new IllegalArgumentException("burst must be at least 1");
+        }
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+        this.nanosPerPermit = 1e9 / permitsPerSecond;
+        this.clock = clock;
+        this.tokens = burst;
+        this.refilledAt = clock.getAsLong();
+    }
+
+    /**
+     * Takes one token.
+     * @return Nanoseconds the caller has to wait before sending, 0 if it may send right away.
+     */
+    public synchronized long reserve() {
+        long now = clock.getAsLong();
+        tokens = Math.min(burst, tokens + (now - refilledAt) / nanosPerPermit);
+        refilledAt = now;
+        tokens -= 1;
+        // A negative balance is the queue of reservations not yet due
+        return tokens >= 0 ? 0 : (long) Math.ceil(-tokens * nanosPerPermit);
+    }
+
+    // Waits on the calling thread until a token is available
+    public void acquire() throws InterruptedException {
+        long wait = reserve();
+        if (wait > 0) {
+            waiting.incrementAndGet();
+            try {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            } finally {
+                waiting.decrementAndGet();
+            }
+        }
+    }
+
+    // Completes on the executor once a token is available
+    public CompletableFuture<Void> acquireAsync(Executor executor) {
+        long wait = reserve();
+        if (wait == 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        waiting.incrementAndGet();
+        return CompletableFuture.runAsync(waiting::decrementAndGet,
+                CompletableFuture.delayedExecutor(wait, TimeUnit.NANOSECONDS, executor));
+    }
+
+    public double getPermitsPerSecond() {
+        return permitsPerSecond;
+    }
+
+    // Requests currently waiting for a token
+    public int getQueueDepth() {
+        return waiting.get();
+    }
+}
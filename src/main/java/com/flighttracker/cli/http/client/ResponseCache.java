@@ -0,0 +1,208 @@
+package com.flighttracker.cli.http.client;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Size-bounded LRU cache of deserialized responses keyed by endpoint, with a TTL chosen per
+ * endpoint prefix (the longest configured prefix wins). Cached values are shared between
+ * callers and must be treated as read-only.
+ * <p>
+ * Entries that carry HTTP validators (ETag / Last-Modified) outlive their TTL so that they can be
+ * revalidated with a conditional request instead of being downloaded again.
+ */
+public class ResponseCache {
+    public static final int DEFAULT_MAX_ENTRIES = 10_000;
+    public static final Duration DEFAULT_TTL = Duration.ofMinutes(5);
+
+    private final int maxEntries;
+    private final LongSupplier clock;
+    private final Map<String, Long> ttlNanosByPrefix = new LinkedHashMap<>();
+    private volatile long defaultTtlNanos = DEFAULT_TTL.toNanos();
+    private final LinkedHashMap<String, Entry> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder revalidations = new LongAdder();
+
+    public ResponseCache() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    public ResponseCache(int maxEntries) {
+        this(maxEntries, System::nanoTime);
+    }
+
+    // Clock injection for tests
+    ResponseCache(int maxEntries, LongSupplier clock) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be at least 1");
+        }
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > ResponseCache.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public void setDefaultTtl(Duration ttl) {
+        this.defaultTtlNanos = ttl.toNanos();
+    }
+
+    // TTL for every endpoint starting with the prefix, e.g. "/cities" covers "/cities/1/airports" too
+    public synchronized void setTtl(String endpointPrefix, Duration ttl) {
+        ttlNanosByPrefix.put(endpointPrefix, ttl.toNanos());
+    }
+
+    public synchronized Duration getTtl(String endpoint) {
+        return Duration.ofNanos(ttlNanosFor(endpoint));
+    }
+
+    private long ttlNanosFor(String endpoint) {
+        long ttl = defaultTtlNanos;
+        int matched = -1;
+        for (Map.Entry<String, Long> rule : ttlNanosByPrefix.entrySet()) {
+            if (endpoint.startsWith(rule.getKey()) && rule.getKey().length() > matched) {
+                matched = rule.getKey().length();
+                ttl = rule.getValue();
+            }
+        }
+        return ttl;
+    }
+
+    /**
+     * @return The cached value, or null if the endpoint is not cached or its entry has expired.
+     */
+    public synchronized Object get(String endpoint) {
+        Entry entry = entries.get(endpoint);
+        if (entry == null || entry.isExpired(clock.getAsLong())) {
+            if (entry != null && !entry.hasValidators()) {
+                entries.remove(endpoint);
+            }
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.value;
+    }
+
+    // Whether there is an entry, fresh or stale; unlike get() it does not count as a use of the entry
+    public synchronized boolean contains(String endpoint) {
+        return entries.containsKey(endpoint);
+    }
+
+    // Like get() != null, but counts neither a hit nor a miss
+    public synchronized boolean isFresh(String endpoint) {
+        Entry entry = entries.get(endpoint);
+        return entry != null && !entry.isExpired(clock.getAsLong());
+    }
+
+    /**
+     * @return The entry for the endpoint whether fresh or stale, or null if there is none.
+     */
+    public synchronized Entry getEntry(String endpoint) {
+        return entries.get(endpoint);
+    }
+
+    public void put(String endpoint, Object value) {
+        put(endpoint, value, null, null);
+    }
+
+    /**
+     * Caches a value with the validators the server sent for it. Entries with validators are
+     * kept even when their TTL is zero, so they can always be revalidated.
+     */
+    public void put(String endpoint, Object value, String eTag, String lastModified) {
+        put(endpoint, value, eTag, lastModified, Duration.ZERO);
+    }
+
+    /**
+     * Caches a value that was fetched {@code age} ago, so it expires that much sooner; a value
+     * older than its TTL is stored already stale and only kept if it can be revalidated.
+     */
+    public synchronized void put(String endpoint, Object value, String eTag, String lastModified, Duration age) {
+        long ttl = Math.max(ttlNanosFor(endpoint), 0) - Math.max(age.toNanos(), 0);
+        Entry entry = new Entry(value, clock.getAsLong() + Math.max(ttl, 0), eTag, lastModified);
+        if (value == null || (ttl <= 0 && !entry.hasValidators())) {
+            return;
+        }
+        entries.put(endpoint, entry);
+    }
+
+    /**
+     * Marks a stale entry fresh again after the server answered 304 Not Modified.
+     * @return The entry's value, or null if the entry has been evicted meanwhile.
+     */
+    public synchronized Object revalidated(String endpoint) {
+        Entry entry = entries.get(endpoint);
+        if (entry == null) {
+            return null;
+        }
+        revalidations.increment();
+        entries.put(endpoint, new Entry(entry.value, clock.getAsLong() + Math.max(ttlNanosFor(endpoint), 0),
+                entry.eTag, entry.lastModified));
+        return entry.value;
+    }
+
+    public synchronized void invalidate(String endpoint) {
+        entries.remove(endpoint);
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long getHitCount() { return hits.sum(); }
+    public long getMissCount() { return misses.sum(); }
+    public long getEvictionCount() { return evictions.sum(); }
+    public long getRevalidationCount() { return revalidations.sum(); }
+    public int getMaxEntries() { return maxEntries; }
+
+    @Override
+    public String toString() {
+        return "ResponseCache{entries=" + size() + "/" + maxEntries + ", hits=" + getHitCount()
+                + ", misses=" + getMissCount() + ", evictions=" + getEvictionCount()
+                + ", revalidations=" + getRevalidationCount() + '}';
+    }
+
+    public static final class Entry {
+        private final Object value;
+        private final long expiresAtNanos;
+        private final String eTag;
+        private final String lastModified;
+
+        private Entry(Object value, long expiresAtNanos, String eTag, String lastModified) {
+            this.value = value;
+            this.expiresAtNanos = expiresAtNanos;
+            this.eTag = eTag;
+            this.lastModified = lastModified;
+        }
+
+        public Object getValue() { return value; }
+        public String getETag() { return eTag; }
+        public String getLastModified() { return lastModified; }
+
+        public boolean hasValidators() {
+            return eTag != null || lastModified != null;
+        }
+
+        private boolean isExpired(long nowNanos) {
+            return nowNanos - expiresAtNanos >= 0;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.flighttracker.cli.http.client;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * When and how often a failed GET is retried. Only transient failures are retried: network errors,
+ * timeouts and the statuses in {@link #DEFAULT_RETRYABLE_STATUSES}. The wait before each retry is
+ * exponential backoff with full jitter, so clients that failed together do not retry together.
+ */
+public class RetryPolicy {
+    public static final Set<Integer> DEFAULT_RETRYABLE_STATUSES = Set.of(429, 502, 503, 504);
+
+    private final int maxAttempts;
+    private final Duration baseDelay;
+    private final Duration maxDelay;
+    private final Set<Integer> retryableStatuses;
+
+    public RetryPolicy(int maxAttempts, Duration baseDelay, Duration maxDelay) {
+        this(maxAttempts, baseDelay, maxDelay, DEFAULT_RETRYABLE_STATUSES);
+    }
+
+    /**
+     * @param maxAttempts Total attempts including the first one; 1 disables retries.
+     */
+    public RetryPolicy(int maxAttempts, Duration baseDelay, Duration maxDelay, Set<Integer> retryableStatuses) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be at least 1");
+        }
+        this.maxAttempts = maxAttempts;
+        this.baseDelay = baseDelay;
+        this.maxDelay = maxDelay;
+        this.retryableStatuses = Set.copyOf(retryableStatuses);
+    }
+
+    public int getMaxAttempts() { return maxAttempts; }
+    public Duration getBaseDelay() { return baseDelay; }
+    public Duration getMaxDelay() { return maxDelay; }
+
+    public boolean isRetryable(RESTClientException failure) {
+        if (failure.hasStatus()) {
+            return retryableStatuses.contains(failure.getStatusCode());
+        }
+        // Failures without a cause are local (no server URL, offline, open circuit) and would fail again
+        Throwable cause = failure.getCause();
+        return cause instanceof IOException && !(cause instanceof JsonProcessingException);
+    }
+
+    /**
+     * @param attempt The attempt that just failed, starting at 1.
+     * @return A random delay between zero and {@code min(maxDelay, baseDelay * 2^(attempt-1))}.
+     */
+    public Duration backoff(int attempt) {
+        long ceiling = Math.min(maxDelay.toNanos(), baseDelay.toNanos() << Math.min(attempt - 1, 30));
+        if (ceiling <= 0) {
+            return Duration.ZERO;
+        }
+        return Duration.ofNanos(ThreadLocalRandom.current().nextLong(ceiling + 1));
+    }
+}
@@ -0,0 +1,76 @@
+package com.flighttracker.cli.http.client;
+
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces identical concurrent requests: while a call for an endpoint is in flight, every other
+ * caller asking for the same endpoint and result type joins it instead of sending its own request.
+ * All of them receive the same deserialized value, so callers must treat results as read-only
+ * (the response cache already asks the same of them).
+ * <p>
+ * The call leaves the table as soon as it completes, so a request that starts afterwards always
+ * goes back to the cache or the network and never sees a settled result from here.
+ */
+public class SingleFlight {
+    private final Map<String, Call> calls = new ConcurrentHashMap<>();
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * Runs {@code call} unless an identical one is already in flight.
+     * @param type Result type; callers asking for the same key with another type are not coalesced.
+     * @return A future of its own for each caller, so cancelling it never affects the others.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> execute(String key, Type type, Supplier<CompletableFuture<T>> call) {
+        Call mine = new Call(type);
+        Call existing = calls.putIfAbsent(key, mine);
+        if (existing != null) {
+            if (existing.type.equals(type)) {
+                coalesced.increment();
+                return (CompletableFuture<T>) existing.result.copy();
+            }
+            return call.get();
+        }
+
+        CompletableFuture<T> result;
+        try {
+            result = call.get();
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+        // Leave the table before anyone is woken up, so callbacks that fetch again start a new call
+        result.whenComplete((value, error) -> {
+            calls.remove(key, mine);
+            if (error != null) {
+                mine.result.completeExceptionally(error);
+            } else {
+                mine.result.complete(value);
+            }
+        });
+        return (CompletableFuture<T>) mine.result.copy();
+    }
+
+    // Number of callers that joined a call already in flight instead of sending a request
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    // Number of distinct calls currently in flight
+    public int getInFlightCount() {
+        return calls.size();
+    }
+
+    private static final class Call {
+        final Type type;
+        final CompletableFuture<Object> result = new CompletableFuture<>();
+
+        Call(Type type) {
+            this.type = type;
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.flighttracker.cli.index;
+
+import com.flighttracker.cli.domain.Airport;
+import com.flighttracker.cli.domain.Passenger;
+import com.flighttracker.cli.store.Snapshot;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
+
+/**
+ * Graph analytics over the CSR relationships of a {@link RelationshipIndex}: passengers fly
+ * aircraft, aircraft serve airports, airports lie in cities. The index stores each relationship in
+ * one direction only, so the reverse directions needed here (airport to aircraft, aircraft to
+ * passengers, airport to passengers) are built once as CSR transposes.
+ */
+public final class RelationshipGraph {
+    private static final int CHUNK_ROWS = 1 << 12;
+
+    private final RelationshipIndex index;
+    private final Csr aircraftAirports;
+    private final Csr airportAircrafts;
+    private final Csr passengerAircrafts;
+    private final Csr aircraftPassengers;
+    private final Csr passengerAirports;
+
+    private RelationshipGraph(RelationshipIndex index) {
+        this.index = index;
+        aircraftAirports = Csr.of(index, Snapshot.Relation.AIRCRAFT_AIRPORTS);
+        airportAircrafts = aircraftAirports.transpose(index.getAirports().length);
+        passengerAircrafts = Csr.of(index, Snapshot.Relation.PASSENGER_AIRCRAFTS);
+        aircraftPassengers = passengerAircrafts.transpose(index.getAircrafts().length);
+        passengerAirports = Csr.of(index, Snapshot.Relation.PASSENGER_AIRPORTS);
+    }
+
+    public static RelationshipGraph build(RelationshipIndex index) {
+        return new RelationshipGraph(index);
+    }
+
+    /**
+     * Airports reachable from a city by flying aircraft that share airports: level 0 holds the
+     * city's own airports, level n the airports first reached after n aircraft hops. Each level of
+     * the breadth-first search is expanded in parallel.
+     * @param maxHops Maximum number of aircraft hops, or a negative number for no limit.
+     * @return The levels in hop order; empty if the city is unknown or has no airports.
+     */
+    public List<List<Airport>> reachableAirports(long cityId, int maxHops) {
+        int cityRow = index.cityRow(cityId);
+        if (cityRow == LongIntHashMap.MISSING) {
+            return Collections.emptyList();
+        }
+        Airport[] airports = index.getAirports();
+        AtomicLongArray visitedAirports = new AtomicLongArray((airports.length + 63) >>> 6);
+        AtomicLongArray visitedAircrafts = new AtomicLongArray((index.getAircrafts().length + 63) >>> 6);
+
+        int[] cityOffsets = index.getOffsets(Snapshot.Relation.CITY_AIRPORTS);
+        int[] cityTargets = index.getTargets(Snapshot.Relation.CITY_AIRPORTS);
+        int[] frontier = IntStream.range(cityOffsets[cityRow], cityOffsets[cityRow + 1])
+                .map(i -> cityTargets[i])
+                .filter(airport -> claim(visitedAirports, airport))
+                .toArray();
+
+        List<List<Airport>> levels = new ArrayList<>();
+        for (int hop = 0; frontier.length > 0; hop++) {
+            levels.add(toAirports(frontier, airports));
+            if (hop == maxHops) {
+                break;
+            }
+            // Airport -> aircraft serving it -> airports that aircraft serves; every row is claimed once
+            frontier = IntStream.of(frontier).parallel()
+                    .flatMap(airport -> airportAircrafts.neighbours(airport))
+                    .filter(aircraft -> claim(visitedAircrafts, aircraft))
+                    .flatMap(aircraft -> aircraftAirports.neighbours(aircraft))
+                    .filter(airport -> claim(visitedAirports, airport))
+                    .toArray();
+        }
+        return levels;
+    }
+
+    /**
+     * The {@code k} airports used by the most distinct passengers, most used first. Degrees are
+     * counted in parallel over chunks of passengers and the top {@code k} kept in a bounded heap.
+     */
+    public List<Ranked<Airport>> topAirportsByDistinctPassengers(int k) {
+        Airport[] airports = index.getAirports();
+        int passengers = index.getPassengers().length;
+        int chunks = (passengers + CHUNK_ROWS - 1) / CHUNK_ROWS;
+        int[] degrees = IntStream.range(0, chunks).parallel()
+                .mapToObj(chunk -> {
+                    int[] partial = new int[airports.length];
+                    int[] seen = new int[airports.length]; // passenger row + 1 that last counted the airport
+                    for (int passenger = chunk * CHUNK_ROWS; passenger < Math.min(passengers, (chunk + 1) * CHUNK_ROWS); passenger++) {
+                        for (int i = passengerAirports.offsets[passenger]; i < passengerAirports.offsets[passenger + 1]; i++) {
+                            int airport = passengerAirports.targets[i];
+                            if (seen[airport] != passenger + 1) {
+                                seen[airport] = passenger + 1;
+                                partial[airport]++;
+                            }
+                        }
+                    }
+                    return partial;
+                })
+                .reduce((a, b) -> {
+                    for (int i = 0; i < a.length; i++) {
+                        a[i] += b[i];
+                    }
+                    return a;
+                })
+                .orElseGet(() -> new int[airports.length]);
+        return top(degrees, airports, k, -1);
+    }
+
+    /**
+     * Other passengers who flew at least one of the passenger's aircraft, ranked by the number of
+     * aircraft they share with the passenger.
+     */
+    public List<Ranked<Passenger>> passengersSharingAircraft(long passengerId, int limit) {
+        int row = index.passengerRow(passengerId);
+        if (row == LongIntHashMap.MISSING) {
+            return Collections.emptyList();
+        }
+        Passenger[] passengers = index.getPassengers();
+        int[] shared = new int[passengers.length];
+        int[] seenAircraft = new int[index.getAircrafts().length];
+        for (int i = passengerAircrafts.offsets[row]; i < passengerAircrafts.offsets[row + 1]; i++) {
+            int aircraft = passengerAircrafts.targets[i];
+            if (seenAircraft[aircraft]++ > 0) {
+                continue;
+            }
+            for (int j = aircraftPassengers.offsets[aircraft]; j < aircraftPassengers.offsets[aircraft + 1]; j++) {
+                shared[aircraftPassengers.targets[j]]++;
+            }
+        }
+        return top(shared, passengers, limit, row);
+    }
+
+    // Rows with the highest positive counts, ties broken by row order
+    private static <T> List<Ranked<T>> top(int[] counts, T[] entities, int k, int excludedRow) {
+        if (k <= 0) {
+            return Collections.emptyList();
+        }
+        Comparator<Integer> byCount = Comparator.<Integer>comparingInt(row -> counts[row]).thenComparing(Comparator.reverseOrder());
+        PriorityQueue<Integer> heap = new PriorityQueue<>(Math.min(k, counts.length) + 1, byCount);
+        for (int row = 0; row < counts.length; row++) {
+            if (counts[row] > 0 && row != excludedRow) {
+                heap.add(row);
+                if (heap.size() > k) {
+                    heap.poll();
+                }
+            }
+        }
+        List<Ranked<T>> ranked = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            int row = heap.poll();
+            ranked.add(new Ranked<>(entities[row], counts[row]));
+        }
+        Collections.reverse(ranked);
+        return ranked;
+    }
+
+    private static List<Airport> toAirports(int[] rows, Airport[] airports) {
+        int[] sorted = rows.clone();
+        Arrays.sort(sorted);
+        List<Airport> level = new ArrayList<>(sorted.length);
+        for (int row : sorted) {
+            level.add(airports[row]);
+        }
+        return level;
+    }
+
+    // Sets the row's bit; true only for the one caller that set it first
+    private static boolean claim(AtomicLongArray visited, int row) {
+        int word = row >>> 6;
+        long bit = 1L << row;
+        long current;
+        do {
+            current = visited.get(word);
+            if ((current & bit) != 0) {
+                return false;
+            }
+        } while (!visited.compareAndSet(word, current, current | bit));
+        return true;
+    }
+
+    /**
+     * An entity with the count it was ranked by.
+     */
+    public record Ranked<T>(T value, int count) {}
+
+    private static final class Csr {
+        final int[] offsets;
+        final int[] targets;
+
+        Csr(int[] offsets, int[] targets) {
+            this.offsets = offsets;
+            this.targets = targets;
+        }
+
+        static Csr of(RelationshipIndex index, Snapshot.Relation relation) {
+            return new Csr(index.getOffsets(relation), index.getTargets(relation));
+        }
+
+        IntStream neighbours(int row) {
+            return IntStream.range(offsets[row], offsets[row + 1]).map(i -> targets[i]);
+        }
+
+        // Counting sort of the edges by target: row r of the result lists the rows pointing at r
+        Csr transpose(int targetCount) {
+            int[] reverseOffsets = new int[targetCount + 1];
+            for (int target : targets) {
+                reverseOffsets[target + 1]++;
+            }
+            for (int i = 0; i < targetCount; i++) {
+                reverseOffsets[i + 1] += reverseOffsets[i];
+            }
+            int[] next = Arrays.copyOf(reverseOffsets, targetCount);
+            int[] reverseTargets = new int[targets.length];
+            for (int row = 0; row + 1 < offsets.length; row++) {
+                for (int i = offsets[row]; i < offsets[row + 1]; i++) {
+                    reverseTargets[next[targets[i]]++] = row;
+                }
+            }
+            return new Csr(reverseOffsets, reverseTargets);
+        }
+    }
+}
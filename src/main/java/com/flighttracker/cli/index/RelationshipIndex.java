@@ -0,0 +1,232 @@
+package com.flighttracker.cli.index;
+
+import com.flighttracker.cli.domain.Aircraft;
+import com.flighttracker.cli.domain.Airport;
+import com.flighttracker.cli.domain.City;
+import com.flighttracker.cli.domain.Passenger;
+import com.flighttracker.cli.domain.RelationshipQueries;
+import com.flighttracker.cli.store.Snapshot;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Answers Q1-Q4 from memory. Entities are held in arrays addressed by row, IDs map to rows through
+ * {@link LongIntHashMap}, and each relationship is stored in CSR form: for left-hand row {@code r}
+ * the related rows are {@code targets[offsets[r]] .. targets[offsets[r + 1] - 1]}.
+ */
+public class RelationshipIndex implements RelationshipQueries {
+    private final City[] cities;
+    private final Airport[] airports;
+    private final Passenger[] passengers;
+    private final Aircraft[] aircrafts;
+    private final LongIntHashMap cityRows;
+    private final LongIntHashMap airportRows;
+    private final LongIntHashMap passengerRows;
+    private final LongIntHashMap aircraftRows;
+    private final Map<Snapshot.Relation, Adjacency> relations = new EnumMap<>(Snapshot.Relation.class);
+
+    private RelationshipIndex(Snapshot snapshot) {
+        cities = snapshot.getCities().toArray(new City[0]);
+        airports = snapshot.getAirports().toArray(new Airport[0]);
+        passengers = snapshot.getPassengers().toArray(new Passenger[0]);
+        aircrafts = snapshot.getAircrafts().toArray(new Aircraft[0]);
+        cityRows = rows(cities, City::getId);
+        airportRows = rows(airports, Airport::getId);
+        passengerRows = rows(passengers, Passenger::getId);
+        aircraftRows = rows(aircrafts, Aircraft::getId);
+
+        relations.put(Snapshot.Relation.CITY_AIRPORTS,
+                Adjacency.build(cities, City::getId, snapshot.getRelation(Snapshot.Relation.CITY_AIRPORTS), airportRows));
+        relations.put(Snapshot.Relation.PASSENGER_AIRCRAFTS,
+                Adjacency.build(passengers, Passenger::getId, snapshot.getRelation(Snapshot.Relation.PASSENGER_AIRCRAFTS), aircraftRows));
+        relations.put(Snapshot.Relation.AIRCRAFT_AIRPORTS,
+                Adjacency.build(aircrafts, Aircraft::getId, snapshot.getRelation(Snapshot.Relation.AIRCRAFT_AIRPORTS), airportRows));
+        relations.put(Snapshot.Relation.PASSENGER_AIRPORTS,
+                Adjacency.build(passengers, Passenger::getId, snapshot.getRelation(Snapshot.Relation.PASSENGER_AIRPORTS), airportRows));
+    }
+
+    public static RelationshipIndex build(Snapshot snapshot) {
+        return new RelationshipIndex(snapshot);
+    }
+
+    // --- Q1-Q4 as sets (read-only views over the CSR arrays, nothing is copied) ---
+
+    @Override
+    public Set<Airport> getAirportsInCity(Long cityId) {
+        return related(Snapshot.Relation.CITY_AIRPORTS, cityRows, cityId, airports);
+    }
+
+    @Override
+    public Set<Aircraft> getAircraftsFlownByPassenger(Long passengerId) {
+        return related(Snapshot.Relation.PASSENGER_AIRCRAFTS, passengerRows, passengerId, aircrafts);
+    }
+
+    @Override
+    public Set<Airport> getAirportsByAircraft(Long aircraftId) {
+        return related(Snapshot.Relation.AIRCRAFT_AIRPORTS, aircraftRows, aircraftId, airports);
+    }
+
+    @Override
+    public Set<Airport> getAirportsUsedByPassenger(Long passengerId) {
+        return related(Snapshot.Relation.PASSENGER_AIRPORTS, passengerRows, passengerId, airports);
+    }
+
+    // --- Q1-Q4 as visitors (no allocation at all) ---
+
+    public int forEachAirportInCity(long cityId, Consumer<? super Airport> visitor) {
+        return visit(Snapshot.Relation.CITY_AIRPORTS, cityRows.get(cityId), airports, visitor);
+    }
+
+    public int forEachAircraftFlownByPassenger(long passengerId, Consumer<? super Aircraft> visitor) {
+        return visit(Snapshot.Relation.PASSENGER_AIRCRAFTS, passengerRows.get(passengerId), aircrafts, visitor);
+    }
+
+    public int forEachAirportByAircraft(long aircraftId, Consumer<? super Airport> visitor) {
+        return visit(Snapshot.Relation.AIRCRAFT_AIRPORTS, aircraftRows.get(aircraftId), airports, visitor);
+    }
+
+    public int forEachAirportUsedByPassenger(long passengerId, Consumer<? super Airport> visitor) {
+        return visit(Snapshot.Relation.PASSENGER_AIRPORTS, passengerRows.get(passengerId), airports, visitor);
+    }
+
+    // --- Row-level access for analytics built on top of the index ---
+
+    public City[] getCities() { return cities; }
+    public Airport[] getAirports() { return airports; }
+    public Passenger[] getPassengers() { return passengers; }
+    public Aircraft[] getAircrafts() { return aircrafts; }
+
+    // CSR offsets of a relationship, indexed by left-hand row; do not modify
+    public int[] getOffsets(Snapshot.Relation relation) {
+        return relations.get(relation).offsets;
+    }
+
+    // CSR targets of a relationship (rows in the airport or aircraft arrays); do not modify
+    public int[] getTargets(Snapshot.Relation relation) {
+        return relations.get(relation).targets;
+    }
+
+    public int cityRow(long cityId) { return cityRows.get(cityId); }
+    public int airportRow(long airportId) { return airportRows.get(airportId); }
+    public int passengerRow(long passengerId) { return passengerRows.get(passengerId); }
+    public int aircraftRow(long aircraftId) { return aircraftRows.get(aircraftId); }
+
+    private <T> Set<T> related(Snapshot.Relation relation, LongIntHashMap rows, Long id, T[] entities) {
+        int row = id != null ? rows.get(id) : LongIntHashMap.MISSING;
+        if (row == LongIntHashMap.MISSING) {
+            return Collections.emptySet();
+        }
+        Adjacency adjacency = relations.get(relation);
+        return new RowSet<>(entities, adjacency.targets, adjacency.offsets[row], adjacency.offsets[row + 1]);
+    }
+
+    private <T> int visit(Snapshot.Relation relation, int row, T[] entities, Consumer<? super T> visitor) {
+        if (row == LongIntHashMap.MISSING) {
+            return 0;
+        }
+        Adjacency adjacency = relations.get(relation);
+        int from = adjacency.offsets[row];
+        int to = adjacency.offsets[row + 1];
+        for (int i = from; i < to; i++) {
+            visitor.accept(entities[adjacency.targets[i]]);
+        }
+        return to - from;
+    }
+
+    private static <T> LongIntHashMap rows(T[] entities, Function<T, Long> id) {
+        LongIntHashMap rows = new LongIntHashMap(entities.length);
+        for (int row = 0; row < entities.length; row++) {
+            Long entityId = id.apply(entities[row]);
+            if (entityId != null) {
+                rows.put(entityId, row);
+            }
+        }
+        return rows;
+    }
+
+    private static final class Adjacency {
+        private final int[] offsets;
+        private final int[] targets;
+
+        private Adjacency(int[] offsets, int[] targets) {
+            this.offsets = offsets;
+            this.targets = targets;
+        }
+
+        // Related IDs that do not resolve to a known entity are dropped
+        private static <T> Adjacency build(T[] left, Function<T, Long> id, Map<Long, long[]> related, LongIntHashMap targetRows) {
+            int[] offsets = new int[left.length + 1];
+            int total = 0;
+            for (long[] ids : related.values()) {
+                total += ids.length;
+            }
+            int[] targets = new int[total];
+            int next = 0;
+            for (int row = 0; row < left.length; row++) {
+                Long leftId = id.apply(left[row]);
+                long[] ids = leftId != null ? related.get(leftId) : null;
+                if (ids != null) {
+                    for (long relatedId : ids) {
+                        int target = targetRows.get(relatedId);
+                        if (target != LongIntHashMap.MISSING) {
+                            targets[next++] = target;
+                        }
+                    }
+                }
+                offsets[row + 1] = next;
+            }
+            return new Adjacency(offsets, next == total ? targets : Arrays.copyOf(targets, next));
+        }
+    }
+
+    /**
+     * Read-only set over one CSR slice. Relationship sets are small, so membership is a linear scan.
+     */
+    private static final class RowSet<T> extends AbstractSet<T> {
+        private final T[] entities;
+        private final int[] targets;
+        private final int from;
+        private final int to;
+
+        private RowSet(T[] entities, int[] targets, int from, int to) {
+            this.entities = entities;
+            this.targets = targets;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return new Iterator<>() {
+                private int next = from;
+
+                @Override
+                public boolean hasNext() {
+                    return next < to;
+                }
+
+                @Override
+                public T next() {
+                    if (next >= to) {
+                        throw new NoSuchElementException();
+                    }
+                    return entities[targets[next++]];
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.flighttracker.cli.load;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * How a load test picks the ID of each keyed operation from 1 to the highest ID of the entity.
+ * <ul>
+ *   <li>{@code uniform}: every ID equally often.</li>
+ *   <li>{@code zipf[:exponent]}: ID {@code k} in proportion to {@code 1 / k^exponent} (1.0 by
+ *       default), so a few low IDs get most of the traffic the way popular records do.</li>
+ * </ul>
+ */
+public abstract class IdDistribution {
+
+    /**
+     * @return An ID from 1 to {@code maxId}.
+     */
+    public abstract long next(long maxId, SplittableRandom random);
+
+    public static IdDistribution uniform() {
+        return new Uniform();
+    }
+
+    public static IdDistribution zipf(double exponent) {
+        if (!(exponent > 0)) {
+            throw new IllegalArgumentException("The zipf exponent must be positive");
+        }
+        return new Zipf(exponent);
+    }
+
+    /**
+     * @throws IllegalArgumentException If the spec is not {@code uniform} or {@code zipf[:exponent]}.
+     */
+    public static IdDistribution parse(String spec) {
+        String[] parts = spec.trim().split(":", 2);
+        switch (parts[0]) {
+            case "uniform":
+                if (parts.length > 1) {
+                    throw new IllegalArgumentException("uniform takes no parameter");
+                }
+                return uniform();
+            case "zipf":
+                try {
+                    return zipf(parts.length > 1 ? Double.parseDouble(parts[1]) : 1.0);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid zipf exponent: " + parts[1]);
+                }
+            default:
+                throw new IllegalArgumentException("Unknown ID distribution: " + spec + " (expected uniform or zipf[:exponent])");
+        }
+    }
+
+    private static final class Uniform extends IdDistribution {
+        @Override
+        public long next(long maxId, SplittableRandom random) {
+            return 1 + random.nextLong(maxId);
+        }
+
+        @Override
+        public String toString() {
+            return "uniform";
+        }
+    }
+
+    /**
+     * Rejection-inversion sampling (Hoermann and Derflinger, 1996): constant time per sample and no
+     * table of probabilities, so it works for millions of IDs. The constants depend on the number
+     * of IDs and are kept per entity size.
+     */
+    private static final class Zipf extends IdDistribution {
+        private final double exponent;
+        private final Map<Long, double[]> constants = new ConcurrentHashMap<>();
+
+        Zipf(double exponent) {
+            this.exponent = exponent;
+        }
+
+        @Override
+        public long next(long maxId, SplittableRandom random) {
+            // {hIntegral(1.5) - 1, hIntegral(maxId + 0.5), s}
+            double[] c = constants.computeIfAbsent(maxId, n -> new double[]{
+                    hIntegral(1.5) - 1, hIntegral(n + 0.5), 2 - hIntegralInverse(hIntegral(2.5) - h(2))});
+            while (true) {
+                double u = c[1] + random.nextDouble() * (c[0] - c[1]);
+                double x = hIntegralInverse(u);
+                long k = Math.max(1, Math.min(maxId, (long) (x + 0.5)));
+                if (k - x <= c[2] || u >= hIntegral(k + 0.5) - h(k)) {
+                    return k;
+                }
+            }
+        }
+
+        private double h(double x) {
+            return Math.exp(-exponent * Math.log(x));
+        }
+
+        private double hIntegral(double x) {
+            double logX = Math.log(x);
+            return helper2((1 - exponent) * logX) * logX;
+        }
+
+        private double hIntegralInverse(double x) {
+            double t = Math.max(-1, x * (1 - exponent));
+            return Math.exp(helper1(t) * x);
+        }
+
+        // log(1 + x) / x, stable near 0
+        private static double helper1(double x) {
+            return Math.abs(x) > 1e-8 ? Math.log1p(x) / x : 1 - x * (0.5 - x * (1 / 3.0 - 0.25 * x));
+        }
+
+        // (exp(x) - 1) / x, stable near 0
+        private static double helper2(double x) {
+            return Math.abs(x) > 1e-8 ? Math.expm1(x) / x : 1 + x * 0.5 * (1 + x / 3.0 * (1 + 0.25 * x));
+        }
+
+        @Override
+        public String toString() {
+            return "zipf:" + exponent;
+        }
+    }
+}
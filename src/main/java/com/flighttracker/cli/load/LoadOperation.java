@@ -0,0 +1,69 @@
+package com.flighttracker.cli.load;
+
+import com.flighttracker.cli.http.client.ApiResult;
+import com.flighttracker.cli.http.client.RESTClient;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * The eight API calls a load test can replay, named after the {@link RESTClient} methods.
+ */
+public enum LoadOperation {
+    GET_ALL_CITIES("getAllCities", null),
+    GET_ALL_AIRPORTS("getAllAirports", null),
+    GET_ALL_PASSENGERS("getAllPassengers", null),
+    GET_ALL_AIRCRAFTS("getAllAircrafts", null),
+    GET_AIRPORTS_IN_CITY("getAirportsInCity", "cities"),
+    GET_AIRCRAFTS_FLOWN_BY_PASSENGER("getAircraftsFlownByPassenger", "passengers"),
+    GET_AIRPORTS_BY_AIRCRAFT("getAirportsByAircraft", "aircrafts"),
+    GET_AIRPORTS_USED_BY_PASSENGER("getAirportsUsedByPassenger", "passengers");
+
+    private final String name;
+    private final String keyEntity;
+
+    LoadOperation(String name, String keyEntity) {
+        this.name = name;
+        this.keyEntity = keyEntity;
+    }
+
+    public String getName() { return name; }
+
+    public boolean isKeyed() { return keyEntity != null; }
+
+    // Entity list the ID is drawn from, e.g. "cities" for getAirportsInCity; null for the lists
+    public String getKeyEntity() { return keyEntity; }
+
+    /**
+     * Calls the API through the client's full pipeline; failures are returned, never printed.
+     * @param id Ignored by the lists.
+     */
+    public ApiResult<?> invoke(RESTClient client, long id) {
+        switch (this) {
+            case GET_ALL_CITIES: return client.getAllCitiesResult();
+            case GET_ALL_AIRPORTS: return client.getAllAirportsResult();
+            case GET_ALL_PASSENGERS: return client.getAllPassengersResult();
+            case GET_ALL_AIRCRAFTS: return client.getAllAircraftsResult();
+            case GET_AIRPORTS_IN_CITY: return client.getAirportsInCityResult(id);
+            case GET_AIRCRAFTS_FLOWN_BY_PASSENGER: return client.getAircraftsFlownByPassengerResult(id);
+            case GET_AIRPORTS_BY_AIRCRAFT: return client.getAirportsByAircraftResult(id);
+            default: return client.getAirportsUsedByPassengerResult(id);
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException If no operation has the name.
+     */
+    public static LoadOperation forName(String name) {
+        for (LoadOperation operation : values()) {
+            if (operation.name.equals(name)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation: " + name + " (expected one of " + names() + ")");
+    }
+
+    public static String names() {
+        return Arrays.stream(values()).map(LoadOperation::getName).collect(Collectors.joining(", "));
+    }
+}
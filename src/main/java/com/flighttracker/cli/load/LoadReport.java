@@ -0,0 +1,121 @@
+package com.flighttracker.cli.load;
+
+import com.flighttracker.cli.metrics.LatencyHistogram;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Outcome of a load test. Response times run from when an operation was due to be sent, so time
+ * spent queued behind slow responses counts; service times run from when it was actually sent.
+ */
+public final class LoadReport {
+    private final String description;
+    private final Stats total;
+    private final Map<LoadOperation, Stats> byOperation;
+    private final long elapsedNanos;
+    private final long unfinished;
+
+    LoadReport(String description, Stats total, Map<LoadOperation, Stats> byOperation, long elapsedNanos, long unfinished) {
+        this.description = description;
+        this.total = total;
+        this.byOperation = byOperation;
+        this.elapsedNanos = elapsedNanos;
+        this.unfinished = unfinished;
+    }
+
+    public long getCompletedCount() { return total.responseTimes.getCount(); }
+    public long getErrorCount() { return total.errors.sum(); }
+    // Operations of an open loop not sent because too many were in flight; included in the errors
+    public long getDroppedCount() { return total.dropped.sum(); }
+    // Operations still waiting for an answer when the test gave up on them
+    public long getUnfinishedCount() { return unfinished; }
+    public long getElapsedNanos() { return elapsedNanos; }
+    public LatencyHistogram getResponseTimes() { return total.responseTimes; }
+    public LatencyHistogram getServiceTimes() { return total.serviceTimes; }
+
+    public double getThroughput() {
+        return elapsedNanos > 0 ? getCompletedCount() * 1e9 / elapsedNanos : 0;
+    }
+
+    // Completed and failed operations of one kind; zero for kinds that were not sent
+    public long getCompletedCount(LoadOperation operation) {
+        Stats stats = byOperation.get(operation);
+        return stats != null ? stats.responseTimes.getCount() : 0;
+    }
+
+    public long getErrorCount(LoadOperation operation) {
+        Stats stats = byOperation.get(operation);
+        return stats != null ? stats.errors.sum() : 0;
+    }
+
+    /**
+     * Summary with one row for all operations and one per operation, latencies in milliseconds.
+     */
+    public String format() {
+        StringBuilder out = new StringBuilder();
+        out.append(description).append('\n');
+        out.append(String.format("%d operations in %.1f s: %.1f ops/s, %d errors%s%n", getCompletedCount(),
+                elapsedNanos / 1e9, getThroughput(), getErrorCount(),
+                (getDroppedCount() > 0 ? " (" + getDroppedCount() + " dropped at the in-flight limit)" : "")
+                        + (unfinished > 0 ? ", " + unfinished + " unfinished" : "")));
+        out.append(String.format("%-30s %9s %7s %9s %9s %9s %9s %9s%n",
+                "Response time (ms)", "count", "errors", "p50", "p90", "p99", "p99.9", "max"));
+        appendRow(out, "all", total, total.responseTimes);
+        for (Map.Entry<LoadOperation, Stats> entry : byOperation.entrySet()) {
+            if (entry.getValue().responseTimes.getCount() == 0) {
+                continue;
+            }
+            appendRow(out, entry.getKey().getName(), entry.getValue(), entry.getValue().responseTimes);
+        }
+        out.append(String.format("%-30s %9s %7s %9s %9s %9s %9s %9s%n",
+                "Service time (ms)", "count", "errors", "p50", "p90", "p99", "p99.9", "max"));
+        appendRow(out, "all", total, total.serviceTimes);
+        return out.toString();
+    }
+
+    private static void appendRow(StringBuilder out, String name, Stats stats, LatencyHistogram histogram) {
+        out.append(String.format("%-30s %9d %7d %s%n", name, histogram.getCount(), stats.errors.sum(), percentiles(histogram)));
+    }
+
+    // p50, p90, p99, p99.9 and max in milliseconds, aligned for the tables
+    static String percentiles(LatencyHistogram histogram) {
+        return String.format("%9.2f %9.2f %9.2f %9.2f %9.2f",
+                histogram.getValueAtPercentile(50) / 1e6, histogram.getValueAtPercentile(90) / 1e6,
+                histogram.getValueAtPercentile(99) / 1e6, histogram.getValueAtPercentile(99.9) / 1e6,
+                histogram.getMaxNanos() / 1e6);
+    }
+
+    /**
+     * Latencies and errors of the operations completed in a period or in the whole test.
+     */
+    static final class Stats {
+        final LatencyHistogram responseTimes = new LatencyHistogram();
+        final LatencyHistogram serviceTimes = new LatencyHistogram();
+        final LongAdder errors = new LongAdder();
+        final LongAdder dropped = new LongAdder();
+
+        // Not sent because too many operations were in flight; counts as an error
+        void dropped() {
+            dropped.increment();
+            errors.increment();
+        }
+
+        void record(long responseNanos, long serviceNanos, boolean success) {
+            responseTimes.record(responseNanos);
+            serviceTimes.record(serviceNanos);
+            if (!success) {
+                errors.increment();
+            }
+        }
+
+        static Map<LoadOperation, Stats> perOperation() {
+            Map<LoadOperation, Stats> stats = new EnumMap<>(LoadOperation.class);
+            for (LoadOperation operation : LoadOperation.values()) {
+                stats.put(operation, new Stats());
+            }
+            return stats;
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.flighttracker.cli.load;
+
+import com.flighttracker.cli.http.client.HttpClientProfile;
+import com.flighttracker.cli.http.client.RESTClient;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.ToLongFunction;
+
+/**
+ * Replays a mix of the API calls through a {@link RESTClient}, so the load passes the same cache,
+ * retries, limits and connection handling as the CLI's own requests.
+ * <ul>
+ *   <li><b>Open loop</b> (no workers): operations are started at the target rate whether or not
+ *       earlier ones have answered, the way independent users arrive. Each runs on a thread of
+ *       its own: a virtual thread on JDK 21+, a pooled platform thread on JDK 17. At most
+ *       {@link #DEFAULT_MAX_IN_FLIGHT} operations wait for an answer at a time; operations due
+ *       beyond that are dropped and counted as errors instead of piling up threads.</li>
+ *   <li><b>Closed loop</b> ({@code workers > 0}): every worker sends its next operation when the
+ *       previous one has answered, paced to its share of the target rate if there is one.</li>
+ * </ul>
+ * Latencies are free of coordinated omission: every operation has the time it was due to be sent,
+ * and its response time runs from then, not from when a backed-up sender got around to it. Only
+ * an unpaced closed loop has no schedule, and there response time equals service time.
+ * <p>
+ * Operations due during the warm-up are sent but not recorded. Throughput and latency
+ * percentiles are printed for every report interval and summed up in the returned report.
+ */
+public final class LoadTest {
+    public static final Duration DEFAULT_DURATION = Duration.ofSeconds(30);
+    public static final Duration DEFAULT_WARMUP = Duration.ofSeconds(5);
+    public static final Duration DEFAULT_REPORT_INTERVAL = Duration.ofSeconds(5);
+    // How long operations still in flight at the end are waited for
+    public static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(30);
+    // Open loop operations waiting for an answer at once; each holds a thread until it has one
+    public static final int DEFAULT_MAX_IN_FLIGHT = 2_000;
+
+    private final RESTClient client;
+    private final OperationMix mix;
+    private final IdDistribution ids;
+    private final ToLongFunction<String> maxIds;
+    private double targetRate;
+    private int workers;
+    private int maxInFlight = DEFAULT_MAX_IN_FLIGHT;
+    private Duration duration = DEFAULT_DURATION;
+    private Duration warmup = DEFAULT_WARMUP;
+    private Duration reportInterval = DEFAULT_REPORT_INTERVAL;
+    private long seed = 1;
+
+    private final AtomicLong inFlight = new AtomicLong();
+    private volatile long measureStart;
+    private volatile long intervalStart;
+    private LoadReport.Stats total;
+    private Map<LoadOperation, LoadReport.Stats> byOperation;
+    private final AtomicReference<LoadReport.Stats> interval = new AtomicReference<>();
+
+    /**
+     * @param maxIds Highest ID of an entity list ("cities", "passengers", "aircrafts").
+     */
+    public LoadTest(RESTClient client, OperationMix mix, IdDistribution ids, ToLongFunction<String> maxIds) {
+        this.client = client;
+        this.mix = mix;
+        this.ids = ids;
+        this.maxIds = maxIds;
+    }
+
+    public double getTargetRate() { return targetRate; }
+    // Operations started per second; required for an open loop, optional pacing for a closed one
+    public void setTargetRate(double targetRate) { this.targetRate = targetRate; }
+
+    public int getWorkers() { return workers; }
+    // Concurrent workers of a closed loop; 0 runs an open loop
+    public void setWorkers(int workers) { this.workers = workers; }
+
+    public int getMaxInFlight() { return maxInFlight; }
+    // Bound of an open loop's in-flight operations; a closed loop never has more than its workers
+    public void setMaxInFlight(int maxInFlight) { this.maxInFlight = maxInFlight; }
+
+    public Duration getDuration() { return duration; }
+    public void setDuration(Duration duration) { this.duration = duration; }
+
+    public Duration getWarmup() { return warmup; }
+    public void setWarmup(Duration warmup) { this.warmup = warmup; }
+
+    public Duration getReportInterval() { return reportInterval; }
+    public void setReportInterval(Duration reportInterval) { this.reportInterval = reportInterval; }
+
+    // Seed of the operation and ID choices, so two runs send the same sequence
+    public void setSeed(long seed) { this.seed = seed; }
+
+    /**
+     * Runs the test, printing a line per report interval to {@code out}.
+     * @throws IllegalStateException If an open loop has no target rate.
+     */
+    public LoadReport run(PrintStream out) throws InterruptedException {
+        if (workers < 0 || targetRate < 0) {
+            throw new IllegalStateException("Workers and target rate must not be negative");
+        }
+        if (maxInFlight < 1) {
+            throw new IllegalStateException("Max in flight must be at least 1");
+        }
+        if (workers == 0 && targetRate == 0) {
+            throw new IllegalStateException("An open loop needs a target rate; give a rate, workers or both");
+        }
+        total = new LoadReport.Stats();
+        byOperation = LoadReport.Stats.perOperation();
+        interval.set(new LoadReport.Stats());
+
+        long start = System.nanoTime();
+        measureStart = start + warmup.toNanos();
+        intervalStart = measureStart;
+        long end = measureStart + duration.toNanos();
+        out.println(describe());
+        if (!warmup.isZero()) {
+            out.printf("Warming up for %.1f s...%n", warmup.toNanos() / 1e9);
+        }
+        out.printf("%8s %10s %8s %9s %9s %9s %9s %9s%n",
+                "elapsed", "ops/s", "errors", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "flighttracker-loadtest-report");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalNanos = reportInterval.toNanos();
+        reporter.scheduleAtFixedRate(() -> printInterval(out),
+                measureStart - System.nanoTime() + intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+
+        ExecutorService executor = HttpClientProfile.defaultExecutor();
+        try {
+            if (workers == 0) {
+                runOpenLoop(executor, start, end);
+            } else {
+                runClosedLoop(executor, start, end);
+            }
+            executor.shutdown();
+            executor.awaitTermination(DRAIN_TIMEOUT.toNanos(), TimeUnit.NANOSECONDS);
+        } finally {
+            executor.shutdownNow();
+            reporter.shutdownNow();
+        }
+        reporter.awaitTermination(1, TimeUnit.SECONDS);
+        // Whatever completed since the last line, e.g. the answers drained after the end
+        if (interval.get().responseTimes.getCount() > 0) {
+            printInterval(out);
+        }
+        // Only operations due within the measured period are recorded, so that is what they took
+        return new LoadReport(describe(), total, byOperation, duration.toNanos(), inFlight.get());
+    }
+
+    private String describe() {
+        String loop = workers == 0
+                ? String.format("open loop at %.1f ops/s", targetRate)
+                : "closed loop with " + workers + " workers" + (targetRate > 0 ? String.format(" paced to %.1f ops/s", targetRate) : "");
+        return "Load test: " + loop + " for " + duration.toSeconds() + " s, mix " + mix + ", IDs " + ids;
+    }
+
+    // One sender starts every operation at its due time, without waiting for any answer, unless
+    // maxInFlight operations are still waiting for theirs
+    private void runOpenLoop(ExecutorService executor, long start, long end) {
+        SplittableRandom random = new SplittableRandom(seed);
+        double periodNanos = 1e9 / targetRate;
+        for (long i = 0; ; i++) {
+            long due = start + (long) (i * periodNanos);
+            if (due - end >= 0) {
+                return;
+            }
+            sleepUntil(due);
+            LoadOperation operation = mix.next(random);
+            long id = nextId(operation, random);
+            if (inFlight.get() >= maxInFlight) {
+                drop(operation, due);
+                continue;
+            }
+            inFlight.incrementAndGet();
+            executor.execute(() -> call(operation, id, due));
+        }
+    }
+
+    // Every worker holds a thread of its own until the end
+    private void runClosedLoop(ExecutorService executor, long start, long end) {
+        SplittableRandom seeds = new SplittableRandom(seed);
+        long periodNanos = targetRate > 0 ? (long) (workers * 1e9 / targetRate) : 0;
+        for (int w = 0; w < workers; w++) {
+            SplittableRandom random = seeds.split();
+            // Paced workers are staggered over one period, so they do not all fire at once
+            long first = start + (periodNanos > 0 ? periodNanos * w / workers : 0);
+            executor.execute(() -> {
+                long due = first;
+                while (due - end < 0) {
+                    if (periodNanos > 0) {
+                        sleepUntil(due);
+                    } else {
+                        due = System.nanoTime();
+                    }
+                    LoadOperation operation = mix.next(random);
+                    inFlight.incrementAndGet();
+                    call(operation, nextId(operation, random), due);
+                    due = periodNanos > 0 ? due + periodNanos : System.nanoTime();
+                }
+            });
+        }
+    }
+
+    private long nextId(LoadOperation operation, SplittableRandom random) {
+        return operation.isKeyed() ? ids.next(Math.max(1, maxIds.applyAsLong(operation.getKeyEntity())), random) : 0;
+    }
+
+    private void call(LoadOperation operation, long id, long due) {
+        long sent = System.nanoTime();
+        boolean success;
+        try {
+            success = operation.invoke(client, id).isSuccess();
+        } catch (RuntimeException e) {
+            success = false;
+        }
+        long done = System.nanoTime();
+        inFlight.decrementAndGet();
+        if (due - measureStart < 0) {
+            return; // due during the warm-up
+        }
+        long response = done - due;
+        long service = done - sent;
+        interval.get().record(response, service, success);
+        total.record(response, service, success);
+        byOperation.get(operation).record(response, service, success);
+    }
+
+    // The API never saw the operation, so it has no latency, but it did not get an answer either
+    private void drop(LoadOperation operation, long due) {
+        if (due - measureStart < 0) {
+            return;
+        }
+        interval.get().dropped();
+        total.dropped();
+        byOperation.get(operation).dropped();
+    }
+
+    // Latencies of the operations completed since the previous line, time counted from the measured start
+    private void printInterval(PrintStream out) {
+        long now = System.nanoTime();
+        LoadReport.Stats stats = interval.getAndSet(new LoadReport.Stats());
+        long periodNanos = Math.max(1, now - intervalStart);
+        intervalStart = now;
+        out.printf("%7.1fs %10.1f %8d %s%n", (now - measureStart) / 1e9, stats.responseTimes.getCount() * 1e9 / periodNanos,
+                stats.errors.sum(), LoadReport.percentiles(stats.responseTimes));
+    }
+
+    private static void sleepUntil(long due) {
+        long wait;
+        while ((wait = due - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(wait);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.flighttracker.cli.load;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.StringJoiner;
+
+/**
+ * Relative weights of the operations a load test sends, e.g.
+ * {@code getAirportsInCity=10,getAllCities=1}: every operation is drawn with probability weight / total.
+ */
+public final class OperationMix {
+    private final LoadOperation[] operations;
+    private final long[] cumulativeWeights;
+
+    private OperationMix(Map<LoadOperation, Integer> weights) {
+        operations = weights.keySet().toArray(new LoadOperation[0]);
+        cumulativeWeights = new long[operations.length];
+        long total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += weights.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("At least one operation needs a positive weight");
+        }
+    }
+
+    /**
+     * The lists once for every ten calls of each of Q1-Q4, roughly what the menu sees.
+     */
+    public static OperationMix defaults() {
+        Map<LoadOperation, Integer> weights = new EnumMap<>(LoadOperation.class);
+        for (LoadOperation operation : LoadOperation.values()) {
+            weights.put(operation, operation.isKeyed() ? 10 : 1);
+        }
+        return new OperationMix(weights);
+    }
+
+    /**
+     * @param spec Comma separated {@code operation=weight} pairs; operations not named are not sent.
+     * @throws IllegalArgumentException If an operation or weight is invalid.
+     */
+    public static OperationMix parse(String spec) {
+        Map<LoadOperation, Integer> weights = new EnumMap<>(LoadOperation.class);
+        for (String part : spec.split(",")) {
+            String pair = part.trim();
+            if (pair.isEmpty()) {
+                continue;
+            }
+            int equals = pair.indexOf('=');
+            if (equals < 0) {
+                throw new IllegalArgumentException("Expected operation=weight in the mix, got: " + pair);
+            }
+            LoadOperation operation = LoadOperation.forName(pair.substring(0, equals).trim());
+            int weight;
+            try {
+                weight = Integer.parseInt(pair.substring(equals + 1).trim());
+            } catch (NumberFormatException e) {
+                weight = -1;
+            }
+            if (weight < 0) {
+                throw new IllegalArgumentException("Invalid weight for " + operation.getName() + ": " + pair.substring(equals + 1));
+            }
+            weights.merge(operation, weight, Integer::sum);
+        }
+        return new OperationMix(weights);
+    }
+
+    public LoadOperation next(SplittableRandom random) {
+        long pick = random.nextLong(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; ; i++) {
+            if (pick < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringJoiner joiner = new StringJoiner(",");
+        for (int i = 0; i < operations.length; i++) {
+            long weight = cumulativeWeights[i] - (i > 0 ? cumulativeWeights[i - 1] : 0);
+            if (weight > 0) {
+                joiner.add(operations[i].getName() + "=" + weight);
+            }
+        }
+        return joiner.toString();
+    }
+}
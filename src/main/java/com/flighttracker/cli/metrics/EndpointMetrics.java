@@ -0,0 +1,61 @@
+package com.flighttracker.cli.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and latency histograms of one route (an endpoint with its IDs replaced by {id}).
+ * The latency of a request is split into three phases:
+ * <ul>
+ *   <li>wait: from sending the request until the response headers arrive (connect, TLS, server time)</li>
+ *   <li>transfer: from the headers until the whole body has been received</li>
+ *   <li>deserialize: Jackson binding of the body</li>
+ * </ul>
+ */
+public class EndpointMetrics {
+    public static final int NETWORK_ERROR = -1;
+
+    private final String route;
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder bytesReceived = new LongAdder();
+    private final Map<Integer, LongAdder> errorsByStatus = new ConcurrentHashMap<>();
+    private final LatencyHistogram wait = new LatencyHistogram();
+    private final LatencyHistogram transfer = new LatencyHistogram();
+    private final LatencyHistogram deserialize = new LatencyHistogram();
+
+    EndpointMetrics(String route) {
+        this.route = route;
+    }
+
+    void recordRequest() {
+        requests.increment();
+    }
+
+    void recordBytes(long bytes) {
+        bytesReceived.add(bytes);
+    }
+
+    // Status code of a failed request, or NETWORK_ERROR when there was no response at all
+    void recordError(int status) {
+        errorsByStatus.computeIfAbsent(status, key -> new LongAdder()).increment();
+    }
+
+    public String getRoute() { return route; }
+    public long getRequestCount() { return requests.sum(); }
+    public long getBytesReceived() { return bytesReceived.sum(); }
+    public LatencyHistogram getWaitLatency() { return wait; }
+    public LatencyHistogram getTransferLatency() { return transfer; }
+    public LatencyHistogram getDeserializeLatency() { return deserialize; }
+
+    public long getErrorCount() {
+        return errorsByStatus.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    public Map<Integer, Long> getErrorsByStatus() {
+        Map<Integer, Long> errors = new TreeMap<>();
+        errorsByStatus.forEach((status, count) -> errors.put(status, count.sum()));
+        return errors;
+    }
+}
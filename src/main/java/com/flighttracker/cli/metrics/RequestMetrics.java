@@ -0,0 +1,303 @@
+package com.flighttracker.cli.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Flow;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Registry of per-route request metrics, fed by RESTClient and exported either as a human-readable
+ * report or in the Prometheus text exposition format.
+ */
+public class RequestMetrics {
+    private static final double[] REPORTED_PERCENTILES = {50, 90, 99, 99.9};
+
+    private final Map<String, EndpointMetrics> routes = new ConcurrentHashMap<>();
+    private final Map<String, Gauge> gauges = new LinkedHashMap<>();
+
+    /**
+     * Starts timing one network request.
+     */
+    public RequestTimer start(String endpoint) {
+        EndpointMetrics metrics = routes.computeIfAbsent(route(endpoint), EndpointMetrics::new);
+        metrics.recordRequest();
+        return new RequestTimer(metrics, System.nanoTime());
+    }
+
+    /**
+     * Registers a value that is sampled whenever the metrics are reported, e.g. a current limit or queue depth.
+     * @param name Prometheus metric name, also used in the report.
+     */
+    public synchronized void registerGauge(String name, String help, DoubleSupplier value) {
+        gauges.put(name, new Gauge(help, value));
+    }
+
+    // Current value of every registered gauge, in registration order
+    public Map<String, Double> getGauges() {
+        Map<String, Double> values = new LinkedHashMap<>();
+        for (Map.Entry<String, Gauge> gauge : registeredGauges()) {
+            values.put(gauge.getKey(), gauge.getValue().value.getAsDouble());
+        }
+        return values;
+    }
+
+    // Sampled outside the lock, since a gauge may take locks of its own
+    private synchronized List<Map.Entry<String, Gauge>> registeredGauges() {
+        return new ArrayList<>(gauges.entrySet());
+    }
+
+    public List<EndpointMetrics> getEndpoints() {
+        List<EndpointMetrics> endpoints = new ArrayList<>(routes.values());
+        endpoints.sort(Comparator.comparing(EndpointMetrics::getRoute));
+        return endpoints;
+    }
+
+    /**
+     * Replaces numeric path segments with {id} so that e.g. every passenger shares one route.
+     */
+    public static String route(String endpoint) {
+        int query = endpoint.indexOf('?');
+        String path = query >= 0 ? endpoint.substring(0, query) : endpoint;
+        StringBuilder route = new StringBuilder(path.length());
+        int start = 0;
+        while (start <= path.length()) {
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = path.length();
+            }
+            if (end > start && isNumeric(path, start, end)) {
+                route.append("{id}");
+            } else {
+                route.append(path, start, end);
+            }
+            if (end < path.length()) {
+                route.append('/');
+            }
+            start = end + 1;
+        }
+        return route.toString();
+    }
+
+    private static boolean isNumeric(String path, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = path.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Human-readable table: counts, errors, bytes and latency percentiles per route and phase.
+     */
+    public String report() {
+        StringBuilder report = new StringBuilder();
+        Map<String, Double> gaugeValues = getGauges();
+        gaugeValues.forEach((name, value) -> report.append(name).append(": ").append(formatValue(value)).append('\n'));
+        if (routes.isEmpty()) {
+            return report.append("No requests recorded yet.").toString();
+        }
+        for (EndpointMetrics endpoint : getEndpoints()) {
+            report.append(endpoint.getRoute())
+                    .append(": requests=").append(endpoint.getRequestCount())
+                    .append(", errors=").append(endpoint.getErrorsByStatus())
+                    .append(", bytes=").append(endpoint.getBytesReceived())
+                    .append('\n');
+            appendPhase(report, "wait", endpoint.getWaitLatency());
+            appendPhase(report, "transfer", endpoint.getTransferLatency());
+            appendPhase(report, "deserialize", endpoint.getDeserializeLatency());
+        }
+        return report.toString();
+    }
+
+    private static String formatValue(double value) {
+        return value == Math.rint(value) ? Long.toString((long) value) : Double.toString(value);
+    }
+
+    private static void appendPhase(StringBuilder report, String phase, LatencyHistogram histogram) {
+        report.append(String.format("    %-12s", phase));
+        for (double percentile : REPORTED_PERCENTILES) {
+            report.append(String.format(" p%s=%.2fms", formatPercentile(percentile),
+                    histogram.getValueAtPercentile(percentile) / 1_000_000.0));
+        }
+        report.append(String.format(" max=%.2fms%n", histogram.getMaxNanos() / 1_000_000.0));
+    }
+
+    public void writePrometheus(Path file) throws IOException {
+        try (Writer out = Files.newBufferedWriter(file)) {
+            writePrometheus(out);
+        }
+    }
+
+    public void writePrometheus(Appendable out) throws IOException {
+        List<EndpointMetrics> endpoints = getEndpoints();
+
+        out.append("# HELP flighttracker_requests_total Network requests sent by the CLI.\n");
+        out.append("# TYPE flighttracker_requests_total counter\n");
+        for (EndpointMetrics endpoint : endpoints) {
+            out.append("flighttracker_requests_total{route=\"").append(endpoint.getRoute()).append("\"} ")
+                    .append(Long.toString(endpoint.getRequestCount())).append('\n');
+        }
+
+        out.append("# HELP flighttracker_request_errors_total Failed requests by HTTP status (-1: no response).\n");
+        out.append("# TYPE flighttracker_request_errors_total counter\n");
+        for (EndpointMetrics endpoint : endpoints) {
+            for (Map.Entry<Integer, Long> error : endpoint.getErrorsByStatus().entrySet()) {
+                out.append("flighttracker_request_errors_total{route=\"").append(endpoint.getRoute())
+                        .append("\",status=\"").append(Integer.toString(error.getKey())).append("\"} ")
+                        .append(Long.toString(error.getValue())).append('\n');
+            }
+        }
+
+        out.append("# HELP flighttracker_response_bytes_total Response body bytes received.\n");
+        out.append("# TYPE flighttracker_response_bytes_total counter\n");
+        for (EndpointMetrics endpoint : endpoints) {
+            out.append("flighttracker_response_bytes_total{route=\"").append(endpoint.getRoute()).append("\"} ")
+                    .append(Long.toString(endpoint.getBytesReceived())).append('\n');
+        }
+
+        out.append("# HELP flighttracker_request_latency_seconds Request latency by phase.\n");
+        out.append("# TYPE flighttracker_request_latency_seconds summary\n");
+        for (EndpointMetrics endpoint : endpoints) {
+            writeSummary(out, endpoint.getRoute(), "wait", endpoint.getWaitLatency());
+            writeSummary(out, endpoint.getRoute(), "transfer", endpoint.getTransferLatency());
+            writeSummary(out, endpoint.getRoute(), "deserialize", endpoint.getDeserializeLatency());
+        }
+
+        for (Map.Entry<String, Gauge> gauge : registeredGauges()) {
+            out.append("# HELP ").append(gauge.getKey()).append(' ').append(gauge.getValue().help).append('\n');
+            out.append("# TYPE ").append(gauge.getKey()).append(" gauge\n");
+            out.append(gauge.getKey()).append(' ')
+                    .append(formatValue(gauge.getValue().value.getAsDouble())).append('\n');
+        }
+    }
+
+    private static void writeSummary(Appendable out, String route, String phase, LatencyHistogram histogram) throws IOException {
+        String labels = "route=\"" + route + "\",phase=\"" + phase + "\"";
+        for (double percentile : REPORTED_PERCENTILES) {
+            out.append("flighttracker_request_latency_seconds{").append(labels)
+                    .append(",quantile=\"").append(Double.toString(percentile / 100)).append("\"} ")
+                    .append(Double.toString(histogram.getValueAtPercentile(percentile) / 1e9)).append('\n');
+        }
+        out.append("flighttracker_request_latency_seconds_sum{").append(labels).append("} ")
+                .append(Double.toString(histogram.getTotalNanos() / 1e9)).append('\n');
+        out.append("flighttracker_request_latency_seconds_count{").append(labels).append("} ")
+                .append(Long.toString(histogram.getCount())).append('\n');
+    }
+
+    private static String formatPercentile(double percentile) {
+        return percentile == Math.rint(percentile) ? Long.toString((long) percentile) : Double.toString(percentile);
+    }
+
+    private static final class Gauge {
+        final String help;
+        final DoubleSupplier value;
+
+        Gauge(String help, DoubleSupplier value) {
+            this.help = help;
+            this.value = value;
+        }
+    }
+
+    /**
+     * Timing of one request. Not thread-safe; each request owns its timer.
+     */
+    public static final class RequestTimer {
+        private final EndpointMetrics metrics;
+        private final long startNanos;
+        private long headersNanos;
+        private long bodyNanos;
+        // Written only by the client thread delivering the body, read once it has been received
+        private volatile long bytesReceived;
+
+        private RequestTimer(EndpointMetrics metrics, long startNanos) {
+            this.metrics = metrics;
+            this.startNanos = startNanos;
+        }
+
+        /**
+         * Wraps a body handler so the moment the response headers arrive is recorded, and the body
+         * bytes are counted as they arrive: chunked and still-compressed bodies count as well.
+         */
+        public <T> HttpResponse.BodyHandler<T> wrap(HttpResponse.BodyHandler<T> handler) {
+            return responseInfo -> {
+                headersNanos = System.nanoTime();
+                return new CountingSubscriber<>(handler.apply(responseInfo));
+            };
+        }
+
+        /**
+         * The full body has been received, or as much of a streamed one as the caller read.
+         * Records the bytes counted by the {@link #wrap wrapped} handler.
+         */
+        public void bodyReceived(int status) {
+            bodyNanos = System.nanoTime();
+            long headers = headersNanos != 0 ? headersNanos : bodyNanos;
+            metrics.getWaitLatency().record(headers - startNanos);
+            metrics.getTransferLatency().record(bodyNanos - headers);
+            metrics.recordBytes(bytesReceived);
+            if (status != 200 && status != 304) {
+                metrics.recordError(status);
+            }
+        }
+
+        public void deserialized() {
+            metrics.getDeserializeLatency().record(System.nanoTime() - bodyNanos);
+        }
+
+        // The exchange failed before a response was received
+        public void failed() {
+            metrics.recordError(EndpointMetrics.NETWORK_ERROR);
+        }
+
+        private final class CountingSubscriber<T> implements HttpResponse.BodySubscriber<T> {
+            private final HttpResponse.BodySubscriber<T> delegate;
+
+            private CountingSubscriber(HttpResponse.BodySubscriber<T> delegate) {
+                this.delegate = delegate;
+            }
+
+            @Override
+            public CompletionStage<T> getBody() {
+                return delegate.getBody();
+            }
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                delegate.onSubscribe(subscription);
+            }
+
+            @Override
+            public void onNext(List<ByteBuffer> buffers) {
+                long bytes = 0;
+                for (ByteBuffer buffer : buffers) {
+                    bytes += buffer.remaining();
+                }
+                bytesReceived += bytes;
+                delegate.onNext(buffers);
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                delegate.onError(error);
+            }
+
+            @Override
+            public void onComplete() {
+                delegate.onComplete();
+            }
+        }
+    }
+}
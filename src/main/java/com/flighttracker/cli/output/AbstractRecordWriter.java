@@ -0,0 +1,46 @@
+package com.flighttracker.cli.output;
+
+import com.flighttracker.cli.domain.Aircraft;
+import com.flighttracker.cli.domain.Airport;
+import com.flighttracker.cli.domain.City;
+import com.flighttracker.cli.domain.Passenger;
+
+import java.io.IOException;
+
+/**
+ * Dispatches records to one method per domain class. {@code key} is null for unkeyed records.
+ */
+abstract class AbstractRecordWriter implements RecordWriter {
+
+    @Override
+    public void write(Object record) throws IOException {
+        dispatch(null, record);
+    }
+
+    @Override
+    public void write(long key, Object record) throws IOException {
+        dispatch(key, record);
+    }
+
+    private void dispatch(Long key, Object record) throws IOException {
+        if (record instanceof City) {
+            writeCity(key, (City) record);
+        } else if (record instanceof Airport) {
+            writeAirport(key, (Airport) record);
+        } else if (record instanceof Passenger) {
+            writePassenger(key, (Passenger) record);
+        } else if (record instanceof Aircraft) {
+            writeAircraft(key, (Aircraft) record);
+        } else {
+            throw new IllegalArgumentException("Cannot write " + (record == null ? "null" : record.getClass().getName()));
+        }
+    }
+
+    protected abstract void writeCity(Long key, City city) throws IOException;
+
+    protected abstract void writeAirport(Long key, Airport airport) throws IOException;
+
+    protected abstract void writePassenger(Long key, Passenger passenger) throws IOException;
+
+    protected abstract void writeAircraft(Long key, Aircraft aircraft) throws IOException;
+}
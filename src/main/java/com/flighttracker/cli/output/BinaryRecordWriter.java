@@ -0,0 +1,108 @@
+package com.flighttracker.cli.output;
+
+import com.flighttracker.cli.domain.Aircraft;
+import com.flighttracker.cli.domain.Airport;
+import com.flighttracker.cli.domain.City;
+import com.flighttracker.cli.domain.Passenger;
+import com.flighttracker.cli.store.EntityCodec;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.function.BiConsumer;
+
+/**
+ * A stream of tagged records: the magic "FTR1", then per record a tag byte (record type, with
+ * {@link #KEYED} set when a key follows), the key as a long if present, and the record in
+ * {@link EntityCodec} encoding.
+ */
+public class BinaryRecordWriter extends AbstractRecordWriter {
+    static final int MAGIC = 0x46545231; // "FTR1"
+    static final byte CITY = 1;
+    static final byte AIRPORT = 2;
+    static final byte PASSENGER = 3;
+    static final byte AIRCRAFT = 4;
+    static final byte KEYED = (byte) 0x80;
+
+    private final DataOutputStream out;
+
+    BinaryRecordWriter(OutputStream out) throws IOException {
+        this.out = new DataOutputStream(out);
+        this.out.writeInt(MAGIC);
+    }
+
+    private void tag(byte type, Long key) throws IOException {
+        if (key != null) {
+            out.writeByte(type | KEYED);
+            out.writeLong(key);
+        } else {
+            out.writeByte(type);
+        }
+    }
+
+    @Override
+    protected void writeCity(Long key, City city) throws IOException {
+        tag(CITY, key);
+        EntityCodec.writeCity(out, city);
+    }
+
+    @Override
+    protected void writeAirport(Long key, Airport airport) throws IOException {
+        tag(AIRPORT, key);
+        EntityCodec.writeAirport(out, airport);
+    }
+
+    @Override
+    protected void writePassenger(Long key, Passenger passenger) throws IOException {
+        tag(PASSENGER, key);
+        EntityCodec.writePassenger(out, passenger);
+    }
+
+    @Override
+    protected void writeAircraft(Long key, Aircraft aircraft) throws IOException {
+        tag(AIRCRAFT, key);
+        EntityCodec.writeAircraft(out, aircraft);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    /**
+     * Reads back everything written by this writer.
+     * @param sink Receives each record with its key, or null for unkeyed records.
+     * @return The number of records read.
+     * @throws IOException If the stream is not in this format or ends inside a record.
+     */
+    public static long read(InputStream in, BiConsumer<Long, Object> sink) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in, OutputFormat.BUFFER_SIZE));
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Not a binary record stream");
+        }
+        long count = 0;
+        int tag;
+        while ((tag = data.read()) >= 0) {
+            Long key = (tag & KEYED) != 0 ? data.readLong() : null;
+            Object record;
+            switch (tag & ~KEYED) {
+                case CITY: record = EntityCodec.readCity(data); break;
+                case AIRPORT: record = EntityCodec.readAirport(data); break;
+                case PASSENGER: record = EntityCodec.readPassenger(data); break;
+                case AIRCRAFT: record = EntityCodec.readAircraft(data); break;
+                default: throw new IOException("Unknown record tag " + tag);
+            }
+            sink.accept(key, record);
+            count++;
+        }
+        return count;
+    }
+}
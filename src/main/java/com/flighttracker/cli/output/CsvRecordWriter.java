@@ -0,0 +1,148 @@
+package com.flighttracker.cli.output;
+
+import com.flighttracker.cli.domain.Aircraft;
+import com.flighttracker.cli.domain.Airport;
+import com.flighttracker.cli.domain.City;
+import com.flighttracker.cli.domain.Passenger;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * RFC 4180 CSV. Fields are written character by character, quoted only when they contain a comma,
+ * quote or line break, and numbers are formatted into a reused buffer. A header row is written
+ * whenever the record type changes.
+ */
+class CsvRecordWriter extends AbstractRecordWriter {
+    private static final String[] CITY_HEADER = {"id", "name", "state", "population"};
+    private static final String[] AIRPORT_HEADER = {"id", "name", "code"};
+    private static final String[] PASSENGER_HEADER = {"id", "firstName", "lastName", "phoneNumber"};
+    private static final String[] AIRCRAFT_HEADER = {"id", "type", "airlineName", "numberOfPassengers"};
+
+    private final Writer out;
+    private final char[] digits = new char[20];
+    private String[] header;
+    private boolean keyedHeader;
+
+    CsvRecordWriter(OutputStream out) {
+        this.out = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+    }
+
+    private void start(String[] columns, Long key, Long id) throws IOException {
+        boolean keyed = key != null;
+        if (columns != header || keyed != keyedHeader) {
+            header = columns;
+            keyedHeader = keyed;
+            if (keyed) {
+                out.write("key,");
+            }
+            for (int i = 0; i < columns.length; i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                out.write(columns[i]);
+            }
+            out.write('\n');
+        }
+        if (keyed) {
+            number(key);
+            out.write(',');
+        }
+        if (id != null) {
+            number(id);
+        }
+    }
+
+    private void field(String value) throws IOException {
+        out.write(',');
+        if (value == null) {
+            return;
+        }
+        int length = value.length();
+        boolean quote = false;
+        for (int i = 0; i < length && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            out.write(value, 0, length);
+            return;
+        }
+        out.write('"');
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.write('"');
+            }
+            out.write(c);
+        }
+        out.write('"');
+    }
+
+    private void number(long value) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            out.write(Long.toString(value));
+            return;
+        }
+        int position = digits.length;
+        long remaining = Math.abs(value);
+        do {
+            digits[--position] = (char) ('0' + remaining % 10);
+            remaining /= 10;
+        } while (remaining != 0);
+        if (value < 0) {
+            digits[--position] = '-';
+        }
+        out.write(digits, position, digits.length - position);
+    }
+
+    @Override
+    protected void writeCity(Long key, City city) throws IOException {
+        start(CITY_HEADER, key, city.getId());
+        field(city.getName());
+        field(city.getState());
+        out.write(',');
+        number(city.getPopulation());
+        out.write('\n');
+    }
+
+    @Override
+    protected void writeAirport(Long key, Airport airport) throws IOException {
+        start(AIRPORT_HEADER, key, airport.getId());
+        field(airport.getName());
+        field(airport.getCode());
+        out.write('\n');
+    }
+
+    @Override
+    protected void writePassenger(Long key, Passenger passenger) throws IOException {
+        start(PASSENGER_HEADER, key, passenger.getId());
+        field(passenger.getFirstName());
+        field(passenger.getLastName());
+        field(passenger.getPhoneNumber());
+        out.write('\n');
+    }
+
+    @Override
+    protected void writeAircraft(Long key, Aircraft aircraft) throws IOException {
+        start(AIRCRAFT_HEADER, key, aircraft.getId());
+        field(aircraft.getType());
+        field(aircraft.getAirlineName());
+        out.write(',');
+        number(aircraft.getNumberOfPassengers());
+        out.write('\n');
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
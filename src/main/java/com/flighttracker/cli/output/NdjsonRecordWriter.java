@@ -0,0 +1,91 @@
+package com.flighttracker.cli.output;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.flighttracker.cli.domain.Aircraft;
+import com.flighttracker.cli.domain.Airport;
+import com.flighttracker.cli.domain.City;
+import com.flighttracker.cli.domain.Passenger;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Newline-delimited JSON written field by field with Jackson's streaming generator, which encodes
+ * straight into its byte buffer. Field names match the API, so each line reads back into the
+ * domain class; keyed records get a leading {@code "key"} field.
+ */
+class NdjsonRecordWriter extends AbstractRecordWriter {
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final JsonGenerator json;
+
+    NdjsonRecordWriter(OutputStream out) throws IOException {
+        this.json = JSON.createGenerator(out, JsonEncoding.UTF8);
+        this.json.setRootValueSeparator(null);
+    }
+
+    private void start(Long key, Long id) throws IOException {
+        json.writeStartObject();
+        if (key != null) {
+            json.writeNumberField("key", key);
+        }
+        json.writeFieldName("id");
+        if (id != null) {
+            json.writeNumber(id);
+        } else {
+            json.writeNull();
+        }
+    }
+
+    private void end() throws IOException {
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+
+    @Override
+    protected void writeCity(Long key, City city) throws IOException {
+        start(key, city.getId());
+        json.writeStringField("name", city.getName());
+        json.writeStringField("state", city.getState());
+        json.writeNumberField("population", city.getPopulation());
+        end();
+    }
+
+    @Override
+    protected void writeAirport(Long key, Airport airport) throws IOException {
+        start(key, airport.getId());
+        json.writeStringField("name", airport.getName());
+        json.writeStringField("code", airport.getCode());
+        end();
+    }
+
+    @Override
+    protected void writePassenger(Long key, Passenger passenger) throws IOException {
+        start(key, passenger.getId());
+        json.writeStringField("firstName", passenger.getFirstName());
+        json.writeStringField("lastName", passenger.getLastName());
+        json.writeStringField("phoneNumber", passenger.getPhoneNumber());
+        end();
+    }
+
+    @Override
+    protected void writeAircraft(Long key, Aircraft aircraft) throws IOException {
+        start(key, aircraft.getId());
+        json.writeStringField("type", aircraft.getType());
+        json.writeStringField("airlineName", aircraft.getAirlineName());
+        json.writeNumberField("numberOfPassengers", aircraft.getNumberOfPassengers());
+        end();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        json.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        json.close();
+    }
+}
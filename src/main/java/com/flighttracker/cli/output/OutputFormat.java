@@ -0,0 +1,61 @@
+package com.flighttracker.cli.output;
+
+import java.io.BufferedOutputStream;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+
+/**
+ * Output formats of the batch mode and the export menu option.
+ */
+public enum OutputFormat {
+    // Each record's toString(), prefixed with the key and a tab when there is one
+    TEXT,
+    // One JSON object per line, field names as in the API
+    NDJSON,
+    // RFC 4180, with a header row whenever the record type changes
+    CSV,
+    // Space-aligned columns for reading in a terminal
+    TABLE,
+    // Tagged records in the snapshot's EntityCodec encoding
+    BINARY;
+
+    public static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * @throws IllegalArgumentException If the name is not a format.
+     */
+    public static OutputFormat forName(String name) {
+        try {
+            return valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown format: " + name + " (expected text, ndjson, csv, table or binary)");
+        }
+    }
+
+    /**
+     * Opens a writer on the stream through a {@link #BUFFER_SIZE} buffer. Closing the writer closes the stream.
+     */
+    public RecordWriter open(OutputStream out) throws IOException {
+        OutputStream buffered = new BufferedOutputStream(out, BUFFER_SIZE);
+        switch (this) {
+            case NDJSON: return new NdjsonRecordWriter(buffered);
+            case CSV: return new CsvRecordWriter(buffered);
+            case TABLE: return new TableRecordWriter(buffered);
+            case BINARY: return new BinaryRecordWriter(buffered);
+            default: return new TextRecordWriter(buffered);
+        }
+    }
+
+    // Standard output without System.out's locking and autoflush; not closed by the writer
+    public static OutputStream stdout() {
+        return new FileOutputStream(FileDescriptor.out) {
+            @Override
+            public void close() {
+                // standard output stays open for the rest of the process
+            }
+        };
+    }
+}
@@ -0,0 +1,21 @@
+package com.flighttracker.cli.output;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+
+/**
+ * Writes {@code City}, {@code Airport}, {@code Passenger} and {@code Aircraft} records in one output
+ * format. Writers buffer and never flush on their own; call {@link #flush()} where the reader must
+ * see the output, and {@link #close()} when done.
+ */
+public interface RecordWriter extends Closeable, Flushable {
+
+    /**
+     * @throws IllegalArgumentException If the record is not one of the domain classes.
+     */
+    void write(Object record) throws IOException;
+
+    // A record answering a Q1-Q4 lookup, tagged with the ID that was looked up
+    void write(long key, Object record) throws IOException;
+}
@@ -0,0 +1,126 @@
+package com.flighttracker.cli.output;
+
+import com.flighttracker.cli.domain.Aircraft;
+import com.flighttracker.cli.domain.Airport;
+import com.flighttracker.cli.domain.City;
+import com.flighttracker.cli.domain.Passenger;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Space-aligned columns. Rows are held back in blocks of {@link #BLOCK_ROWS} to size the columns,
+ * and column widths only ever grow, so consecutive blocks stay aligned with each other. A header is
+ * printed whenever the record type changes.
+ */
+class TableRecordWriter extends AbstractRecordWriter {
+    static final int BLOCK_ROWS = 256;
+
+    private static final String[] CITY_HEADER = {"ID", "NAME", "STATE", "POPULATION"};
+    private static final String[] AIRPORT_HEADER = {"ID", "NAME", "CODE"};
+    private static final String[] PASSENGER_HEADER = {"ID", "FIRST NAME", "LAST NAME", "PHONE"};
+    private static final String[] AIRCRAFT_HEADER = {"ID", "TYPE", "AIRLINE", "PASSENGERS"};
+    private static final String[] NO_COLUMNS = {};
+
+    private final Writer out;
+    private final List<String[]> block = new ArrayList<>(BLOCK_ROWS);
+    private String[] header = NO_COLUMNS;
+    private boolean keyed;
+    private int[] widths = new int[0];
+
+    TableRecordWriter(OutputStream out) {
+        this.out = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+    }
+
+    private void row(String[] columns, Long key, Object... values) throws IOException {
+        boolean rowKeyed = key != null;
+        if (columns != header || rowKeyed != keyed) {
+            writeBlock();
+            if (header != NO_COLUMNS) {
+                out.write('\n');
+            }
+            header = columns;
+            keyed = rowKeyed;
+            widths = new int[columns.length + (rowKeyed ? 1 : 0)];
+            block.add(rowKeyed ? prepend("KEY", columns) : columns);
+        }
+        String[] cells = new String[widths.length];
+        int offset = 0;
+        if (rowKeyed) {
+            cells[offset++] = Long.toString(key);
+        }
+        for (Object value : values) {
+            cells[offset++] = value == null ? "" : value.toString();
+        }
+        block.add(cells);
+        if (block.size() >= BLOCK_ROWS) {
+            writeBlock();
+        }
+    }
+
+    private static String[] prepend(String first, String[] rest) {
+        String[] all = new String[rest.length + 1];
+        all[0] = first;
+        System.arraycopy(rest, 0, all, 1, rest.length);
+        return all;
+    }
+
+    private void writeBlock() throws IOException {
+        for (String[] cells : block) {
+            for (int i = 0; i < cells.length; i++) {
+                widths[i] = Math.max(widths[i], cells[i].length());
+            }
+        }
+        for (String[] cells : block) {
+            int last = cells.length - 1;
+            for (int i = 0; i <= last; i++) {
+                out.write(cells[i]);
+                if (i < last) {
+                    for (int pad = cells[i].length(); pad < widths[i] + 2; pad++) {
+                        out.write(' ');
+                    }
+                }
+            }
+            out.write('\n');
+        }
+        block.clear();
+    }
+
+    @Override
+    protected void writeCity(Long key, City city) throws IOException {
+        row(CITY_HEADER, key, city.getId(), city.getName(), city.getState(), city.getPopulation());
+    }
+
+    @Override
+    protected void writeAirport(Long key, Airport airport) throws IOException {
+        row(AIRPORT_HEADER, key, airport.getId(), airport.getName(), airport.getCode());
+    }
+
+    @Override
+    protected void writePassenger(Long key, Passenger passenger) throws IOException {
+        row(PASSENGER_HEADER, key, passenger.getId(), passenger.getFirstName(), passenger.getLastName(), passenger.getPhoneNumber());
+    }
+
+    @Override
+    protected void writeAircraft(Long key, Aircraft aircraft) throws IOException {
+        row(AIRCRAFT_HEADER, key, aircraft.getId(), aircraft.getType(), aircraft.getAirlineName(), aircraft.getNumberOfPassengers());
+    }
+
+    // Writes the rows held back so far; later rows keep at least the same column widths
+    @Override
+    public void flush() throws IOException {
+        writeBlock();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writeBlock();
+        out.close();
+    }
+}
@@ -0,0 +1,62 @@
+package com.flighttracker.cli.output;
+
+import com.flighttracker.cli.domain.Aircraft;
+import com.flighttracker.cli.domain.Airport;
+import com.flighttracker.cli.domain.City;
+import com.flighttracker.cli.domain.Passenger;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The records' own toString(), as the interactive menu prints them.
+ */
+class TextRecordWriter extends AbstractRecordWriter {
+    private final Writer out;
+
+    TextRecordWriter(OutputStream out) {
+        this.out = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+    }
+
+    private void line(Long key, Object record) throws IOException {
+        if (key != null) {
+            out.write(Long.toString(key));
+            out.write('\t');
+        }
+        out.write(String.valueOf(record));
+        out.write('\n');
+    }
+
+    @Override
+    protected void writeCity(Long key, City city) throws IOException {
+        line(key, city);
+    }
+
+    @Override
+    protected void writeAirport(Long key, Airport airport) throws IOException {
+        line(key, airport);
+    }
+
+    @Override
+    protected void writePassenger(Long key, Passenger passenger) throws IOException {
+        line(key, passenger);
+    }
+
+    @Override
+    protected void writeAircraft(Long key, Aircraft aircraft) throws IOException {
+        line(key, aircraft);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
@@ -0,0 +1,66 @@
+package com.flighttracker.cli.search;
+
+import com.flighttracker.cli.domain.Airport;
+import com.flighttracker.cli.domain.City;
+import com.flighttracker.cli.domain.Passenger;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Name search over the bulk lists: airports by code and name, cities by name and state and
+ * passengers by first and last name. The API has no search endpoint, so the lists are indexed
+ * once and every lookup after that is local.
+ */
+public final class EntitySearch {
+    public static final List<String> KINDS = List.of("airports", "cities", "passengers");
+
+    private final SearchIndex<Airport> airports;
+    private final SearchIndex<City> cities;
+    private final SearchIndex<Passenger> passengers;
+
+    private EntitySearch(SearchIndex<Airport> airports, SearchIndex<City> cities, SearchIndex<Passenger> passengers) {
+        this.airports = airports;
+        this.cities = cities;
+        this.passengers = passengers;
+    }
+
+    public static EntitySearch build(List<Airport> airports, List<City> cities, List<Passenger> passengers) {
+        return new EntitySearch(
+                SearchIndex.build(airports, fields("code", Airport::getCode, "name", Airport::getName)),
+                SearchIndex.build(cities, fields("name", City::getName, "state", City::getState)),
+                SearchIndex.build(passengers, fields("lastName", Passenger::getLastName, "firstName", Passenger::getFirstName)));
+    }
+
+    public SearchIndex<Airport> airports() { return airports; }
+    public SearchIndex<City> cities() { return cities; }
+    public SearchIndex<Passenger> passengers() { return passengers; }
+
+    /**
+     * @throws IllegalArgumentException If the kind is not one of {@link #KINDS}.
+     */
+    public SearchIndex<?> index(String kind) {
+        switch (kind) {
+            case "airports": return airports;
+            case "cities": return cities;
+            case "passengers": return passengers;
+            default: throw new IllegalArgumentException("Unknown kind " + kind + " (expected " + String.join(", ", KINDS) + ")");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "EntitySearch{airports=" + airports.size() + ", cities=" + cities.size() + ", passengers=" + passengers.size()
+                + ", terms=" + (airports.getTermCount() + cities.getTermCount() + passengers.getTermCount()) + "}";
+    }
+
+    private static <T> Map<String, Function<T, String>> fields(String first, Function<T, String> firstValue,
+                                                               String second, Function<T, String> secondValue) {
+        Map<String, Function<T, String>> fields = new LinkedHashMap<>();
+        fields.put(first, firstValue);
+        fields.put(second, secondValue);
+        return fields;
+    }
+}
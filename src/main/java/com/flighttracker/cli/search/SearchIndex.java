@@ -0,0 +1,326 @@
+package com.flighttracker.cli.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory text index over a few string fields of a list of entities.
+ * <p>
+ * Every field value is normalized (lower case, accents removed) and split into words; each word
+ * and, for multi-word values, the whole value become terms. The distinct terms are kept sorted in
+ * one array, so all terms with a given prefix form a contiguous range found by binary search, and
+ * each term points at its postings (entity row and field) in CSR form. For typo-tolerant lookups a
+ * second CSR maps every trigram of every term to the terms containing it: candidates sharing
+ * enough trigrams with the query are checked with a bounded edit distance.
+ */
+public final class SearchIndex<T> {
+    private static final int MAX_FIELDS = 8;
+    private static final int FIELD_BITS = 3;
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final char START = '\u0002';
+    private static final char END = '\u0003';
+
+    private final List<T> entities;
+    private final String[] fieldNames;
+    private final String[] terms;
+    private final int[] postingOffsets;
+    private final int[] postings;
+    private final long[] trigrams;
+    private final int[] trigramOffsets;
+    private final int[] trigramTerms;
+
+    private SearchIndex(List<T> entities, String[] fieldNames, Map<String, IntList> postingsByTerm) {
+        this.entities = entities;
+        this.fieldNames = fieldNames;
+        terms = postingsByTerm.keySet().toArray(new String[0]);
+        Arrays.sort(terms);
+
+        postingOffsets = new int[terms.length + 1];
+        for (int i = 0; i < terms.length; i++) {
+            postingOffsets[i + 1] = postingOffsets[i] + postingsByTerm.get(terms[i]).size;
+        }
+        postings = new int[postingOffsets[terms.length]];
+        Map<Long, IntList> termsByTrigram = new HashMap<>();
+        for (int i = 0; i < terms.length; i++) {
+            IntList termPostings = postingsByTerm.get(terms[i]);
+            System.arraycopy(termPostings.values, 0, postings, postingOffsets[i], termPostings.size);
+            for (long trigram : trigrams(terms[i])) {
+                termsByTrigram.computeIfAbsent(trigram, key -> new IntList()).add(i);
+            }
+        }
+
+        trigrams = termsByTrigram.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+        trigramOffsets = new int[trigrams.length + 1];
+        for (int i = 0; i < trigrams.length; i++) {
+            trigramOffsets[i + 1] = trigramOffsets[i] + termsByTrigram.get(trigrams[i]).size;
+        }
+        trigramTerms = new int[trigramOffsets[trigrams.length]];
+        for (int i = 0; i < trigrams.length; i++) {
+            IntList termIds = termsByTrigram.get(trigrams[i]);
+            System.arraycopy(termIds.values, 0, trigramTerms, trigramOffsets[i], termIds.size);
+        }
+    }
+
+    /**
+     * Indexes the given fields of every entity; null field values are skipped.
+     * @param fields Field name to value, in the order results name them (at most 8).
+     */
+    public static <T> SearchIndex<T> build(List<T> entities, Map<String, Function<T, String>> fields) {
+        if (fields.size() > MAX_FIELDS) {
+            throw new IllegalArgumentException("At most " + MAX_FIELDS + " fields can be indexed");
+        }
+        String[] fieldNames = fields.keySet().toArray(new String[0]);
+        List<Function<T, String>> extractors = new ArrayList<>(fields.values());
+        Map<String, IntList> postingsByTerm = new HashMap<>();
+        for (int row = 0; row < entities.size(); row++) {
+            T entity = entities.get(row);
+            for (int field = 0; field < fieldNames.length; field++) {
+                String value = extractors.get(field).apply(entity);
+                if (value == null) {
+                    continue;
+                }
+                int posting = row << FIELD_BITS | field;
+                String[] words = words(value);
+                for (String word : words) {
+                    addPosting(postingsByTerm, word, posting);
+                }
+                if (words.length > 1) {
+                    addPosting(postingsByTerm, String.join(" ", words), posting);
+                }
+            }
+        }
+        return new SearchIndex<>(List.copyOf(entities), fieldNames, postingsByTerm);
+    }
+
+    private static void addPosting(Map<String, IntList> postingsByTerm, String term, int posting) {
+        if (term.isEmpty()) {
+            return;
+        }
+        IntList list = postingsByTerm.computeIfAbsent(term, key -> new IntList());
+        // The same word twice in one field is one posting
+        if (list.size == 0 || list.values[list.size - 1] != posting) {
+            list.add(posting);
+        }
+    }
+
+    public int size() {
+        return entities.size();
+    }
+
+    public int getTermCount() {
+        return terms.length;
+    }
+
+    /**
+     * Entities with a term starting with the prefix, in term order; each entity at most once.
+     */
+    public List<Hit<T>> prefix(String prefix, int limit) {
+        List<Hit<T>> hits = new ArrayList<>();
+        String normalized = normalizeQuery(prefix);
+        if (normalized.isEmpty() || limit <= 0) {
+            return hits;
+        }
+        BitSet seen = new BitSet();
+        int from = Arrays.binarySearch(terms, normalized);
+        for (int term = from >= 0 ? from : -from - 1; term < terms.length && terms[term].startsWith(normalized); term++) {
+            if (collect(term, 0, seen, hits, limit)) {
+                break;
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * Entities with a term within one edit (queries of up to 4 characters) or two edits of the
+     * query, closest first.
+     */
+    public List<Hit<T>> fuzzy(String text, int limit) {
+        List<Hit<T>> hits = new ArrayList<>();
+        String query = normalizeQuery(text);
+        if (query.isEmpty() || limit <= 0) {
+            return hits;
+        }
+        int maxEdits = query.length() <= 4 ? 1 : 2;
+        int[] candidates = candidates(query, Math.max(1, query.length() - 3 * maxEdits));
+
+        List<long[]> matches = new ArrayList<>(); // {distance, term}
+        for (int term : candidates) {
+            if (Math.abs(terms[term].length() - query.length()) > maxEdits) {
+                continue;
+            }
+            int distance = editDistance(query, terms[term], maxEdits);
+            if (distance <= maxEdits) {
+                matches.add(new long[]{distance, term});
+            }
+        }
+        matches.sort((a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+        BitSet seen = new BitSet();
+        for (long[] match : matches) {
+            if (collect((int) match[1], (int) match[0], seen, hits, limit)) {
+                break;
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * A query ending in {@code *} only matches prefixes. Any other query lists prefix matches
+     * first and then, if there is room, the entities that match with typos.
+     */
+    public List<Hit<T>> search(String text, int limit) {
+        String trimmed = text.trim();
+        if (trimmed.endsWith("*")) {
+            return prefix(trimmed.substring(0, trimmed.length() - 1), limit);
+        }
+        List<Hit<T>> hits = prefix(trimmed, limit);
+        if (hits.size() < limit) {
+            BitSet seen = new BitSet();
+            hits.forEach(hit -> seen.set(hit.row));
+            for (Hit<T> hit : fuzzy(trimmed, limit)) {
+                if (!seen.get(hit.row)) {
+                    hits.add(hit);
+                    if (hits.size() == limit) {
+                        break;
+                    }
+                }
+            }
+        }
+        return hits;
+    }
+
+    // Adds the term's unseen entities; true once the limit is reached
+    private boolean collect(int term, int distance, BitSet seen, List<Hit<T>> hits, int limit) {
+        for (int i = postingOffsets[term]; i < postingOffsets[term + 1]; i++) {
+            int row = postings[i] >>> FIELD_BITS;
+            if (!seen.get(row)) {
+                seen.set(row);
+                hits.add(new Hit<>(entities.get(row), row, fieldNames[postings[i] & (MAX_FIELDS - 1)], terms[term], distance));
+                if (hits.size() == limit) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // Terms sharing at least minShared trigrams with the query, each once
+    private int[] candidates(String query, int minShared) {
+        int[] shared = new int[terms.length];
+        IntList result = new IntList();
+        for (long trigram : trigrams(query)) {
+            int index = Arrays.binarySearch(trigrams, trigram);
+            if (index >= 0) {
+                for (int i = trigramOffsets[index]; i < trigramOffsets[index + 1]; i++) {
+                    // Each query trigram is distinct, so a term reaches the threshold exactly once
+                    if (++shared[trigramTerms[i]] == minShared) {
+                        result.add(trigramTerms[i]);
+                    }
+                }
+            }
+        }
+        return Arrays.copyOf(result.values, result.size);
+    }
+
+    // Distinct trigrams of the term padded with a start and an end marker, three chars packed per long
+    static long[] trigrams(String term) {
+        String padded = START + term + END;
+        long[] result = new long[padded.length() - 2];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = (long) padded.charAt(i) << 32 | (long) padded.charAt(i + 1) << 16 | padded.charAt(i + 2);
+        }
+        return Arrays.stream(result).distinct().toArray();
+    }
+
+    // Levenshtein distance, or maxEdits + 1 as soon as it is known to exceed maxEdits
+    static int editDistance(String a, String b, int maxEdits) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > maxEdits) {
+                return maxEdits + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[b.length()], maxEdits + 1);
+    }
+
+    static String normalize(String value) {
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    // Words of the query joined by single spaces, matching how multi-word values are indexed
+    private static String normalizeQuery(String text) {
+        return String.join(" ", words(text));
+    }
+
+    // Normalized words of a value; a leading separator makes split() return an empty first word
+    private static String[] words(String value) {
+        return Arrays.stream(SEPARATORS.split(normalize(value)))
+                .filter(word -> !word.isEmpty())
+                .toArray(String[]::new);
+    }
+
+    /**
+     * An entity found by a search, with the field and term that matched and the number of edits
+     * between the term and the query (0 for prefix matches).
+     */
+    public static final class Hit<T> {
+        private final T entity;
+        private final int row;
+        private final String field;
+        private final String term;
+        private final int distance;
+
+        Hit(T entity, int row, String field, String term, int distance) {
+            this.entity = entity;
+            this.row = row;
+            this.field = field;
+            this.term = term;
+            this.distance = distance;
+        }
+
+        public T getEntity() { return entity; }
+        public String getField() { return field; }
+        public String getTerm() { return term; }
+        public int getDistance() { return distance; }
+
+        @Override
+        public String toString() {
+            return entity + " [" + field + ": " + term + (distance > 0 ? ", " + distance + " edit" + (distance > 1 ? "s" : "") : "") + "]";
+        }
+    }
+
+    private static final class IntList {
+        int[] values = new int[4];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.flighttracker.cli.store;
+
+import com.flighttracker.cli.domain.Aircraft;
+import com.flighttracker.cli.domain.Airport;
+import com.flighttracker.cli.domain.City;
+import com.flighttracker.cli.domain.Passenger;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Compact binary encoding of the domain classes: fields in declaration order, nullable
+ * values prefixed with a presence flag.
+ */
+public final class EntityCodec {
+
+    private EntityCodec() {}
+
+    public static void writeCity(DataOutput out, City city) throws IOException {
+        writeId(out, city.getId());
+        writeString(out, city.getName());
+        writeString(out, city.getState());
+        out.writeInt(city.getPopulation());
+    }
+
+    public static City readCity(DataInput in) throws IOException {
+        return new City(readId(in), readString(in), readString(in), in.readInt());
+    }
+
+    public static void writeAirport(DataOutput out, Airport airport) throws IOException {
+        writeId(out, airport.getId());
+        writeString(out, airport.getName());
+        writeString(out, airport.getCode());
+    }
+
+    public static Airport readAirport(DataInput in) throws IOException {
+        return new Airport(readId(in), readString(in), readString(in));
+    }
+
+    public static void writePassenger(DataOutput out, Passenger passenger) throws IOException {
+        writeId(out, passenger.getId());
+        writeString(out, passenger.getFirstName());
+        writeString(out, passenger.getLastName());
+        writeString(out, passenger.getPhoneNumber());
+    }
+
+    public static Passenger readPassenger(DataInput in) throws IOException {
+        return new Passenger(readId(in), readString(in), readString(in), readString(in));
+    }
+
+    public static void writeAircraft(DataOutput out, Aircraft aircraft) throws IOException {
+        writeId(out, aircraft.getId());
+        writeString(out, aircraft.getType());
+        writeString(out, aircraft.getAirlineName());
+        out.writeInt(aircraft.getNumberOfPassengers());
+    }
+
+    public static Aircraft readAircraft(DataInput in) throws IOException {
+        return new Aircraft(readId(in), readString(in), readString(in), in.readInt());
+    }
+
+    public static void writeId(DataOutput out, Long id) throws IOException {
+        out.writeBoolean(id != null);
+        if (id != null) {
+            out.writeLong(id);
+        }
+    }
+
+    public static Long readId(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readLong() : null;
+    }
+
+    public static void writeString(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    public static String readString(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
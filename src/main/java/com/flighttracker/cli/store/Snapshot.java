@@ -0,0 +1,181 @@
+package com.flighttracker.cli.store;
+
+import com.flighttracker.cli.domain.Aircraft;
+import com.flighttracker.cli.domain.Airport;
+import com.flighttracker.cli.domain.City;
+import com.flighttracker.cli.domain.Passenger;
+import com.flighttracker.cli.http.client.ResponseCache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Local copy of the API's data: the four entity lists, the four relationship sets stored as
+ * ID arrays, and the HTTP validators each endpoint was last served with.
+ */
+public class Snapshot {
+
+    /**
+     * The relationship endpoints, keyed by the ID of the entity on the left-hand side.
+     */
+    public enum Relation {
+        CITY_AIRPORTS("/cities/", "/airports"),
+        PASSENGER_AIRCRAFTS("/passengers/", "/aircrafts"),
+        AIRCRAFT_AIRPORTS("/aircrafts/", "/airports"),
+        PASSENGER_AIRPORTS("/passengers/", "/airportsUsed");
+
+        private final String prefix;
+        private final String suffix;
+
+        Relation(String prefix, String suffix) {
+            this.prefix = prefix;
+            this.suffix = suffix;
+        }
+
+        public String endpoint(long id) {
+            return prefix + id + suffix;
+        }
+
+        // Entity list the left-hand ID belongs to, e.g. "cities" for CITY_AIRPORTS
+        public String sourceEntity() {
+            return prefix.substring(1, prefix.length() - 1);
+        }
+
+        // Whether the related entities are aircrafts rather than airports
+        public boolean targetsAircrafts() {
+            return this == PASSENGER_AIRCRAFTS;
+        }
+    }
+
+    public static final class Validators {
+        private final String eTag;
+        private final String lastModified;
+
+        public Validators(String eTag, String lastModified) {
+            this.eTag = eTag;
+            this.lastModified = lastModified;
+        }
+
+        public String getETag() { return eTag; }
+        public String getLastModified() { return lastModified; }
+    }
+
+    private final long createdAtMillis;
+    private List<City> cities = Collections.emptyList();
+    private List<Airport> airports = Collections.emptyList();
+    private List<Passenger> passengers = Collections.emptyList();
+    private List<Aircraft> aircrafts = Collections.emptyList();
+    private final Map<Relation, Map<Long, long[]>> relations = new EnumMap<>(Relation.class);
+    private final Map<String, Validators> validators = new HashMap<>();
+    private String syncCursor;
+
+    public Snapshot(long createdAtMillis) {
+        this.createdAtMillis = createdAtMillis;
+        for (Relation relation : Relation.values()) {
+            relations.put(relation, new HashMap<>());
+        }
+    }
+
+    public long getCreatedAtMillis() { return createdAtMillis; }
+    public List<City> getCities() { return cities; }
+    public void setCities(List<City> cities) { this.cities = cities; }
+    public List<Airport> getAirports() { return airports; }
+    public void setAirports(List<Airport> airports) { this.airports = airports; }
+    public List<Passenger> getPassengers() { return passengers; }
+    public void setPassengers(List<Passenger> passengers) { this.passengers = passengers; }
+    public List<Aircraft> getAircrafts() { return aircrafts; }
+    public void setAircrafts(List<Aircraft> aircrafts) { this.aircrafts = aircrafts; }
+
+    // Change feed position this snapshot is up to date with, or null if it was never synced
+    public String getSyncCursor() { return syncCursor; }
+    public void setSyncCursor(String syncCursor) { this.syncCursor = syncCursor; }
+
+    // Related IDs per left-hand ID, e.g. airport IDs per city ID for CITY_AIRPORTS
+    public Map<Long, long[]> getRelation(Relation relation) {
+        return relations.get(relation);
+    }
+
+    public void putRelation(Relation relation, long id, long[] relatedIds) {
+        relations.get(relation).put(id, relatedIds);
+    }
+
+    public Map<String, Validators> getValidators() {
+        return validators;
+    }
+
+    public void putValidators(String endpoint, Validators endpointValidators) {
+        validators.put(endpoint, endpointValidators);
+    }
+
+    // Number of distinct endpoints whose responses this snapshot can answer
+    public int getEndpointCount() {
+        int count = 4;
+        for (Map<Long, long[]> relation : relations.values()) {
+            count += relation.size();
+        }
+        return count;
+    }
+
+    /**
+     * Puts every endpoint's response into the cache, resolving relationship IDs back to the
+     * entities, together with the validators needed to revalidate it. Lists are cached as
+     * unmodifiable copies, since a change feed sync edits the snapshot's own lists in place.
+     * @param offline Whether the entries are served without asking the server. Otherwise they are
+     *                aged by the time since the snapshot was taken, so an old snapshot's entries are
+     *                revalidated on first use instead of being served as fresh for a whole TTL.
+     */
+    public void seed(ResponseCache cache, boolean offline) {
+        Duration age = offline ? Duration.ZERO
+                : Duration.ofMillis(Math.max(System.currentTimeMillis() - createdAtMillis, 0));
+        seed(cache, age, "/cities", copy(cities));
+        seed(cache, age, "/airports", copy(airports));
+        seed(cache, age, "/passengers", copy(passengers));
+        seed(cache, age, "/aircrafts", copy(aircrafts));
+
+        Map<Long, Airport> airportsById = byId(airports, Airport::getId);
+        Map<Long, Aircraft> aircraftsById = byId(aircrafts, Aircraft::getId);
+        for (Relation relation : Relation.values()) {
+            Map<Long, ?> targets = relation.targetsAircrafts() ? aircraftsById : airportsById;
+            for (Map.Entry<Long, long[]> entry : relations.get(relation).entrySet()) {
+                Set<Object> related = new HashSet<>();
+                for (long relatedId : entry.getValue()) {
+                    Object target = targets.get(relatedId);
+                    if (target != null) {
+                        related.add(target);
+                    }
+                }
+                seed(cache, age, relation.endpoint(entry.getKey()), related);
+            }
+        }
+    }
+
+    private void seed(ResponseCache cache, Duration age, String endpoint, Object value) {
+        Validators endpointValidators = validators.get(endpoint);
+        if (endpointValidators != null) {
+            cache.put(endpoint, value, endpointValidators.getETag(), endpointValidators.getLastModified(), age);
+        } else {
+            cache.put(endpoint, value, null, null, age);
+        }
+    }
+
+    // Unlike List.copyOf, tolerates a null element an API answer may have carried
+    private static <T> List<T> copy(List<T> entities) {
+        return Collections.unmodifiableList(new ArrayList<>(entities));
+    }
+
+    private static <T> Map<Long, T> byId(List<T> entities, Function<T, Long> id) {
+        Map<Long, T> index = new HashMap<>(entities.size() * 2);
+        for (T entity : entities) {
+            index.put(id.apply(entity), entity);
+        }
+        return index;
+    }
+}
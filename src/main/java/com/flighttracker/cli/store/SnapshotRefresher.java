@@ -0,0 +1,161 @@
+package com.flighttracker.cli.store;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.flighttracker.cli.domain.Aircraft;
+import com.flighttracker.cli.domain.Airport;
+import com.flighttracker.cli.domain.City;
+import com.flighttracker.cli.domain.Passenger;
+import com.flighttracker.cli.http.client.BulkResult;
+import com.flighttracker.cli.http.client.PagedIterator;
+import com.flighttracker.cli.http.client.RESTClient;
+import com.flighttracker.cli.http.client.RESTClientException;
+import com.flighttracker.cli.http.client.ResponseCache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Downloads a {@link Snapshot} through {@link RESTClient}. When a previous snapshot is given,
+ * every endpoint is requested conditionally with the validators stored in it, so data the
+ * server reports as unchanged (304) is neither transferred nor parsed again.
+ * <p>
+ * When the client pages its lists, the four entity lists are walked page by page instead and are
+ * always downloaded in full; the relationship endpoints are still revalidated.
+ */
+public class SnapshotRefresher {
+    private final RESTClient client;
+    private final int maxInFlight;
+
+    private long requestCount;
+    private long notModifiedCount;
+    private long failureCount;
+
+    public SnapshotRefresher(RESTClient client) {
+        this(client, RESTClient.DEFAULT_MAX_IN_FLIGHT);
+    }
+
+    public SnapshotRefresher(RESTClient client, int maxInFlight) {
+        this.client = client;
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Builds a fresh snapshot. Endpoints that fail keep the data of the previous snapshot.
+     * @param previous The snapshot to refresh incrementally, or null for a full download.
+     */
+    public Snapshot refresh(Snapshot previous) {
+        ResponseCache cache = new ResponseCache(Integer.MAX_VALUE);
+        cache.setDefaultTtl(Duration.ZERO); // everything is revalidated, nothing is trusted blindly
+        if (previous != null) {
+            previous.seed(cache, false);
+        }
+        RESTClient conditional = client.withResponseCache(cache, true);
+        Snapshot base = previous != null ? previous : new Snapshot(0);
+        Snapshot next = new Snapshot(System.currentTimeMillis());
+        requestCount = 0;
+        failureCount = 0;
+
+        next.setCities(fetchList(conditional, cache, next, base, "/cities", RESTClient.CITY_LIST, base.getCities()));
+        next.setAirports(fetchList(conditional, cache, next, base, "/airports", RESTClient.AIRPORT_LIST, base.getAirports()));
+        next.setPassengers(fetchList(conditional, cache, next, base, "/passengers", RESTClient.PASSENGER_LIST, base.getPassengers()));
+        next.setAircrafts(fetchList(conditional, cache, next, base, "/aircrafts", RESTClient.AIRCRAFT_LIST, base.getAircrafts()));
+
+        List<Long> cityIds = ids(next.getCities(), City::getId);
+        List<Long> passengerIds = ids(next.getPassengers(), Passenger::getId);
+        List<Long> aircraftIds = ids(next.getAircrafts(), Aircraft::getId);
+        storeRelation(cache, next, base, Snapshot.Relation.CITY_AIRPORTS,
+                conditional.getAirportsInCities(cityIds, maxInFlight), Airport::getId);
+        storeRelation(cache, next, base, Snapshot.Relation.PASSENGER_AIRCRAFTS,
+                conditional.getAircraftsFlownByPassengers(passengerIds, maxInFlight), Aircraft::getId);
+        storeRelation(cache, next, base, Snapshot.Relation.AIRCRAFT_AIRPORTS,
+                conditional.getAirportsByAircrafts(aircraftIds, maxInFlight), Airport::getId);
+        storeRelation(cache, next, base, Snapshot.Relation.PASSENGER_AIRPORTS,
+                conditional.getAirportsUsedByPassengers(passengerIds, maxInFlight), Airport::getId);
+
+        notModifiedCount = cache.getRevalidationCount();
+        return next;
+    }
+
+    public long getRequestCount() { return requestCount; }
+    public long getNotModifiedCount() { return notModifiedCount; }
+    public long getFailureCount() { return failureCount; }
+
+    private <T> List<T> fetchList(RESTClient conditional, ResponseCache cache, Snapshot next, Snapshot base,
+                                  String endpoint, TypeReference<List<T>> typeRef, List<T> previous) {
+        requestCount++;
+        try {
+            if (conditional.getPagination() != null) {
+                return fetchPages(conditional, endpoint, typeRef);
+            }
+            List<T> list = conditional.getResource(endpoint, typeRef);
+            keepValidators(cache, next, endpoint);
+            return list;
+        } catch (RESTClientException e) {
+            failureCount++;
+            System.err.println("Warning: keeping previous snapshot data for " + endpoint + ": " + e.getMessage());
+            copyValidators(base, next, endpoint);
+            return previous;
+        }
+    }
+
+    // A server that pages its lists may not answer the unpaginated endpoint at all. Pages carry no
+    // validators of their own, so a paged list is downloaded in full and keeps none.
+    private <T> List<T> fetchPages(RESTClient conditional, String endpoint, TypeReference<List<T>> typeRef) {
+        List<T> list = new ArrayList<>();
+        try (PagedIterator<T> records = conditional.iterate(endpoint, typeRef)) {
+            try {
+                records.forEachRemaining(list::add);
+            } finally {
+                requestCount += Math.max(records.getPageCount() - 1, 0);
+            }
+        }
+        return list;
+    }
+
+    private <T> void storeRelation(ResponseCache cache, Snapshot next, Snapshot base, Snapshot.Relation relation,
+                                   BulkResult<Set<T>> result, Function<T, Long> id) {
+        requestCount += result.getRequestCount();
+        failureCount += result.getFailures().size();
+        for (Map.Entry<Long, Set<T>> entry : result.getResults().entrySet()) {
+            long[] related = entry.getValue().stream().map(id).filter(Objects::nonNull).mapToLong(Long::longValue).toArray();
+            next.putRelation(relation, entry.getKey(), related);
+            keepValidators(cache, next, relation.endpoint(entry.getKey()));
+        }
+        for (Long failedId : result.getFailures().keySet()) {
+            long[] previous = base.getRelation(relation).get(failedId);
+            if (previous != null) {
+                next.putRelation(relation, failedId, previous);
+                copyValidators(base, next, relation.endpoint(failedId));
+            }
+        }
+    }
+
+    private static void keepValidators(ResponseCache cache, Snapshot next, String endpoint) {
+        ResponseCache.Entry entry = cache.getEntry(endpoint);
+        if (entry != null && entry.hasValidators()) {
+            next.putValidators(endpoint, new Snapshot.Validators(entry.getETag(), entry.getLastModified()));
+        }
+    }
+
+    private static void copyValidators(Snapshot base, Snapshot next, String endpoint) {
+        Snapshot.Validators validators = base.getValidators().get(endpoint);
+        if (validators != null) {
+            next.putValidators(endpoint, validators);
+        }
+    }
+
+    private static <T> List<Long> ids(Collection<T> entities, Function<T, Long> id) {
+        if (entities.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return entities.stream().map(id).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,171 @@
+package com.flighttracker.cli.store;
+
+import com.flighttracker.cli.domain.Aircraft;
+import com.flighttracker.cli.domain.Airport;
+import com.flighttracker.cli.domain.City;
+import com.flighttracker.cli.domain.Passenger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Persists a {@link Snapshot} to a single binary file.
+ * <p>
+ * Layout: magic, format version, creation time, the four entity tables (count followed by
+ * {@link EntityCodec} records), the four relationship tables (count, then ID, related-ID count
+ * and related IDs), the per-endpoint validators and finally the change feed cursor (format 2;
+ * version 1 files are still read, without a cursor).
+ */
+public class SnapshotStore {
+    private static final int MAGIC = 0x46545331; // "FTS1"
+    private static final int FORMAT_VERSION = 2;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Path file;
+
+    public SnapshotStore(Path file) {
+        this.file = file;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public boolean exists() {
+        return Files.isRegularFile(file);
+    }
+
+    /**
+     * Writes the snapshot to a temporary file first and then moves it into place, so a crash
+     * never leaves a half-written snapshot behind.
+     */
+    public void save(Snapshot snapshot) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), BUFFER_SIZE))) {
+                write(out, snapshot);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public Snapshot load() throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE))) {
+            return read(in);
+        }
+    }
+
+    private static void write(DataOutputStream out, Snapshot snapshot) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeLong(snapshot.getCreatedAtMillis());
+
+        out.writeInt(snapshot.getCities().size());
+        for (City city : snapshot.getCities()) {
+            EntityCodec.writeCity(out, city);
+        }
+        out.writeInt(snapshot.getAirports().size());
+        for (Airport airport : snapshot.getAirports()) {
+            EntityCodec.writeAirport(out, airport);
+        }
+        out.writeInt(snapshot.getPassengers().size());
+        for (Passenger passenger : snapshot.getPassengers()) {
+            EntityCodec.writePassenger(out, passenger);
+        }
+        out.writeInt(snapshot.getAircrafts().size());
+        for (Aircraft aircraft : snapshot.getAircrafts()) {
+            EntityCodec.writeAircraft(out, aircraft);
+        }
+
+        for (Snapshot.Relation relation : Snapshot.Relation.values()) {
+            Map<Long, long[]> related = snapshot.getRelation(relation);
+            out.writeInt(related.size());
+            for (Map.Entry<Long, long[]> entry : related.entrySet()) {
+                out.writeLong(entry.getKey());
+                out.writeInt(entry.getValue().length);
+                for (long id : entry.getValue()) {
+                    out.writeLong(id);
+                }
+            }
+        }
+
+        out.writeInt(snapshot.getValidators().size());
+        for (Map.Entry<String, Snapshot.Validators> entry : snapshot.getValidators().entrySet()) {
+            out.writeUTF(entry.getKey());
+            EntityCodec.writeString(out, entry.getValue().getETag());
+            EntityCodec.writeString(out, entry.getValue().getLastModified());
+        }
+        EntityCodec.writeString(out, snapshot.getSyncCursor());
+    }
+
+    private static Snapshot read(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a Flight Tracker snapshot file");
+        }
+        int version = in.readInt();
+        if (version < 1 || version > FORMAT_VERSION) {
+            throw new IOException("Unsupported snapshot format version " + version);
+        }
+        Snapshot snapshot = new Snapshot(in.readLong());
+
+        int count = in.readInt();
+        List<City> cities = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            cities.add(EntityCodec.readCity(in));
+        }
+        snapshot.setCities(cities);
+        count = in.readInt();
+        List<Airport> airports = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            airports.add(EntityCodec.readAirport(in));
+        }
+        snapshot.setAirports(airports);
+        count = in.readInt();
+        List<Passenger> passengers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            passengers.add(EntityCodec.readPassenger(in));
+        }
+        snapshot.setPassengers(passengers);
+        count = in.readInt();
+        List<Aircraft> aircrafts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            aircrafts.add(EntityCodec.readAircraft(in));
+        }
+        snapshot.setAircrafts(aircrafts);
+
+        for (Snapshot.Relation relation : Snapshot.Relation.values()) {
+            count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                long id = in.readLong();
+                long[] related = new long[in.readInt()];
+                for (int j = 0; j < related.length; j++) {
+                    related[j] = in.readLong();
+                }
+                snapshot.putRelation(relation, id, related);
+            }
+        }
+
+        count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            String endpoint = in.readUTF();
+            snapshot.putValidators(endpoint, new Snapshot.Validators(EntityCodec.readString(in), EntityCodec.readString(in)));
+        }
+        if (version >= 2) {
+            snapshot.setSyncCursor(EntityCodec.readString(in));
+        }
+        return snapshot;
+    }
+}
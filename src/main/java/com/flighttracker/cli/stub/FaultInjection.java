@@ -0,0 +1,82 @@
+package com.flighttracker.cli.stub;
+
+import java.time.Duration;
+
+/**
+ * Latency and errors the {@link StubApiServer} adds to its answers, so timeouts, retries, hedging
+ * and the circuit breaker can be tried against a local API.
+ * <p>
+ * Every request waits {@code latency} plus a uniform share of {@code jitter}, then fails with
+ * {@code errorStatus} with probability {@code errorRate}. Both choices are computed from the seed
+ * and the request's sequence number, so a run with the same requests in the same order sees the
+ * same faults.
+ */
+public final class FaultInjection {
+    public static final int DEFAULT_ERROR_STATUS = 503;
+
+    private static final FaultInjection NONE = new FaultInjection(Duration.ZERO, Duration.ZERO, 0, DEFAULT_ERROR_STATUS, 0);
+
+    private final Duration latency;
+    private final Duration jitter;
+    private final double errorRate;
+    private final int errorStatus;
+    private final long seed;
+
+    /**
+     * @param errorRate Fraction of requests that fail, from 0 to 1.
+     * @throws IllegalArgumentException If a duration is negative, the rate is outside 0..1 or the
+     *         status is not an HTTP error status.
+     */
+    public FaultInjection(Duration latency, Duration jitter, double errorRate, int errorStatus, long seed) {
+        if (latency.isNegative() || jitter.isNegative()) {
+            throw new IllegalArgumentException("Latency and jitter must not be negative");
+        }
+        if (!(errorRate >= 0 && errorRate <= 1)) {
+            throw new IllegalArgumentException("The error rate must be between 0 and 1, got " + errorRate);
+        }
+        if (errorStatus < 400 || errorStatus > 599) {
+            throw new IllegalArgumentException("The error status must be 4xx or 5xx, got " + errorStatus);
+        }
+        this.latency = latency;
+        this.jitter = jitter;
+        this.errorRate = errorRate;
+        this.errorStatus = errorStatus;
+        this.seed = seed;
+    }
+
+    public static FaultInjection none() {
+        return NONE;
+    }
+
+    public Duration getLatency() { return latency; }
+    public Duration getJitter() { return jitter; }
+    public double getErrorRate() { return errorRate; }
+    public int getErrorStatus() { return errorStatus; }
+
+    public boolean isNone() {
+        return latency.isZero() && jitter.isZero() && errorRate == 0;
+    }
+
+    // How long the request with this sequence number is held before it is answered
+    long delayNanos(long request) {
+        return latency.toNanos() + (long) (uniform(request, 1) * jitter.toNanos());
+    }
+
+    boolean fails(long request) {
+        return errorRate > 0 && uniform(request, 2) < errorRate;
+    }
+
+    // Uniform in [0, 1)
+    private double uniform(long request, int salt) {
+        return (SyntheticDataset.mix(seed, request, salt) >>> 11) * 0x1.0p-53;
+    }
+
+    @Override
+    public String toString() {
+        if (isNone()) {
+            return "no faults";
+        }
+        return String.format("latency %d ms + up to %d ms, %.2f%% errors (%d)",
+                latency.toMillis(), jitter.toMillis(), errorRate * 100, errorStatus);
+    }
+}
@@ -0,0 +1,151 @@
+package com.flighttracker.cli.stub;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Responses captured from a real API, kept in a directory so the {@link StubApiServer} can replay
+ * them later: {@code index.ndjson} has a line per response with the request (path and query),
+ * status and headers, and the body is in a file of its own next to it. Recording the same request
+ * again appends a new line, and the last line wins.
+ * <p>
+ * Only the index is read into memory; bodies are read from disk when they are served.
+ */
+public final class Recording {
+    static final String INDEX_FILE = "index.ndjson";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Path directory;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private int nextBody;
+
+    private Recording(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Opens a recording to add to, creating the directory if needed; what it already holds can be
+     * served too.
+     */
+    public static Recording open(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        Recording recording = new Recording(directory);
+        if (Files.exists(directory.resolve(INDEX_FILE))) {
+            recording.readIndex();
+        }
+        return recording;
+    }
+
+    /**
+     * Opens an existing recording for replay.
+     * @throws NoSuchFileException If the directory has no index.
+     */
+    public static Recording load(Path directory) throws IOException {
+        if (!Files.exists(directory.resolve(INDEX_FILE))) {
+            throw new NoSuchFileException(directory.resolve(INDEX_FILE).toString(), null, "not a recording");
+        }
+        Recording recording = new Recording(directory);
+        recording.readIndex();
+        return recording;
+    }
+
+    private void readIndex() throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(directory.resolve(INDEX_FILE), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                JsonNode node = objectMapper.readTree(line);
+                Map<String, String> headers = new LinkedHashMap<>();
+                Iterator<Map.Entry<String, JsonNode>> fields = node.path("headers").fields();
+                while (fields.hasNext()) {
+                    Map.Entry<String, JsonNode> field = fields.next();
+                    headers.put(field.getKey(), field.getValue().asText());
+                }
+                Entry entry = new Entry(node.path("request").asText(), node.path("status").asInt(), headers, node.path("body").asText());
+                entries.put(entry.getRequest(), entry);
+                nextBody++;
+            }
+        }
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    // Distinct requests recorded
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * @param request Path and query, e.g. {@code /passengers?page=0&size=500}.
+     * @return Null if the request was not recorded.
+     */
+    public Entry get(String request) {
+        return entries.get(request);
+    }
+
+    /**
+     * Writes the body and appends the response to the index.
+     * @param headers Response headers to replay, one value each.
+     */
+    public synchronized void save(String request, int status, Map<String, String> headers, byte[] body) throws IOException {
+        String bodyFile = String.format("%06d.body", nextBody++);
+        Files.write(directory.resolve(bodyFile), body);
+        ObjectNode line = objectMapper.createObjectNode();
+        line.put("request", request);
+        line.put("status", status);
+        ObjectNode headerNode = line.putObject("headers");
+        headers.forEach(headerNode::put);
+        line.put("body", bodyFile);
+        Files.writeString(directory.resolve(INDEX_FILE), objectMapper.writeValueAsString(line) + "\n", StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        entries.put(request, new Entry(request, status, new LinkedHashMap<>(headers), bodyFile));
+    }
+
+    byte[] readBody(Entry entry) throws IOException {
+        return Files.readAllBytes(directory.resolve(entry.bodyFile));
+    }
+
+    @Override
+    public String toString() {
+        return directory + " (" + entries.size() + " requests)";
+    }
+
+    /**
+     * One recorded response, as stored in a line of the index.
+     */
+    public static final class Entry {
+        private final String request;
+        private final int status;
+        private final Map<String, String> headers;
+        // File name of the body, relative to the recording's directory
+        private final String bodyFile;
+
+        Entry(String request, int status, Map<String, String> headers, String bodyFile) {
+            this.request = request;
+            this.status = status;
+            this.headers = headers;
+            this.bodyFile = bodyFile;
+        }
+
+        public String getRequest() { return request; }
+        public int getStatus() { return status; }
+        public Map<String, String> getHeaders() { return headers; }
+    }
+}
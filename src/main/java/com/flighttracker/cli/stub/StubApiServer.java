@@ -0,0 +1,375 @@
+package com.flighttracker.cli.stub;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.flighttracker.cli.http.client.HttpClientProfile;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+
+/**
+ * Local stand-in for the Flight Tracker API on the JDK's built-in HTTP server, so load tests and
+ * benchmarks run against the same API on every machine and build. It answers from one of:
+ * <ul>
+ *   <li>a {@link SyntheticDataset} ({@link #start}): the four lists and the four relationship
+ *       endpoints, generated while they are written, so even lists of millions of records take no
+ *       memory up front. The lists honour the page, offset and cursor pagination parameters (with
+ *       the default parameter names of {@link com.flighttracker.cli.http.client.Pagination}), every
+ *       response carries an ETag for conditional requests, and unknown IDs get a 404 like the real
+ *       API's;</li>
+ *   <li>a {@link Recording} ({@link #replay}): the responses captured from a real API, with their
+ *       status and headers; requests that were not recorded get a 404;</li>
+ *   <li>a real API ({@link #record}): requests are passed on to it and its responses are added to
+ *       a recording as they are answered.</li>
+ * </ul>
+ * {@link FaultInjection} adds latency and errors in front of any of them. Requests are handled on
+ * virtual threads where the JDK has them.
+ */
+public final class StubApiServer implements AutoCloseable {
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final Duration UPSTREAM_TIMEOUT = Duration.ofSeconds(30);
+    // Describe the connection or the encoding of one response, not the resource, so they are not recorded
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of("connection", "keep-alive", "transfer-encoding",
+            "content-length", "content-encoding", "date");
+
+    static {
+        // A chunked body ends with a small write of its own; with Nagle's algorithm on, it waits for
+        // the client's delayed ACK and every response takes 40 ms longer. Read once by the JDK's
+        // server, so it must be set before the first one is created.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    // Exactly one source: the dataset, or the recording with or without the upstream API
+    private final SyntheticDataset dataset;
+    private final Recording recording;
+    private final String upstream;
+    private final HttpClient upstreamClient;
+    private final HttpServer server;
+    private final ExecutorService executor = HttpClientProfile.defaultExecutor();
+    // Records are written one by one into a body that is flushed in large chunks, not after each
+    private final ObjectMapper objectMapper = new ObjectMapper().disable(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    private final String eTag;
+    private final AtomicLong requests = new AtomicLong();
+    private volatile FaultInjection faults = FaultInjection.none();
+
+    private StubApiServer(SyntheticDataset dataset, Recording recording, String upstream, int port) throws IOException {
+        this.dataset = dataset;
+        this.recording = recording;
+        this.upstream = upstream != null && upstream.endsWith("/") ? upstream.substring(0, upstream.length() - 1) : upstream;
+        this.upstreamClient = upstream != null ? HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build() : null;
+        this.eTag = dataset != null ? "\"" + dataset.getVersion() + "\"" : null;
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    // On a free port of the loopback interface
+    public static StubApiServer start(SyntheticDataset dataset) throws IOException {
+        return start(dataset, 0);
+    }
+
+    public static StubApiServer start(SyntheticDataset dataset, int port) throws IOException {
+        return new StubApiServer(dataset, null, null, port);
+    }
+
+    /**
+     * Serves the responses of a recording, on a free port.
+     */
+    public static StubApiServer replay(Recording recording) throws IOException {
+        return new StubApiServer(null, recording, null, 0);
+    }
+
+    /**
+     * Passes every request on to the API at {@code upstreamUrl} and adds its responses to the
+     * recording. Server errors are passed on but not recorded, so a passing failure does not
+     * replace a good response; an unreachable API gets a 502.
+     */
+    public static StubApiServer record(String upstreamUrl, Recording recording) throws IOException {
+        return new StubApiServer(null, recording, upstreamUrl, 0);
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    // Null unless the data is generated
+    public SyntheticDataset getDataset() {
+        return dataset;
+    }
+
+    // Null if the data is generated
+    public Recording getRecording() {
+        return recording;
+    }
+
+    public FaultInjection getFaults() {
+        return faults;
+    }
+
+    // Applies to the requests that arrive from now on
+    public void setFaults(FaultInjection faults) {
+        this.faults = faults;
+    }
+
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        long request = requests.incrementAndGet();
+        try {
+            if (!exchange.getRequestMethod().equals("GET")) {
+                sendError(exchange, 405, "Method not allowed");
+                return;
+            }
+            FaultInjection faults = this.faults;
+            long delay = faults.delayNanos(request);
+            if (delay > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(delay);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt(); // the server is stopping
+                    return;
+                }
+            }
+            if (faults.fails(request)) {
+                sendError(exchange, faults.getErrorStatus(), "Injected failure");
+            } else if (dataset != null) {
+                serveGenerated(exchange);
+            } else if (upstream != null) {
+                proxy(exchange);
+            } else {
+                replay(exchange);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void serveGenerated(HttpExchange exchange) throws IOException {
+        String[] parts = exchange.getRequestURI().getPath().split("/");
+        if (parts.length == 2) {
+            serveList(exchange, parts[1]);
+        } else if (parts.length == 4) {
+            serveRelation(exchange, parts[1], parts[2], parts[3]);
+        } else {
+            sendError(exchange, 404, "Not found");
+        }
+    }
+
+    private void replay(HttpExchange exchange) throws IOException {
+        String request = requestOf(exchange);
+        Recording.Entry entry = recording.get(request);
+        if (entry == null) {
+            sendError(exchange, 404, "Not recorded: " + request);
+            return;
+        }
+        sendRecorded(exchange, entry.getStatus(), entry.getHeaders(), recording.readBody(entry));
+    }
+
+    private void proxy(HttpExchange exchange) throws IOException {
+        String request = requestOf(exchange);
+        HttpResponse<byte[]> response;
+        try {
+            // Without the client's conditional and encoding headers, so the full body is recorded
+            response = upstreamClient.send(HttpRequest.newBuilder(URI.create(upstream + request))
+                    .header("Accept", "application/json")
+                    .timeout(UPSTREAM_TIMEOUT)
+                    .build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException | IllegalArgumentException e) {
+            sendError(exchange, 502, "Upstream API unavailable: " + e.getMessage());
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        Map<String, String> headers = new LinkedHashMap<>();
+        response.headers().map().forEach((name, values) -> {
+            String lowerName = name.toLowerCase(Locale.ROOT);
+            if (!name.startsWith(":") && !values.isEmpty() && !HOP_BY_HOP_HEADERS.contains(lowerName)) {
+                headers.put(lowerName, values.get(0));
+            }
+        });
+        if (response.statusCode() < 500) {
+            recording.save(request, response.statusCode(), headers, response.body());
+        }
+        sendRecorded(exchange, response.statusCode(), headers, response.body());
+    }
+
+    private static void sendRecorded(HttpExchange exchange, int status, Map<String, String> headers, byte[] body) throws IOException {
+        headers.forEach(exchange.getResponseHeaders()::set);
+        String recordedETag = headers.get("etag");
+        if (status == 200 && recordedETag != null && recordedETag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            exchange.sendResponseHeaders(304, -1);
+            return;
+        }
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        if (body.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    // Path and query as the client sent them, the key of a recorded response
+    private static String requestOf(HttpExchange exchange) {
+        URI uri = exchange.getRequestURI();
+        return uri.getRawPath() + (uri.getRawQuery() != null ? "?" + uri.getRawQuery() : "");
+    }
+
+    private void serveList(HttpExchange exchange, String entity) throws IOException {
+        LongFunction<Object> records;
+        switch (entity) {
+            case "cities": records = dataset::city; break;
+            case "airports": records = dataset::airport; break;
+            case "passengers": records = dataset::passenger; break;
+            case "aircrafts": records = dataset::aircraft; break;
+            default:
+                sendError(exchange, 404, "Not found");
+                return;
+        }
+        long count = dataset.getCount(entity);
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        long from = 0;
+        long to = count;
+        try {
+            if (query.containsKey("size") || query.containsKey("limit")) {
+                long size = Long.parseLong(query.getOrDefault("size", query.get("limit")));
+                if (query.containsKey("page")) {
+                    from = Long.parseLong(query.get("page")) * size;
+                } else if (query.containsKey("offset")) {
+                    from = Long.parseLong(query.get("offset"));
+                } else if (query.containsKey("cursor")) {
+                    from = Long.parseLong(query.get("cursor"));
+                }
+                from = Math.max(0, Math.min(count, from));
+                to = Math.min(count, from + Math.max(0, size));
+                // Cursor-style clients page until the header is missing
+                if (!query.containsKey("page") && !query.containsKey("offset") && to < count) {
+                    exchange.getResponseHeaders().set(NEXT_CURSOR_HEADER, String.valueOf(to));
+                }
+            }
+        } catch (NumberFormatException e) {
+            sendError(exchange, 400, "Invalid paging parameters");
+            return;
+        }
+        long first = from + 1;
+        long last = to;
+        sendJson(exchange, generator -> {
+            generator.writeStartArray();
+            for (long id = first; id <= last; id++) {
+                objectMapper.writeValue(generator, records.apply(id));
+            }
+            generator.writeEndArray();
+        });
+    }
+
+    private void serveRelation(HttpExchange exchange, String entity, String idText, String relation) throws IOException {
+        String route = entity + "/{id}/" + relation;
+        LongFunction<long[]> related;
+        LongFunction<Object> records;
+        String notFound;
+        switch (route) {
+            case "cities/{id}/airports":
+                related = dataset::airportsInCity; records = dataset::airport; notFound = "City not found"; break;
+            case "passengers/{id}/aircrafts":
+                related = dataset::aircraftsFlownByPassenger; records = dataset::aircraft; notFound = "Passenger not found"; break;
+            case "aircrafts/{id}/airports":
+                related = dataset::airportsByAircraft; records = dataset::airport; notFound = "Aircraft not found"; break;
+            case "passengers/{id}/airportsUsed":
+                related = dataset::airportsUsedByPassenger; records = dataset::airport; notFound = "Passenger not found"; break;
+            default:
+                sendError(exchange, 404, "Not found");
+                return;
+        }
+        long id;
+        try {
+            id = Long.parseLong(idText);
+        } catch (NumberFormatException e) {
+            sendError(exchange, 400, "Invalid ID " + idText);
+            return;
+        }
+        if (id < 1 || id > dataset.getCount(entity)) {
+            sendError(exchange, 404, notFound);
+            return;
+        }
+        long[] ids = related.apply(id);
+        sendJson(exchange, generator -> {
+            generator.writeStartArray();
+            for (long relatedId : ids) {
+                objectMapper.writeValue(generator, records.apply(relatedId));
+            }
+            generator.writeEndArray();
+        });
+    }
+
+    private void sendJson(HttpExchange exchange, Body body) throws IOException {
+        exchange.getResponseHeaders().set("ETag", eTag);
+        if (eTag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            exchange.sendResponseHeaders(304, -1);
+            return;
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        // Length 0 means chunked: the body is written as it is generated
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream out = exchange.getResponseBody();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            body.write(generator);
+        }
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        byte[] body = message.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery != null) {
+            for (String pair : rawQuery.split("&")) {
+                int equals = pair.indexOf('=');
+                if (equals > 0) {
+                    params.put(pair.substring(0, equals), URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8));
+                }
+            }
+        }
+        return params;
+    }
+
+    private interface Body {
+        void write(JsonGenerator generator) throws IOException;
+    }
+}
@@ -0,0 +1,166 @@
+package com.flighttracker.cli.stub;
+
+import com.flighttracker.cli.domain.Aircraft;
+import com.flighttracker.cli.domain.Airport;
+import com.flighttracker.cli.domain.City;
+import com.flighttracker.cli.domain.Passenger;
+
+import java.util.Arrays;
+
+/**
+ * Deterministic stand-in for the API's data. IDs run from 1 to the count of each entity, and
+ * every entity and relationship is computed from its ID and the seed when it is asked for, so the
+ * same seed and counts always give the same data and even millions of passengers take no memory.
+ * <ul>
+ *   <li>Airports are spread over the cities round robin: airport {@code a} is in city {@code (a - 1) % cities + 1}.</li>
+ *   <li>Every passenger has flown 1 to 4 aircraft, and every aircraft serves 2 to 4 airports.</li>
+ *   <li>The airports a passenger used are those of the aircraft the passenger flew.</li>
+ * </ul>
+ */
+public final class SyntheticDataset {
+    public static final long DEFAULT_SEED = 42;
+    public static final int DEFAULT_PASSENGERS = 10_000;
+
+    private static final String[] STATES = {"NY", "CA", "TX", "FL", "IL", "WA", "NL", "ON", "BC", "QC"};
+    private static final String[] FIRST_NAMES = {"Alice", "Bob", "Carol", "David", "Emma", "Farid", "Grace", "Hiro",
+            "Ines", "Jonas", "Kofi", "Lena", "Mateo", "Noor", "Olga", "Priya", "Quinn", "Rosa", "Sven", "Tariq"};
+    private static final String[] LAST_NAMES = {"Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller",
+            "Davis", "Rodriguez", "Martinez", "Tremblay", "Nguyen", "Kowalski", "Okafor", "Murphy", "Rossi"};
+    private static final String[] AIRLINES = {"United", "Delta", "American", "Air Canada", "WestJet", "Porter"};
+    private static final String[] TYPES = {"Boeing 737", "Boeing 747", "Airbus A320", "Airbus A330", "Embraer E175"};
+
+    private final long seed;
+    private final int cities;
+    private final int airports;
+    private final int passengers;
+    private final int aircrafts;
+
+    public SyntheticDataset(long seed, int cities, int airports, int passengers, int aircrafts) {
+        if (cities < 1 || airports < 1 || passengers < 1 || aircrafts < 1) {
+            throw new IllegalArgumentException("Every entity count must be at least 1");
+        }
+        this.seed = seed;
+        this.cities = cities;
+        this.airports = airports;
+        this.passengers = passengers;
+        this.aircrafts = aircrafts;
+    }
+
+    /**
+     * The given number of passengers with one city per 100, one airport per 40 and one aircraft
+     * per 25 of them.
+     */
+    public static SyntheticDataset scaled(int passengers) {
+        return new SyntheticDataset(DEFAULT_SEED, Math.max(1, passengers / 100), Math.max(1, passengers / 40),
+                passengers, Math.max(1, passengers / 25));
+    }
+
+    public long getSeed() { return seed; }
+    public int getCityCount() { return cities; }
+    public int getAirportCount() { return airports; }
+    public int getPassengerCount() { return passengers; }
+    public int getAircraftCount() { return aircrafts; }
+
+    /**
+     * @param entity "cities", "airports", "passengers" or "aircrafts".
+     * @throws IllegalArgumentException For any other entity.
+     */
+    public int getCount(String entity) {
+        switch (entity) {
+            case "cities": return cities;
+            case "airports": return airports;
+            case "passengers": return passengers;
+            case "aircrafts": return aircrafts;
+            default: throw new IllegalArgumentException("Unknown entity " + entity);
+        }
+    }
+
+    // Changes whenever the seed or a count does, for ETags
+    public String getVersion() {
+        return Long.toHexString(mix(seed, cities, airports) ^ mix(passengers, aircrafts, 0));
+    }
+
+    public City city(long id) {
+        return new City(id, "City " + id, STATES[index(id, 1, STATES.length)], 10_000 + index(id, 2, 5_000_000));
+    }
+
+    public Airport airport(long id) {
+        return new Airport(id, "Airport " + id, code(id));
+    }
+
+    public Passenger passenger(long id) {
+        return new Passenger(id, FIRST_NAMES[index(id, 3, FIRST_NAMES.length)], LAST_NAMES[index(id, 4, LAST_NAMES.length)],
+                "555-" + (1000 + index(id, 5, 9000)));
+    }
+
+    public Aircraft aircraft(long id) {
+        return new Aircraft(id, TYPES[index(id, 6, TYPES.length)], AIRLINES[index(id, 7, AIRLINES.length)], 50 + index(id, 8, 400));
+    }
+
+    public long[] airportsInCity(long cityId) {
+        long[] ids = new long[cityId > airports ? 0 : (int) ((airports - cityId) / cities + 1)];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = cityId + (long) i * cities;
+        }
+        return ids;
+    }
+
+    public long[] aircraftsFlownByPassenger(long passengerId) {
+        long[] ids = new long[1 + index(passengerId, 9, 4)];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = 1 + index(passengerId, 10 + i, aircrafts);
+        }
+        return distinct(ids);
+    }
+
+    public long[] airportsByAircraft(long aircraftId) {
+        long[] ids = new long[2 + index(aircraftId, 14, 3)];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = 1 + index(aircraftId, 15 + i, airports);
+        }
+        return distinct(ids);
+    }
+
+    public long[] airportsUsedByPassenger(long passengerId) {
+        long[] ids = new long[0];
+        for (long aircraftId : aircraftsFlownByPassenger(passengerId)) {
+            long[] served = airportsByAircraft(aircraftId);
+            ids = Arrays.copyOf(ids, ids.length + served.length);
+            System.arraycopy(served, 0, ids, ids.length - served.length, served.length);
+        }
+        return distinct(ids);
+    }
+
+    @Override
+    public String toString() {
+        return "SyntheticDataset{seed=" + seed + ", cities=" + cities + ", airports=" + airports
+                + ", passengers=" + passengers + ", aircrafts=" + aircrafts + "}";
+    }
+
+    // Uniform in [0, bound) for the ID and a per-attribute salt
+    private int index(long id, int salt, int bound) {
+        return (int) ((mix(seed, id, salt) >>> 1) % bound);
+    }
+
+    // SplitMix64 finalizer over the three inputs
+    static long mix(long a, long b, long c) {
+        long z = a * 0x9E3779B97F4A7C15L + b * 0xBF58476D1CE4E5B9L + c * 0x94D049BB133111EBL;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static long[] distinct(long[] ids) {
+        return Arrays.stream(ids).sorted().distinct().toArray();
+    }
+
+    // Three-letter code derived from the ID, e.g. AAB for airport 1
+    private static String code(long id) {
+        char[] code = new char[3];
+        for (int i = 2; i >= 0; i--) {
+            code[i] = (char) ('A' + id % 26);
+            id /= 26;
+        }
+        return new String(code);
+    }
+}
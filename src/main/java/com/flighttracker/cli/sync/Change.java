@@ -0,0 +1,70 @@
+package com.flighttracker.cli.sync;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.flighttracker.cli.store.Snapshot;
+
+/**
+ * One entry of the change feed. An entity change names the list it belongs to ({@code cities},
+ * {@code airports}, {@code passengers} or {@code aircrafts}) and carries the new entity for an
+ * upsert. A relationship change names the {@link Snapshot.Relation} and carries the complete new
+ * set of related IDs for the left-hand ID.
+ */
+public class Change {
+    public enum Op { UPSERT, DELETE }
+
+    private Op op;
+    private String entity;
+    private Snapshot.Relation relation;
+    private long id;
+    private JsonNode value;
+    private long[] relatedIds;
+
+    public Change() {}
+
+    public static Change upsert(String entity, long id, JsonNode value) {
+        Change change = new Change();
+        change.op = Op.UPSERT;
+        change.entity = entity;
+        change.id = id;
+        change.value = value;
+        return change;
+    }
+
+    public static Change link(Snapshot.Relation relation, long id, long[] relatedIds) {
+        Change change = new Change();
+        change.op = Op.UPSERT;
+        change.relation = relation;
+        change.id = id;
+        change.relatedIds = relatedIds;
+        return change;
+    }
+
+    public static Change delete(String entity, long id) {
+        Change change = new Change();
+        change.op = Op.DELETE;
+        change.entity = entity;
+        change.id = id;
+        return change;
+    }
+
+    public static Change unlink(Snapshot.Relation relation, long id) {
+        Change change = new Change();
+        change.op = Op.DELETE;
+        change.relation = relation;
+        change.id = id;
+        return change;
+    }
+
+    public Op getOp() { return op; }
+    public void setOp(Op op) { this.op = op; }
+    public String getEntity() { return entity; }
+    public void setEntity(String entity) { this.entity = entity; }
+    public Snapshot.Relation getRelation() { return relation; }
+    public void setRelation(Snapshot.Relation relation) { this.relation = relation; }
+    public long getId() { return id; }
+    public void setId(long id) { this.id = id; }
+    public JsonNode getValue() { return value; }
+    public void setValue(JsonNode value) { this.value = value; }
+    public long[] getRelatedIds() { return relatedIds; }
+    public void setRelatedIds(long[] relatedIds) { this.relatedIds = relatedIds; }
+}
@@ -0,0 +1,47 @@
+package com.flighttracker.cli.sync;
+
+import com.flighttracker.cli.store.Snapshot;
+
+/**
+ * A change that was applied to the local data. Entity events carry the entity before and after;
+ * relationship events carry the related IDs ({@code long[]}) before and after. Whichever side did
+ * not exist is null.
+ */
+public final class ChangeEvent {
+    public enum Type { INSERT, UPDATE, DELETE }
+
+    private final Type type;
+    private final String entity;
+    private final Snapshot.Relation relation;
+    private final long id;
+    private final Object oldValue;
+    private final Object newValue;
+
+    ChangeEvent(Type type, String entity, Snapshot.Relation relation, long id, Object oldValue, Object newValue) {
+        this.type = type;
+        this.entity = entity;
+        this.relation = relation;
+        this.id = id;
+        this.oldValue = oldValue;
+        this.newValue = newValue;
+    }
+
+    public Type getType() { return type; }
+    // Entity list name, or null for a relationship change
+    public String getEntity() { return entity; }
+    // Relationship, or null for an entity change
+    public Snapshot.Relation getRelation() { return relation; }
+    public long getId() { return id; }
+    public Object getOldValue() { return oldValue; }
+    public Object getNewValue() { return newValue; }
+
+    // The API endpoint whose response this change altered
+    public String getEndpoint() {
+        return relation != null ? relation.endpoint(id) : "/" + entity;
+    }
+
+    @Override
+    public String toString() {
+        return type + " " + (relation != null ? relation : entity) + " " + id;
+    }
+}
@@ -0,0 +1,232 @@
+package com.flighttracker.cli.sync;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flighttracker.cli.domain.Aircraft;
+import com.flighttracker.cli.domain.Airport;
+import com.flighttracker.cli.domain.City;
+import com.flighttracker.cli.domain.Passenger;
+import com.flighttracker.cli.http.client.RESTClient;
+import com.flighttracker.cli.http.client.RESTClientException;
+import com.flighttracker.cli.store.Snapshot;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Keeps a {@link Snapshot} up to date from the API's change feed instead of downloading every
+ * list again. {@code GET /changes?cursor=<cursor>} returns the changes made after the cursor;
+ * a snapshot that was never synced asks for {@code /changes?updatedSince=<creation time>}
+ * instead. Pages are requested until the server reports no more.
+ * <p>
+ * Changes are applied to the snapshot in place: entities are found by ID through a position
+ * index and deleted by moving the last entity into the gap, so a sync costs time in proportion
+ * to the number of changes, not to the size of the lists. Every endpoint a change touches loses
+ * its stored validators, since they no longer describe the local data.
+ */
+public class ChangeFeedSync {
+    public static final String ENDPOINT = "/changes";
+    public static final TypeReference<ChangePage> CHANGE_PAGE = new TypeReference<>() {};
+
+    private final RESTClient client;
+    private final Snapshot snapshot;
+    private final Map<String, EntityTable<?>> tables = new HashMap<>();
+    private final List<ChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    private long pageCount;
+    private long insertCount;
+    private long updateCount;
+    private long deleteCount;
+
+    public ChangeFeedSync(RESTClient client, Snapshot snapshot) {
+        this.client = client;
+        this.snapshot = snapshot;
+        tables.put("cities", new EntityTable<>(City.class, City::getId, snapshot.getCities(), snapshot::setCities));
+        tables.put("airports", new EntityTable<>(Airport.class, Airport::getId, snapshot.getAirports(), snapshot::setAirports));
+        tables.put("passengers", new EntityTable<>(Passenger.class, Passenger::getId, snapshot.getPassengers(), snapshot::setPassengers));
+        tables.put("aircrafts", new EntityTable<>(Aircraft.class, Aircraft::getId, snapshot.getAircrafts(), snapshot::setAircrafts));
+    }
+
+    public void addListener(ChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(ChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Applies every change the server has after the snapshot's cursor. The cursor advances after
+     * each page, so a failure keeps the pages applied so far and the next sync resumes from there.
+     * @return Number of changes applied.
+     * @throws RESTClientException If the change feed cannot be fetched.
+     */
+    public long sync() {
+        pageCount = 0;
+        insertCount = 0;
+        updateCount = 0;
+        deleteCount = 0;
+        ChangePage page;
+        String cursor;
+        do {
+            cursor = snapshot.getSyncCursor();
+            page = client.getFreshResource(query(cursor), CHANGE_PAGE);
+            pageCount++;
+            for (Change change : page.getChanges()) {
+                apply(change);
+            }
+            snapshot.setSyncCursor(page.getCursor());
+            // A server that does not move the cursor forward would keep us here forever
+        } while (page.isHasMore() && page.getCursor() != null && !page.getCursor().equals(cursor));
+        return insertCount + updateCount + deleteCount;
+    }
+
+    public long getPageCount() { return pageCount; }
+    public long getInsertCount() { return insertCount; }
+    public long getUpdateCount() { return updateCount; }
+    public long getDeleteCount() { return deleteCount; }
+
+    private String query(String cursor) {
+        if (cursor == null) {
+            return ENDPOINT + "?updatedSince=" + snapshot.getCreatedAtMillis();
+        }
+        return ENDPOINT + "?cursor=" + URLEncoder.encode(cursor, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Applies one change to the snapshot and publishes it.
+     * @throws IllegalArgumentException If the change names neither a known entity list nor a relationship.
+     */
+    public void apply(Change change) {
+        if (change.getRelation() != null) {
+            applyRelation(change);
+            return;
+        }
+        EntityTable<?> table = tables.get(change.getEntity());
+        if (table == null) {
+            throw new IllegalArgumentException("Unknown entity " + change.getEntity() + " in change " + change.getId());
+        }
+        if (change.getOp() == Change.Op.DELETE) {
+            Object removed = table.delete(change.getId());
+            if (removed != null) {
+                publish(new ChangeEvent(ChangeEvent.Type.DELETE, change.getEntity(), null, change.getId(), removed, null));
+                // The entity's own relationships go with it
+                for (Snapshot.Relation relation : Snapshot.Relation.values()) {
+                    if (relation.sourceEntity().equals(change.getEntity())) {
+                        applyRelation(Change.unlink(relation, change.getId()));
+                    }
+                }
+            }
+        } else {
+            Object value = table.convert(change, client.getObjectMapper());
+            Object previous = table.upsert(change.getId(), value);
+            if (!value.equals(previous)) {
+                publish(new ChangeEvent(previous == null ? ChangeEvent.Type.INSERT : ChangeEvent.Type.UPDATE,
+                        change.getEntity(), null, change.getId(), previous, value));
+            }
+        }
+    }
+
+    private void applyRelation(Change change) {
+        Map<Long, long[]> related = snapshot.getRelation(change.getRelation());
+        if (change.getOp() == Change.Op.DELETE) {
+            long[] removed = related.remove(change.getId());
+            if (removed != null) {
+                publish(new ChangeEvent(ChangeEvent.Type.DELETE, null, change.getRelation(), change.getId(), removed, null));
+            }
+        } else {
+            long[] ids = change.getRelatedIds() != null ? change.getRelatedIds() : new long[0];
+            long[] previous = related.put(change.getId(), ids);
+            if (previous == null || !Arrays.equals(previous, ids)) {
+                publish(new ChangeEvent(previous == null ? ChangeEvent.Type.INSERT : ChangeEvent.Type.UPDATE,
+                        null, change.getRelation(), change.getId(), previous, ids));
+            }
+        }
+    }
+
+    private void publish(ChangeEvent event) {
+        switch (event.getType()) {
+            case INSERT: insertCount++; break;
+            case UPDATE: updateCount++; break;
+            default: deleteCount++;
+        }
+        snapshot.getValidators().remove(event.getEndpoint());
+        for (ChangeListener listener : listeners) {
+            listener.onChange(event);
+        }
+    }
+
+    /**
+     * One entity list of the snapshot, with the position of every entity by ID.
+     */
+    private static final class EntityTable<T> {
+        private final Class<T> type;
+        private final Function<T, Long> id;
+        private final List<T> entities;
+        private final Map<Long, Integer> positions;
+
+        EntityTable(Class<T> type, Function<T, Long> id, List<T> loaded, Consumer<List<T>> replace) {
+            this.type = type;
+            this.id = id;
+            // Copied once, so the snapshot holds a list that can be changed in place from now on
+            this.entities = new ArrayList<>(loaded);
+            replace.accept(entities);
+            this.positions = new HashMap<>(entities.size() * 2);
+            for (int i = 0; i < entities.size(); i++) {
+                positions.put(id.apply(entities.get(i)), i);
+            }
+        }
+
+        // Bound by the client's mapper, so entities decode the same as in every other response
+        T convert(Change change, ObjectMapper mapper) {
+            if (change.getValue() == null) {
+                throw new IllegalArgumentException("Upsert of " + change.getEntity() + " " + change.getId() + " has no value");
+            }
+            try {
+                T value = mapper.treeToValue(change.getValue(), type);
+                if (!Objects.equals(id.apply(value), change.getId())) {
+                    throw new IllegalArgumentException("Upsert of " + change.getEntity() + " " + change.getId()
+                            + " carries ID " + id.apply(value));
+                }
+                return value;
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("Invalid " + change.getEntity() + " " + change.getId() + ": " + e.getOriginalMessage(), e);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        T upsert(long key, Object value) {
+            Integer position = positions.get(key);
+            if (position != null) {
+                return entities.set(position, (T) value);
+            }
+            positions.put(key, entities.size());
+            entities.add((T) value);
+            return null;
+        }
+
+        T delete(long key) {
+            Integer position = positions.remove(key);
+            if (position == null) {
+                return null;
+            }
+            T removed = entities.get(position);
+            T last = entities.remove(entities.size() - 1);
+            if (position < entities.size()) {
+                entities.set(position, last);
+                positions.put(id.apply(last), position);
+            }
+            return removed;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.flighttracker.cli.sync;
+
+/**
+ * Receives every change {@link ChangeFeedSync} applies, on the syncing thread, right after the
+ * local data was updated.
+ */
+@FunctionalInterface
+public interface ChangeListener {
+    void onChange(ChangeEvent event);
+}
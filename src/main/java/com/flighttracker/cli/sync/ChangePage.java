@@ -0,0 +1,29 @@
+package com.flighttracker.cli.sync;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One response of the change feed: the changes after the requested position, oldest first, and
+ * the cursor to ask for the next ones with.
+ */
+public class ChangePage {
+    private String cursor;
+    private boolean hasMore;
+    private List<Change> changes = Collections.emptyList();
+
+    public ChangePage() {}
+
+    public ChangePage(String cursor, boolean hasMore, List<Change> changes) {
+        this.cursor = cursor;
+        this.hasMore = hasMore;
+        this.changes = changes;
+    }
+
+    public String getCursor() { return cursor; }
+    public void setCursor(String cursor) { this.cursor = cursor; }
+    public boolean isHasMore() { return hasMore; }
+    public void setHasMore(boolean hasMore) { this.hasMore = hasMore; }
+    public List<Change> getChanges() { return changes; }
+    public void setChanges(List<Change> changes) { this.changes = changes; }
+}
@@ -0,0 +1,45 @@
+package com.flighttracker.cli.batch;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchCommandTest {
+
+    @Test
+    void testParse_KeyedCommand() {
+        BatchCommand command = BatchCommand.parse(Arrays.asList("airports-in-city", "1", "2", "3"));
+
+        assertEquals(BatchCommand.Type.AIRPORTS_IN_CITY, command.getType());
+        assertEquals(Arrays.asList(1L, 2L, 3L), command.getIds());
+    }
+
+    @Test
+    void testParse_Rejected() {
+        assertThrows(IllegalArgumentException.class, () -> BatchCommand.parse(List.of("airports-in-city")));
+        assertThrows(IllegalArgumentException.class, () -> BatchCommand.parse(List.of("airports-in-city", "x")));
+        assertThrows(IllegalArgumentException.class, () -> BatchCommand.parse(List.of("cities", "1")));
+        assertThrows(IllegalArgumentException.class, () -> BatchCommand.parse(List.of("flights")));
+    }
+
+    @Test
+    void testParseAll_SkipsCommentsAndNamesBadLine() throws IOException {
+        String file = "# nightly queries\n\ncities\nairports-by-aircraft 7  8\n";
+
+        List<BatchCommand> commands = BatchCommand.parseAll(new BufferedReader(new StringReader(file)));
+
+        assertEquals(2, commands.size());
+        assertEquals(BatchCommand.Type.CITIES, commands.get(0).getType());
+        assertEquals(Arrays.asList(7L, 8L), commands.get(1).getIds());
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> BatchCommand.parseAll(new BufferedReader(new StringReader("cities\nbogus 1\n"))));
+        assertTrue(error.getMessage().startsWith("Line 2:"));
+    }
+}
@@ -0,0 +1,112 @@
+package com.flighttracker.cli.batch;
+
+import com.flighttracker.cli.domain.Airport;
+import com.flighttracker.cli.domain.RelationshipQueries;
+import com.flighttracker.cli.http.client.ApiResult;
+import com.flighttracker.cli.http.client.RESTClient;
+import com.flighttracker.cli.http.client.RESTClientException;
+import com.flighttracker.cli.output.OutputFormat;
+import com.flighttracker.cli.output.RecordWriter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BatchRunnerTest {
+    @Mock
+    private RESTClient restClient;
+
+    @Mock
+    private RelationshipQueries index;
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+    private final Airport jfk = new Airport(101L, "JFK Airport", "JFK");
+    private final Airport lga = new Airport(102L, "LaGuardia Airport", "LGA");
+
+    private BatchRunner runner;
+
+    private RecordWriter writer;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        writer = OutputFormat.TEXT.open(out);
+        runner = new BatchRunner(restClient, null, 4, writer, print(err));
+    }
+
+    private static PrintStream print(ByteArrayOutputStream bytes) {
+        return new PrintStream(bytes, false, StandardCharsets.UTF_8);
+    }
+
+    private static List<String> lines(ByteArrayOutputStream bytes) {
+        String text = bytes.toString(StandardCharsets.UTF_8);
+        return text.isEmpty() ? Collections.emptyList() : Arrays.asList(text.split("\\R"));
+    }
+
+    @Test
+    void testRun_PrintsAnswersInInputOrder() {
+        when(restClient.getAirportsInCityResult(1L)).thenReturn(ApiResult.success(Set.of(jfk)));
+        when(restClient.getAirportsInCityResult(2L)).thenReturn(ApiResult.success(Collections.emptySet()));
+        when(restClient.getAirportsInCityResult(3L)).thenReturn(ApiResult.success(Set.of(lga)));
+
+        int exitCode = runner.run(List.of(BatchCommand.parse(List.of("airports-in-city", "1", "2", "3"))));
+
+        assertEquals(BatchRunner.EXIT_OK, exitCode);
+        assertEquals(Arrays.asList("1\t" + jfk, "3\t" + lga), lines(out));
+        assertTrue(lines(err).isEmpty());
+    }
+
+    @Test
+    void testRun_FailuresSetExitCode() {
+        when(restClient.getAirportsByAircraftResult(7L)).thenReturn(ApiResult.success(Set.of(jfk)));
+        when(restClient.getAirportsByAircraftResult(8L))
+                .thenReturn(ApiResult.failure(new RESTClientException("/aircrafts/8/airports", 503, "busy")));
+
+        int exitCode = runner.run(List.of(BatchCommand.parse(List.of("airports-by-aircraft", "7", "8"))));
+
+        assertEquals(BatchRunner.EXIT_FAILURES, exitCode);
+        assertEquals(1, runner.getFailureCount());
+        assertEquals(List.of("7\t" + jfk), lines(out));
+        assertEquals(List.of("Error: airports-by-aircraft 8: HTTP Status 503 fetching /aircrafts/8/airports"), lines(err));
+    }
+
+    @Test
+    void testRun_IndexAnswersLookups() {
+        runner = new BatchRunner(restClient, index, 2, writer, print(err));
+        when(index.getAirportsUsedByPassenger(5L)).thenReturn(Set.of(lga));
+
+        int exitCode = runner.run(List.of(BatchCommand.parse(List.of("airports-by-passenger", "5"))));
+
+        assertEquals(BatchRunner.EXIT_OK, exitCode);
+        assertEquals(List.of("5\t" + lga), lines(out));
+        verifyNoInteractions(restClient);
+    }
+
+    @Test
+    void testRun_ManyIdsWithSmallWindow() {
+        runner = new BatchRunner(restClient, null, 1, writer, print(err));
+        when(restClient.getAircraftsFlownByPassengerResult(anyLong())).thenReturn(ApiResult.success(Collections.emptySet()));
+        List<String> words = new ArrayList<>(List.of("aircrafts-by-passenger"));
+        for (int id = 1; id <= 50; id++) {
+            words.add(Integer.toString(id));
+        }
+
+        assertEquals(BatchRunner.EXIT_OK, runner.run(List.of(BatchCommand.parse(words))));
+        verify(restClient, times(50)).getAircraftsFlownByPassengerResult(anyLong());
+    }
+}
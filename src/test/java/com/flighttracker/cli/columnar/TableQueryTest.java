@@ -0,0 +1,107 @@
+package com.flighttracker.cli.columnar;
+
+import com.flighttracker.cli.domain.Aircraft;
+import com.flighttracker.cli.domain.Airport;
+import com.flighttracker.cli.domain.City;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TableQueryTest {
+    private static final String[] AIRLINES = {"United", "Delta", "Air Canada", "WestJet"};
+    private static final int AIRCRAFT_COUNT = 3 * TableQuery.CHUNK_ROWS + 123; // spans several chunks
+
+    private static List<Aircraft> aircrafts;
+    private static ColumnTable aircraftTable;
+
+    @BeforeAll
+    static void setUp() {
+        aircrafts = new ArrayList<>();
+        for (int i = 1; i <= AIRCRAFT_COUNT; i++) {
+            aircrafts.add(new Aircraft((long) i, i % 3 == 0 ? "Boeing 747" : "Airbus A320", AIRLINES[i % AIRLINES.length], 50 + i % 400));
+        }
+        aircraftTable = ColumnTables.aircrafts().addAll(aircrafts).build();
+    }
+
+    @Test
+    void testGroupBySumMatchesObjectLoop() {
+        TableQuery.QueryResult result = TableQuery.parse("aircrafts group by airlineName count sum numberOfPassengers").execute(aircraftTable);
+
+        Map<String, Long> expectedSums = new TreeMap<>(aircrafts.stream().collect(
+                Collectors.groupingBy(Aircraft::getAirlineName, Collectors.summingLong(Aircraft::getNumberOfPassengers))));
+        assertEquals(List.of("airlineName", "count", "sum(numberOfPassengers)"), result.getColumns());
+        assertEquals(AIRLINES.length, result.getRows().size());
+        for (Object[] row : result.getRows()) {
+            assertEquals(expectedSums.get((String) row[0]), row[2]);
+        }
+        assertEquals("Air Canada", result.getRows().get(0)[0], "groups are sorted by key");
+        assertEquals((long) AIRCRAFT_COUNT, result.getRows().stream().mapToLong(row -> (Long) row[1]).sum());
+    }
+
+    @Test
+    void testWhereOnNumberAndDictionaryColumns() {
+        TableQuery.QueryResult result = TableQuery.parse(
+                "aircrafts where numberOfPassengers >= 400 and type = 'boeing 747' count min id max id avg numberOfPassengers")
+                .execute(aircraftTable);
+
+        List<Aircraft> expected = aircrafts.stream()
+                .filter(a -> a.getNumberOfPassengers() >= 400 && a.getType().equals("Boeing 747"))
+                .collect(Collectors.toList());
+        Object[] row = result.getRows().get(0);
+        assertEquals((long) expected.size(), row[0]);
+        assertEquals(expected.get(0).getId(), row[1]);
+        assertEquals(expected.get(expected.size() - 1).getId(), row[2]);
+        assertEquals(expected.stream().mapToInt(Aircraft::getNumberOfPassengers).average().orElseThrow(), (Double) row[3], 1e-9);
+    }
+
+    @Test
+    void testListsMatchingRowsUpToLimit() {
+        ColumnTable airports = ColumnTables.airports().addAll(List.of(
+                new Airport(1L, "San Jose", "SJC"), new Airport(2L, "San Juan", "SJU"), new Airport(3L, "Boston", "BOS"))).build();
+
+        TableQuery.QueryResult result = TableQuery.parse("airports where code starts sj limit 1").execute(airports);
+
+        assertEquals(2, result.getMatchedRows());
+        assertEquals(1, result.getRows().size());
+        assertArrayEquals(new Object[]{1L, "San Jose", "SJC"}, result.getRows().get(0));
+        assertTrue(result.format().startsWith("id  name      code\n1   San Jose  SJC\n"), result.format());
+    }
+
+    @Test
+    void testEmptyGroupsAreSkipped() {
+        ColumnTable cities = ColumnTables.cities().addAll(List.of(
+                new City(1L, "New York", "NY", 8000000), new City(2L, "Buffalo", "NY", 250000),
+                new City(3L, "Albany", "NY", 99000), new City(4L, "Austin", "TX", 960000))).build();
+
+        TableQuery.QueryResult result = TableQuery.parse("cities where population>100000 and state != TX group by state").execute(cities);
+
+        assertEquals(1, result.getRows().size());
+        assertArrayEquals(new Object[]{"NY", 2L}, result.getRows().get(0));
+    }
+
+    @Test
+    void testBoundsAtTheEndsOfTheRangeMatchNothing() {
+        ColumnTable cities = ColumnTables.cities().addAll(List.of(
+                new City(1L, "New York", "NY", 8000000), new City(2L, "Buffalo", "NY", 250000))).build();
+
+        assertEquals(0, TableQuery.parse("cities where id < " + Long.MIN_VALUE).execute(cities).getMatchedRows());
+        assertEquals(0, TableQuery.parse("cities where population > " + Long.MAX_VALUE).execute(cities).getMatchedRows());
+        assertEquals(2, TableQuery.parse("cities where id <= " + Long.MAX_VALUE).execute(cities).getMatchedRows());
+    }
+
+    @Test
+    void testInvalidQueries() {
+        assertThrows(IllegalArgumentException.class, () -> TableQuery.parse("aircrafts where type ="));
+        assertThrows(IllegalArgumentException.class, () -> TableQuery.parse("aircrafts median numberOfPassengers"));
+        assertThrows(IllegalArgumentException.class, () -> TableQuery.parse("aircrafts group by id").execute(aircraftTable));
+        assertThrows(IllegalArgumentException.class, () -> TableQuery.parse("aircrafts sum type").execute(aircraftTable));
+        assertThrows(IllegalArgumentException.class, () -> TableQuery.parse("aircrafts where seats > 1").execute(aircraftTable));
+    }
+}
@@ -0,0 +1,57 @@
+package com.flighttracker.cli.domain;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompactRecordsTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void testIdentityIsTheIdAlone() {
+        AirportRecord jfk = new AirportRecord(101, "JFK Airport", "JFK");
+        AirportRecord renamed = new AirportRecord(101, "John F. Kennedy", "JFK");
+
+        assertEquals(jfk, renamed);
+        assertEquals(jfk.hashCode(), renamed.hashCode());
+        assertNotEquals(jfk, new AirportRecord(102, "JFK Airport", "JFK"));
+        assertEquals(1, Set.of(jfk).size());
+        assertTrue(Set.of(jfk).contains(renamed));
+    }
+
+    @Test
+    void testRepeatedStringsAreShared() {
+        AircraftRecord first = new AircraftRecord(1, new String("Boeing 747"), new String("United"), 400);
+        AircraftRecord second = new AircraftRecord(2, new String("Boeing 747"), new String("United"), 380);
+
+        assertSame(first.type(), second.type());
+        assertSame(first.airlineName(), second.airlineName());
+        assertSame(new CityRecord(1, "A", new String("NY"), 1).state(), new CityRecord(2, "B", new String("NY"), 2).state());
+    }
+
+    @Test
+    void testJacksonBindsTheEndpointJson() throws Exception {
+        String json = "[{\"id\":301,\"type\":\"Boeing 747\",\"airlineName\":\"United\",\"numberOfPassengers\":400}]";
+
+        List<AircraftRecord> aircrafts = objectMapper.readValue(json, new TypeReference<List<AircraftRecord>>() {});
+
+        assertEquals(List.of(new AircraftRecord(301, "Boeing 747", "United", 400)), aircrafts);
+        assertEquals(400, aircrafts.get(0).numberOfPassengers());
+        assertEquals(json, objectMapper.writeValueAsString(aircrafts));
+    }
+
+    @Test
+    void testConvertsToAndFromJavaBeans() {
+        City city = new City(1L, "New York", "NY", 8000000);
+        Passenger passenger = new Passenger(201L, "Alice", "Smith", "555-1234");
+
+        assertEquals(city, CityRecord.of(city).toCity());
+        assertEquals(passenger, PassengerRecord.of(passenger).toPassenger());
+        assertEquals("Smith", PassengerRecord.of(passenger).lastName());
+    }
+}
@@ -0,0 +1,74 @@
+package com.flighttracker.cli.http.client;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CircuitBreakerTest {
+    private static final String ROUTE = "/cities/{id}/airports";
+
+    private long now;
+    private CircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        now = 0;
+        breaker = new CircuitBreaker(3, Duration.ofSeconds(10), () -> now);
+    }
+
+    @Test
+    void testOpensAfterConsecutiveFailures() {
+        breaker.recordFailure(ROUTE);
+        breaker.recordFailure(ROUTE);
+        breaker.recordSuccess(ROUTE); // resets the streak
+        breaker.recordFailure(ROUTE);
+        breaker.recordFailure(ROUTE);
+        assertTrue(breaker.tryAcquire(ROUTE));
+
+        breaker.recordFailure(ROUTE);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState(ROUTE));
+        assertFalse(breaker.tryAcquire(ROUTE));
+        assertTrue(breaker.tryAcquire("/cities"), "other routes are unaffected");
+        assertEquals(Map.of(ROUTE, CircuitBreaker.State.OPEN), breaker.getTrippedRoutes());
+    }
+
+    @Test
+    void testHalfOpenLetsOneProbeThrough() {
+        trip();
+        now = Duration.ofSeconds(10).toNanos();
+
+        assertTrue(breaker.tryAcquire(ROUTE));
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState(ROUTE));
+        assertFalse(breaker.tryAcquire(ROUTE), "only one probe at a time");
+
+        breaker.recordSuccess(ROUTE);
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState(ROUTE));
+        assertTrue(breaker.tryAcquire(ROUTE));
+    }
+
+    @Test
+    void testFailedProbeReopens() {
+        trip();
+        now = Duration.ofSeconds(10).toNanos();
+        assertTrue(breaker.tryAcquire(ROUTE));
+
+        breaker.recordFailure(ROUTE);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState(ROUTE));
+        now += Duration.ofSeconds(5).toNanos();
+        assertFalse(breaker.tryAcquire(ROUTE));
+    }
+
+    private void trip() {
+        for (int i = 0; i < 3; i++) {
+            breaker.recordFailure(ROUTE);
+        }
+        assertFalse(breaker.tryAcquire(ROUTE));
+    }
+}
@@ -0,0 +1,84 @@
+package com.flighttracker.cli.http.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrencyLimitTest {
+    private static final long FAST = Duration.ofMillis(10).toNanos();
+    private static final long SLOW = Duration.ofSeconds(2).toNanos();
+
+    @Test
+    void testQueuesOverLimitInArrivalOrder() {
+        ConcurrencyLimit limit = new ConcurrencyLimit(1, 1, 10, Duration.ofSeconds(1));
+        ConcurrencyLimit.Permit first = limit.acquire().join();
+        CompletableFuture<ConcurrencyLimit.Permit> second = limit.acquire();
+        CompletableFuture<ConcurrencyLimit.Permit> third = limit.acquire();
+
+        assertFalse(second.isDone());
+        assertEquals(2, limit.getQueueDepth());
+
+        first.onIgnore();
+
+        assertTrue(second.isDone());
+        assertFalse(third.isDone());
+        assertEquals(1, limit.getInFlight());
+        assertEquals(1, limit.getQueueDepth());
+    }
+
+    @Test
+    void testAdditiveIncreaseOnFastAnswers() {
+        ConcurrencyLimit limit = new ConcurrencyLimit(2, 1, 10, Duration.ofSeconds(1));
+
+        for (int i = 0; i < 4; i++) {
+            limit.acquire().join().onSuccess(FAST);
+        }
+
+        assertEquals(3, limit.getLimit());
+    }
+
+    @Test
+    void testMultiplicativeDecreaseOncePerOverload() {
+        ConcurrencyLimit limit = new ConcurrencyLimit(10, 1, 10, Duration.ofSeconds(1), 0.5);
+        ConcurrencyLimit.Permit first = limit.acquire().join();
+        ConcurrencyLimit.Permit second = limit.acquire().join();
+
+        first.onDropped();
+        second.onSuccess(SLOW); // sent before the first cut, so it does not cut again
+
+        assertEquals(5, limit.getLimit());
+
+        limit.acquire().join().onDropped();
+
+        assertEquals(2, limit.getLimit());
+    }
+
+    @Test
+    void testStaysWithinBounds() {
+        ConcurrencyLimit limit = new ConcurrencyLimit(2, 2, 3, Duration.ofSeconds(1));
+
+        for (int i = 0; i < 50; i++) {
+            limit.acquire().join().onSuccess(FAST);
+        }
+        assertEquals(3, limit.getLimit());
+
+        for (int i = 0; i < 10; i++) {
+            limit.acquire().join().onDropped();
+        }
+        assertEquals(2, limit.getLimit());
+    }
+
+    @Test
+    void testPermitReleasedOnce() {
+        ConcurrencyLimit limit = new ConcurrencyLimit(1, 1, 1, Duration.ofSeconds(1));
+        ConcurrencyLimit.Permit permit = limit.acquire().join();
+
+        permit.onIgnore();
+        permit.onIgnore();
+
+        assertEquals(0, limit.getInFlight());
+    }
+}
@@ -0,0 +1,140 @@
+package com.flighttracker.cli.http.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flighttracker.cli.domain.City;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HttpClientProfileTest {
+    private final List<City> cities = Arrays.asList(
+            new City(1L, "New York", "NY", 8000000),
+            new City(2L, "Boston", "MA", 650000));
+
+    private HttpServer server;
+    private volatile String acceptEncoding;
+    private volatile String responseEncoding; // null answers uncompressed
+    private RESTClient restClient;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        byte[] json = new ObjectMapper().writeValueAsBytes(cities);
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/cities", exchange -> {
+            acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+            String encoding = responseEncoding;
+            byte[] body = encoding == null ? json : compress(encoding, json);
+            if (encoding != null) {
+                exchange.getResponseHeaders().set("Content-Encoding", encoding);
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+
+        HttpClientProfile profile = HttpClientProfile.defaults();
+        profile.setRequestTimeout(Duration.ofSeconds(5));
+        restClient = new RESTClient(profile);
+        restClient.setServerURL("http://localhost:" + server.getAddress().getPort());
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void testCreateClient_AppliesProfile() {
+        HttpClientProfile profile = HttpClientProfile.defaults();
+        profile.setConnectTimeout(Duration.ofSeconds(2));
+
+        HttpClient client = profile.createClient();
+
+        assertEquals(HttpClient.Version.HTTP_2, client.version());
+        assertEquals(Duration.ofSeconds(2), client.connectTimeout().orElse(null));
+        assertTrue(client.executor().isPresent());
+    }
+
+    @Test
+    void testGzipBody_Decoded() {
+        responseEncoding = "gzip";
+
+        assertEquals(cities, restClient.getResource("/cities", RESTClient.CITY_LIST));
+        assertEquals(CompressedBodyHandlers.ACCEPT_ENCODING, acceptEncoding);
+    }
+
+    @Test
+    void testDeflateBody_DecodedWhileStreaming() {
+        responseEncoding = "deflate";
+        List<City> streamed = new ArrayList<>();
+
+        long count = restClient.streamAllCities(streamed::add);
+
+        assertEquals(2, count);
+        assertEquals(cities, streamed);
+    }
+
+    @Test
+    void testUncompressedBody_StillAccepted() {
+        assertEquals(cities, restClient.getResource("/cities", RESTClient.CITY_LIST));
+    }
+
+    @Test
+    void testCompressedBody_HonoursContentTypeCharset() {
+        byte[] latin1 = "[{\"id\":3,\"name\":\"São Paulo\",\"state\":\"SP\",\"population\":12000000}]"
+                .getBytes(StandardCharsets.ISO_8859_1);
+        server.createContext("/latin-cities", exchange -> {
+            byte[] body = exchange.getRequestHeaders().containsKey("Accept-Encoding") ? compress("gzip", latin1) : latin1;
+            if (body != latin1) {
+                exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=ISO-8859-1");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        List<City> expected = List.of(new City(3L, "São Paulo", "SP", 12000000));
+
+        assertEquals(expected, restClient.getResource("/latin-cities", RESTClient.CITY_LIST));
+        restClient.setCompression(false);
+        assertEquals(expected, restClient.getResource("/latin-cities", RESTClient.CITY_LIST));
+    }
+
+    @Test
+    void testCompressionDisabled_NoAcceptEncoding() {
+        restClient.setCompression(false);
+
+        restClient.getResource("/cities", RESTClient.CITY_LIST);
+
+        assertNull(acceptEncoding);
+    }
+
+    private static byte[] compress(String encoding, byte[] json) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = encoding.equals("gzip") ? new GZIPOutputStream(bytes) : new DeflaterOutputStream(bytes)) {
+            out.write(json);
+        }
+        return bytes.toByteArray();
+    }
+}
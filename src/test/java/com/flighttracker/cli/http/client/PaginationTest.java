@@ -0,0 +1,139 @@
+package com.flighttracker.cli.http.client;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flighttracker.cli.domain.Passenger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PaginationTest {
+    @Mock
+    private HttpClient mockHttpClient;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<String> requested = new ArrayList<>();
+    private RESTClient restClient;
+
+    private final Passenger alice = new Passenger(1L, "Alice", "Smith", "555-0001");
+    private final Passenger bob = new Passenger(2L, "Bob", "Jones", "555-0002");
+    private final Passenger carol = new Passenger(3L, "Carol", "White", "555-0003");
+
+    @BeforeEach
+    void setUp() {
+        restClient = new RESTClient(mockHttpClient, objectMapper);
+        restClient.setServerURL("http://localhost:8080");
+        restClient.setExecutor(Runnable::run);
+    }
+
+    // Answers each request with the page registered for its path and query
+    private void mockPages(Map<String, HttpResponse<String>> pages) {
+        when(mockHttpClient.sendAsync(any(HttpRequest.class), any())).thenAnswer(invocation -> {
+            HttpRequest request = invocation.getArgument(0);
+            String pathAndQuery = request.uri().getPath() + "?" + request.uri().getQuery();
+            requested.add(pathAndQuery);
+            HttpResponse<String> page = pages.get(pathAndQuery);
+            assertNotNull(page, "unexpected request " + pathAndQuery);
+            return CompletableFuture.completedFuture(page);
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private HttpResponse<String> page(int status, Object body, String nextCursor) throws JsonProcessingException {
+        HttpResponse<String> response = mock(HttpResponse.class);
+        when(response.statusCode()).thenReturn(status);
+        when(response.body()).thenReturn(body instanceof String ? (String) body : objectMapper.writeValueAsString(body));
+        Map<String, List<String>> headers = nextCursor != null ? Map.of("X-Next-Cursor", List.of(nextCursor)) : Map.of();
+        lenient().when(response.headers()).thenReturn(HttpHeaders.of(headers, (name, value) -> true));
+        return response;
+    }
+
+    @Test
+    void testPageStyle_StopsAtShortPageAndPrefetches() throws JsonProcessingException {
+        restClient.setPagination(new Pagination(Pagination.Style.PAGE, 2));
+        mockPages(Map.of(
+                "/passengers?page=0&size=2", page(200, Arrays.asList(alice, bob), null),
+                "/passengers?page=1&size=2", page(200, Arrays.asList(carol), null)));
+
+        PagedIterator<Passenger> passengers = restClient.iterateAllPassengers();
+        assertEquals(1, requested.size(), "nothing beyond the first page before iteration starts");
+
+        assertEquals(alice, passengers.next());
+        assertEquals(2, requested.size(), "second page requested while the first is consumed");
+        assertEquals(bob, passengers.next());
+        assertEquals(carol, passengers.next());
+        assertFalse(passengers.hasNext());
+        assertEquals(2, passengers.getPageCount());
+    }
+
+    @Test
+    void testOffsetStyle_CollectsAllPages() throws JsonProcessingException {
+        Pagination pagination = new Pagination(Pagination.Style.OFFSET, 2);
+        pagination.setOffsetParam("skip");
+        pagination.setLimitParam("take");
+        restClient.setPagination(pagination);
+        mockPages(Map.of(
+                "/passengers?skip=0&take=2", page(200, Arrays.asList(alice, bob), null),
+                "/passengers?skip=2&take=2", page(200, Arrays.asList(carol), null)));
+
+        assertEquals(Arrays.asList(alice, bob, carol), restClient.getAllPassengers());
+    }
+
+    @Test
+    void testCursorStyle_FollowsHeaderUntilAbsent() throws JsonProcessingException {
+        restClient.setPagination(new Pagination(Pagination.Style.CURSOR, 2));
+        mockPages(Map.of(
+                "/passengers?size=2", page(200, Arrays.asList(alice, bob), "abc=="),
+                "/passengers?size=2&cursor=abc==", page(200, Arrays.asList(carol), null)));
+        List<Passenger> streamed = new ArrayList<>();
+
+        long count = restClient.streamAllPassengers(streamed::add);
+
+        assertEquals(3, count);
+        assertEquals(Arrays.asList(alice, bob, carol), streamed);
+    }
+
+    @Test
+    void testFailedPage_SurfacesAsClientException() throws JsonProcessingException {
+        restClient.setPagination(new Pagination(Pagination.Style.PAGE, 2));
+        mockPages(Map.of(
+                "/passengers?page=0&size=2", page(200, Arrays.asList(alice, bob), null),
+                "/passengers?page=1&size=2", page(503, "Service Unavailable", null)));
+
+        PagedIterator<Passenger> passengers = restClient.iterateAllPassengers();
+        passengers.next();
+        passengers.next();
+        RESTClientException failure = assertThrows(RESTClientException.class, passengers::hasNext);
+
+        assertEquals(503, failure.getStatusCode());
+        assertTrue(restClient.getAllPassengers().isEmpty());
+    }
+
+    @Test
+    void testWithoutPagination_SingleRequest() throws JsonProcessingException {
+        HttpResponse<String> whole = page(200, Arrays.asList(alice, bob, carol), null);
+        when(mockHttpClient.sendAsync(any(HttpRequest.class), any())).thenAnswer(invocation -> CompletableFuture.completedFuture(whole));
+        List<Passenger> all = new ArrayList<>();
+
+        restClient.iterateAllPassengers().forEachRemaining(all::add);
+
+        assertEquals(Arrays.asList(alice, bob, carol), all);
+        verify(mockHttpClient, times(1)).sendAsync(any(HttpRequest.class), any());
+    }
+}
@@ -0,0 +1,178 @@
+package com.flighttracker.cli.http.client;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.flighttracker.cli.domain.City;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class PrefetcherTest {
+
+    // Answers like the real client: the fetched value ends up in the cache
+    private static RESTClient clientReturning(ResponseCache cache, List<City> value) {
+        RESTClient client = mock(RESTClient.class);
+        when(client.getResponseCache()).thenReturn(cache);
+        when(client.getResource(anyString(), any())).thenAnswer(invocation -> {
+            cache.put(invocation.getArgument(0), value);
+            return value;
+        });
+        return client;
+    }
+
+    private static List<City> cities(int count) {
+        return Collections.nCopies(count, new City(1L, "New York", "NY", 8_000_000));
+    }
+
+    private static void awaitIdle(Prefetcher prefetcher, long expectedFinished) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (prefetcher.getWarmedCount() + prefetcher.getSkippedCount() + prefetcher.getCancelledCount()
+                + prefetcher.getOverBudgetCount() + prefetcher.getFailedCount() < expectedFinished) {
+            assertTrue(System.nanoTime() < deadline, "prefetches did not finish: " + prefetcher);
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    void testPrefetch_WarmsCacheAndSkipsFreshEndpoints() throws InterruptedException {
+        ResponseCache cache = new ResponseCache();
+        cache.put("/airports", List.of());
+        RESTClient client = clientReturning(cache, cities(3));
+        Prefetcher prefetcher = new Prefetcher(client);
+
+        assertTrue(prefetcher.prefetch("/cities", RESTClient.CITY_LIST, 3));
+        assertFalse(prefetcher.prefetch("/airports", RESTClient.AIRPORT_LIST, 3));
+        awaitIdle(prefetcher, 1);
+
+        assertTrue(cache.isFresh("/cities"));
+        assertEquals(1, prefetcher.getWarmedCount());
+        assertEquals(3 * Prefetcher.ESTIMATED_RECORD_BYTES, prefetcher.getRetainedBytes());
+        assertFalse(prefetcher.prefetch("/cities", RESTClient.CITY_LIST, 3));
+        verify(client, never()).getResource(eq("/airports"), any());
+        prefetcher.close();
+    }
+
+    @Test
+    void testPrefetch_ChecksBudgetBeforeSending() throws InterruptedException {
+        ResponseCache cache = new ResponseCache();
+        RESTClient client = clientReturning(cache, cities(10));
+        Prefetcher prefetcher = new Prefetcher(client, 15 * Prefetcher.ESTIMATED_RECORD_BYTES, 1);
+
+        assertTrue(prefetcher.prefetch("/cities", RESTClient.CITY_LIST, 10));
+        awaitIdle(prefetcher, 1);
+        // Turned down without a request, and counted once however often it is asked for
+        assertFalse(prefetcher.prefetch("/passengers", RESTClient.PASSENGER_LIST, 10));
+        assertFalse(prefetcher.prefetch("/passengers", RESTClient.PASSENGER_LIST, 10));
+
+        assertTrue(cache.isFresh("/cities"));
+        assertFalse(cache.contains("/passengers"));
+        assertEquals(1, prefetcher.getOverBudgetCount());
+        assertEquals(10 * Prefetcher.ESTIMATED_RECORD_BYTES, prefetcher.getRetainedBytes());
+        verify(client, never()).getResource(eq("/passengers"), any());
+
+        // Space frees up once the cache lets go of a prefetched value
+        cache.invalidate("/cities");
+        assertEquals(0, prefetcher.getRetainedBytes());
+        assertTrue(prefetcher.prefetch("/passengers", RESTClient.PASSENGER_LIST, 10));
+        awaitIdle(prefetcher, 3); // the rejection counts as finished too
+        assertTrue(cache.isFresh("/passengers"));
+        prefetcher.close();
+    }
+
+    @Test
+    void testPrefetch_UnderestimateIsDroppedOnceAndRemembered() throws InterruptedException {
+        ResponseCache cache = new ResponseCache();
+        RESTClient client = clientReturning(cache, cities(20));
+        Prefetcher prefetcher = new Prefetcher(client, 15 * Prefetcher.ESTIMATED_RECORD_BYTES, 1);
+
+        assertTrue(prefetcher.prefetch("/airports", RESTClient.AIRPORT_LIST, 1));
+        awaitIdle(prefetcher, 1);
+        assertFalse(cache.contains("/airports"));
+        assertEquals(1, prefetcher.getOverBudgetCount());
+
+        // The real size is known now, so the list is not downloaded again
+        assertFalse(prefetcher.prefetch("/airports", RESTClient.AIRPORT_LIST, 1));
+        verify(client, times(1)).getResource(eq("/airports"), any());
+        prefetcher.close();
+    }
+
+    @Test
+    void testPrefetch_OnlyEndpointsOfKnownSize() throws InterruptedException {
+        ResponseCache cache = new ResponseCache();
+        RESTClient client = clientReturning(cache, cities(3));
+        Prefetcher prefetcher = new Prefetcher(client);
+
+        assertFalse(prefetcher.prefetch("/cities", RESTClient.CITY_LIST));
+
+        // A stale entry tells how large the list is
+        cache.setTtl("/cities", Duration.ZERO);
+        cache.put("/cities", cities(3), "\"v1\"", null);
+        cache.setTtl("/cities", Duration.ofMinutes(5));
+        assertFalse(cache.isFresh("/cities"));
+        assertTrue(prefetcher.prefetch("/cities", RESTClient.CITY_LIST));
+        awaitIdle(prefetcher, 1);
+        assertTrue(cache.isFresh("/cities"));
+        prefetcher.close();
+    }
+
+    @Test
+    void testCancelPending_DropsPrefetchesNotSentYet() throws InterruptedException {
+        ResponseCache cache = new ResponseCache();
+        CountDownLatch sent = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        RESTClient client = mock(RESTClient.class);
+        when(client.getResponseCache()).thenReturn(cache);
+        when(client.getResource(eq("/cities"), any())).thenAnswer(invocation -> {
+            sent.countDown();
+            release.await();
+            cache.put("/cities", cities(1));
+            return cities(1);
+        });
+        Prefetcher prefetcher = new Prefetcher(client, Prefetcher.DEFAULT_BUDGET_BYTES, 1);
+
+        prefetcher.prefetch("/cities", RESTClient.CITY_LIST, 1);
+        assertTrue(sent.await(5, TimeUnit.SECONDS));
+        prefetcher.prefetch("/airports", RESTClient.AIRPORT_LIST, 1);
+        prefetcher.cancelPending();
+        // Released only once the waiter is blocked on it, or the prefetch could finish before it looks
+        AtomicBoolean waited = new AtomicBoolean();
+        Thread waiter = new Thread(() -> waited.set(prefetcher.awaitInFlight("/cities")));
+        waiter.start();
+        while (waiter.getState() != Thread.State.WAITING && waiter.isAlive()) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+        waiter.join(5_000);
+        assertTrue(waited.get());
+        awaitIdle(prefetcher, 2);
+
+        // The prefetch in flight finished, the queued one was never sent
+        assertEquals(1, prefetcher.getWarmedCount());
+        assertEquals(1, prefetcher.getCancelledCount());
+        assertTrue(cache.isFresh("/cities"));
+        verify(client, never()).getResource(eq("/airports"), any());
+        prefetcher.close();
+    }
+
+    @Test
+    void testPrefetch_NothingWithoutCacheOrAfterClose() {
+        RESTClient client = mock(RESTClient.class);
+        Prefetcher prefetcher = new Prefetcher(client);
+        assertFalse(prefetcher.prefetch("/cities", new TypeReference<List<City>>() {}, 1));
+
+        when(client.getResponseCache()).thenReturn(new ResponseCache());
+        prefetcher.close();
+        assertFalse(prefetcher.prefetch("/cities", RESTClient.CITY_LIST, 1));
+        verify(client, never()).getResource(anyString(), any());
+    }
+}
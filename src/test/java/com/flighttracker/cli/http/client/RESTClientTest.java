@@ -5,22 +5,34 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 
 import com.flighttracker.cli.domain.Aircraft;
 import com.flighttracker.cli.domain.Airport;
+import com.flighttracker.cli.domain.AirportRecord;
 import com.flighttracker.cli.domain.City;
 import com.flighttracker.cli.domain.Passenger;
+import com.flighttracker.cli.metrics.EndpointMetrics;
+import com.flighttracker.cli.metrics.RequestMetrics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -33,6 +45,9 @@ public class RESTClientTest {
     @Mock
     private HttpResponse<String> mockHttpResponse;
 
+    @Mock
+    private HttpResponse<InputStream> mockStreamResponse;
+
     private RESTClient restClient;
     private ObjectMapper objectMapper;
 
@@ -66,6 +81,20 @@ public class RESTClientTest {
                 .thenReturn(mockHttpResponse);
     }
 
+    private void mockStreamResponse(int statusCode, String body) throws IOException, InterruptedException {
+        when(mockStreamResponse.statusCode()).thenReturn(statusCode);
+        when(mockStreamResponse.body()).thenReturn(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+        when(mockHttpClient.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream())))
+                .thenReturn(mockStreamResponse);
+    }
+
+    private void mockAsyncHttpResponse(int statusCode, String body) {
+        when(mockHttpResponse.statusCode()).thenReturn(statusCode);
+        when(mockHttpResponse.body()).thenReturn(body);
+        when(mockHttpClient.sendAsync(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString())))
+                .thenReturn(CompletableFuture.completedFuture(mockHttpResponse));
+    }
+
     // --- Test Cases for getAll methods ---
 
     @Test
@@ -147,6 +176,451 @@ public class RESTClientTest {
         verify(mockHttpClient, times(1)).send(any(HttpRequest.class), any());
     }
 
+    // --- Test Cases for the response cache ---
+
+    @Test
+    void testGetAirportsInCity_ServedFromCache() throws IOException, InterruptedException {
+        restClient.setResponseCache(new ResponseCache());
+        String jsonResponse = objectMapper.writeValueAsString(Set.of(airport1, airport2));
+        mockHttpResponse(200, jsonResponse);
+
+        Set<Airport> first = restClient.getAirportsInCity(42L);
+        Set<Airport> second = restClient.getAirportsInCity(42L);
+
+        assertEquals(first, second);
+        assertEquals(1, restClient.getResponseCache().getHitCount());
+        verify(mockHttpClient, times(1)).send(any(HttpRequest.class), any());
+    }
+
+    @Test
+    void testGetAllCities_ErrorIsNotCached() throws IOException, InterruptedException {
+        restClient.setResponseCache(new ResponseCache());
+        mockHttpResponse(500, "Internal Server Error");
+
+        restClient.getAllCities();
+        restClient.getAllCities();
+
+        assertEquals(0, restClient.getResponseCache().size());
+        verify(mockHttpClient, times(2)).send(any(HttpRequest.class), any());
+    }
+
+    @Test
+    void testStreamAllCities_ReplaysCachedList() throws IOException, InterruptedException {
+        restClient.setResponseCache(new ResponseCache());
+        String jsonResponse = objectMapper.writeValueAsString(Arrays.asList(city1));
+        mockHttpResponse(200, jsonResponse);
+        restClient.getAllCities();
+
+        List<City> received = new ArrayList<>();
+        long count = restClient.streamAllCities(received::add);
+
+        assertEquals(1, count);
+        assertEquals(city1, received.get(0));
+        verify(mockHttpClient, times(1)).send(any(HttpRequest.class), any());
+    }
+
+    @Test
+    void testConditionalRequest_NotModifiedReusesCachedValue() throws IOException, InterruptedException {
+        ResponseCache cache = new ResponseCache();
+        cache.setTtl("/airports", Duration.ZERO); // always revalidate
+        restClient.setResponseCache(cache);
+        restClient.setConditionalRequests(true);
+        String jsonResponse = objectMapper.writeValueAsString(Arrays.asList(airport1, airport2));
+        when(mockHttpResponse.statusCode()).thenReturn(200, 304);
+        when(mockHttpResponse.body()).thenReturn(jsonResponse);
+        when(mockHttpResponse.headers()).thenReturn(HttpHeaders.of(
+                Map.of("ETag", List.of("\"v1\""), "Last-Modified", List.of("Wed, 21 Oct 2026 07:28:00 GMT")), (name, value) -> true));
+        ArgumentCaptor<HttpRequest> requests = ArgumentCaptor.forClass(HttpRequest.class);
+        when(mockHttpClient.send(requests.capture(), eq(HttpResponse.BodyHandlers.ofString()))).thenReturn(mockHttpResponse);
+
+        List<Airport> first = restClient.getAllAirports();
+        List<Airport> second = restClient.getAllAirports();
+
+        assertEquals(2, first.size());
+        assertSame(first, second);
+        assertEquals(1, cache.getRevalidationCount());
+        HttpRequest revalidation = requests.getAllValues().get(1);
+        assertEquals("\"v1\"", revalidation.headers().firstValue("If-None-Match").orElse(null));
+        assertEquals("Wed, 21 Oct 2026 07:28:00 GMT", revalidation.headers().firstValue("If-Modified-Since").orElse(null));
+        assertFalse(requests.getAllValues().get(0).headers().firstValue("If-None-Match").isPresent());
+    }
+
+    @Test
+    void testNotModifiedWithoutCachedValue_IsAnError() throws IOException, InterruptedException {
+        mockHttpResponse(304, "");
+
+        List<Airport> airports = restClient.getAllAirports();
+
+        assertTrue(airports.isEmpty());
+    }
+
+    @Test
+    void testOffline_ServesCachedEntriesOnly() {
+        ResponseCache cache = new ResponseCache();
+        cache.setDefaultTtl(Duration.ZERO);
+        cache.put("/cities", Arrays.asList(city1), "\"v1\"", null); // stale, but offline answers it anyway
+        restClient.setResponseCache(cache);
+        restClient.setOffline(true);
+
+        List<City> cities = restClient.getAllCities();
+        List<Airport> airports = restClient.getAllAirports();
+
+        assertEquals(Arrays.asList(city1), cities);
+        assertTrue(airports.isEmpty());
+        verifyNoInteractions(mockHttpClient);
+    }
+
+    @Test
+    void testMetrics_RecordsRequestsAndErrorsPerRoute() throws IOException, InterruptedException {
+        RequestMetrics metrics = new RequestMetrics();
+        restClient.setMetrics(metrics);
+        when(mockHttpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+                .thenReturn(mockHttpResponse);
+
+        when(mockHttpResponse.statusCode()).thenReturn(200);
+        when(mockHttpResponse.body()).thenReturn(objectMapper.writeValueAsString(Arrays.asList(airport1)));
+        restClient.getAirportsInCity(1L);
+        when(mockHttpResponse.statusCode()).thenReturn(404);
+        when(mockHttpResponse.body()).thenReturn("Not Found");
+        restClient.getAirportsInCity(2L);
+
+        assertEquals(1, metrics.getEndpoints().size());
+        EndpointMetrics route = metrics.getEndpoints().get(0);
+        assertEquals("/cities/{id}/airports", route.getRoute());
+        assertEquals(2, route.getRequestCount());
+        assertEquals(2, route.getWaitLatency().getCount());
+        assertEquals(1, route.getDeserializeLatency().getCount());
+        assertEquals(Map.of(404, 1L), route.getErrorsByStatus());
+    }
+
+    // --- Test Cases for retries, circuit breaking and hedging ---
+
+    @Test
+    void testRetry_TransientStatusIsRetried() throws IOException, InterruptedException {
+        restClient.setRetryPolicy(new RetryPolicy(3, Duration.ZERO, Duration.ZERO));
+        when(mockHttpResponse.statusCode()).thenReturn(503, 200);
+        when(mockHttpResponse.body()).thenReturn("busy", objectMapper.writeValueAsString(Arrays.asList(city1)));
+        when(mockHttpClient.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString())))
+                .thenReturn(mockHttpResponse);
+
+        List<City> cities = restClient.getAllCities();
+
+        assertEquals(Arrays.asList(city1), cities);
+        verify(mockHttpClient, times(2)).send(any(HttpRequest.class), any());
+    }
+
+    @Test
+    void testRetry_NetworkErrorGivesUpAfterMaxAttempts() throws IOException, InterruptedException {
+        restClient.setRetryPolicy(new RetryPolicy(3, Duration.ZERO, Duration.ZERO));
+        when(mockHttpClient.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString())))
+                .thenThrow(new IOException("Connection reset"));
+
+        ApiResult<List<City>> result = restClient.getAllCitiesResult();
+
+        assertFalse(result.isSuccess());
+        assertEquals("Connection reset", result.getFailure().getMessage());
+        verify(mockHttpClient, times(3)).send(any(HttpRequest.class), any());
+    }
+
+    @Test
+    void testRetry_ClientErrorIsNotRetried() throws IOException, InterruptedException {
+        restClient.setRetryPolicy(new RetryPolicy(3, Duration.ZERO, Duration.ZERO));
+        mockHttpResponse(404, "Not Found");
+
+        ApiResult<Set<Airport>> result = restClient.getAirportsInCityResult(99L);
+
+        assertEquals(404, result.getFailure().getStatusCode());
+        assertTrue(result.orElse(Collections.emptySet()).isEmpty());
+        verify(mockHttpClient, times(1)).send(any(HttpRequest.class), any());
+    }
+
+    @Test
+    void testResult_SuccessCarriesValue() throws IOException, InterruptedException {
+        mockHttpResponse(200, objectMapper.writeValueAsString(Collections.emptyList()));
+
+        ApiResult<List<Aircraft>> result = restClient.getAllAircraftsResult();
+
+        assertTrue(result.isSuccess());
+        assertTrue(result.getValue().isEmpty()); // genuinely empty, not an error
+        assertNull(result.getFailure());
+    }
+
+    @Test
+    void testCircuitBreaker_FailsFastWhileOpen() throws IOException, InterruptedException {
+        restClient.setCircuitBreaker(new CircuitBreaker(2, Duration.ofMinutes(1)));
+        mockHttpResponse(503, "Service Unavailable");
+
+        restClient.getAirportsInCityResult(1L);
+        restClient.getAirportsInCityResult(2L);
+        ApiResult<Set<Airport>> result = restClient.getAirportsInCityResult(3L);
+
+        assertFalse(result.isSuccess());
+        assertFalse(result.getFailure().hasStatus());
+        assertEquals("Circuit open for /cities/{id}/airports", result.getFailure().getMessage());
+        verify(mockHttpClient, times(2)).send(any(HttpRequest.class), any());
+    }
+
+    @Test
+    void testRequestTimeout_AppliedToRequests() throws IOException, InterruptedException {
+        restClient.setRequestTimeout(Duration.ofSeconds(2));
+        mockHttpResponse(200, objectMapper.writeValueAsString(Arrays.asList(city1)));
+
+        restClient.getAllCities();
+
+        ArgumentCaptor<HttpRequest> request = ArgumentCaptor.forClass(HttpRequest.class);
+        verify(mockHttpClient).send(request.capture(), any());
+        assertEquals(Duration.ofSeconds(2), request.getValue().timeout().orElse(null));
+    }
+
+    @Test
+    void testHedging_SecondRequestAnswersWhenFirstStalls() throws IOException {
+        restClient.setExecutor(Runnable::run);
+        restClient.setHedgeDelay(Duration.ofMillis(10));
+        when(mockHttpResponse.statusCode()).thenReturn(200);
+        when(mockHttpResponse.body()).thenReturn(objectMapper.writeValueAsString(Arrays.asList(city1)));
+        when(mockHttpClient.sendAsync(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString())))
+                .thenReturn(new CompletableFuture<>(), CompletableFuture.completedFuture(mockHttpResponse));
+
+        List<City> cities = restClient.getAllCities();
+
+        assertEquals(Arrays.asList(city1), cities);
+        assertEquals(1, restClient.getHedgesSent());
+        verify(mockHttpClient, times(2)).sendAsync(any(HttpRequest.class), any());
+    }
+
+    @Test
+    void testSingleFlight_ConcurrentIdenticalRequestsShareOneResponse() throws IOException {
+        restClient.setExecutor(Runnable::run);
+        restClient.setSingleFlight(new SingleFlight());
+        when(mockHttpResponse.statusCode()).thenReturn(200);
+        when(mockHttpResponse.body()).thenReturn(objectMapper.writeValueAsString(Arrays.asList(city1)));
+        CompletableFuture<HttpResponse<String>> pending = new CompletableFuture<>();
+        when(mockHttpClient.sendAsync(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString())))
+                .thenReturn(pending);
+
+        CompletableFuture<List<City>> first = restClient.getAllCitiesAsync();
+        CompletableFuture<List<City>> second = restClient.getAllCitiesAsync();
+        pending.complete(mockHttpResponse);
+
+        assertSame(first.join(), second.join());
+        assertEquals(1, restClient.getSingleFlight().getCoalescedCount());
+        assertEquals(0, restClient.getSingleFlight().getInFlightCount());
+        verify(mockHttpClient, times(1)).sendAsync(any(HttpRequest.class), any());
+    }
+
+    @Test
+    void testConcurrencyLimit_BacksOffOnServiceUnavailable() throws IOException, InterruptedException {
+        ConcurrencyLimit limit = new ConcurrencyLimit(10, 1, 10, Duration.ofSeconds(5), 0.5);
+        restClient.setConcurrencyLimit(limit);
+        mockHttpResponse(503, "Overloaded");
+
+        assertTrue(restClient.getAllCities().isEmpty());
+
+        assertEquals(5, limit.getLimit());
+        assertEquals(0, limit.getInFlight());
+    }
+
+    @Test
+    void testRateLimiter_SpacesAsyncRequests() throws IOException {
+        restClient.setExecutor(Runnable::run);
+        restClient.setRateLimiter(new RateLimiter(50, 1));
+        mockAsyncHttpResponse(200, objectMapper.writeValueAsString(Arrays.asList(city1)));
+
+        long start = System.nanoTime();
+        restClient.getAllCitiesAsync().join();
+        restClient.getAllCitiesAsync().join();
+        restClient.getAllCitiesAsync().join();
+
+        assertTrue(System.nanoTime() - start >= Duration.ofMillis(35).toNanos(), "three requests at 50/s take at least 40ms");
+        verify(mockHttpClient, times(3)).sendAsync(any(HttpRequest.class), any());
+    }
+
+    @Test
+    void testCompactRecords_BypassTheResponseCache() throws IOException, InterruptedException {
+        restClient.setResponseCache(new ResponseCache(16));
+        mockHttpResponse(200, objectMapper.writeValueAsString(Arrays.asList(airport1, airport2)));
+
+        Set<Airport> airports = restClient.getAirportsInCity(1L);
+        Set<AirportRecord> records = restClient.getAirportRecordsInCity(1L);
+
+        assertEquals(2, airports.size());
+        assertEquals(Set.of(new AirportRecord(101, "JFK Airport", "JFK"), new AirportRecord(102, "LaGuardia Airport", "LGA")), records);
+        assertEquals(airports, restClient.getAirportsInCity(1L), "the cached JavaBean set is left as it was");
+        verify(mockHttpClient, times(2)).send(any(HttpRequest.class), any());
+    }
+
+    // --- Test Cases for asynchronous methods ---
+
+    @Test
+    void testGetAllCitiesAsync_Success() throws IOException, InterruptedException {
+        restClient.setExecutor(Runnable::run);
+        String jsonResponse = objectMapper.writeValueAsString(Arrays.asList(city1));
+        mockAsyncHttpResponse(200, jsonResponse);
+
+        List<City> cities = restClient.getAllCitiesAsync().join();
+
+        assertEquals(1, cities.size());
+        assertEquals(city1, cities.get(0));
+        verify(mockHttpClient, times(1)).sendAsync(any(HttpRequest.class), any());
+        verify(mockHttpClient, never()).send(any(HttpRequest.class), any());
+    }
+
+    @Test
+    void testGetAirportsInCityAsync_ApiError() {
+        restClient.setExecutor(Runnable::run);
+        mockAsyncHttpResponse(404, "City not found");
+
+        Set<Airport> airports = restClient.getAirportsInCityAsync(999L).join();
+
+        assertNotNull(airports);
+        assertTrue(airports.isEmpty());
+    }
+
+    @Test
+    void testGetAllAircraftsAsync_NetworkError() {
+        when(mockHttpClient.sendAsync(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString())))
+                .thenReturn(CompletableFuture.failedFuture(new IOException("Network down")));
+
+        List<Aircraft> aircrafts = restClient.getAllAircraftsAsync().join();
+
+        assertNotNull(aircrafts);
+        assertTrue(aircrafts.isEmpty());
+    }
+
+    @Test
+    void testAsync_WithoutServerURL() {
+        RESTClient client = new RESTClient(mockHttpClient, objectMapper);
+
+        List<Passenger> passengers = client.getAllPassengersAsync().join();
+
+        assertTrue(passengers.isEmpty());
+        verifyNoInteractions(mockHttpClient);
+    }
+
+    // --- Test Cases for bulk methods ---
+
+    @Test
+    void testGetAirportsUsedByPassengers_CollectsFailuresPerId() throws IOException {
+        restClient.setExecutor(Runnable::run);
+        String jsonResponse = objectMapper.writeValueAsString(Set.of(airport1));
+        when(mockHttpClient.sendAsync(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString())))
+                .thenAnswer(invocation -> {
+                    HttpRequest request = invocation.getArgument(0);
+                    if (request.uri().getPath().startsWith("/passengers/3/")) {
+                        return CompletableFuture.failedFuture(new IOException("Connection reset"));
+                    }
+                    return CompletableFuture.completedFuture(mockHttpResponse);
+                });
+        when(mockHttpResponse.statusCode()).thenReturn(200);
+        when(mockHttpResponse.body()).thenReturn(jsonResponse);
+
+        BulkResult<Set<Airport>> result = restClient.getAirportsUsedByPassengers(Arrays.asList(1L, 2L, 3L, 2L), 2);
+
+        assertEquals(3, result.getRequestCount());
+        assertEquals(Set.of(1L, 2L), result.getResults().keySet());
+        assertTrue(result.getResults().get(1L).contains(airport1));
+        assertEquals(Set.of(3L), result.getFailures().keySet());
+        assertEquals("/passengers/3/airportsUsed", result.getFailures().get(3L).getEndpoint());
+        verify(mockHttpClient, times(3)).sendAsync(any(HttpRequest.class), any());
+    }
+
+    @Test
+    void testGetAirportsInCities_StatusFailure() {
+        restClient.setExecutor(Runnable::run);
+        mockAsyncHttpResponse(404, "City not found");
+
+        BulkResult<Set<Airport>> result = restClient.getAirportsInCities(List.of(999L));
+
+        assertTrue(result.getResults().isEmpty());
+        assertEquals(404, result.getFailures().get(999L).getStatusCode());
+    }
+
+    @Test
+    void testBulk_NullBodyIsEmptySet() {
+        restClient.setExecutor(Runnable::run);
+        mockAsyncHttpResponse(200, "null");
+
+        BulkResult<Set<Airport>> result = restClient.getAirportsInCities(List.of(1L, 2L), 1);
+
+        assertEquals(Set.of(), result.getResults().get(1L));
+        assertEquals(Set.of(), result.getResults().get(2L));
+        assertFalse(result.hasFailures());
+    }
+
+    @Test
+    void testBulk_RejectsNullIds() {
+        assertThrows(IllegalArgumentException.class, () -> restClient.getAirportsInCities(Arrays.asList(1L, null)));
+        verifyNoInteractions(mockHttpClient);
+    }
+
+    @Test
+    void testBulk_EmptyIds() {
+        BulkResult<Set<Aircraft>> result = restClient.getAircraftsFlownByPassengers(Collections.emptyList());
+
+        assertEquals(0, result.getRequestCount());
+        verifyNoInteractions(mockHttpClient);
+    }
+
+    // --- Test Cases for streaming methods ---
+
+    @Test
+    void testStreamAllPassengers_Success() throws IOException, InterruptedException {
+        String jsonResponse = objectMapper.writeValueAsString(Arrays.asList(passenger1, new Passenger(202L, "Bob", "Johnson", "555-5678")));
+        mockStreamResponse(200, jsonResponse);
+
+        List<Passenger> received = new ArrayList<>();
+        long count = restClient.streamAllPassengers(received::add);
+
+        assertEquals(2, count);
+        assertEquals(passenger1, received.get(0));
+        assertEquals("Bob", received.get(1).getFirstName());
+        verify(mockHttpClient, times(1)).send(any(HttpRequest.class), any());
+    }
+
+    @Test
+    void testStreamAllCities_ApiError() throws IOException, InterruptedException {
+        mockStreamResponse(500, "Internal Server Error");
+
+        List<City> received = new ArrayList<>();
+        long count = restClient.streamAllCities(received::add);
+
+        assertEquals(0, count);
+        assertTrue(received.isEmpty());
+    }
+
+    @Test
+    void testReadJsonArray_EmptyArray() throws IOException {
+        List<Airport> received = new ArrayList<>();
+        long count = restClient.readJsonArray(new ByteArrayInputStream("[]".getBytes(StandardCharsets.UTF_8)), Airport.class, received::add);
+
+        assertEquals(0, count);
+        assertTrue(received.isEmpty());
+    }
+
+    @Test
+    void testReadJsonArray_NotAnArray() {
+        InputStream in = new ByteArrayInputStream("{\"id\":1}".getBytes(StandardCharsets.UTF_8));
+        assertThrows(IOException.class, () -> restClient.readJsonArray(in, Airport.class, airport -> {}));
+    }
+
+    @Test
+    void testReadJsonArray_TruncatedAfterElement() {
+        InputStream in = new ByteArrayInputStream("[{\"id\":101,\"name\":\"JFK Airport\",\"code\":\"JFK\"}".getBytes(StandardCharsets.UTF_8));
+        List<Airport> received = new ArrayList<>();
+
+        assertThrows(IOException.class, () -> restClient.readJsonArray(in, Airport.class, received::add));
+        assertEquals(1, received.size());
+    }
+
+    @Test
+    void testReadJsonArray_NullElement() {
+        InputStream in = new ByteArrayInputStream("[{\"id\":101}, null, {\"id\":102}]".getBytes(StandardCharsets.UTF_8));
+        List<Airport> received = new ArrayList<>();
+
+        assertThrows(IOException.class, () -> restClient.readJsonArray(in, Airport.class, received::add));
+        assertEquals(1, received.size());
+    }
+
     // --- Test Cases for Assignment Questions ---
 
     @Test
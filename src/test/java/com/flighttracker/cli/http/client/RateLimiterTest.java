@@ -0,0 +1,50 @@
+package com.flighttracker.cli.http.client;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RateLimiterTest {
+    private static final long MILLIS = 1_000_000;
+
+    private long now;
+    private RateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        now = 0;
+        limiter = new RateLimiter(10, 2, () -> now);
+    }
+
+    @Test
+    void testBurstThenSpacedAtRate() {
+        assertEquals(0, limiter.reserve());
+        assertEquals(0, limiter.reserve());
+
+        assertEquals(100 * MILLIS, limiter.reserve());
+        assertEquals(200 * MILLIS, limiter.reserve(), "reservations queue up behind each other");
+    }
+
+    @Test
+    void testRefillsUpToBurst() {
+        limiter.reserve();
+        limiter.reserve();
+
+        now = 10_000 * MILLIS;
+
+        assertEquals(0, limiter.reserve());
+        assertEquals(0, limiter.reserve());
+        assertTrue(limiter.reserve() > 0, "idle time does not build up more than the burst");
+    }
+
+    @Test
+    void testAcquireAsync_CompletesOnceDue() {
+        RateLimiter fast = new RateLimiter(1000, 1);
+        fast.acquireAsync(Runnable::run).join();
+
+        fast.acquireAsync(Runnable::run).join();
+
+        assertEquals(0, fast.getQueueDepth());
+    }
+}
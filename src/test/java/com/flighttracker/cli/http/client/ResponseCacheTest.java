@@ -0,0 +1,91 @@
+package com.flighttracker.cli.http.client;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResponseCacheTest {
+    private AtomicLong clock;
+    private ResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong();
+        cache = new ResponseCache(2, clock::get);
+        cache.setDefaultTtl(Duration.ofSeconds(10));
+    }
+
+    @Test
+    void testGet_HitAndMiss() {
+        assertNull(cache.get("/cities"));
+        cache.put("/cities", List.of("a"));
+
+        assertEquals(List.of("a"), cache.get("/cities"));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    void testGet_ExpiredEntry() {
+        cache.put("/cities", List.of("a"));
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        assertNull(cache.get("/cities"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testPut_EvictsLeastRecentlyUsed() {
+        cache.put("/cities", "cities");
+        cache.put("/airports", "airports");
+        cache.get("/cities"); // /airports is now the eldest entry
+        cache.put("/aircrafts", "aircrafts");
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        assertNotNull(cache.get("/cities"));
+        assertNull(cache.get("/airports"));
+    }
+
+    @Test
+    void testTtl_LongestPrefixWins() {
+        cache.setTtl("/passengers", Duration.ofSeconds(1));
+        cache.setTtl("/passengers/1/aircrafts", Duration.ofMinutes(1));
+
+        assertEquals(Duration.ofSeconds(1), cache.getTtl("/passengers/2/aircrafts"));
+        assertEquals(Duration.ofMinutes(1), cache.getTtl("/passengers/1/aircrafts"));
+        assertEquals(Duration.ofSeconds(10), cache.getTtl("/cities"));
+    }
+
+    @Test
+    void testPut_ZeroTtlIsNotCached() {
+        cache.setTtl("/passengers", Duration.ZERO);
+        cache.put("/passengers", List.of());
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testInvalidateAll() {
+        cache.put("/cities", "cities");
+        cache.invalidateAll();
+
+        assertNull(cache.get("/cities"));
+    }
+
+    @Test
+    void testEntryWithValidators_KeptForRevalidation() {
+        cache.setTtl("/passengers", Duration.ZERO);
+        cache.put("/passengers", List.of("p"), "\"v1\"", null);
+
+        assertNull(cache.get("/passengers"));
+        assertEquals("\"v1\"", cache.getEntry("/passengers").getETag());
+        assertEquals(List.of("p"), cache.revalidated("/passengers"));
+        assertEquals(1, cache.getRevalidationCount());
+    }
+}
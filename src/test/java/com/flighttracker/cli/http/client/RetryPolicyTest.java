@@ -0,0 +1,38 @@
+package com.flighttracker.cli.http.client;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RetryPolicyTest {
+    private final RetryPolicy policy = new RetryPolicy(4, Duration.ofMillis(100), Duration.ofMillis(250));
+
+    @Test
+    void testIsRetryable_TransientFailuresOnly() {
+        assertTrue(policy.isRetryable(new RESTClientException("/cities", 503, "busy")));
+        assertTrue(policy.isRetryable(new RESTClientException("/cities", 429, "slow down")));
+        assertFalse(policy.isRetryable(new RESTClientException("/cities", 404, "missing")));
+        assertFalse(policy.isRetryable(new RESTClientException("/cities", 500, "bug")));
+
+        assertTrue(policy.isRetryable(new RESTClientException("/cities", "reset", new IOException("reset"))));
+        assertTrue(policy.isRetryable(new RESTClientException("/cities", "timeout", new HttpTimeoutException("timeout"))));
+        assertFalse(policy.isRetryable(new RESTClientException("/cities", "bad json", new JsonParseException(null, "bad json"))));
+        assertFalse(policy.isRetryable(new RESTClientException("/cities", "Circuit open for /cities", null)));
+    }
+
+    @Test
+    void testBackoff_JitteredAndCapped() {
+        for (int i = 0; i < 100; i++) {
+            assertTrue(policy.backoff(1).compareTo(Duration.ofMillis(100)) <= 0);
+            assertTrue(policy.backoff(2).compareTo(Duration.ofMillis(200)) <= 0);
+            assertTrue(policy.backoff(3).compareTo(Duration.ofMillis(250)) <= 0);
+            assertTrue(policy.backoff(60).compareTo(Duration.ofMillis(250)) <= 0);
+            assertFalse(policy.backoff(3).isNegative());
+        }
+    }
+}
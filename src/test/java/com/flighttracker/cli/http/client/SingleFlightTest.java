@@ -0,0 +1,89 @@
+package com.flighttracker.cli.http.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SingleFlightTest {
+
+    @Test
+    void testExecute_JoinsCallInFlight() {
+        SingleFlight flights = new SingleFlight();
+        CompletableFuture<String> pending = new CompletableFuture<>();
+        AtomicInteger calls = new AtomicInteger();
+
+        CompletableFuture<String> first = flights.execute("/cities", String.class, () -> {
+            calls.incrementAndGet();
+            return pending;
+        });
+        CompletableFuture<String> second = flights.execute("/cities", String.class, () -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture("other");
+        });
+        assertEquals(1, flights.getInFlightCount());
+        pending.complete("cities");
+
+        assertEquals("cities", first.join());
+        assertEquals("cities", second.join());
+        assertEquals(1, calls.get());
+        assertEquals(1, flights.getCoalescedCount());
+        assertEquals(0, flights.getInFlightCount());
+    }
+
+    @Test
+    void testExecute_CompletedCallIsNotReused() {
+        SingleFlight flights = new SingleFlight();
+        flights.execute("/cities", String.class, () -> CompletableFuture.completedFuture("old")).join();
+
+        String value = flights.execute("/cities", String.class, () -> CompletableFuture.completedFuture("new")).join();
+
+        assertEquals("new", value);
+        assertEquals(0, flights.getCoalescedCount());
+    }
+
+    @Test
+    void testExecute_DifferentKeyOrTypeIsNotCoalesced() {
+        SingleFlight flights = new SingleFlight();
+        CompletableFuture<Object> pending = new CompletableFuture<>();
+        flights.execute("/cities", List.class, () -> pending);
+
+        assertEquals("airports", flights.execute("/airports", List.class,
+                () -> CompletableFuture.completedFuture((Object) "airports")).join());
+        assertEquals("set", flights.execute("/cities", Set.class,
+                () -> CompletableFuture.completedFuture((Object) "set")).join());
+        assertEquals(0, flights.getCoalescedCount());
+    }
+
+    @Test
+    void testExecute_FailureReachesEveryCaller() {
+        SingleFlight flights = new SingleFlight();
+        CompletableFuture<String> pending = new CompletableFuture<>();
+        CompletableFuture<String> first = flights.execute("/cities", String.class, () -> pending);
+        CompletableFuture<String> second = flights.execute("/cities", String.class, () -> pending);
+
+        pending.completeExceptionally(new RESTClientException("/cities", 503, "down"));
+
+        assertTrue(assertThrows(CompletionException.class, first::join).getCause() instanceof RESTClientException);
+        assertTrue(assertThrows(CompletionException.class, second::join).getCause() instanceof RESTClientException);
+        assertEquals(0, flights.getInFlightCount());
+    }
+
+    @Test
+    void testExecute_CancellingOneCallerLeavesOthers() {
+        SingleFlight flights = new SingleFlight();
+        CompletableFuture<String> pending = new CompletableFuture<>();
+        CompletableFuture<String> first = flights.execute("/cities", String.class, () -> pending);
+        CompletableFuture<String> second = flights.execute("/cities", String.class, () -> pending);
+
+        first.cancel(false);
+        pending.complete("cities");
+
+        assertEquals("cities", second.join());
+    }
+}
@@ -0,0 +1,85 @@
+package com.flighttracker.cli.index;
+
+import com.flighttracker.cli.domain.Aircraft;
+import com.flighttracker.cli.domain.Airport;
+import com.flighttracker.cli.domain.City;
+import com.flighttracker.cli.domain.Passenger;
+import com.flighttracker.cli.store.Snapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RelationshipGraphTest {
+    private Airport jfk;
+    private Airport lga;
+    private Airport lax;
+    private Airport ord;
+    private Passenger alice;
+    private Passenger bob;
+    private Passenger carol;
+    private RelationshipGraph graph;
+
+    @BeforeEach
+    void setUp() {
+        jfk = new Airport(101L, "JFK Airport", "JFK");
+        lga = new Airport(102L, "LaGuardia Airport", "LGA");
+        lax = new Airport(103L, "Los Angeles International", "LAX");
+        ord = new Airport(104L, "O'Hare International", "ORD");
+        alice = new Passenger(201L, "Alice", "Smith", "555-1234");
+        bob = new Passenger(202L, "Bob", "Jones", "555-5678");
+        carol = new Passenger(203L, "Carol", "White", "555-9012");
+
+        Snapshot snapshot = new Snapshot(0);
+        snapshot.setCities(List.of(new City(1L, "New York", "NY", 8000000), new City(2L, "Los Angeles", "CA", 4000000),
+                new City(3L, "Chicago", "IL", 2700000)));
+        snapshot.setAirports(List.of(jfk, lga, lax, ord));
+        snapshot.setPassengers(List.of(alice, bob, carol, new Passenger(204L, "Dan", "Brown", "555-3456")));
+        snapshot.setAircrafts(List.of(new Aircraft(301L, "Boeing 747", "United", 400),
+                new Aircraft(302L, "Airbus A320", "Delta", 180), new Aircraft(303L, "Embraer 175", "Delta", 76)));
+        snapshot.putRelation(Snapshot.Relation.CITY_AIRPORTS, 1L, new long[]{101L, 102L});
+        snapshot.putRelation(Snapshot.Relation.CITY_AIRPORTS, 2L, new long[]{103L});
+        snapshot.putRelation(Snapshot.Relation.CITY_AIRPORTS, 3L, new long[]{104L});
+        // LGA -301-> LAX -302-> ORD; 303 serves no airport
+        snapshot.putRelation(Snapshot.Relation.AIRCRAFT_AIRPORTS, 301L, new long[]{102L, 103L});
+        snapshot.putRelation(Snapshot.Relation.AIRCRAFT_AIRPORTS, 302L, new long[]{103L, 104L});
+        snapshot.putRelation(Snapshot.Relation.PASSENGER_AIRCRAFTS, 201L, new long[]{301L, 302L});
+        snapshot.putRelation(Snapshot.Relation.PASSENGER_AIRCRAFTS, 202L, new long[]{301L});
+        snapshot.putRelation(Snapshot.Relation.PASSENGER_AIRCRAFTS, 203L, new long[]{302L});
+        snapshot.putRelation(Snapshot.Relation.PASSENGER_AIRCRAFTS, 204L, new long[]{303L});
+        snapshot.putRelation(Snapshot.Relation.PASSENGER_AIRPORTS, 201L, new long[]{101L, 103L, 101L}); // JFK twice
+        snapshot.putRelation(Snapshot.Relation.PASSENGER_AIRPORTS, 202L, new long[]{103L});
+        snapshot.putRelation(Snapshot.Relation.PASSENGER_AIRPORTS, 203L, new long[]{103L, 104L});
+        graph = RelationshipGraph.build(RelationshipIndex.build(snapshot));
+    }
+
+    @Test
+    void testReachableAirports() {
+        assertEquals(List.of(List.of(jfk, lga), List.of(lax), List.of(ord)), graph.reachableAirports(1L, -1));
+        assertEquals(List.of(List.of(jfk, lga), List.of(lax)), graph.reachableAirports(1L, 1));
+        assertEquals(List.of(List.of(lax), List.of(lga, ord)), graph.reachableAirports(2L, -1).subList(0, 2));
+        assertTrue(graph.reachableAirports(42L, -1).isEmpty());
+    }
+
+    @Test
+    void testTopAirportsByDistinctPassengers() {
+        List<RelationshipGraph.Ranked<Airport>> top = graph.topAirportsByDistinctPassengers(3);
+
+        // Alice counts once for JFK; ties keep the load order
+        assertEquals(List.of(new RelationshipGraph.Ranked<>(lax, 3), new RelationshipGraph.Ranked<>(jfk, 1),
+                new RelationshipGraph.Ranked<>(ord, 1)), top);
+        assertEquals(List.of(new RelationshipGraph.Ranked<>(lax, 3)), graph.topAirportsByDistinctPassengers(1));
+        assertTrue(graph.topAirportsByDistinctPassengers(0).isEmpty());
+    }
+
+    @Test
+    void testPassengersSharingAircraft() {
+        assertEquals(List.of(new RelationshipGraph.Ranked<>(bob, 1), new RelationshipGraph.Ranked<>(carol, 1)),
+                graph.passengersSharingAircraft(201L, 10));
+        assertEquals(List.of(new RelationshipGraph.Ranked<>(alice, 1)), graph.passengersSharingAircraft(202L, 10));
+        assertTrue(graph.passengersSharingAircraft(204L, 10).isEmpty());
+        assertTrue(graph.passengersSharingAircraft(999L, 10).isEmpty());
+    }
+}
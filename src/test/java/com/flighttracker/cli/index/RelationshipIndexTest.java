@@ -0,0 +1,81 @@
+package com.flighttracker.cli.index;
+
+import com.flighttracker.cli.domain.Aircraft;
+import com.flighttracker.cli.domain.Airport;
+import com.flighttracker.cli.domain.City;
+import com.flighttracker.cli.domain.Passenger;
+import com.flighttracker.cli.store.Snapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RelationshipIndexTest {
+    private Airport jfk;
+    private Airport lga;
+    private Aircraft boeing;
+    private RelationshipIndex index;
+
+    @BeforeEach
+    void setUp() {
+        jfk = new Airport(101L, "JFK Airport", "JFK");
+        lga = new Airport(102L, "LaGuardia Airport", "LGA");
+        boeing = new Aircraft(301L, "Boeing 747", "United", 400);
+
+        Snapshot snapshot = new Snapshot(0);
+        snapshot.setCities(List.of(new City(1L, "New York", "NY", 8000000), new City(2L, "Los Angeles", "CA", 4000000)));
+        snapshot.setAirports(List.of(jfk, lga));
+        snapshot.setPassengers(List.of(new Passenger(201L, "Alice", "Smith", "555-1234")));
+        snapshot.setAircrafts(List.of(boeing));
+        snapshot.putRelation(Snapshot.Relation.CITY_AIRPORTS, 1L, new long[]{101L, 102L, 999L}); // 999 is unknown
+        snapshot.putRelation(Snapshot.Relation.PASSENGER_AIRCRAFTS, 201L, new long[]{301L});
+        snapshot.putRelation(Snapshot.Relation.AIRCRAFT_AIRPORTS, 301L, new long[]{102L});
+        snapshot.putRelation(Snapshot.Relation.PASSENGER_AIRPORTS, 201L, new long[]{101L, 102L});
+        index = RelationshipIndex.build(snapshot);
+    }
+
+    @Test
+    void testGetAirportsInCity() {
+        assertEquals(Set.of(jfk, lga), index.getAirportsInCity(1L));
+        assertTrue(index.getAirportsInCity(2L).isEmpty());
+        assertTrue(index.getAirportsInCity(42L).isEmpty());
+        assertTrue(index.getAirportsInCity(null).isEmpty());
+    }
+
+    @Test
+    void testOtherQuestions() {
+        assertEquals(Set.of(boeing), index.getAircraftsFlownByPassenger(201L));
+        assertEquals(Set.of(lga), index.getAirportsByAircraft(301L));
+        assertEquals(Set.of(jfk, lga), index.getAirportsUsedByPassenger(201L));
+        assertTrue(index.getAirportsUsedByPassenger(202L).isEmpty());
+    }
+
+    @Test
+    void testForEachAirportUsedByPassenger() {
+        List<Airport> visited = new ArrayList<>();
+
+        int count = index.forEachAirportUsedByPassenger(201L, visited::add);
+
+        assertEquals(2, count);
+        assertEquals(List.of(jfk, lga), visited);
+    }
+
+    @Test
+    void testLongIntHashMap() {
+        LongIntHashMap map = new LongIntHashMap(3);
+        map.put(-5L, 0);
+        map.put(Long.MAX_VALUE, 1);
+        map.put(0L, 2);
+        map.put(0L, 3);
+
+        assertEquals(3, map.size());
+        assertEquals(0, map.get(-5L));
+        assertEquals(1, map.get(Long.MAX_VALUE));
+        assertEquals(3, map.get(0L));
+        assertEquals(LongIntHashMap.MISSING, map.get(7L));
+    }
+}
@@ -0,0 +1,159 @@
+package com.flighttracker.cli.load;
+
+import com.flighttracker.cli.http.client.HttpClientProfile;
+import com.flighttracker.cli.http.client.RESTClient;
+import com.flighttracker.cli.stub.FaultInjection;
+import com.flighttracker.cli.stub.StubApiServer;
+import com.flighttracker.cli.stub.SyntheticDataset;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LoadTestTest {
+    private StubApiServer stub;
+    private RESTClient client;
+    private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        stub = StubApiServer.start(SyntheticDataset.scaled(1000));
+        client = new RESTClient(HttpClientProfile.defaults());
+        client.setServerURL(stub.baseUrl());
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.close();
+    }
+
+    private LoadTest loadTest(OperationMix mix, IdDistribution ids) {
+        LoadTest loadTest = new LoadTest(client, mix, ids, stub.getDataset()::getCount);
+        loadTest.setDuration(Duration.ofSeconds(1));
+        loadTest.setWarmup(Duration.ZERO);
+        loadTest.setReportInterval(Duration.ofMillis(500));
+        return loadTest;
+    }
+
+    private PrintStream out() {
+        return new PrintStream(output, true, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void testOpenLoop_SendsEveryScheduledOperation() throws InterruptedException {
+        LoadTest loadTest = loadTest(OperationMix.defaults(), IdDistribution.uniform());
+        loadTest.setTargetRate(200);
+
+        LoadReport report = loadTest.run(out());
+
+        assertEquals(200, report.getCompletedCount());
+        assertEquals(0, report.getErrorCount());
+        assertEquals(0, report.getUnfinishedCount());
+        assertEquals(200, stub.getRequestCount());
+        assertTrue(report.getResponseTimes().getValueAtPercentile(50) >= report.getServiceTimes().getValueAtPercentile(50) / 2);
+        assertTrue(report.format().contains("getAirportsInCity"));
+        assertTrue(output.toString(StandardCharsets.UTF_8).contains("p99.9 ms"));
+    }
+
+    @Test
+    void testOpenLoop_DropsOperationsBeyondMaxInFlight() throws InterruptedException {
+        stub.setFaults(new FaultInjection(Duration.ofMillis(300), Duration.ZERO, 0, FaultInjection.DEFAULT_ERROR_STATUS, 1));
+        LoadTest loadTest = loadTest(OperationMix.parse("getAirportsInCity=1"), IdDistribution.uniform());
+        loadTest.setTargetRate(200);
+        loadTest.setMaxInFlight(10);
+
+        LoadReport report = loadTest.run(out());
+
+        assertTrue(report.getDroppedCount() > 100, "dropped: " + report.getDroppedCount());
+        assertEquals(200, report.getCompletedCount() + report.getDroppedCount());
+        assertEquals(report.getDroppedCount(), report.getErrorCount());
+        assertEquals(report.getCompletedCount(), stub.getRequestCount());
+        assertTrue(report.format().contains("dropped at the in-flight limit"));
+    }
+
+    @Test
+    void testClosedLoop_PacesWorkersToTargetRate() throws InterruptedException {
+        LoadTest loadTest = loadTest(OperationMix.parse("getAirportsByAircraft=1"), IdDistribution.zipf(1.0));
+        loadTest.setWorkers(4);
+        loadTest.setTargetRate(100);
+
+        LoadReport report = loadTest.run(out());
+
+        assertEquals(100, report.getCompletedCount());
+        assertEquals(100, report.getCompletedCount(LoadOperation.GET_AIRPORTS_BY_AIRCRAFT));
+        assertEquals(0, report.getCompletedCount(LoadOperation.GET_ALL_CITIES));
+        assertEquals(0, report.getErrorCount());
+    }
+
+    @Test
+    void testRun_CountsNotFoundAsErrors() throws InterruptedException {
+        // IDs well past the stub's ten cities
+        LoadTest loadTest = new LoadTest(client, OperationMix.parse("getAirportsInCity=1"), IdDistribution.uniform(), entity -> 1000);
+        loadTest.setDuration(Duration.ofSeconds(1));
+        loadTest.setWarmup(Duration.ZERO);
+        loadTest.setTargetRate(50);
+
+        LoadReport report = loadTest.run(out());
+
+        assertEquals(50, report.getCompletedCount());
+        assertTrue(report.getErrorCount() > 40, "errors: " + report.getErrorCount());
+        assertEquals(report.getErrorCount(), report.getErrorCount(LoadOperation.GET_AIRPORTS_IN_CITY));
+    }
+
+    @Test
+    void testRun_RejectsOpenLoopWithoutRate() {
+        LoadTest loadTest = loadTest(OperationMix.defaults(), IdDistribution.uniform());
+        assertThrows(IllegalStateException.class, () -> loadTest.run(out()));
+    }
+
+    @Test
+    void testOperationMix_ParsesWeights() {
+        OperationMix mix = OperationMix.parse("getAllCities=1, getAirportsInCity=3,getAllAircrafts=0");
+        assertEquals("getAllCities=1,getAirportsInCity=3", mix.toString());
+
+        SplittableRandom random = new SplittableRandom(7);
+        int airportsInCity = 0;
+        for (int i = 0; i < 4000; i++) {
+            LoadOperation operation = mix.next(random);
+            assertNotEquals(LoadOperation.GET_ALL_AIRCRAFTS, operation);
+            if (operation == LoadOperation.GET_AIRPORTS_IN_CITY) {
+                airportsInCity++;
+            }
+        }
+        assertEquals(3000, airportsInCity, 150);
+
+        assertThrows(IllegalArgumentException.class, () -> OperationMix.parse("getEverything=1"));
+        assertThrows(IllegalArgumentException.class, () -> OperationMix.parse("getAllCities"));
+        assertThrows(IllegalArgumentException.class, () -> OperationMix.parse("getAllCities=-1"));
+        assertThrows(IllegalArgumentException.class, () -> OperationMix.parse("getAllCities=0"));
+    }
+
+    @Test
+    void testZipf_StaysInRangeAndFavorsLowIds() {
+        IdDistribution zipf = IdDistribution.parse("zipf:1.2");
+        SplittableRandom random = new SplittableRandom(11);
+        int ones = 0;
+        for (int i = 0; i < 10_000; i++) {
+            long id = zipf.next(1_000_000, random);
+            assertTrue(id >= 1 && id <= 1_000_000, "id " + id);
+            if (id == 1) {
+                ones++;
+            }
+        }
+        // P(1) = 1 / zeta(1.2) for a million IDs, about 0.19
+        assertEquals(1900, ones, 300);
+        assertEquals(1, zipf.next(1, random));
+
+        assertEquals("uniform", IdDistribution.parse("uniform").toString());
+        assertThrows(IllegalArgumentException.class, () -> IdDistribution.parse("zipf:0"));
+        assertThrows(IllegalArgumentException.class, () -> IdDistribution.parse("normal"));
+    }
+}
@@ -0,0 +1,113 @@
+package com.flighttracker.cli.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Flow;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RequestMetricsTest {
+
+    @Test
+    void testHistogram_PercentilesWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 10_000; value++) {
+            histogram.record(value * 1_000);
+        }
+
+        assertEquals(10_000, histogram.getCount());
+        assertEquals(10_000_000, histogram.getMaxNanos());
+        assertEquals(5_000_500, histogram.getMeanNanos(), 1);
+        assertRelativelyClose(5_000_000, histogram.getValueAtPercentile(50));
+        assertRelativelyClose(9_900_000, histogram.getValueAtPercentile(99));
+        assertEquals(10_000_000, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    void testHistogram_BucketsCoverEveryValue() {
+        for (long value : new long[]{0, 1, 31, 32, 33, 1_000, 123_456_789, Long.MAX_VALUE}) {
+            int index = LatencyHistogram.bucketIndex(value);
+            assertTrue(LatencyHistogram.bucketUpperBound(index) >= value, "upper bound for " + value);
+            if (index > 0) {
+                assertTrue(LatencyHistogram.bucketUpperBound(index - 1) < value, "lower bound for " + value);
+            }
+        }
+    }
+
+    @Test
+    void testHistogram_EmptyReportsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals(0, histogram.getValueAtPercentile(99));
+        assertEquals(0, histogram.getMeanNanos());
+    }
+
+    @Test
+    void testRoute_ReplacesNumericSegments() {
+        assertEquals("/cities", RequestMetrics.route("/cities"));
+        assertEquals("/cities/{id}/airports", RequestMetrics.route("/cities/42/airports"));
+        assertEquals("/passengers/{id}/aircraft", RequestMetrics.route("/passengers/7/aircraft"));
+        assertEquals("/airports/JFK", RequestMetrics.route("/airports/JFK"));
+    }
+
+    @Test
+    void testWritePrometheus_ExportsCountersAndSummaries() throws IOException {
+        RequestMetrics metrics = new RequestMetrics();
+        RequestMetrics.RequestTimer ok = metrics.start("/cities/1/airports");
+        receive(ok, 200, 120);
+        ok.deserialized();
+        receive(metrics.start("/cities/2/airports"), 500, 10);
+        metrics.start("/cities/3/airports").failed();
+
+        StringBuilder out = new StringBuilder();
+        metrics.writePrometheus(out);
+        String text = out.toString();
+
+        assertTrue(text.contains("flighttracker_requests_total{route=\"/cities/{id}/airports\"} 3"), text);
+        assertTrue(text.contains("flighttracker_response_bytes_total{route=\"/cities/{id}/airports\"} 130"), text);
+        assertTrue(text.contains("status=\"500\"} 1"), text);
+        assertTrue(text.contains("status=\"-1\"} 1"), text);
+        assertTrue(text.contains("quantile=\"0.99\""), text);
+    }
+
+    @Test
+    void testGauges_SampledWhenReported() throws IOException {
+        RequestMetrics metrics = new RequestMetrics();
+        int[] queueDepth = {3};
+        metrics.registerGauge("flighttracker_concurrency_queue_depth", "Requests waiting.", () -> queueDepth[0]);
+        queueDepth[0] = 5;
+
+        StringBuilder out = new StringBuilder();
+        metrics.writePrometheus(out);
+
+        assertTrue(out.toString().contains("# TYPE flighttracker_concurrency_queue_depth gauge\nflighttracker_concurrency_queue_depth 5\n"), out.toString());
+        assertTrue(metrics.report().startsWith("flighttracker_concurrency_queue_depth: 5\n"), metrics.report());
+    }
+
+    // Delivers a body in two chunks through the timer's wrapped handler, the way HttpClient does
+    private static void receive(RequestMetrics.RequestTimer timer, int status, int bytes) {
+        HttpResponse.BodySubscriber<String> body = timer.wrap(HttpResponse.BodyHandlers.ofString()).apply(new HttpResponse.ResponseInfo() {
+            @Override public int statusCode() { return status; }
+            @Override public HttpHeaders headers() { return HttpHeaders.of(Map.of(), (name, value) -> true); }
+            @Override public HttpClient.Version version() { return HttpClient.Version.HTTP_1_1; }
+        });
+        body.onSubscribe(new Flow.Subscription() {
+            @Override public void request(long n) { }
+            @Override public void cancel() { }
+        });
+        body.onNext(List.of(ByteBuffer.wrap(new byte[bytes / 2]), ByteBuffer.wrap(new byte[bytes - bytes / 2])));
+        body.onComplete();
+        timer.bodyReceived(status);
+    }
+
+    private static void assertRelativelyClose(long expected, long actual) {
+        assertEquals(expected, actual, expected / 16.0, "expected ~" + expected + " but was " + actual);
+    }
+}
@@ -0,0 +1,126 @@
+package com.flighttracker.cli.output;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flighttracker.cli.domain.Aircraft;
+import com.flighttracker.cli.domain.Airport;
+import com.flighttracker.cli.domain.City;
+import com.flighttracker.cli.domain.Passenger;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RecordWriterTest {
+    private final City city = new City(1L, "New York", "NY", 8000000);
+    private final Airport airport = new Airport(101L, "JFK \"Kennedy\", Queens", "JFK");
+    private final Passenger passenger = new Passenger(201L, "Alice", "Smith", null);
+    private final Aircraft aircraft = new Aircraft(301L, "Boeing 747", "United", 400);
+
+    private String write(OutputFormat format, WriteAction action) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (RecordWriter writer = format.open(bytes)) {
+            action.writeTo(writer);
+        }
+        return bytes.toString(StandardCharsets.UTF_8);
+    }
+
+    private interface WriteAction {
+        void writeTo(RecordWriter writer) throws IOException;
+    }
+
+    @Test
+    void testNdjson_LinesReadBackIntoDomainClasses() throws IOException {
+        String text = write(OutputFormat.NDJSON, writer -> {
+            writer.write(city);
+            writer.write(airport);
+            writer.write(passenger);
+            writer.write(7L, aircraft);
+        });
+
+        String[] lines = text.split("\n");
+        ObjectMapper mapper = new ObjectMapper();
+        assertEquals(4, lines.length);
+        assertEquals(city, mapper.readValue(lines[0], City.class));
+        assertEquals(airport.getName(), mapper.readValue(lines[1], Airport.class).getName());
+        assertNull(mapper.readValue(lines[2], Passenger.class).getPhoneNumber());
+        assertEquals(7, mapper.readTree(lines[3]).get("key").asLong());
+        assertEquals(400, mapper.readTree(lines[3]).get("numberOfPassengers").asInt());
+    }
+
+    @Test
+    void testCsv_QuotesOnlyWhenNeededAndRepeatsHeaderOnTypeChange() throws IOException {
+        String text = write(OutputFormat.CSV, writer -> {
+            writer.write(airport);
+            writer.write(new Airport(102L, "LaGuardia", "LGA"));
+            writer.write(5L, city);
+            writer.write(passenger);
+        });
+
+        assertEquals("id,name,code\n"
+                + "101,\"JFK \"\"Kennedy\"\", Queens\",JFK\n"
+                + "102,LaGuardia,LGA\n"
+                + "key,id,name,state,population\n"
+                + "5,1,New York,NY,8000000\n"
+                + "id,firstName,lastName,phoneNumber\n"
+                + "201,Alice,Smith,\n", text);
+    }
+
+    @Test
+    void testTable_ColumnsAligned() throws IOException {
+        String text = write(OutputFormat.TABLE, writer -> {
+            writer.write(aircraft);
+            writer.write(new Aircraft(3L, "A320", "Delta Air Lines", 150));
+        });
+
+        assertEquals("ID   TYPE        AIRLINE          PASSENGERS\n"
+                + "301  Boeing 747  United           400\n"
+                + "3    A320        Delta Air Lines  150\n", text);
+    }
+
+    @Test
+    void testText_MatchesToString() throws IOException {
+        String text = write(OutputFormat.TEXT, writer -> {
+            writer.write(city);
+            writer.write(9L, airport);
+        });
+
+        assertEquals(city + "\n9\t" + airport + "\n", text);
+    }
+
+    @Test
+    void testBinary_RoundTrip() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (RecordWriter writer = OutputFormat.BINARY.open(bytes)) {
+            writer.write(city);
+            writer.write(42L, airport);
+            writer.write(passenger);
+            writer.write(aircraft);
+        }
+        List<Long> keys = new ArrayList<>();
+        List<Object> records = new ArrayList<>();
+
+        long count = BinaryRecordWriter.read(new ByteArrayInputStream(bytes.toByteArray()), (key, record) -> {
+            keys.add(key);
+            records.add(record);
+        });
+
+        assertEquals(4, count);
+        assertEquals(Arrays.asList(null, 42L, null, null), keys);
+        assertEquals(Arrays.asList(city, airport, passenger, aircraft), records);
+    }
+
+    @Test
+    void testUnsupportedRecord_Rejected() throws IOException {
+        try (RecordWriter writer = OutputFormat.CSV.open(new ByteArrayOutputStream())) {
+            assertThrows(IllegalArgumentException.class, () -> writer.write("not a record"));
+        }
+        assertThrows(IllegalArgumentException.class, () -> OutputFormat.forName("xml"));
+    }
+}
@@ -0,0 +1,84 @@
+package com.flighttracker.cli.search;
+
+import com.flighttracker.cli.domain.Airport;
+import com.flighttracker.cli.domain.City;
+import com.flighttracker.cli.domain.Passenger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SearchIndexTest {
+    private final Airport sjc = new Airport(101L, "San Jose International", "SJC");
+    private final Airport sju = new Airport(102L, "Luis Muñoz Marín International", "SJU");
+    private final Airport jfk = new Airport(103L, "JFK Airport", "JFK");
+    private final Passenger alice = new Passenger(201L, "Alice", "Smith", "555-1234");
+    private final Passenger bob = new Passenger(202L, "Bob", "Smithers", "555-5678");
+    private final Passenger carol = new Passenger(203L, "Carol", "Schmidt", "555-9012");
+    private EntitySearch search;
+
+    @BeforeEach
+    void setUp() {
+        search = EntitySearch.build(List.of(sjc, sju, jfk),
+                List.of(new City(1L, "New York", "NY", 8000000), new City(2L, "São Paulo", null, 12000000)),
+                List.of(alice, bob, carol));
+    }
+
+    @Test
+    void testPrefix() {
+        assertEquals(List.of(sjc, sju), entities(search.airports().search("SJ*", 10)));
+        assertEquals(List.of(alice, bob), entities(search.passengers().search("smi*", 10)));
+        assertEquals(List.of(bob), entities(search.passengers().prefix("smithe", 10)));
+        assertEquals(List.of(alice), entities(search.passengers().search("smi*", 1)));
+        // Any word of a value and whole multi-word values match; accents are ignored
+        assertEquals(List.of(sju), entities(search.airports().search("munoz*", 10)));
+        assertEquals(1, search.cities().search("new y*", 10).size());
+        assertEquals(1, search.cities().search("sao*", 10).size());
+        assertTrue(search.airports().search("*", 10).isEmpty());
+    }
+
+    @Test
+    void testPrefix_ValueStartingWithSeparator() {
+        EntitySearch withOldTown = EntitySearch.build(List.of(),
+                List.of(new City(3L, "(Old) Town", "NY", 1000)), List.of());
+
+        assertEquals(1, withOldTown.cities().search("old town*", 10).size());
+    }
+
+    @Test
+    void testFuzzy() {
+        List<SearchIndex.Hit<Passenger>> hits = search.passengers().search("smyth", 10);
+
+        assertEquals(alice, hits.get(0).getEntity());
+        assertEquals("lastName", hits.get(0).getField());
+        assertEquals("smith", hits.get(0).getTerm());
+        assertEquals(1, hits.get(0).getDistance());
+        // Prefix-only queries never fall back to typos
+        assertTrue(search.passengers().search("smyth*", 10).isEmpty());
+        assertEquals(List.of(carol), entities(search.passengers().fuzzy("schmid", 10)));
+        assertTrue(search.passengers().fuzzy("xyz", 10).isEmpty());
+    }
+
+    @Test
+    void testSearch_PrefixMatchesComeFirst() {
+        List<SearchIndex.Hit<Passenger>> hits = search.passengers().search("smith", 10);
+
+        assertEquals(List.of(alice, bob), entities(hits));
+        assertTrue(hits.stream().allMatch(hit -> hit.getDistance() == 0));
+    }
+
+    @Test
+    void testEditDistance() {
+        assertEquals(0, SearchIndex.editDistance("smith", "smith", 2));
+        assertEquals(1, SearchIndex.editDistance("smyth", "smith", 2));
+        assertEquals(2, SearchIndex.editDistance("smith", "smiht", 2));
+        assertEquals(3, SearchIndex.editDistance("smith", "jones", 2)); // capped at maxEdits + 1
+    }
+
+    private static <T> List<T> entities(List<SearchIndex.Hit<T>> hits) {
+        return hits.stream().map(SearchIndex.Hit::getEntity).collect(Collectors.toList());
+    }
+}
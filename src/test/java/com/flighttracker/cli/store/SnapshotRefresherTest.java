@@ -0,0 +1,131 @@
+package com.flighttracker.cli.store;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flighttracker.cli.domain.Aircraft;
+import com.flighttracker.cli.domain.Airport;
+import com.flighttracker.cli.domain.City;
+import com.flighttracker.cli.domain.Passenger;
+import com.flighttracker.cli.http.client.Pagination;
+import com.flighttracker.cli.http.client.RESTClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class SnapshotRefresherTest {
+    @Mock
+    private HttpClient mockHttpClient;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, String> bodies = new HashMap<>();
+    private RESTClient restClient;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        restClient = new RESTClient(mockHttpClient, objectMapper);
+        restClient.setServerURL("http://localhost:8080");
+        restClient.setExecutor(Runnable::run);
+
+        bodies.put("/cities", objectMapper.writeValueAsString(List.of(new City(1L, "New York", "NY", 8000000))));
+        bodies.put("/airports", objectMapper.writeValueAsString(List.of(new Airport(101L, "JFK Airport", "JFK"))));
+        bodies.put("/passengers", objectMapper.writeValueAsString(List.of(new Passenger(201L, "Alice", "Smith", "555-1234"))));
+        bodies.put("/aircrafts", objectMapper.writeValueAsString(List.of(new Aircraft(301L, "Boeing 747", "United", 400))));
+        bodies.put("/cities/1/airports", objectMapper.writeValueAsString(Set.of(new Airport(101L, "JFK Airport", "JFK"))));
+        bodies.put("/passengers/201/aircrafts", objectMapper.writeValueAsString(Set.of(new Aircraft(301L, "Boeing 747", "United", 400))));
+        bodies.put("/aircrafts/301/airports", objectMapper.writeValueAsString(Set.of(new Airport(101L, "JFK Airport", "JFK"))));
+        bodies.put("/passengers/201/airportsUsed", "[]");
+
+        // Every endpoint is served with an ETag; a matching If-None-Match gets a 304
+        lenient().when(mockHttpClient.send(any(HttpRequest.class), any())).thenAnswer(invocation -> respond(invocation.getArgument(0)));
+        lenient().when(mockHttpClient.sendAsync(any(HttpRequest.class), any()))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(respond(invocation.getArgument(0))));
+    }
+
+    @SuppressWarnings("unchecked")
+    private HttpResponse<String> respond(HttpRequest request) {
+        String path = request.uri().getPath();
+        String eTag = "\"" + path + "\"";
+        boolean notModified = eTag.equals(request.headers().firstValue("If-None-Match").orElse(null));
+        HttpResponse<String> response = mock(HttpResponse.class);
+        when(response.statusCode()).thenReturn(bodies.get(path) == null ? 503 : notModified ? 304 : 200);
+        lenient().when(response.body()).thenReturn(notModified ? "" : bodies.get(path));
+        lenient().when(response.headers()).thenReturn(HttpHeaders.of(Map.of("ETag", List.of(eTag)), (name, value) -> true));
+        return response;
+    }
+
+    @Test
+    void testRefresh_FullDownload() {
+        SnapshotRefresher refresher = new SnapshotRefresher(restClient);
+
+        Snapshot snapshot = refresher.refresh(null);
+
+        assertEquals(1, snapshot.getCities().size());
+        assertArrayEquals(new long[]{101L}, snapshot.getRelation(Snapshot.Relation.CITY_AIRPORTS).get(1L));
+        assertArrayEquals(new long[]{301L}, snapshot.getRelation(Snapshot.Relation.PASSENGER_AIRCRAFTS).get(201L));
+        assertArrayEquals(new long[]{}, snapshot.getRelation(Snapshot.Relation.PASSENGER_AIRPORTS).get(201L));
+        assertEquals("\"/cities\"", snapshot.getValidators().get("/cities").getETag());
+        assertEquals(8, refresher.getRequestCount());
+        assertEquals(0, refresher.getNotModifiedCount());
+    }
+
+    @Test
+    void testRefresh_IncrementalUsesValidators() {
+        SnapshotRefresher refresher = new SnapshotRefresher(restClient);
+        Snapshot first = refresher.refresh(null);
+
+        Snapshot second = refresher.refresh(first);
+
+        assertEquals(8, refresher.getNotModifiedCount());
+        assertEquals(first.getPassengers(), second.getPassengers());
+        assertArrayEquals(new long[]{101L}, second.getRelation(Snapshot.Relation.AIRCRAFT_AIRPORTS).get(301L));
+    }
+
+    @Test
+    void testRefresh_FailedEndpointKeepsPreviousData() {
+        SnapshotRefresher refresher = new SnapshotRefresher(restClient);
+        Snapshot first = refresher.refresh(null);
+        bodies.remove("/aircrafts");
+
+        Snapshot second = refresher.refresh(first);
+
+        assertEquals(first.getAircrafts(), second.getAircrafts());
+        assertEquals(1, refresher.getFailureCount());
+    }
+
+    @Test
+    void testRefresh_PagedListsUseThePagedEndpoints() throws Exception {
+        restClient.setPagination(new Pagination(Pagination.Style.PAGE, 500));
+        SnapshotRefresher refresher = new SnapshotRefresher(restClient);
+        Snapshot first = refresher.refresh(null);
+
+        Snapshot second = refresher.refresh(first);
+
+        assertEquals(first.getCities(), second.getCities());
+        assertNull(second.getValidators().get("/cities"));
+        // The relationship endpoints are still revalidated
+        assertEquals(4, refresher.getNotModifiedCount());
+        ArgumentCaptor<HttpRequest> requests = ArgumentCaptor.forClass(HttpRequest.class);
+        verify(mockHttpClient, atLeastOnce()).sendAsync(requests.capture(), any());
+        assertTrue(requests.getAllValues().stream().map(HttpRequest::uri)
+                .filter(uri -> uri.getPath().equals("/cities"))
+                .allMatch(uri -> "page=0&size=500".equals(uri.getQuery())));
+    }
+}
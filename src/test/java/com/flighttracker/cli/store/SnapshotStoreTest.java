@@ -0,0 +1,87 @@
+package com.flighttracker.cli.store;
+
+import com.flighttracker.cli.domain.Aircraft;
+import com.flighttracker.cli.domain.Airport;
+import com.flighttracker.cli.domain.City;
+import com.flighttracker.cli.domain.Passenger;
+import com.flighttracker.cli.http.client.ResponseCache;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SnapshotStoreTest {
+    @TempDir
+    Path tempDir;
+
+    private Snapshot sampleSnapshot() {
+        Snapshot snapshot = new Snapshot(1234L);
+        snapshot.setCities(List.of(new City(1L, "New York", "NY", 8000000), new City(2L, null, "CA", 0)));
+        snapshot.setAirports(List.of(new Airport(101L, "JFK Airport", "JFK"), new Airport(102L, "LaGuardia Airport", "LGA")));
+        snapshot.setPassengers(List.of(new Passenger(201L, "Alice", "Smith", "555-1234")));
+        snapshot.setAircrafts(List.of(new Aircraft(301L, "Boeing 747", "United", 400)));
+        snapshot.putRelation(Snapshot.Relation.CITY_AIRPORTS, 1L, new long[]{101L, 102L});
+        snapshot.putRelation(Snapshot.Relation.PASSENGER_AIRCRAFTS, 201L, new long[]{301L});
+        snapshot.putRelation(Snapshot.Relation.AIRCRAFT_AIRPORTS, 301L, new long[]{101L});
+        snapshot.putRelation(Snapshot.Relation.PASSENGER_AIRPORTS, 201L, new long[]{});
+        snapshot.putValidators("/cities", new Snapshot.Validators("\"v1\"", null));
+        return snapshot;
+    }
+
+    @Test
+    void testSaveAndLoad_RoundTrip() throws IOException {
+        SnapshotStore store = new SnapshotStore(tempDir.resolve("data/flights.snap"));
+        Snapshot original = sampleSnapshot();
+
+        store.save(original);
+        Snapshot loaded = store.load();
+
+        assertEquals(1234L, loaded.getCreatedAtMillis());
+        assertEquals(original.getCities(), loaded.getCities());
+        assertEquals(original.getAirports(), loaded.getAirports());
+        assertEquals(original.getPassengers(), loaded.getPassengers());
+        assertEquals(original.getAircrafts(), loaded.getAircrafts());
+        assertArrayEquals(new long[]{101L, 102L}, loaded.getRelation(Snapshot.Relation.CITY_AIRPORTS).get(1L));
+        assertArrayEquals(new long[]{}, loaded.getRelation(Snapshot.Relation.PASSENGER_AIRPORTS).get(201L));
+        assertEquals("\"v1\"", loaded.getValidators().get("/cities").getETag());
+        assertNull(loaded.getValidators().get("/cities").getLastModified());
+    }
+
+    @Test
+    void testLoad_RejectsOtherFiles() throws IOException {
+        Path file = tempDir.resolve("not-a-snapshot");
+        Files.writeString(file, "[{\"id\":1}]");
+
+        assertThrows(IOException.class, () -> new SnapshotStore(file).load());
+    }
+
+    @Test
+    void testSeed_ResolvesRelationshipIds() {
+        ResponseCache cache = new ResponseCache();
+
+        sampleSnapshot().seed(cache, true);
+
+        assertEquals(Set.of(new Airport(101L, "JFK Airport", "JFK"), new Airport(102L, "LaGuardia Airport", "LGA")),
+                cache.get("/cities/1/airports"));
+        assertEquals(Set.of(new Aircraft(301L, "Boeing 747", "United", 400)), cache.get("/passengers/201/aircrafts"));
+        assertEquals("\"v1\"", cache.getEntry("/cities").getETag());
+    }
+
+    @Test
+    void testSeed_OnlineAgesEntriesBySnapshotTime() {
+        ResponseCache cache = new ResponseCache();
+
+        sampleSnapshot().seed(cache, false);
+
+        // Taken long ago: entries with validators are kept stale for revalidation, the others dropped
+        assertFalse(cache.isFresh("/cities"));
+        assertEquals("\"v1\"", cache.getEntry("/cities").getETag());
+        assertNull(cache.getEntry("/cities/1/airports"));
+    }
+}
@@ -0,0 +1,172 @@
+package com.flighttracker.cli.stub;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flighttracker.cli.domain.Airport;
+import com.flighttracker.cli.domain.City;
+import com.flighttracker.cli.http.client.ApiResult;
+import com.flighttracker.cli.http.client.HttpClientProfile;
+import com.flighttracker.cli.http.client.RESTClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StubApiServerTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private SyntheticDataset dataset;
+    private StubApiServer stub;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        dataset = SyntheticDataset.scaled(1000);
+        stub = StubApiServer.start(dataset);
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.close();
+    }
+
+    private HttpResponse<String> get(String path, String... headers) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(stub.baseUrl() + path));
+        if (headers.length > 0) {
+            request.headers(headers);
+        }
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    void testDataset_IsDeterministicPerSeed() throws IOException {
+        SyntheticDataset same = SyntheticDataset.scaled(1000);
+        SyntheticDataset other = new SyntheticDataset(7, dataset.getCityCount(), dataset.getAirportCount(),
+                dataset.getPassengerCount(), dataset.getAircraftCount());
+
+        assertEquals(objectMapper.writeValueAsString(dataset.passenger(123)), objectMapper.writeValueAsString(same.passenger(123)));
+        assertArrayEquals(dataset.aircraftsFlownByPassenger(123), same.aircraftsFlownByPassenger(123));
+        assertEquals(dataset.getVersion(), same.getVersion());
+        assertNotEquals(dataset.getVersion(), other.getVersion());
+        assertEquals(10, dataset.getCount("cities"));
+        assertEquals(40, dataset.getCount("aircrafts"));
+    }
+
+    @Test
+    void testRestClient_ReadsListsAndRelationships() {
+        RESTClient client = new RESTClient(HttpClientProfile.defaults());
+        client.setServerURL(stub.baseUrl());
+
+        List<City> cities = client.getAllCities();
+        assertEquals(dataset.getCityCount(), cities.size());
+        assertEquals(dataset.city(1).getName(), cities.get(0).getName());
+
+        ApiResult<Set<Airport>> airports = client.getAirportsInCityResult(1L);
+        assertTrue(airports.isSuccess());
+        assertEquals(dataset.airportsInCity(1).length, airports.getValue().size());
+
+        ApiResult<Set<Airport>> missing = client.getAirportsInCityResult((long) dataset.getCityCount() + 1);
+        assertFalse(missing.isSuccess());
+    }
+
+    @Test
+    void testLists_PageWithCursor() throws IOException, InterruptedException {
+        HttpResponse<String> first = get("/passengers?size=300");
+        assertEquals(300, objectMapper.readTree(first.body()).size());
+        assertEquals("300", first.headers().firstValue("X-Next-Cursor").orElse(null));
+
+        HttpResponse<String> last = get("/passengers?size=300&cursor=900");
+        assertEquals(100, objectMapper.readTree(last.body()).size());
+        assertTrue(last.headers().firstValue("X-Next-Cursor").isEmpty());
+
+        HttpResponse<String> page = get("/passengers?page=2&size=300");
+        assertEquals(dataset.passenger(601).getId(), objectMapper.readTree(page.body()).get(0).get("id").asLong());
+        assertTrue(page.headers().firstValue("X-Next-Cursor").isEmpty());
+    }
+
+    @Test
+    void testErrorsAndConditionalRequests() throws IOException, InterruptedException {
+        assertEquals(400, get("/cities/abc/airports").statusCode());
+        HttpResponse<String> missing = get("/aircrafts/999/airports");
+        assertEquals(404, missing.statusCode());
+        assertEquals("Aircraft not found", missing.body());
+        assertEquals(404, get("/flights").statusCode());
+
+        String eTag = get("/cities").headers().firstValue("ETag").orElseThrow();
+        assertEquals(304, get("/cities", "If-None-Match", eTag).statusCode());
+        assertEquals(5, stub.getRequestCount());
+    }
+
+    @Test
+    void testFaultInjection_AddsLatencyAndErrors() throws IOException, InterruptedException {
+        stub.setFaults(new FaultInjection(Duration.ofMillis(50), Duration.ZERO, 1.0, 500, 1));
+        long start = System.nanoTime();
+        HttpResponse<String> failed = get("/cities");
+        assertTrue(System.nanoTime() - start >= Duration.ofMillis(50).toNanos());
+        assertEquals(500, failed.statusCode());
+
+        stub.setFaults(new FaultInjection(Duration.ZERO, Duration.ZERO, 0.25, FaultInjection.DEFAULT_ERROR_STATUS, 1));
+        int errors = 0;
+        for (int i = 0; i < 200; i++) {
+            if (get("/cities/1/airports").statusCode() == 503) {
+                errors++;
+            }
+        }
+        assertEquals(50, errors, 20);
+
+        assertThrows(IllegalArgumentException.class, () -> new FaultInjection(Duration.ZERO, Duration.ZERO, 1.5, 503, 1));
+        assertThrows(IllegalArgumentException.class, () -> new FaultInjection(Duration.ZERO, Duration.ZERO, 0, 200, 1));
+    }
+
+    @Test
+    void testRecordAndReplay(@TempDir Path directory) throws IOException, InterruptedException {
+        // The generated stub stands in for the real API
+        try (StubApiServer proxy = StubApiServer.record(stub.baseUrl(), Recording.open(directory))) {
+            RESTClient client = new RESTClient(HttpClientProfile.defaults());
+            client.setServerURL(proxy.baseUrl());
+            assertEquals(dataset.getPassengerCount(), client.getAllPassengers().size());
+            assertTrue(client.getAirportsUsedByPassengerResult(5L).isSuccess());
+            assertFalse(client.getAirportsInCityResult(999L).isSuccess());
+            assertEquals(3, proxy.getRecording().size());
+
+            // Server errors are passed on, not recorded
+            stub.setFaults(new FaultInjection(Duration.ZERO, Duration.ZERO, 1.0, 503, 1));
+            assertFalse(client.getAirportsByAircraftResult(1L).isSuccess());
+            assertEquals(3, proxy.getRecording().size());
+        }
+        stub.setFaults(FaultInjection.none());
+        String passengers = get("/passengers").body();
+        String eTag = get("/passengers").headers().firstValue("ETag").orElseThrow();
+        stub.close();
+
+        try (StubApiServer replay = StubApiServer.replay(Recording.load(directory))) {
+            stub = replay; // for get()
+            assertNull(replay.getDataset());
+            HttpResponse<String> replayed = get("/passengers");
+            assertEquals(200, replayed.statusCode());
+            assertEquals(passengers, replayed.body());
+            assertEquals("application/json", replayed.headers().firstValue("Content-Type").orElse(null));
+            assertEquals(304, get("/passengers", "If-None-Match", eTag).statusCode());
+
+            HttpResponse<String> missing = get("/cities/999/airports");
+            assertEquals(404, missing.statusCode());
+            assertEquals("City not found", missing.body());
+            assertEquals("Not recorded: /aircrafts/1/airports", get("/aircrafts/1/airports").body());
+
+            RESTClient client = new RESTClient(HttpClientProfile.defaults());
+            client.setServerURL(replay.baseUrl());
+            assertEquals(dataset.airportsUsedByPassenger(5).length, client.getAirportsUsedByPassenger(5L).size());
+        }
+        assertThrows(IOException.class, () -> Recording.load(directory.resolve("missing")));
+    }
+}
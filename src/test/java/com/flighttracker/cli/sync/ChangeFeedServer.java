@@ -0,0 +1,87 @@
+package com.flighttracker.cli.sync;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flighttracker.cli.store.Snapshot;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Local stand-in for the API's change feed: records changes with increasing versions and serves
+ * them from {@code /changes} in pages, by cursor or by change time.
+ */
+final class ChangeFeedServer implements AutoCloseable {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpServer server;
+    private final int pageSize;
+    private final List<Change> changes = new ArrayList<>();
+    private final List<Long> changedAt = new ArrayList<>();
+    private int requestCount;
+
+    ChangeFeedServer(int pageSize) throws IOException {
+        this.pageSize = pageSize;
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext(ChangeFeedSync.ENDPOINT, this::handle);
+        server.start();
+    }
+
+    String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    synchronized int getRequestCount() {
+        return requestCount;
+    }
+
+    synchronized void upsert(String entity, long id, Object value) {
+        record(Change.upsert(entity, id, objectMapper.valueToTree(value)));
+    }
+
+    synchronized void delete(String entity, long id) {
+        record(Change.delete(entity, id));
+    }
+
+    synchronized void link(Snapshot.Relation relation, long id, long... relatedIds) {
+        record(Change.link(relation, id, relatedIds));
+    }
+
+    private void record(Change change) {
+        changes.add(change);
+        changedAt.add(System.currentTimeMillis());
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String query = exchange.getRequestURI().getQuery();
+        ChangePage page;
+        synchronized (this) {
+            requestCount++;
+            int from = 0;
+            if (query.startsWith("cursor=")) {
+                from = Integer.parseInt(query.substring("cursor=".length()));
+            } else {
+                long since = Long.parseLong(query.substring("updatedSince=".length()));
+                while (from < changes.size() && changedAt.get(from) < since) {
+                    from++;
+                }
+            }
+            int to = Math.min(changes.size(), from + pageSize);
+            page = new ChangePage(String.valueOf(to), to < changes.size(), new ArrayList<>(changes.subList(from, to)));
+        }
+        byte[] body = objectMapper.writeValueAsBytes(page);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
@@ -0,0 +1,136 @@
+package com.flighttracker.cli.sync;
+
+import com.flighttracker.cli.domain.Airport;
+import com.flighttracker.cli.domain.City;
+import com.flighttracker.cli.domain.Passenger;
+import com.flighttracker.cli.http.client.RESTClient;
+import com.flighttracker.cli.http.client.ResponseCache;
+import com.flighttracker.cli.store.Snapshot;
+import com.flighttracker.cli.store.SnapshotStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChangeFeedSyncTest {
+    private ChangeFeedServer server;
+    private RESTClient restClient;
+    private Snapshot snapshot;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new ChangeFeedServer(2);
+        restClient = new RESTClient();
+        restClient.setServerURL(server.baseUrl());
+        restClient.setResponseCache(new ResponseCache(16));
+
+        snapshot = new Snapshot(0);
+        snapshot.setCities(List.of(new City(1L, "New York", "NY", 8000000), new City(2L, "Los Angeles", "CA", 4000000),
+                new City(3L, "Chicago", "IL", 2700000)));
+        snapshot.setAirports(List.of(new Airport(101L, "JFK Airport", "JFK")));
+        snapshot.setPassengers(List.of(new Passenger(201L, "Alice", "Smith", "555-1234")));
+        snapshot.putRelation(Snapshot.Relation.CITY_AIRPORTS, 1L, new long[]{101L});
+        snapshot.putRelation(Snapshot.Relation.PASSENGER_AIRPORTS, 201L, new long[]{101L});
+        snapshot.putValidators("/cities", new Snapshot.Validators("\"v1\"", null));
+        snapshot.putValidators("/airports", new Snapshot.Validators("\"v1\"", null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    void testSync_AppliesInsertsUpdatesAndDeletesInPlace() {
+        server.upsert("cities", 4L, new City(4L, "Houston", "TX", 2300000));
+        server.upsert("cities", 1L, new City(1L, "New York City", "NY", 8300000));
+        server.delete("cities", 1L);
+        server.upsert("cities", 2L, new City(2L, "Los Angeles", "CA", 4000000)); // unchanged
+        server.link(Snapshot.Relation.CITY_AIRPORTS, 4L, 101L);
+        ChangeFeedSync sync = new ChangeFeedSync(restClient, snapshot);
+        List<ChangeEvent> events = new ArrayList<>();
+        sync.addListener(events::add);
+
+        long applied = sync.sync();
+
+        // The last city moved into the deleted one's place
+        assertEquals(List.of(new City(4L, "Houston", "TX", 2300000), new City(2L, "Los Angeles", "CA", 4000000),
+                new City(3L, "Chicago", "IL", 2700000)), snapshot.getCities());
+        assertNull(snapshot.getRelation(Snapshot.Relation.CITY_AIRPORTS).get(1L));
+        assertArrayEquals(new long[]{101L}, snapshot.getRelation(Snapshot.Relation.CITY_AIRPORTS).get(4L));
+        assertEquals("5", snapshot.getSyncCursor());
+        assertEquals(3, sync.getPageCount());
+        assertEquals(2, sync.getInsertCount());
+        assertEquals(1, sync.getUpdateCount());
+        assertEquals(2, sync.getDeleteCount()); // the city and its airports
+        assertEquals(5, applied);
+        assertEquals(5, events.size());
+        assertEquals(ChangeEvent.Type.UPDATE, events.get(1).getType());
+        assertEquals(new City(1L, "New York", "NY", 8000000), events.get(1).getOldValue());
+        assertEquals("/cities/1/airports", events.get(3).getEndpoint());
+        // Changed endpoints no longer claim to match the server's ETag
+        assertNull(snapshot.getValidators().get("/cities"));
+        assertNotNull(snapshot.getValidators().get("/airports"));
+    }
+
+    @Test
+    void testSync_LeavesListsHandedOutEarlierAlone() {
+        ChangeFeedSync sync = new ChangeFeedSync(restClient, snapshot);
+        snapshot.seed(restClient.getResponseCache(), true);
+        List<City> before = restClient.getAllCities();
+        List<City> copy = List.copyOf(before);
+        server.upsert("cities", 4L, new City(4L, "Houston", "TX", 2300000));
+        server.delete("cities", 1L);
+
+        sync.sync();
+
+        assertEquals(copy, before);
+        assertEquals(3, snapshot.getCities().size());
+    }
+
+    @Test
+    void testSync_ResumesFromCursor() {
+        server.upsert("airports", 102L, new Airport(102L, "LaGuardia Airport", "LGA"));
+        ChangeFeedSync sync = new ChangeFeedSync(restClient, snapshot);
+        assertEquals(1, sync.sync());
+
+        server.delete("passengers", 201L);
+        assertEquals(2, sync.sync());
+        assertTrue(snapshot.getPassengers().isEmpty());
+        assertTrue(snapshot.getRelation(Snapshot.Relation.PASSENGER_AIRPORTS).isEmpty());
+        assertEquals(2, snapshot.getAirports().size());
+
+        // Nothing new: one request, nothing applied, and never answered from the cache
+        assertEquals(0, sync.sync());
+        assertEquals(0, sync.sync());
+        assertEquals(4, server.getRequestCount());
+    }
+
+    @Test
+    void testSync_RejectsUpsertWithMismatchedId() {
+        server.upsert("cities", 5L, new City(6L, "Phoenix", "AZ", 1600000));
+        ChangeFeedSync sync = new ChangeFeedSync(restClient, snapshot);
+
+        assertThrows(IllegalArgumentException.class, sync::sync);
+        assertNull(snapshot.getSyncCursor());
+    }
+
+    @Test
+    void testSyncCursorIsPersisted(@TempDir Path directory) throws Exception {
+        server.upsert("cities", 4L, new City(4L, "Houston", "TX", 2300000));
+        new ChangeFeedSync(restClient, snapshot).sync();
+        SnapshotStore store = new SnapshotStore(directory.resolve("snapshot.bin"));
+
+        store.save(snapshot);
+        Snapshot loaded = store.load();
+
+        assertEquals("1", loaded.getSyncCursor());
+        assertEquals(4, loaded.getCities().size());
+    }
+}